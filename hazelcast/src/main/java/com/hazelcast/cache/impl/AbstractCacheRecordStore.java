@@ -27,6 +27,7 @@ import com.hazelcast.config.CacheConfig;
 import com.hazelcast.config.Config;
 import com.hazelcast.config.EventJournalConfig;
 import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MaxSizePolicy;
 import com.hazelcast.config.WanConsumerConfig;
@@ -114,6 +115,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
     protected final boolean wanReplicationEnabled;
     protected final boolean persistWanReplicatedData;
     protected final boolean disablePerEntryInvalidationEvents;
+    protected final boolean relaxedAccessStats;
     /**
      * the full name of the cache, including the manager scope prefix
      */
@@ -146,7 +148,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
     protected InvalidationQueue<ExpiredKey> expiredKeys = new InvalidationQueue<ExpiredKey>();
     protected boolean hasEntryWithExpiration;
 
-    @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:executablestatementcount"})
+    @SuppressWarnings({"checkstyle:npathcomplexity", "checkstyle:executablestatementcount", "checkstyle:methodlength"})
     public AbstractCacheRecordStore(String cacheNameWithPrefix, int partitionId, NodeEngine nodeEngine,
                                     AbstractCacheService cacheService) {
         this.name = cacheNameWithPrefix;
@@ -162,6 +164,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
         }
         this.eventJournalConfig = cacheConfig.getEventJournalConfig();
         this.evictionConfig = cacheConfig.getEvictionConfig();
+        this.relaxedAccessStats = evictionConfig.getEvictionPolicy() == EvictionPolicy.CLOCK;
         if (evictionConfig == null) {
             throw new IllegalStateException("Eviction config cannot be null!");
         }
@@ -545,6 +548,9 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
             } else if (!disablePerEntryInvalidationEvents) {
                 cacheService.sendInvalidationEvent(name, toHeapData(key), source);
             }
+        } else if (primary && key != null) {
+            // keeps the sequences of stored Near Caches up to date
+            cacheService.getCacheEventHandler().advanceSequence(name, key);
         }
     }
 
@@ -591,11 +597,25 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
     }
 
     protected long onRecordAccess(Data key, R record, ExpiryPolicy expiryPolicy, long now) {
-        record.setLastAccessTime(now);
-        record.incrementHits();
+        if (relaxedAccessStats) {
+            record.onAccessRelaxed(now);
+        } else {
+            record.setLastAccessTime(now);
+            record.incrementHits();
+        }
+        recordKeyAccess(key);
         return updateAccessDuration(key, record, expiryPolicy, now);
     }
 
+    /**
+     * Lets the eviction policy track the access frequency of the key.
+     */
+    protected void recordKeyAccess(Data key) {
+        if (evictionPolicyEvaluator != null) {
+            evictionPolicyEvaluator.recordAccess(key, records.size());
+        }
+    }
+
     protected void updateReplaceStat(boolean result, boolean isHit, long start) {
         if (isStatisticsEnabled()) {
             if (result) {
@@ -1108,6 +1128,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
 
     protected R doPutRecord(Data key, R record, UUID source, boolean updateJournal) {
         markExpirable(record.getExpirationTime());
+        recordKeyAccess(key);
         R oldRecord = records.put(key, record);
         if (updateJournal) {
             if (oldRecord != null) {
@@ -1158,6 +1179,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
                 }
                 value = readThroughCache(key);
                 if (value == null) {
+                    recordKeyAccess(key);
                     if (isStatisticsEnabled()) {
                         statistics.addGetTimeNanos(System.nanoTime() - start);
                     }
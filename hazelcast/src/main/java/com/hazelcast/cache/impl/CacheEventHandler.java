@@ -32,6 +32,7 @@ import java.util.UUID;
 
 import static com.hazelcast.cache.impl.ICacheService.SERVICE_NAME;
 import static com.hazelcast.internal.nearcache.impl.invalidation.InvalidationUtils.TRUE_FILTER;
+import static com.hazelcast.spi.properties.ClusterProperty.CACHE_INVALIDATION_MESSAGE_BATCH_ADAPTIVE_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.CACHE_INVALIDATION_MESSAGE_BATCH_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.CACHE_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.CACHE_INVALIDATION_MESSAGE_BATCH_SIZE;
@@ -54,9 +55,10 @@ public class CacheEventHandler {
         int batchSize = hazelcastProperties.getInteger(CACHE_INVALIDATION_MESSAGE_BATCH_SIZE);
         int batchFrequencySeconds = hazelcastProperties.getInteger(CACHE_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS);
         boolean batchingEnabled = hazelcastProperties.getBoolean(CACHE_INVALIDATION_MESSAGE_BATCH_ENABLED) && batchSize > 1;
+        boolean adaptive = hazelcastProperties.getBoolean(CACHE_INVALIDATION_MESSAGE_BATCH_ADAPTIVE_ENABLED);
 
         if (batchingEnabled) {
-            return new BatchInvalidator(SERVICE_NAME, batchSize, batchFrequencySeconds, TRUE_FILTER, nodeEngine);
+            return new BatchInvalidator(SERVICE_NAME, batchSize, batchFrequencySeconds, adaptive, TRUE_FILTER, nodeEngine);
         } else {
             return new NonStopInvalidator(SERVICE_NAME, TRUE_FILTER, nodeEngine);
         }
@@ -129,6 +131,10 @@ public class CacheEventHandler {
         }
     }
 
+    void advanceSequence(String name, Data key) {
+        invalidator.advanceSequence(key, name);
+    }
+
     public void resetPartitionMetaData(String name, int partitionId) {
         invalidator.resetPartitionMetaData(name, partitionId);
     }
@@ -17,6 +17,7 @@
 package com.hazelcast.cache.impl.record;
 
 import com.hazelcast.cache.impl.CacheDataSerializerHook;
+import com.hazelcast.internal.eviction.RelaxedAccessStats;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
@@ -24,6 +25,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.io.IOException;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 /**
  * Abstract implementation of {@link com.hazelcast.cache.impl.record.CacheRecord} with key, value and
  * expiration time as internal state.
@@ -38,6 +41,7 @@ public abstract class AbstractCacheRecord<V, E> implements CacheRecord<V, E>, Id
     protected volatile int hits;
     protected volatile long expirationTime = TIME_NOT_AVAILABLE;
     protected volatile long lastAccessTime = TIME_NOT_AVAILABLE;
+    protected volatile boolean referenced;
 
     protected AbstractCacheRecord() {
     }
@@ -94,6 +98,29 @@ public abstract class AbstractCacheRecord<V, E> implements CacheRecord<V, E>, Id
         hits++;
     }
 
+    @Override
+    public void onAccessRelaxed(long now) {
+        if (!referenced) {
+            referenced = true;
+        }
+        if (MILLISECONDS.toSeconds(now) != MILLISECONDS.toSeconds(lastAccessTime)) {
+            lastAccessTime = now;
+        }
+        int newHits = RelaxedAccessStats.incrementHits(hits);
+        if (newHits != hits) {
+            hits = newHits;
+        }
+    }
+
+    @Override
+    public boolean clearReferenced() {
+        if (!referenced) {
+            return false;
+        }
+        referenced = false;
+        return true;
+    }
+
     @Override
     public boolean isExpiredAt(long now) {
         return expirationTime > TIME_NOT_AVAILABLE && expirationTime <= now;
@@ -67,6 +67,20 @@ public interface CacheRecord<V, E> extends Expirable, Evictable<V> {
      */
     void incrementHits();
 
+    /**
+     * Records an access of this {@link Evictable} for the
+     * {@link com.hazelcast.config.EvictionPolicy#CLOCK} policy. Sets its
+     * reference bit, only writes the access time when its second changes
+     * and the hit count on a sample of the accesses.
+     *
+     * @param now the access time in milliseconds
+     * @see com.hazelcast.internal.eviction.RelaxedAccessStats
+     */
+    default void onAccessRelaxed(long now) {
+        setLastAccessTime(now);
+        incrementHits();
+    }
+
     /**
      * Sets the expiry policy for this record.
      *
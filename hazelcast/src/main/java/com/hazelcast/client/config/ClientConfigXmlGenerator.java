@@ -561,7 +561,10 @@ public final class ClientConfigXmlGenerator {
                 .node("preloader", null, "enabled", preloader.isEnabled(),
                         "directory", preloader.getDirectory(),
                         "store-initial-delay-seconds", preloader.getStoreInitialDelaySeconds(),
-                        "store-interval-seconds", preloader.getStoreIntervalSeconds());
+                        "store-interval-seconds", preloader.getStoreIntervalSeconds(),
+                        "store-values", preloader.isStoreValues(),
+                        "load-concurrency", preloader.getLoadConcurrency(),
+                        "load-rate-limit", preloader.getLoadRateLimit());
         //close near-cache
         gen.close();
     }
@@ -363,6 +363,9 @@ public class ClientDomConfigProcessor extends AbstractDomConfigProcessor {
         String directory = getAttribute(node, "directory");
         String storeInitialDelaySeconds = getAttribute(node, "store-initial-delay-seconds");
         String storeIntervalSeconds = getAttribute(node, "store-interval-seconds");
+        String storeValues = getAttribute(node, "store-values");
+        String loadConcurrency = getAttribute(node, "load-concurrency");
+        String loadRateLimit = getAttribute(node, "load-rate-limit");
         if (enabled != null) {
             preloaderConfig.setEnabled(getBooleanValue(enabled));
         }
@@ -376,6 +379,15 @@ public class ClientDomConfigProcessor extends AbstractDomConfigProcessor {
         if (storeIntervalSeconds != null) {
             preloaderConfig.setStoreIntervalSeconds(getIntegerValue("storage-interval-seconds", storeIntervalSeconds));
         }
+        if (storeValues != null) {
+            preloaderConfig.setStoreValues(getBooleanValue(storeValues));
+        }
+        if (loadConcurrency != null) {
+            preloaderConfig.setLoadConcurrency(getIntegerValue("load-concurrency", loadConcurrency));
+        }
+        if (loadRateLimit != null) {
+            preloaderConfig.setLoadRateLimit(getIntegerValue("load-rate-limit", loadRateLimit));
+        }
         return preloaderConfig;
     }
 
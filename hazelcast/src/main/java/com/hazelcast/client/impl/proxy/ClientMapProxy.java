@@ -159,6 +159,7 @@ import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static com.hazelcast.client.properties.ClientProperty.MAP_GET_COALESCING_ENABLED;
 import static com.hazelcast.internal.util.CollectionUtil.objectToDataCollection;
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
@@ -202,6 +203,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
     private ClientLockReferenceIdGenerator lockReferenceIdGenerator;
     private ClientQueryCacheContext queryCacheContext;
+    private InFlightGetRegistry inFlightGetRegistry;
 
     public ClientMapProxy(String serviceName, String name, ClientContext context) {
         super(serviceName, name, context);
@@ -213,6 +215,9 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
         lockReferenceIdGenerator = getClient().getLockReferenceIdGenerator();
         queryCacheContext = getContext().getQueryCacheContext();
+        if (getClient().getProperties().getBoolean(MAP_GET_COALESCING_ENABLED)) {
+            inFlightGetRegistry = new InFlightGetRegistry();
+        }
     }
 
     @Override
@@ -250,8 +255,17 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
     protected Object getInternal(Object key) {
         Data keyData = toData(key);
-        ClientMessage request = MapGetCodec.encodeRequest(name, keyData, getThreadId());
-        ClientMessage response = invoke(request, keyData);
+        ClientMessage response;
+        if (inFlightGetRegistry != null) {
+            try {
+                response = inFlightGetRegistry.get(keyData, this::newGetInvocation).get();
+            } catch (Exception e) {
+                throw rethrow(e);
+            }
+        } else {
+            ClientMessage request = MapGetCodec.encodeRequest(name, keyData, getThreadId());
+            response = invoke(request, keyData);
+        }
         MapGetCodec.ResponseParameters resultParameters = MapGetCodec.decodeResponse(response);
         return resultParameters.response;
     }
@@ -351,6 +365,9 @@ public class ClientMapProxy<K, V> extends ClientProxy
     protected ClientInvocationFuture getAsyncInternal(Object key) {
         try {
             Data keyData = toData(key);
+            if (inFlightGetRegistry != null) {
+                return inFlightGetRegistry.get(keyData, this::newGetInvocation);
+            }
             ClientMessage request = MapGetCodec.encodeRequest(name, keyData, getThreadId());
             return invokeOnKeyOwner(request, keyData);
         } catch (Exception e) {
@@ -358,6 +375,12 @@ public class ClientMapProxy<K, V> extends ClientProxy
         }
     }
 
+    private ClientInvocation newGetInvocation(Data keyData) {
+        ClientMessage request = MapGetCodec.encodeRequest(name, keyData, getThreadId());
+        int partitionId = getContext().getPartitionService().getPartitionId(keyData);
+        return new ClientInvocation(getClient(), request, getName(), partitionId);
+    }
+
     private ClientInvocationFuture invokeOnKeyOwner(ClientMessage request, Data keyData) {
         int partitionId = getContext().getPartitionService().getPartitionId(keyData);
         ClientInvocation clientInvocation = new ClientInvocation(getClient(), request, getName(), partitionId);
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.proxy;
+
+import com.hazelcast.client.impl.spi.impl.ClientInvocation;
+import com.hazelcast.client.impl.spi.impl.ClientInvocationFuture;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.spi.impl.sequence.CallIdSequenceWithoutBackpressure;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent get requests for the same key into a single in-flight invocation.
+ * <p>
+ * A get can't simply join an invocation that is already in flight: that invocation could
+ * have been processed by the member before the get was issued, so the get could miss a
+ * write that completed before it. Instead, gets that arrive while an invocation for the key
+ * is in flight, share the follow-up invocation that is sent as soon as the in-flight one
+ * completes. Since the follow-up is sent after all of them arrived, they observe the same
+ * value they would have observed with their own invocation. So there are at most two
+ * invocations per key in flight and the number of requests for a hot key is bounded by
+ * one per round trip, no matter how many threads read it.
+ * <p>
+ * The response message is shared between the gets; the response is decoded and deserialized
+ * by each get, so the returned values are not shared. Every get gets its own future that is
+ * completed from the shared invocation, so a get that is cancelled, interrupted or times out
+ * doesn't fail the other gets of the same invocation.
+ */
+final class InFlightGetRegistry {
+
+    // marks a flight that completed, so no follow-up can be attached to it anymore
+    private static final Flight COMPLETED = new Flight(null, null);
+    private static final ILogger LOGGER = Logger.getLogger(InFlightGetRegistry.class);
+
+    private final ConcurrentMap<Data, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the future of the invocation that answers a get for the given key issued now.
+     *
+     * @param keyData          the key
+     * @param invocationFactory creates the invocation for the key in case a new one is needed
+     * @return a future of this get that is completed with the response of the shared invocation
+     */
+    ClientInvocationFuture get(Data keyData, Function<Data, ClientInvocation> invocationFactory) {
+        return newDependentFuture(flight(keyData, invocationFactory));
+    }
+
+    private Flight flight(Data keyData, Function<Data, ClientInvocation> invocationFactory) {
+        for (; ; ) {
+            Flight current = flights.get(keyData);
+            if (current == null) {
+                Flight flight = new Flight(keyData, invocationFactory.apply(keyData));
+                Flight winner = flights.putIfAbsent(keyData, flight);
+                if (winner == null) {
+                    start(flight);
+                    return flight;
+                }
+                // the winner got registered after we found no flight, so it is sent after this get was issued
+                return winner;
+            }
+
+            Flight followUp = current.followUp.get();
+            if (followUp == COMPLETED) {
+                // the current flight is about to be replaced by its follow-up or removed
+                continue;
+            }
+            if (followUp != null) {
+                // the follow-up isn't sent before the current flight completes
+                return followUp;
+            }
+
+            followUp = new Flight(keyData, invocationFactory.apply(keyData));
+            if (current.followUp.compareAndSet(null, followUp)) {
+                return followUp;
+            }
+        }
+    }
+
+    // just for testing
+    int size() {
+        return flights.size();
+    }
+
+    private static ClientInvocationFuture newDependentFuture(Flight flight) {
+        ClientInvocation invocation = flight.invocation;
+        ClientInvocationFuture shared = flight.future();
+        // the shared invocation is accounted by its own future, the dependent one needs no call id
+        ClientInvocationFuture dependent = new ClientInvocationFuture(invocation, invocation.getClientMessage(),
+                LOGGER, new CallIdSequenceWithoutBackpressure());
+        shared.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                dependent.complete(response);
+            } else {
+                dependent.completeExceptionally(throwable);
+            }
+        });
+        return dependent;
+    }
+
+    private void start(Flight flight) {
+        ClientInvocationFuture future;
+        try {
+            future = flight.invocation.invoke();
+        } catch (Throwable t) {
+            future = flight.future();
+            future.completeExceptionally(t);
+        }
+        future.whenComplete((response, throwable) -> onComplete(flight));
+    }
+
+    private void onComplete(Flight flight) {
+        Flight followUp = flight.followUp.getAndSet(COMPLETED);
+        if (followUp == null) {
+            flights.remove(flight.keyData, flight);
+        } else {
+            flights.replace(flight.keyData, flight, followUp);
+            start(followUp);
+        }
+    }
+
+    private static final class Flight {
+        private final Data keyData;
+        private final ClientInvocation invocation;
+        private final AtomicReference<Flight> followUp = new AtomicReference<>();
+
+        Flight(Data keyData, ClientInvocation invocation) {
+            this.keyData = keyData;
+            this.invocation = invocation;
+        }
+
+        ClientInvocationFuture future() {
+            return invocation.getClientInvocationFuture();
+        }
+    }
+}
@@ -134,6 +134,14 @@ public class ClientInvocation extends BaseInvocation implements Runnable {
         return clientMessage;
     }
 
+    /**
+     * Returns the future of this invocation. Unlike the future returned by {@link #invoke()},
+     * it is available before the invocation has been sent.
+     */
+    public ClientInvocationFuture getClientInvocationFuture() {
+        return clientInvocationFuture;
+    }
+
     public void disallowRetryOnRandom() {
         this.allowRetryOnRandom = false;
     }
@@ -386,8 +394,4 @@ public class ClientInvocation extends BaseInvocation implements Runnable {
     CallIdSequence getCallIdSequence() {
         return callIdSequence;
     }
-
-    ClientInvocationFuture getClientInvocationFuture() {
-        return clientInvocationFuture;
-    }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.spi.impl;
+
+import com.hazelcast.client.impl.connection.nio.ClientConnection;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.client.impl.protocol.ClientMessage.IS_FINAL_FLAG;
+
+/**
+ * Coalesces the request messages written to a single connection into batch messages.
+ * <p>
+ * A batch message contains the frames of all coalesced messages, where the last frame
+ * of every message is marked with the {@link ClientMessage#IS_FINAL_FLAG}. So on the
+ * wire, a batch is indistinguishable from the individual messages written back to back,
+ * and the member decodes it into the normal message tasks. The gain is on the sending
+ * side: a batch is written as a single frame, so it costs a single write-through or
+ * a single scheduling of the outbound pipeline instead of one per request.
+ * <p>
+ * The first thread that writes to an idle batcher becomes the flusher. It optionally
+ * parks for the batching window so that concurrent writers can add their messages, and
+ * then writes a single batch of at most {@link #MAX_BATCH_SIZE} queued messages. Other
+ * threads only queue their messages. The messages that are still queued after that are
+ * flushed by a task on the executor, so a writing thread never flushes for longer than
+ * a single batch, no matter how many other threads are writing.
+ * <p>
+ * The messages are not modified; the batch only shares the content of their frames.
+ * So the messages can be retried as usual.
+ */
+class ClientInvocationBatcher {
+
+    /**
+     * The maximum number of messages in a single batch.
+     */
+    static final int MAX_BATCH_SIZE = 128;
+
+    private final ClientConnection connection;
+    private final long windowNanos;
+    private final Executor executor;
+    private final Queue<ClientMessage> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    ClientInvocationBatcher(ClientConnection connection, long windowNanos, Executor executor) {
+        this.connection = connection;
+        this.windowNanos = windowNanos;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues the message and flushes a batch if no other thread is flushing.
+     *
+     * @param message the message to write
+     * @return {@code false} if the connection is closed, {@code true} otherwise. A message
+     * that gets queued but can't be written because the connection closes in the meantime,
+     * is handled like any other message that was in flight on the connection.
+     */
+    boolean write(ClientMessage message) {
+        if (!connection.isAlive()) {
+            return false;
+        }
+
+        queue.offer(message);
+        if (flushing.compareAndSet(false, true)) {
+            try {
+                if (windowNanos > 0) {
+                    LockSupport.parkNanos(windowNanos);
+                }
+                flushBatch();
+            } finally {
+                flushing.set(false);
+            }
+            // messages queued during our flush, or before the flushing flag got reset,
+            // are not going to be flushed by their writers
+            scheduleFlushIfPending();
+        }
+        return true;
+    }
+
+    private void scheduleFlushIfPending() {
+        if (!queue.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flushPending);
+            } catch (RejectedExecutionException e) {
+                // the client is shutting down, the pending messages are handled like
+                // any other message that was in flight on the connection
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void flushPending() {
+        flushScheduled.set(false);
+        while (flushing.compareAndSet(false, true)) {
+            try {
+                flushBatch();
+            } finally {
+                flushing.set(false);
+            }
+            if (queue.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the queued messages, up to {@link #MAX_BATCH_SIZE}, as a single frame.
+     */
+    private void flushBatch() {
+        ClientMessage message = queue.poll();
+        if (message == null) {
+            return;
+        }
+
+        ClientMessage next = queue.poll();
+        if (next == null) {
+            // nothing to coalesce with
+            connection.write(message);
+            return;
+        }
+
+        ClientMessage batch = ClientMessage.createForEncode();
+        addFrames(batch, message);
+        addFrames(batch, next);
+        for (int k = 2; k < MAX_BATCH_SIZE; k++) {
+            next = queue.poll();
+            if (next == null) {
+                break;
+            }
+            addFrames(batch, next);
+        }
+        connection.write(batch);
+    }
+
+    private static void addFrames(ClientMessage batch, ClientMessage message) {
+        ClientMessage.ForwardFrameIterator iterator = message.frameIterator();
+        while (iterator.hasNext()) {
+            ClientMessage.Frame frame = iterator.next();
+            int flags = iterator.hasNext() ? frame.flags : frame.flags | IS_FINAL_FLAG;
+            batch.add(new ClientMessage.Frame(frame.content, flags));
+        }
+    }
+
+    // just for testing
+    int queueSize() {
+        return queue.size();
+    }
+}
@@ -28,6 +28,7 @@ import com.hazelcast.client.impl.spi.ClientPartitionService;
 import com.hazelcast.client.impl.spi.EventHandler;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.nio.Connection;
+import com.hazelcast.internal.util.ConstructorFunction;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.exception.TargetDisconnectedException;
 import com.hazelcast.spi.impl.executionservice.TaskScheduler;
@@ -44,6 +45,8 @@ import java.util.function.Consumer;
 
 import static com.hazelcast.client.properties.ClientProperty.BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS;
 import static com.hazelcast.client.properties.ClientProperty.FAIL_ON_INDETERMINATE_OPERATION_STATE;
+import static com.hazelcast.client.properties.ClientProperty.INVOCATION_BATCHING_ENABLED;
+import static com.hazelcast.client.properties.ClientProperty.INVOCATION_BATCHING_WINDOW_MICROS;
 import static com.hazelcast.client.properties.ClientProperty.INVOCATION_RETRY_PAUSE_MILLIS;
 import static com.hazelcast.client.properties.ClientProperty.INVOCATION_TIMEOUT_SECONDS;
 import static com.hazelcast.client.properties.ClientProperty.MAX_CONCURRENT_INVOCATIONS;
@@ -53,6 +56,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLIENT_ME
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLIENT_METRIC_INVOCATIONS_STARTED_INVOCATIONS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLIENT_PREFIX_INVOCATIONS;
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutIfAbsent;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class ClientInvocationServiceImpl implements ClientInvocationService {
@@ -98,6 +102,10 @@ public class ClientInvocationServiceImpl implements ClientInvocationService {
     private final ClientConnectionManager connectionManager;
     private final ClientPartitionService partitionService;
     private final boolean isSmartRoutingEnabled;
+    private final boolean isInvocationBatchingEnabled;
+    private final long invocationBatchingWindowNanos;
+    private final ConcurrentMap<ClientConnection, ClientInvocationBatcher> batchers = new ConcurrentHashMap<>();
+    private final ConstructorFunction<ClientConnection, ClientInvocationBatcher> batcherConstructor;
 
     public ClientInvocationServiceImpl(HazelcastClientInstanceImpl client) {
         this.client = client;
@@ -118,6 +126,10 @@ public class ClientInvocationServiceImpl implements ClientInvocationService {
         this.isBackupAckToClientEnabled = isSmartRoutingEnabled && client.getClientConfig().isBackupAckToClientEnabled();
         this.connectionManager = client.getConnectionManager();
         this.partitionService = client.getClientPartitionService();
+        this.isInvocationBatchingEnabled = properties.getBoolean(INVOCATION_BATCHING_ENABLED);
+        this.invocationBatchingWindowNanos = properties.getNanos(INVOCATION_BATCHING_WINDOW_MICROS);
+        this.batcherConstructor = connection -> new ClientInvocationBatcher(connection, invocationBatchingWindowNanos,
+                client.getTaskScheduler());
     }
 
     private long initInvocationRetryPauseMillis() {
@@ -241,6 +253,9 @@ public class ClientInvocationServiceImpl implements ClientInvocationService {
     }
 
     private boolean writeToConnection(ClientConnection connection, ClientMessage clientMessage) {
+        if (isInvocationBatchingEnabled && !clientMessage.isUrgent()) {
+            return getOrPutIfAbsent(batchers, connection, batcherConstructor).write(clientMessage);
+        }
         return connection.write(clientMessage);
     }
 
@@ -290,6 +305,8 @@ public class ClientInvocationServiceImpl implements ClientInvocationService {
     private class CleanResourcesTask implements Runnable {
         @Override
         public void run() {
+            batchers.keySet().removeIf(connection -> !connection.isAlive());
+
             for (ClientInvocation invocation : invocations.values()) {
 
                 ClientConnection connection = invocation.getSendConnection();
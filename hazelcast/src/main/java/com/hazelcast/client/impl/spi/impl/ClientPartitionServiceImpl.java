@@ -164,8 +164,12 @@ public final class ClientPartitionServiceImpl implements ClientPartitionService
 
     @Override
     public int getPartitionId(@Nonnull Object key) {
-        final Data data = client.getSerializationService().toData(key);
-        return getPartitionId(data);
+        int pc = getPartitionCount();
+        if (pc == 0) {
+            throw new HazelcastClientOfflineException();
+        }
+        int hash = client.getSerializationService().getPartitionHash(key);
+        return HashUtil.hashToIndex(hash, pc);
     }
 
     @Override
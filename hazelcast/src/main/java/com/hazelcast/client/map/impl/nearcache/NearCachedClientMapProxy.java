@@ -19,6 +19,7 @@ package com.hazelcast.client.map.impl.nearcache;
 import com.hazelcast.client.impl.ClientDelegatingFuture;
 import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.client.impl.protocol.codec.MapAddNearCacheInvalidationListenerCodec;
+import com.hazelcast.client.impl.protocol.codec.MapEntriesWithPredicateCodec;
 import com.hazelcast.client.impl.protocol.codec.MapGetCodec;
 import com.hazelcast.client.impl.protocol.codec.MapRemoveCodec;
 import com.hazelcast.client.impl.protocol.codec.MapRemoveEntryListenerCodec;
@@ -40,10 +41,18 @@ import com.hazelcast.internal.util.CollectionUtil;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.PartitionPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.spi.impl.InternalCompletableFuture;
+import com.hazelcast.spi.impl.UnmodifiableLazyList;
+import com.hazelcast.spi.impl.UnmodifiableLazySet;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import javax.annotation.Nonnull;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -53,6 +62,8 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.client.properties.ClientProperty.MAP_QUERY_RESULT_CACHE_ENABLED;
+import static com.hazelcast.client.properties.ClientProperty.MAP_QUERY_RESULT_CACHE_SIZE;
 import static com.hazelcast.core.EntryEventType.INVALIDATION;
 import static com.hazelcast.internal.nearcache.NearCache.CACHED_AS_NULL;
 import static com.hazelcast.internal.nearcache.NearCache.NOT_CACHED;
@@ -73,8 +84,11 @@ import static java.util.Collections.emptyMap;
  */
 public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
 
+    private static final int PARTITION_QUERY_FETCH_SIZE = 1000;
+
     private boolean serializeKeys;
     private NearCache<Object, Object> nearCache;
+    private QueryResultCache queryResultCache;
 
     private volatile UUID invalidationListenerId;
 
@@ -93,6 +107,12 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
         nearCache = nearCacheManager.getOrCreateNearCache(name, nearCacheConfig);
 
         if (nearCacheConfig.isInvalidateOnChange()) {
+            HazelcastProperties properties = getClient().getProperties();
+            if (properties.getBoolean(MAP_QUERY_RESULT_CACHE_ENABLED)) {
+                queryResultCache = new QueryResultCache(properties.getInteger(MAP_QUERY_RESULT_CACHE_SIZE),
+                        getContext().getPartitionService(), getSerializationService(),
+                        this::queryEntries, this::queryPartitionEntries);
+            }
             registerInvalidationListener();
         }
 
@@ -175,7 +195,7 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
             }, getClient().getTaskScheduler());
         }
 
-        return new ClientDelegatingFuture<>(getAsyncInternal(key),
+        return new ClientDelegatingFuture<>(invocationFuture,
                 getSerializationService(), clientMessage -> MapGetCodec.decodeResponse(clientMessage).response);
     }
 
@@ -208,7 +228,7 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
         try {
             super.removeAllInternal(predicate);
         } finally {
-            nearCache.clear();
+            clearNearCache();
         }
     }
 
@@ -372,7 +392,7 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
         try {
             super.evictAll();
         } finally {
-            nearCache.clear();
+            clearNearCache();
         }
     }
 
@@ -380,7 +400,7 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
     public void loadAll(boolean replaceExistingValues) {
         super.loadAll(replaceExistingValues);
         if (replaceExistingValues) {
-            nearCache.clear();
+            clearNearCache();
         }
     }
 
@@ -558,10 +578,56 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
 
     @Override
     public void clear() {
-        nearCache.clear();
+        clearNearCache();
         super.clear();
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<K> keySet(@Nonnull Predicate<K, V> predicate) {
+        if (!isQueryResultCacheable(predicate)) {
+            return super.keySet(predicate);
+        }
+        List<Entry<Data, Data>> entries = queryResultCache.query(predicate);
+        List<Data> keys = new ArrayList<>(entries.size());
+        for (Entry<Data, Data> entry : entries) {
+            keys.add(entry.getKey());
+        }
+        return (Set<K>) new UnmodifiableLazySet(keys, getSerializationService());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<Entry<K, V>> entrySet(@Nonnull Predicate predicate) {
+        if (!isQueryResultCacheable(predicate)) {
+            return super.entrySet(predicate);
+        }
+        return (Set) new UnmodifiableLazySet(queryResultCache.query(predicate), getSerializationService());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A cacheable query fetches the whole entries, also when only the values
+     * are requested, so its result is shared with the {@link #keySet(Predicate)}
+     * and {@link #entrySet(Predicate)} queries of the same predicate. The price
+     * is that a cache miss also transfers the keys, unlike the uncached
+     * {@code MapValuesWithPredicateCodec} request.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Collection<V> values(@Nonnull Predicate predicate) {
+        if (!isQueryResultCacheable(predicate)) {
+            return super.values(predicate);
+        }
+        List<Entry<Data, Data>> entries = queryResultCache.query(predicate);
+        List<Data> values = new ArrayList<>(entries.size());
+        for (Entry<Data, Data> entry : entries) {
+            values.add(entry.getValue());
+        }
+        return (Collection<V>) new UnmodifiableLazyList(values, getSerializationService());
+    }
+
     @Override
     protected void postDestroy() {
         try {
@@ -581,6 +647,9 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
     }
 
     private void destroyNearCache() {
+        if (queryResultCache != null) {
+            queryResultCache.clear();
+        }
         removeNearCacheInvalidationListener();
         getContext().getNearCacheManager(getServiceName()).destroyNearCache(name);
     }
@@ -611,8 +680,49 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
         return nearCache;
     }
 
+    // used for testing purposes
+    QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
     private void invalidateNearCache(Object key) {
         nearCache.invalidate(key);
+        if (queryResultCache != null) {
+            queryResultCache.onLocalInvalidation(key);
+        }
+    }
+
+    private void clearNearCache() {
+        nearCache.clear();
+        if (queryResultCache != null) {
+            queryResultCache.onLocalClear();
+        }
+    }
+
+    /**
+     * Paging predicates have a state and partition predicates only query a
+     * single partition, so their results are not cached.
+     */
+    private boolean isQueryResultCacheable(Predicate predicate) {
+        return queryResultCache != null && predicate != null
+                && !(predicate instanceof PagingPredicate) && !(predicate instanceof PartitionPredicate);
+    }
+
+    private List<Entry<Data, Data>> queryEntries(Data predicateData) {
+        ClientMessage request = MapEntriesWithPredicateCodec.encodeRequest(name, predicateData);
+        ClientMessage response = invoke(request);
+        return MapEntriesWithPredicateCodec.decodeResponse(response).response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry<Data, Data>> queryPartitionEntries(int partitionId, Predicate predicate) {
+        List<Entry<Data, Data>> entries = new ArrayList<>();
+        Iterator<Entry<K, V>> iterator = iterator(PARTITION_QUERY_FETCH_SIZE, partitionId, Projections.identity(), predicate);
+        while (iterator.hasNext()) {
+            Entry<K, V> entry = iterator.next();
+            entries.add(new SimpleImmutableEntry<>(toData(entry.getKey()), toData(entry.getValue())));
+        }
+        return entries;
     }
 
     private void registerInvalidationListener() {
@@ -676,6 +786,9 @@ public class NearCachedClientMapProxy<K, V> extends ClientMapProxy<K, V> {
         public void beforeListenerRegister(Connection connection) {
             RepairingTask repairingTask = getContext().getRepairingTask(getServiceName());
             repairingHandler = repairingTask.registerAndGetHandler(name, nearCache);
+            if (queryResultCache != null) {
+                queryResultCache.setRepairingHandler(repairingHandler);
+            }
         }
 
         @Override
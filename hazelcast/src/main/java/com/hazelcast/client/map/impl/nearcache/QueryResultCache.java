@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map.impl.nearcache;
+
+import com.hazelcast.client.impl.spi.ClientPartitionService;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.RepairingHandler;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.query.Predicate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Caches the results of {@code IMap} queries of a Near Cached client proxy
+ * per predicate, so repeated queries don't need to scan the whole cluster.
+ * <p>
+ * A cached result is split per partition and remembers the invalidation
+ * metadata ({@link MetaDataContainer} UUID and sequence) of every partition
+ * as it was before the partition was queried. The Near Cache invalidation
+ * events and the anti-entropy of the {@link RepairingHandler} update this
+ * metadata, so a partition has changed if its metadata differs from the
+ * remembered one. Mutations done by this client are tracked with a local
+ * version per partition, since their invalidation events may arrive after
+ * the mutation returns.
+ * <p>
+ * A repeated query is served from the cache when none of its partitions has
+ * changed. If only a few partitions have changed, only these are queried
+ * again; otherwise the whole query is repeated. Like the Near Cache itself,
+ * a cached result can be stale until the invalidation events of remote
+ * mutations are received.
+ */
+final class QueryResultCache {
+
+    // if more partitions than partitionCount / FULL_QUERY_DIVISOR have changed, the whole query is repeated
+    private static final int FULL_QUERY_DIVISOR = 8;
+
+    private final int capacity;
+    private final int partitionCount;
+    private final ClientPartitionService partitionService;
+    private final SerializationService serializationService;
+    private final Function<Data, List<Entry<Data, Data>>> queryFunction;
+    private final BiFunction<Integer, Predicate, List<Entry<Data, Data>>> partitionQueryFunction;
+    private final ConcurrentMap<Data, CachedResult> results = new ConcurrentHashMap<>();
+    private final AtomicLongArray localVersions;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong partitionQueries = new AtomicLong();
+
+    private volatile RepairingHandler repairingHandler;
+
+    /**
+     * @param capacity               the maximum number of cached query results
+     * @param partitionService       the client partition service
+     * @param serializationService   the client serialization service
+     * @param queryFunction          runs a query with the serialized predicate on all partitions
+     * @param partitionQueryFunction runs a query with the predicate on a single partition
+     */
+    QueryResultCache(int capacity, ClientPartitionService partitionService, SerializationService serializationService,
+                     Function<Data, List<Entry<Data, Data>>> queryFunction,
+                     BiFunction<Integer, Predicate, List<Entry<Data, Data>>> partitionQueryFunction) {
+        this.capacity = capacity;
+        this.partitionService = partitionService;
+        this.partitionCount = partitionService.getPartitionCount();
+        this.serializationService = serializationService;
+        this.queryFunction = queryFunction;
+        this.partitionQueryFunction = partitionQueryFunction;
+        this.localVersions = new AtomicLongArray(partitionCount);
+    }
+
+    /**
+     * Sets the handler which keeps the invalidation metadata of the Near Cache.
+     * Query results are only cached once it is set.
+     */
+    void setRepairingHandler(RepairingHandler repairingHandler) {
+        this.repairingHandler = repairingHandler;
+    }
+
+    /**
+     * Returns the entries which match the predicate, from the cache if possible.
+     * The returned list is a copy, which can be modified by the caller.
+     */
+    List<Entry<Data, Data>> query(Predicate predicate) {
+        Data predicateData = serializationService.toData(predicate);
+        RepairingHandler repairingHandler = this.repairingHandler;
+        if (repairingHandler == null) {
+            // without invalidation metadata a cached result can't be validated
+            return queryFunction.apply(predicateData);
+        }
+
+        CachedResult cached = results.get(predicateData);
+        List<Integer> changedPartitions = cached != null ? cached.getChangedPartitions(repairingHandler) : null;
+        if (changedPartitions != null && changedPartitions.isEmpty()) {
+            hits.incrementAndGet();
+            return cached.getEntries();
+        }
+
+        CachedResult result;
+        if (changedPartitions == null || changedPartitions.size() > partitionCount / FULL_QUERY_DIVISOR) {
+            misses.incrementAndGet();
+            result = new CachedResult();
+            result.queryAll(predicateData, repairingHandler);
+        } else {
+            partitionQueries.addAndGet(changedPartitions.size());
+            result = new CachedResult(cached);
+            for (int partitionId : changedPartitions) {
+                result.queryPartition(partitionId, predicate, repairingHandler);
+            }
+        }
+        put(predicateData, result);
+        return result.getEntries();
+    }
+
+    /**
+     * Marks the partition of the key as changed by a mutation of this client.
+     */
+    void onLocalInvalidation(Object key) {
+        localVersions.incrementAndGet(partitionService.getPartitionId(key));
+    }
+
+    /**
+     * Marks all partitions as changed by a mutation of this client.
+     */
+    void onLocalClear() {
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            localVersions.incrementAndGet(partitionId);
+        }
+    }
+
+    void clear() {
+        results.clear();
+    }
+
+    int size() {
+        return results.size();
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    long getPartitionQueries() {
+        return partitionQueries.get();
+    }
+
+    private void put(Data predicateData, CachedResult result) {
+        if (!results.containsKey(predicateData) && results.size() >= capacity) {
+            // make room by removing an arbitrary result
+            Iterator<Data> iterator = results.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        results.put(predicateData, result);
+    }
+
+    /**
+     * The result of a query split per partition, with the state of every
+     * partition as it was before the partition was queried. Once cached,
+     * an instance is not modified anymore.
+     */
+    private final class CachedResult {
+
+        private final List<Entry<Data, Data>>[] partitionEntries;
+        private final UUID[] uuids;
+        private final long[] sequences;
+        private final long[] versions;
+
+        @SuppressWarnings("unchecked")
+        CachedResult() {
+            this.partitionEntries = new List[partitionCount];
+            this.uuids = new UUID[partitionCount];
+            this.sequences = new long[partitionCount];
+            this.versions = new long[partitionCount];
+        }
+
+        CachedResult(CachedResult result) {
+            this.partitionEntries = result.partitionEntries.clone();
+            this.uuids = result.uuids.clone();
+            this.sequences = result.sequences.clone();
+            this.versions = result.versions.clone();
+        }
+
+        void queryAll(Data predicateData, RepairingHandler repairingHandler) {
+            for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+                captureState(partitionId, repairingHandler);
+                partitionEntries[partitionId] = emptyList();
+            }
+            for (Entry<Data, Data> entry : queryFunction.apply(predicateData)) {
+                int partitionId = partitionService.getPartitionId(entry.getKey());
+                if (partitionEntries[partitionId].isEmpty()) {
+                    partitionEntries[partitionId] = new ArrayList<>();
+                }
+                partitionEntries[partitionId].add(entry);
+            }
+        }
+
+        void queryPartition(int partitionId, Predicate predicate, RepairingHandler repairingHandler) {
+            captureState(partitionId, repairingHandler);
+            partitionEntries[partitionId] = partitionQueryFunction.apply(partitionId, predicate);
+        }
+
+        List<Integer> getChangedPartitions(RepairingHandler repairingHandler) {
+            List<Integer> changedPartitions = new ArrayList<>();
+            for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+                MetaDataContainer metaData = repairingHandler.getMetaDataContainer(partitionId);
+                if (versions[partitionId] != localVersions.get(partitionId)
+                        || sequences[partitionId] != metaData.getSequence()
+                        || !Objects.equals(uuids[partitionId], metaData.getUuid())) {
+                    changedPartitions.add(partitionId);
+                }
+            }
+            return changedPartitions;
+        }
+
+        List<Entry<Data, Data>> getEntries() {
+            int size = 0;
+            for (List<Entry<Data, Data>> entries : partitionEntries) {
+                size += entries.size();
+            }
+            List<Entry<Data, Data>> result = new ArrayList<>(size);
+            for (List<Entry<Data, Data>> entries : partitionEntries) {
+                result.addAll(entries);
+            }
+            return result;
+        }
+
+        private void captureState(int partitionId, RepairingHandler repairingHandler) {
+            MetaDataContainer metaData = repairingHandler.getMetaDataContainer(partitionId);
+            versions[partitionId] = localVersions.get(partitionId);
+            uuids[partitionId] = metaData.getUuid();
+            sequences[partitionId] = metaData.getSequence();
+        }
+    }
+}
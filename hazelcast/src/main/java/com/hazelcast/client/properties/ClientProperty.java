@@ -21,6 +21,7 @@ import com.hazelcast.config.MetricsJmxConfig;
 import com.hazelcast.core.IndeterminateOperationStateException;
 import com.hazelcast.spi.properties.HazelcastProperty;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -157,6 +158,60 @@ public final class ClientProperty {
     public static final HazelcastProperty IO_WRITE_THROUGH_ENABLED
             = new HazelcastProperty("hazelcast.client.io.write.through", true);
 
+    /**
+     * Enables the coalescing of concurrent requests to the same member into batches. A batch
+     * is written to the connection as a single frame, which reduces the number of writes and
+     * system calls when many requests are sent concurrently, e.g. when issuing a lot of
+     * asynchronous calls. The member processes the requests in a batch as usual.
+     *
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty INVOCATION_BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.client.invocation.batching.enabled", false);
+
+    /**
+     * The time in microseconds a request waits for concurrent requests to the same member so
+     * that they can be sent in the same batch. Only used when
+     * {@link #INVOCATION_BATCHING_ENABLED} is set.
+     *
+     * The default is 0: requests are not delayed and only the requests that are sent while
+     * a batch is being written are coalesced into the next batch.
+     */
+    public static final HazelcastProperty INVOCATION_BATCHING_WINDOW_MICROS
+            = new HazelcastProperty("hazelcast.client.invocation.batching.window.micros", 0, MICROSECONDS);
+
+    /**
+     * Enables the coalescing of concurrent {@link com.hazelcast.map.IMap#get(Object) IMap.get} and
+     * {@link com.hazelcast.map.IMap#getAsync(Object) IMap.getAsync} calls for the same key. Gets that are
+     * issued while a get for the key is in flight, share a single follow-up request instead of sending
+     * their own. This prevents a burst of requests to the partition owner when many threads read the same
+     * hot key, e.g. after it got evicted from the near cache.
+     *
+     * It is disabled by default.
+     */
+    public static final HazelcastProperty MAP_GET_COALESCING_ENABLED
+            = new HazelcastProperty("hazelcast.client.map.get.coalescing.enabled", false);
+
+    /**
+     * Enables the caching of {@link com.hazelcast.map.IMap#keySet(com.hazelcast.query.Predicate) IMap.keySet},
+     * {@link com.hazelcast.map.IMap#values(com.hazelcast.query.Predicate) IMap.values} and
+     * {@link com.hazelcast.map.IMap#entrySet(com.hazelcast.query.Predicate) IMap.entrySet} query results per
+     * predicate. Only used for maps with a Near Cache which is invalidated on change: a repeated query is served
+     * locally if the invalidation events show that no partition has changed since the previous query, and only
+     * the changed partitions are queried again otherwise. Paging and partition predicates are not cached.
+     *
+     * Like the Near Cache, a cached result may be stale until the invalidation events of a remote update are
+     * received. It is disabled by default.
+     */
+    public static final HazelcastProperty MAP_QUERY_RESULT_CACHE_ENABLED
+            = new HazelcastProperty("hazelcast.client.map.query.result.cache.enabled", false);
+
+    /**
+     * The maximum number of query results cached per map when {@link #MAP_QUERY_RESULT_CACHE_ENABLED} is set.
+     */
+    public static final HazelcastProperty MAP_QUERY_RESULT_CACHE_SIZE
+            = new HazelcastProperty("hazelcast.client.map.query.result.cache.size", 100);
+
     /**
      * Property needed for concurrency detection so that write through and dynamic response handling
      * can be done correctly. This property sets the window the concurrency detection will signalling
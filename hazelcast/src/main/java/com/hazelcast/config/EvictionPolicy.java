@@ -35,7 +35,28 @@ public enum EvictionPolicy {
     /**
      * Randomly
      */
-    RANDOM(3);
+    RANDOM(3),
+    /**
+     * Least Frequently Used, with the access frequencies estimated by a
+     * compact frequency sketch instead of the per-entry hit counts. The
+     * sketch also counts accesses of keys that are not stored and it ages
+     * the counts periodically, so a burst of one-off accesses such as a scan
+     * doesn't push out the entries that are accessed frequently. Near caches
+     * additionally don't admit a new entry when it is accessed less often
+     * than the entry that would be evicted for it.
+     */
+    TINY_LFU(4),
+    /**
+     * Approximately Least Recently Used. Each entry has a reference bit
+     * which is set when it's accessed and cleared when it's sampled for
+     * eviction, and an entry is only evicted if it hasn't been accessed
+     * since it was sampled last time, unless all sampled entries have. Since
+     * the eviction doesn't need exact statistics, the hit counts of the
+     * entries are only updated on a sample of the accesses, so reading a hot
+     * entry from many threads doesn't write it on every access. The hit
+     * counts reported for the entries are estimates.
+     */
+    CLOCK(5);
 
     private static final EvictionPolicy[] VALUES = values();
 
@@ -33,7 +33,22 @@ public enum MetadataPolicy {
     /**
      * Turns off metadata creation.
      */
-    OFF(1);
+    OFF(1),
+
+    /**
+     * Hazelcast processes supported objects at the time of creation
+     * and updates into a pre-parsed binary copy of them, which is
+     * kept instead of the metadata created by {@link #CREATE_ON_UPDATE}.
+     * Queries navigate the binary copy instead of parsing the original
+     * object. This makes querying faster at the cost of memory and put
+     * latency.
+     * <p>
+     * Objects that have no binary copy, e.g. Json documents containing
+     * an integral number that doesn't fit in a {@code long}, get no
+     * metadata at all. Queries parse these objects without any help,
+     * which is slower than with {@link #CREATE_ON_UPDATE}.
+     */
+    CREATE_BINARY_ON_UPDATE(2);
 
     private final int id;
 
@@ -24,6 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import java.io.IOException;
 import java.io.Serializable;
 
+import static com.hazelcast.internal.util.Preconditions.checkNotNegative;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.Preconditions.checkPositive;
 
@@ -48,10 +49,24 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
      */
     public static final int DEFAULT_STORE_INTERVAL_SECONDS = 600;
 
+    /**
+     * Default number of batches which are loaded concurrently by the pre-loader.
+     */
+    public static final int DEFAULT_LOAD_CONCURRENCY = 4;
+
+    /**
+     * Default maximum number of keys per second which are loaded by the
+     * pre-loader. {@code 0} means that the pre-loading is not throttled.
+     */
+    public static final int DEFAULT_LOAD_RATE_LIMIT = 0;
+
     private boolean enabled;
     private String directory = "";
     private int storeInitialDelaySeconds = DEFAULT_STORE_INITIAL_DELAY_SECONDS;
     private int storeIntervalSeconds = DEFAULT_STORE_INTERVAL_SECONDS;
+    private boolean storeValues;
+    private int loadConcurrency = DEFAULT_LOAD_CONCURRENCY;
+    private int loadRateLimit = DEFAULT_LOAD_RATE_LIMIT;
 
     public NearCachePreloaderConfig() {
     }
@@ -60,6 +75,9 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         this(nearCachePreloaderConfig.enabled, nearCachePreloaderConfig.directory);
         this.storeInitialDelaySeconds = nearCachePreloaderConfig.storeInitialDelaySeconds;
         this.storeIntervalSeconds = nearCachePreloaderConfig.storeIntervalSeconds;
+        this.storeValues = nearCachePreloaderConfig.storeValues;
+        this.loadConcurrency = nearCachePreloaderConfig.loadConcurrency;
+        this.loadRateLimit = nearCachePreloaderConfig.loadRateLimit;
     }
 
     public NearCachePreloaderConfig(String directory) {
@@ -109,6 +127,75 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         return this;
     }
 
+    /**
+     * Returns if the values are stored alongside the keys.
+     *
+     * @return {@code true} if the values are stored, {@code false} otherwise
+     */
+    public boolean isStoreValues() {
+        return storeValues;
+    }
+
+    /**
+     * Sets if the values are stored alongside the keys.
+     * <p>
+     * A stored value is put into the Near Cache on pre-loading without fetching
+     * it from the cluster, if the invalidation metadata of its partition shows
+     * that the value hasn't changed since it was stored. Otherwise the value is
+     * fetched like the value of a stored key. Values can only be verified if
+     * the Near Cache is invalidated on change.
+     *
+     * @param storeValues {@code true} to store the values, {@code false} to only store the keys
+     * @return this config instance
+     */
+    public NearCachePreloaderConfig setStoreValues(boolean storeValues) {
+        this.storeValues = storeValues;
+        return this;
+    }
+
+    /**
+     * Returns the number of batches which are loaded concurrently on pre-loading.
+     *
+     * @return the load concurrency
+     */
+    public int getLoadConcurrency() {
+        return loadConcurrency;
+    }
+
+    /**
+     * Sets the number of batches which are loaded concurrently on pre-loading.
+     *
+     * @param loadConcurrency the load concurrency
+     * @return this config instance
+     */
+    public NearCachePreloaderConfig setLoadConcurrency(int loadConcurrency) {
+        this.loadConcurrency = checkPositive(loadConcurrency, "loadConcurrency must be a positive number!");
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of keys per second which are loaded on pre-loading.
+     *
+     * @return the load rate limit, {@code 0} if the pre-loading is not throttled
+     */
+    public int getLoadRateLimit() {
+        return loadRateLimit;
+    }
+
+    /**
+     * Sets the maximum number of keys per second which are loaded on pre-loading,
+     * to limit the load on the cluster while a Near Cache is pre-loaded. Values
+     * which are stored alongside the keys and still valid don't count towards
+     * this limit.
+     *
+     * @param loadRateLimit the load rate limit, {@code 0} to not throttle the pre-loading
+     * @return this config instance
+     */
+    public NearCachePreloaderConfig setLoadRateLimit(int loadRateLimit) {
+        this.loadRateLimit = checkNotNegative(loadRateLimit, "loadRateLimit must not be a negative number!");
+        return this;
+    }
+
     @Override
     public int getFactoryId() {
         return ConfigDataSerializerHook.F_ID;
@@ -125,6 +212,9 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         out.writeUTF(directory);
         out.writeInt(storeInitialDelaySeconds);
         out.writeInt(storeIntervalSeconds);
+        out.writeBoolean(storeValues);
+        out.writeInt(loadConcurrency);
+        out.writeInt(loadRateLimit);
     }
 
     @Override
@@ -133,6 +223,9 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         directory = in.readUTF();
         storeInitialDelaySeconds = in.readInt();
         storeIntervalSeconds = in.readInt();
+        storeValues = in.readBoolean();
+        loadConcurrency = in.readInt();
+        loadRateLimit = in.readInt();
     }
 
     @Override
@@ -142,6 +235,9 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
                 + ", directory=" + directory
                 + ", storeInitialDelaySeconds=" + storeInitialDelaySeconds
                 + ", storeIntervalSeconds=" + storeIntervalSeconds
+                + ", storeValues=" + storeValues
+                + ", loadConcurrency=" + loadConcurrency
+                + ", loadRateLimit=" + loadRateLimit
                 + '}';
     }
 
@@ -165,6 +261,15 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         if (storeIntervalSeconds != that.storeIntervalSeconds) {
             return false;
         }
+        if (storeValues != that.storeValues) {
+            return false;
+        }
+        if (loadConcurrency != that.loadConcurrency) {
+            return false;
+        }
+        if (loadRateLimit != that.loadRateLimit) {
+            return false;
+        }
         return directory != null ? directory.equals(that.directory) : that.directory == null;
     }
 
@@ -174,6 +279,9 @@ public class NearCachePreloaderConfig implements IdentifiedDataSerializable, Ser
         result = 31 * result + (directory != null ? directory.hashCode() : 0);
         result = 31 * result + storeInitialDelaySeconds;
         result = 31 * result + storeIntervalSeconds;
+        result = 31 * result + (storeValues ? 1 : 0);
+        result = 31 * result + loadConcurrency;
+        result = 31 * result + loadRateLimit;
         return result;
     }
 }
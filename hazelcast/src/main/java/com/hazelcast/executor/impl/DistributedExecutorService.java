@@ -135,7 +135,7 @@ public class DistributedExecutorService implements ManagedService, RemoteService
         }
 
         try {
-            executionService.execute(name, processor);
+            executionService.getBlockingExecutor(name).execute(processor);
         } catch (RejectedExecutionException e) {
             if (cfg.isStatisticsEnabled()) {
                 rejectExecution(name);
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Target;
+
+/**
+ * Annotates classes and methods which depend on the JDK Flight Recorder API ({@code jdk.jfr}).
+ * Annotated elements are excluded from the animal-sniffer JDK 8 API checks, so they must only
+ * be loaded once it is known that the JDK Flight Recorder is present.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface RequiresJfr {
+}
@@ -55,11 +55,15 @@ import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.Map;
 
+import static com.hazelcast.config.EvictionPolicy.CLOCK;
 import static com.hazelcast.config.EvictionPolicy.LFU;
 import static com.hazelcast.config.EvictionPolicy.LRU;
 import static com.hazelcast.config.EvictionPolicy.NONE;
 import static com.hazelcast.config.EvictionPolicy.RANDOM;
+import static com.hazelcast.config.EvictionPolicy.TINY_LFU;
+import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
+import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.config.MaxSizePolicy.ENTRY_COUNT;
 import static com.hazelcast.config.MaxSizePolicy.FREE_HEAP_PERCENTAGE;
 import static com.hazelcast.config.MaxSizePolicy.FREE_HEAP_SIZE;
@@ -76,6 +80,7 @@ import static com.hazelcast.instance.BuildInfoProvider.getBuildInfo;
 import static com.hazelcast.instance.ProtocolType.MEMBER;
 import static com.hazelcast.instance.ProtocolType.WAN;
 import static com.hazelcast.internal.config.MergePolicyValidator.checkMapMergePolicy;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
 import static com.hazelcast.internal.config.MergePolicyValidator.checkMergeTypeProviderHasRequiredTypes;
 import static com.hazelcast.internal.util.Preconditions.checkTrue;
 import static com.hazelcast.internal.util.StringUtil.isNullOrEmpty;
@@ -89,13 +94,19 @@ import static java.lang.String.format;
 @SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:methodcount"})
 public final class ConfigValidator {
 
-    public static final EnumSet<EvictionPolicy> COMMONLY_SUPPORTED_EVICTION_POLICIES = EnumSet.of(LRU, LFU);
+    public static final EnumSet<EvictionPolicy> COMMONLY_SUPPORTED_EVICTION_POLICIES = EnumSet.of(LRU, LFU, TINY_LFU, CLOCK);
 
     private static final EnumSet<MaxSizePolicy> NEAR_CACHE_SUPPORTED_ON_HEAP_MAX_SIZE_POLICIES
-            = EnumSet.of(MaxSizePolicy.ENTRY_COUNT);
+            = EnumSet.of(MaxSizePolicy.ENTRY_COUNT, USED_HEAP_SIZE, USED_HEAP_PERCENTAGE);
+
+    private static final EnumSet<MaxSizePolicy> NEAR_CACHE_HEAP_COST_MAX_SIZE_POLICIES
+            = EnumSet.of(USED_HEAP_SIZE, USED_HEAP_PERCENTAGE);
+
+    private static final EnumSet<MaxSizePolicy> NEAR_CACHE_SUPPORTED_OPEN_SOURCE_NATIVE_MAX_SIZE_POLICIES
+            = EnumSet.of(MaxSizePolicy.ENTRY_COUNT, USED_NATIVE_MEMORY_SIZE);
 
     private static final EnumSet<EvictionPolicy> MAP_SUPPORTED_EVICTION_POLICIES
-            = EnumSet.of(LRU, LFU, RANDOM, NONE);
+            = EnumSet.of(LRU, LFU, RANDOM, NONE, TINY_LFU, CLOCK);
 
     private static final EnumSet<MaxSizePolicy> MAP_SUPPORTED_NATIVE_MAX_SIZE_POLICIES
             = EnumSet.of(PER_NODE, PER_PARTITION, USED_NATIVE_MEMORY_PERCENTAGE,
@@ -311,7 +322,7 @@ public final class ConfigValidator {
      */
     public static void checkNearCacheConfig(String mapName, NearCacheConfig nearCacheConfig,
                                             NativeMemoryConfig nativeMemoryConfig, boolean isClient) {
-        checkNotNativeWhenOpenSource(nearCacheConfig.getInMemoryFormat());
+        checkOpenSourceNativeNearCacheConfig(nearCacheConfig, nativeMemoryConfig);
         checkLocalUpdatePolicy(mapName, nearCacheConfig.getLocalUpdatePolicy());
         EvictionConfig evictionConfig = nearCacheConfig.getEvictionConfig();
         checkNearCacheEvictionConfig(evictionConfig.getEvictionPolicy(),
@@ -381,6 +392,39 @@ public final class ConfigValidator {
                             + " Supported maximum size policies are: %s",
                     maxSizePolicy, inMemoryFormat, NEAR_CACHE_SUPPORTED_ON_HEAP_MAX_SIZE_POLICIES));
         }
+        // the heap cost of deserialized values can't be estimated
+        if (inMemoryFormat == OBJECT && NEAR_CACHE_HEAP_COST_MAX_SIZE_POLICIES.contains(maxSizePolicy)) {
+            throw new InvalidConfigurationException(format("Near Cache maximum size policy %s cannot be used with %s"
+                    + " in-memory format, since the heap cost of deserialized values is unknown. Use %s instead.",
+                    maxSizePolicy, OBJECT, BINARY));
+        }
+    }
+
+    /**
+     * Checks the preconditions to use a Near Cache with {@link InMemoryFormat#NATIVE}
+     * in-memory-format in Hazelcast OS. The native memory config has to be enabled,
+     * but its size isn't used: the memory used by each Near Cache is limited by its
+     * own eviction config.
+     *
+     * @param nearCacheConfig    the {@link NearCacheConfig} to be checked
+     * @param nativeMemoryConfig the {@link NativeMemoryConfig} of the Hazelcast instance
+     */
+    private static void checkOpenSourceNativeNearCacheConfig(NearCacheConfig nearCacheConfig,
+                                                             NativeMemoryConfig nativeMemoryConfig) {
+        if (nearCacheConfig.getInMemoryFormat() != NATIVE || getBuildInfo().isEnterprise()) {
+            return;
+        }
+        if (nativeMemoryConfig == null || !nativeMemoryConfig.isEnabled() || !MEM_AVAILABLE) {
+            throw new InvalidConfigurationException("NATIVE in-memory-format for Near Cache requires an enabled"
+                    + " native memory config in Hazelcast OS. Make sure native memory is enabled or you have Hazelcast"
+                    + " Enterprise JARs on your classpath!");
+        }
+        MaxSizePolicy maxSizePolicy = nearCacheConfig.getEvictionConfig().getMaxSizePolicy();
+        if (!NEAR_CACHE_SUPPORTED_OPEN_SOURCE_NATIVE_MAX_SIZE_POLICIES.contains(maxSizePolicy)) {
+            throw new InvalidConfigurationException(format("Near Cache maximum size policy %s cannot be used with %s"
+                            + " storage in Hazelcast OS. Supported maximum size policies are: %s",
+                    maxSizePolicy, NATIVE, NEAR_CACHE_SUPPORTED_OPEN_SOURCE_NATIVE_MAX_SIZE_POLICIES));
+        }
     }
 
     /**
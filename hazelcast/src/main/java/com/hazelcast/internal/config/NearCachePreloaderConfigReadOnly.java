@@ -48,6 +48,21 @@ public class NearCachePreloaderConfigReadOnly extends NearCachePreloaderConfig {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public NearCachePreloaderConfig setStoreValues(boolean storeValues) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public NearCachePreloaderConfig setLoadConcurrency(int loadConcurrency) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public NearCachePreloaderConfig setLoadRateLimit(int loadRateLimit) {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public int getClassId() {
         throw new UnsupportedOperationException("NearCachePreloaderConfigReadOnly is not serializable");
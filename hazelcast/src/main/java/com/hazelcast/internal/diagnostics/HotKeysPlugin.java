@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.diagnostics;
+
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.ConstructorFunction;
+import com.hazelcast.internal.util.SpaceSavingSketch;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.HOTKEYS_DISCRIMINATOR_NAME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.HOTKEYS_METRIC_HOTTEST_KEY_HASH;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.HOTKEYS_METRIC_HOTTEST_KEY_OPERATION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.HOTKEYS_METRIC_HOTTEST_PARTITION_ID;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.HOTKEYS_METRIC_HOTTEST_PARTITION_OPERATION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.HOTKEYS_METRIC_OPERATION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.HOTKEYS_PREFIX;
+import static com.hazelcast.internal.metrics.MetricTarget.MANAGEMENT_CENTER;
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.internal.metrics.ProbeUnit.COUNT;
+import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A {@link DiagnosticsPlugin} that helps to find the keys and partitions that absorb most of the
+ * traffic of a map.
+ * <p>
+ * Every key based map operation increments the operation count of its partition. Since a partition
+ * is only accessed by its partition thread, this is a plain increment without any contention. A
+ * sample of the operations is also fed into a {@link SpaceSavingSketch} of key hashes per map, so
+ * the hottest keys can be found without tracking every key. If the sketch is being updated by
+ * another thread, the sample is dropped, so a partition thread never blocks on it.
+ * <p>
+ * Every period, the hottest partitions and keys of that period are written to the diagnostics log
+ * and the hottest partition and key are published as metrics. A key is identified by the hash of
+ * its serialized form and its partition ID, the counts of the keys are estimates.
+ * <p>
+ * If this plugin is not enabled, there is no performance hit since the map operations aren't tracked.
+ */
+public class HotKeysPlugin extends DiagnosticsPlugin implements DynamicMetricsProvider {
+
+    /**
+     * The period in seconds this plugin runs. Every period the hottest keys and partitions of
+     * that period are written.
+     * <p>
+     * If set to 0, the plugin is disabled.
+     */
+    public static final HazelcastProperty PERIOD_SECONDS
+            = new HazelcastProperty("hazelcast.diagnostics.hotkeys.period.seconds", 0, SECONDS);
+
+    /**
+     * The number of hottest keys and partitions written per map.
+     */
+    public static final HazelcastProperty TOP_K
+            = new HazelcastProperty("hazelcast.diagnostics.hotkeys.top.k", 10);
+
+    /**
+     * One in how many operations is sampled into the sketch of the hottest keys; rounded
+     * up to a power of two. The lower the value, the higher the overhead, but also the
+     * higher the precision of the key counts. The partition counts aren't sampled.
+     */
+    public static final HazelcastProperty SAMPLE_INTERVAL
+            = new HazelcastProperty("hazelcast.diagnostics.hotkeys.sample.interval", 16);
+
+    private static final float HUNDRED = 100f;
+    // the sketch monitors more keys than written, so the counts of the written keys are more precise
+    private static final int SKETCH_CAPACITY_FACTOR = 4;
+
+    private final ConcurrentMap<String, HotKeys> hotKeysPerMap = new ConcurrentHashMap<>();
+    private final ConstructorFunction<String, HotKeys> hotKeysConstructorFunction;
+    private final MetricsRegistry metricsRegistry;
+    private final long periodMillis;
+    private final int topK;
+
+    public HotKeysPlugin(NodeEngineImpl nodeEngine) {
+        this(nodeEngine.getLogger(HotKeysPlugin.class), nodeEngine.getProperties(),
+                nodeEngine.getPartitionService().getPartitionCount(), nodeEngine.getMetricsRegistry());
+    }
+
+    public HotKeysPlugin(ILogger logger, HazelcastProperties properties, int partitionCount,
+                         MetricsRegistry metricsRegistry) {
+        super(logger);
+        this.metricsRegistry = metricsRegistry;
+        this.periodMillis = properties.getMillis(PERIOD_SECONDS);
+        this.topK = properties.getInteger(TOP_K);
+        int sampleInterval = nextPowerOfTwo(Math.max(1, properties.getInteger(SAMPLE_INTERVAL)));
+        int sketchCapacity = topK * SKETCH_CAPACITY_FACTOR;
+        this.hotKeysConstructorFunction = mapName -> new HotKeys(partitionCount, sketchCapacity, sampleInterval);
+    }
+
+    @Override
+    public long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    @Override
+    public void onStart() {
+        logger.info("Plugin:active: period-millis:" + periodMillis + " top-k:" + topK);
+
+        if (metricsRegistry != null) {
+            metricsRegistry.registerDynamicMetricsProvider(this);
+        }
+    }
+
+    /**
+     * Returns the tracker of the hot keys of the given map.
+     *
+     * @param mapName the name of the map
+     * @return the tracker
+     */
+    public HotKeys getHotKeys(String mapName) {
+        return getOrPutIfAbsent(hotKeysPerMap, mapName, hotKeysConstructorFunction);
+    }
+
+    /**
+     * Stops tracking the hot keys of the given map, e.g. because it is destroyed.
+     *
+     * @param mapName the name of the map
+     */
+    public void removeHotKeys(String mapName) {
+        hotKeysPerMap.remove(mapName);
+    }
+
+    @Override
+    public void run(DiagnosticsLogWriter writer) {
+        writer.startSection("HotKeys");
+        for (Map.Entry<String, HotKeys> entry : hotKeysPerMap.entrySet()) {
+            Window window = entry.getValue().nextWindow(topK);
+            if (window.operationCount > 0) {
+                render(writer, entry.getKey(), window);
+            }
+        }
+        writer.endSection();
+    }
+
+    private void render(DiagnosticsLogWriter writer, String mapName, Window window) {
+        writer.startSection(mapName);
+        writer.writeKeyValueEntry("operationCount", window.operationCount);
+
+        writer.startSection("partitions");
+        for (int k = 0; k < window.partitionIds.length; k++) {
+            long count = window.partitionCounts[k];
+            writer.writeKeyValueEntry("partition-" + window.partitionIds[k],
+                    count + " " + (HUNDRED * count / window.operationCount) + "%");
+        }
+        writer.endSection();
+
+        writer.startSection("keys");
+        for (SpaceSavingSketch.Counter key : window.keys) {
+            writer.writeKeyValueEntry("hash-" + Integer.toHexString(keyHash(key.item()))
+                            + " partition-" + partitionId(key.item()),
+                    "~" + key.count() * window.sampleInterval + " error:" + key.error() * window.sampleInterval);
+        }
+        writer.endSection();
+
+        writer.endSection();
+    }
+
+    @Override
+    public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        for (Map.Entry<String, HotKeys> entry : hotKeysPerMap.entrySet()) {
+            Window window = entry.getValue().lastWindow;
+            if (window == null) {
+                continue;
+            }
+
+            MetricDescriptor mapDescriptor = descriptor
+                    .copy()
+                    .withPrefix(HOTKEYS_PREFIX)
+                    .withDiscriminator(HOTKEYS_DISCRIMINATOR_NAME, entry.getKey())
+                    .withExcludedTarget(MANAGEMENT_CENTER);
+            context.collect(mapDescriptor, HOTKEYS_METRIC_OPERATION_COUNT, INFO, COUNT, window.operationCount);
+            if (window.partitionIds.length > 0) {
+                context.collect(mapDescriptor, HOTKEYS_METRIC_HOTTEST_PARTITION_ID, INFO, COUNT, window.partitionIds[0]);
+                context.collect(mapDescriptor, HOTKEYS_METRIC_HOTTEST_PARTITION_OPERATION_COUNT, INFO, COUNT,
+                        window.partitionCounts[0]);
+            }
+            if (!window.keys.isEmpty()) {
+                SpaceSavingSketch.Counter key = window.keys.get(0);
+                context.collect(mapDescriptor, HOTKEYS_METRIC_HOTTEST_KEY_HASH, INFO, COUNT, keyHash(key.item()));
+                context.collect(mapDescriptor, HOTKEYS_METRIC_HOTTEST_KEY_OPERATION_COUNT, INFO, COUNT,
+                        key.count() * window.sampleInterval);
+            }
+        }
+    }
+
+    static long toItem(int partitionId, int keyHash) {
+        return ((long) partitionId << Integer.SIZE) | Integer.toUnsignedLong(keyHash);
+    }
+
+    static int partitionId(long item) {
+        return (int) (item >>> Integer.SIZE);
+    }
+
+    static int keyHash(long item) {
+        return (int) item;
+    }
+
+    /**
+     * Tracks the hot keys and partitions of a single map.
+     */
+    public static final class HotKeys {
+
+        private final AtomicLongArray partitionCounts;
+        // only accessed by the diagnostics thread
+        private final long[] previousPartitionCounts;
+        private final ReentrantLock sketchLock = new ReentrantLock();
+        private final int sketchCapacity;
+        private final int sampleInterval;
+        private final int sampleMask;
+        // guarded by sketchLock
+        private SpaceSavingSketch sketch;
+        private volatile Window lastWindow;
+
+        HotKeys(int partitionCount, int sketchCapacity, int sampleInterval) {
+            this.partitionCounts = new AtomicLongArray(partitionCount);
+            this.previousPartitionCounts = new long[partitionCount];
+            this.sketchCapacity = sketchCapacity;
+            this.sampleInterval = sampleInterval;
+            this.sampleMask = sampleInterval - 1;
+            this.sketch = new SpaceSavingSketch(sketchCapacity);
+        }
+
+        /**
+         * Records an operation on the given key. Should be called from the partition thread.
+         *
+         * @param partitionId the partition of the key
+         * @param key         the key
+         */
+        public void record(int partitionId, Data key) {
+            // a partition is only accessed by its partition thread, so a lazySet is enough
+            partitionCounts.lazySet(partitionId, partitionCounts.get(partitionId) + 1);
+
+            if ((ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+                return;
+            }
+
+            long item = toItem(partitionId, key.hashCode());
+            if (!sketchLock.tryLock()) {
+                return;
+            }
+            try {
+                sketch.offer(item);
+            } finally {
+                sketchLock.unlock();
+            }
+        }
+
+        Window nextWindow(int topK) {
+            SpaceSavingSketch previousSketch;
+            sketchLock.lock();
+            try {
+                previousSketch = sketch;
+                sketch = new SpaceSavingSketch(sketchCapacity);
+            } finally {
+                sketchLock.unlock();
+            }
+
+            long[] deltas = new long[previousPartitionCounts.length];
+            long operationCount = 0;
+            for (int k = 0; k < deltas.length; k++) {
+                long count = partitionCounts.get(k);
+                deltas[k] = count - previousPartitionCounts[k];
+                previousPartitionCounts[k] = count;
+                operationCount += deltas[k];
+            }
+
+            Window window = new Window(operationCount, deltas, previousSketch.top(topK), sampleInterval, topK);
+            lastWindow = window;
+            return window;
+        }
+    }
+
+    /**
+     * The hottest partitions and keys of a map in a single period.
+     */
+    static final class Window {
+
+        final long operationCount;
+        final int[] partitionIds;
+        final long[] partitionCounts;
+        final List<SpaceSavingSketch.Counter> keys;
+        final int sampleInterval;
+
+        Window(long operationCount, long[] countPerPartition, List<SpaceSavingSketch.Counter> keys,
+               int sampleInterval, int topK) {
+            this.operationCount = operationCount;
+            this.keys = keys;
+            this.sampleInterval = sampleInterval;
+
+            int partitionCount = 0;
+            for (long count : countPerPartition) {
+                if (count > 0) {
+                    partitionCount++;
+                }
+            }
+            this.partitionIds = new int[Math.min(topK, partitionCount)];
+            this.partitionCounts = new long[partitionIds.length];
+            for (int k = 0; k < partitionIds.length; k++) {
+                int maxPartitionId = 0;
+                for (int partitionId = 1; partitionId < countPerPartition.length; partitionId++) {
+                    if (countPerPartition[partitionId] > countPerPartition[maxPartitionId]) {
+                        maxPartitionId = partitionId;
+                    }
+                }
+                partitionIds[k] = maxPartitionId;
+                partitionCounts[k] = countPerPartition[maxPartitionId];
+                // the counts are a private copy, so the selected partition can be cleared
+                countPerPartition[maxPartitionId] = -1;
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@ import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.properties.HazelcastProperty;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -113,6 +114,7 @@ public class NetworkingImbalancePlugin extends DiagnosticsPlugin {
         long totalEvents = 0;
         long totalTaskCount = 0;
         long totalHandleCount = 0;
+        long totalProcessTimeNanos = 0;
 
         for (NioThread thread : threads) {
             totalBytesReceived += thread.bytesTransceived();
@@ -121,6 +123,7 @@ public class NetworkingImbalancePlugin extends DiagnosticsPlugin {
             totalEvents += thread.eventCount();
             totalTaskCount += thread.completedTaskCount();
             totalHandleCount += thread.handleCount();
+            totalProcessTimeNanos += thread.processTimeNanos();
         }
 
         for (NioThread thread : threads) {
@@ -136,6 +139,9 @@ public class NetworkingImbalancePlugin extends DiagnosticsPlugin {
             writer.writeKeyValueEntry("events", thread.eventCount());
             writer.writeKeyValueEntry("handle-count-percentage", toPercentage(thread.handleCount(), totalHandleCount));
             writer.writeKeyValueEntry("handle-count", thread.handleCount());
+            writer.writeKeyValueEntry("process-time-percentage",
+                    toPercentage(thread.processTimeNanos(), totalProcessTimeNanos));
+            writer.writeKeyValueEntry("process-time-ms", NANOSECONDS.toMillis(thread.processTimeNanos()));
             writer.writeKeyValueEntry("tasks-percentage", toPercentage(thread.completedTaskCount(), totalTaskCount));
             writer.writeKeyValueEntry("tasks", thread.completedTaskCount());
             writer.endSection();
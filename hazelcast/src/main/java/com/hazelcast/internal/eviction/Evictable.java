@@ -48,4 +48,19 @@ public interface Evictable<V> {
      * @return the latest access time of this {@link Evictable} in milliseconds
      */
     long getLastAccessTime();
+
+    /**
+     * Returns whether this {@link Evictable} has been accessed since its
+     * reference bit was last cleared, and clears it. Used by the
+     * {@link com.hazelcast.config.EvictionPolicy#CLOCK} policy to give
+     * recently accessed entries a second chance.
+     * <p>
+     * Evictables which don't track a reference bit always return {@code false}.
+     *
+     * @return {@code true} if this {@link Evictable} has been accessed since
+     * the reference bit was last cleared
+     */
+    default boolean clearReferenced() {
+        return false;
+    }
 }
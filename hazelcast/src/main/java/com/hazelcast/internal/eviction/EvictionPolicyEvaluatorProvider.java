@@ -20,7 +20,9 @@ import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.internal.eviction.impl.comparator.LFUEvictionPolicyComparator;
 import com.hazelcast.internal.eviction.impl.comparator.LRUEvictionPolicyComparator;
 import com.hazelcast.internal.eviction.impl.comparator.RandomEvictionPolicyComparator;
+import com.hazelcast.internal.eviction.impl.evaluator.ClockEvictionPolicyEvaluator;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
+import com.hazelcast.internal.eviction.impl.evaluator.TinyLFUEvictionPolicyEvaluator;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
 import com.hazelcast.spi.eviction.EvictionPolicyComparator;
 
@@ -39,6 +41,10 @@ public final class EvictionPolicyEvaluatorProvider {
     /**
      * Gets the {@link EvictionPolicyEvaluator}
      * implementation specified with {@code evictionPolicy}.
+     * <p>
+     * The evaluator of the {@link EvictionPolicy#TINY_LFU} policy
+     * tracks the access frequencies itself, so a new instance
+     * should be requested for each record store.
      *
      * @param evictionConfig {@link EvictionConfiguration} for
      *                       requested {@link EvictionPolicyEvaluator} implementation
@@ -52,7 +58,15 @@ public final class EvictionPolicyEvaluatorProvider {
     getEvictionPolicyEvaluator(EvictionConfiguration evictionConfig, ClassLoader classLoader) {
         checkNotNull(evictionConfig);
 
-        return new EvictionPolicyEvaluator<>(getEvictionPolicyComparator(evictionConfig, classLoader));
+        EvictionPolicyComparator comparator = getEvictionPolicyComparator(evictionConfig, classLoader);
+        switch (evictionConfig.getEvictionPolicy()) {
+            case TINY_LFU:
+                return new TinyLFUEvictionPolicyEvaluator<>(comparator);
+            case CLOCK:
+                return new ClockEvictionPolicyEvaluator<>(comparator);
+            default:
+                return new EvictionPolicyEvaluator<>(comparator);
+        }
     }
 
     /**
@@ -95,6 +109,12 @@ public final class EvictionPolicyEvaluatorProvider {
                 return LFUEvictionPolicyComparator.INSTANCE;
             case RANDOM:
                 return RandomEvictionPolicyComparator.INSTANCE;
+            case TINY_LFU:
+                // breaks the ties between the entries with the same estimated frequency
+                return LRUEvictionPolicyComparator.INSTANCE;
+            case CLOCK:
+                // breaks the ties between the entries with the same reference bit
+                return LRUEvictionPolicyComparator.INSTANCE;
             case NONE:
                 return null;
             default:
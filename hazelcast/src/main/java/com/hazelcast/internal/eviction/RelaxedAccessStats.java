@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Updates the access statistics of the entries without writing them on
+ * every access. Used by the record stores with the
+ * {@link com.hazelcast.config.EvictionPolicy#CLOCK} eviction policy, which
+ * don't need exact statistics to select the entries to evict.
+ */
+public final class RelaxedAccessStats {
+
+    /**
+     * Hit counts below this are counted exactly.
+     */
+    static final int EXACT_HITS = 16;
+
+    private RelaxedAccessStats() {
+    }
+
+    /**
+     * Returns the hit count after an access. Above {@link #EXACT_HITS} hits,
+     * only a random sample of the accesses increase the count, by the
+     * inverse of the sampling probability, so the count stays an unbiased
+     * estimate while it gets written less often the hotter the entry is.
+     *
+     * @param hits the current hit count
+     * @return the new hit count, which is the same as the current one if
+     * this access is not sampled
+     */
+    public static int incrementHits(int hits) {
+        if (hits < EXACT_HITS) {
+            return hits + 1;
+        }
+        if (hits == Integer.MAX_VALUE) {
+            return hits;
+        }
+        int step = Integer.highestOneBit(hits) / EXACT_HITS;
+        if (ThreadLocalRandom.current().nextInt(step) != 0) {
+            return hits;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (long) hits + step);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction.impl.evaluator;
+
+import com.hazelcast.internal.eviction.Evictable;
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.spi.eviction.EvictionPolicyComparator;
+
+/**
+ * {@link EvictionPolicyEvaluator} for the {@link com.hazelcast.config.EvictionPolicy#CLOCK}
+ * policy.
+ * <p>
+ * The reference bits of all sampled candidates are cleared, and the
+ * candidates which haven't been accessed since they were sampled last time
+ * are preferred for eviction. The given comparator selects among the
+ * candidates with the same reference bit.
+ *
+ * @param <A> Type of the accessor (id) of the {@link EvictionCandidate}
+ * @param <E> Type of the {@link Evictable} value of {@link EvictionCandidate}
+ */
+public class ClockEvictionPolicyEvaluator<A, E extends Evictable> extends EvictionPolicyEvaluator<A, E> {
+
+    public ClockEvictionPolicyEvaluator(EvictionPolicyComparator tieBreaker) {
+        super(tieBreaker);
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:rvcheckcomparetoforspecificreturnvalue")
+    public <C extends EvictionCandidate<A, E>> C evaluate(Iterable<C> candidates) {
+        long now = Clock.currentTimeMillis();
+        EvictionPolicyComparator tieBreaker = getEvictionPolicyComparator();
+
+        C selected = null;
+        boolean selectedReferenced = true;
+        for (C current : candidates) {
+            E evictable = current.getEvictable();
+            if (isExpired(evictable, now)) {
+                return current;
+            }
+
+            boolean referenced = evictable.clearReferenced();
+            if (selected == null || (selectedReferenced && !referenced)
+                    || (referenced == selectedReferenced && tieBreaker.compare(current, selected) < 0)) {
+                selected = current;
+                selectedReferenced = referenced;
+            }
+        }
+        return selected;
+    }
+}
@@ -42,6 +42,17 @@ public class EvictionPolicyEvaluator<A, E extends Evictable> {
         return comparator;
     }
 
+    /**
+     * Called when the entry with the given key is accessed, whether the
+     * entry exists or not. Does nothing by default, since the comparators
+     * only rely on the statistics of the entries.
+     *
+     * @param key        the accessed key
+     * @param entryCount the number of entries in the store
+     */
+    public void recordAccess(Object key, int entryCount) {
+    }
+
     /**
      * Selects the best candidate to be evicted.
      * The definition of the best depends on configured
@@ -78,7 +89,7 @@ public class EvictionPolicyEvaluator<A, E extends Evictable> {
         return selected;
     }
 
-    private static boolean isExpired(Evictable evictable, long now) {
+    protected static boolean isExpired(Evictable evictable, long now) {
         if (!(evictable instanceof Expirable)) {
             return false;
         }
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction.impl.evaluator;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.internal.util.HashUtil.fastIntMix;
+import static com.hazelcast.internal.util.hashslot.impl.CapacityUtil.MAX_INT_CAPACITY;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+import static java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater;
+
+/**
+ * A Count-Min sketch that estimates how often a key was accessed, used by the
+ * {@link com.hazelcast.config.EvictionPolicy#TINY_LFU} policy.
+ * <p>
+ * The counters are 4 bits wide, so the estimate saturates at 15, and 16 of them
+ * are packed into a {@code long}. An access increments one counter in each of the
+ * 4 rows and the frequency is the minimum of these counters, so hash collisions
+ * can only make the estimate larger. Once the number of increments reaches 10
+ * times the capacity, all counters are halved; this way, keys that were popular
+ * in the past but aren't accessed anymore, don't stay in the cache forever.
+ * <p>
+ * The sketch is thread-safe, since a near cache records the accesses from many
+ * threads. The counters are updated with a CAS, so no increment is lost, and only
+ * one thread at a time halves the counters; increments which are done while the
+ * counters are halved may or may not be halved.
+ */
+public final class FrequencySketch {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int SAMPLE_FACTOR = 10;
+    private static final int DEPTH = 4;
+    private static final int COUNTER_BITS = 4;
+    private static final long COUNTER_MASK = 0xFL;
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final long[] SEEDS = {
+            0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L,
+    };
+    private static final AtomicIntegerFieldUpdater<FrequencySketch> SIZE = newUpdater(FrequencySketch.class, "size");
+    private static final AtomicIntegerFieldUpdater<FrequencySketch> RESETTING
+            = newUpdater(FrequencySketch.class, "resetting");
+
+    private volatile AtomicLongArray table;
+    private volatile int size;
+    private volatile int resetting;
+
+    public FrequencySketch() {
+        ensureCapacity(MIN_CAPACITY);
+    }
+
+    /**
+     * Resizes the sketch if it is too small to tell apart the given number of
+     * keys. Resizing discards the collected frequencies, so a sketch that
+     * grows with the store is only reset while the store fills up, before
+     * the frequencies are needed for eviction.
+     *
+     * @param capacity the number of keys in the store
+     */
+    public void ensureCapacity(long capacity) {
+        AtomicLongArray table = this.table;
+        if (table != null && capacity <= table.length()) {
+            return;
+        }
+        resize(capacity);
+    }
+
+    private synchronized void resize(long capacity) {
+        int newLength = nextPowerOfTwo((int) Math.max(MIN_CAPACITY, Math.min(capacity, MAX_INT_CAPACITY)));
+        if (table != null && table.length() >= newLength) {
+            return;
+        }
+        table = new AtomicLongArray(newLength);
+        size = 0;
+    }
+
+    /**
+     * Returns the estimated number of accesses of the key with the given
+     * hash, it is at most 15.
+     *
+     * @param hash the hash code of the key
+     * @return the estimated access frequency
+     */
+    public int frequency(int hash) {
+        AtomicLongArray table = this.table;
+        int spread = fastIntMix(hash);
+        int start = (spread & (DEPTH - 1)) * DEPTH;
+        long frequency = COUNTER_MASK;
+        for (int i = 0; i < DEPTH; i++) {
+            long counter = (table.get(indexOf(table, spread, i)) >>> counterOffset(start, i)) & COUNTER_MASK;
+            frequency = Math.min(frequency, counter);
+        }
+        return (int) frequency;
+    }
+
+    /**
+     * Records an access of the key with the given hash.
+     *
+     * @param hash the hash code of the key
+     */
+    public void increment(int hash) {
+        AtomicLongArray table = this.table;
+        int spread = fastIntMix(hash);
+        int start = (spread & (DEPTH - 1)) * DEPTH;
+        boolean incremented = false;
+        for (int i = 0; i < DEPTH; i++) {
+            incremented |= incrementAt(table, indexOf(table, spread, i), counterOffset(start, i));
+        }
+
+        if (incremented && SIZE.incrementAndGet(this) >= sampleSize(table)) {
+            tryReset(table);
+        }
+    }
+
+    /**
+     * Discards all collected frequencies.
+     */
+    public void clear() {
+        AtomicLongArray table = this.table;
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, 0);
+        }
+        size = 0;
+    }
+
+    // just for testing
+    int capacity() {
+        return table.length();
+    }
+
+    private static boolean incrementAt(AtomicLongArray table, int index, int offset) {
+        long mask = COUNTER_MASK << offset;
+        for (; ; ) {
+            long value = table.get(index);
+            if ((value & mask) == mask) {
+                return false;
+            }
+            if (table.compareAndSet(index, value, value + (1L << offset))) {
+                return true;
+            }
+        }
+    }
+
+    private void tryReset(AtomicLongArray table) {
+        if (!RESETTING.compareAndSet(this, 0, 1)) {
+            // another thread is halving the counters
+            return;
+        }
+
+        try {
+            int sizeBeforeReset = size;
+            // the sketch could have been reset or resized since the size was incremented
+            if (table != this.table || sizeBeforeReset < sampleSize(table)) {
+                return;
+            }
+
+            int oddCount = 0;
+            for (int i = 0; i < table.length(); i++) {
+                for (; ; ) {
+                    long value = table.get(i);
+                    if (table.compareAndSet(i, value, (value >>> 1) & RESET_MASK)) {
+                        oddCount += Long.bitCount(value & ONE_MASK);
+                        break;
+                    }
+                }
+            }
+            // the counters that were odd lost half an increment each; the increments
+            // done while the counters were halved are kept
+            int sizeAfterReset = (sizeBeforeReset - (oddCount >>> 2)) >>> 1;
+            SIZE.addAndGet(this, sizeAfterReset - sizeBeforeReset);
+        } finally {
+            resetting = 0;
+        }
+    }
+
+    private static int sampleSize(AtomicLongArray table) {
+        return (int) Math.min((long) SAMPLE_FACTOR * table.length(), Integer.MAX_VALUE);
+    }
+
+    private static int indexOf(AtomicLongArray table, int spread, int row) {
+        long hash = (spread + SEEDS[row]) * SEEDS[row];
+        hash += hash >>> Integer.SIZE;
+        return (int) hash & (table.length() - 1);
+    }
+
+    private static int counterOffset(int start, int row) {
+        return (start + row) * COUNTER_BITS;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction.impl.evaluator;
+
+import com.hazelcast.internal.eviction.Evictable;
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.spi.eviction.EvictionPolicyComparator;
+
+/**
+ * {@link EvictionPolicyEvaluator} for the {@link com.hazelcast.config.EvictionPolicy#TINY_LFU}
+ * policy.
+ * <p>
+ * The access frequencies of the keys are tracked by a {@link FrequencySketch}
+ * owned by this evaluator, so there should be one evaluator per record store.
+ * The candidate with the lowest estimated frequency is selected for eviction
+ * and the ties are broken by the given comparator.
+ *
+ * @param <A> Type of the accessor (id) of the {@link EvictionCandidate}
+ * @param <E> Type of the {@link Evictable} value of {@link EvictionCandidate}
+ */
+public class TinyLFUEvictionPolicyEvaluator<A, E extends Evictable> extends EvictionPolicyEvaluator<A, E> {
+
+    private final FrequencySketch sketch = new FrequencySketch();
+
+    public TinyLFUEvictionPolicyEvaluator(EvictionPolicyComparator tieBreaker) {
+        super(tieBreaker);
+    }
+
+    @Override
+    public void recordAccess(Object key, int entryCount) {
+        // the sketch grows with the store, so it is sized right by the time the store is full
+        sketch.ensureCapacity(entryCount);
+        sketch.increment(key.hashCode());
+    }
+
+    /**
+     * Returns the estimated access frequency of the given key.
+     */
+    public int frequency(Object key) {
+        return sketch.frequency(key.hashCode());
+    }
+
+    /**
+     * Decides whether a new entry with the given key is worth evicting the
+     * given victim for. The new entry is admitted when its key is accessed at
+     * least as often as the victim's or when the victim is expired; admitting
+     * on a tie lets a cache that only sees new keys keep up with them.
+     *
+     * @param key    the key of the new entry
+     * @param victim the candidate that would be evicted for it
+     * @return {@code true} if the new entry should be admitted
+     */
+    public boolean admit(Object key, EvictionCandidate<A, E> victim) {
+        return victim == null
+                || isExpired(victim.getEvictable(), Clock.currentTimeMillis())
+                || frequency(key) >= frequency(victim.getAccessor());
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:rvcheckcomparetoforspecificreturnvalue")
+    public <C extends EvictionCandidate<A, E>> C evaluate(Iterable<C> candidates) {
+        long now = Clock.currentTimeMillis();
+        EvictionPolicyComparator tieBreaker = getEvictionPolicyComparator();
+
+        C selected = null;
+        int selectedFrequency = Integer.MAX_VALUE;
+        for (C current : candidates) {
+            if (isExpired(current.getEvictable(), now)) {
+                return current;
+            }
+
+            int frequency = frequency(current.getAccessor());
+            if (selected == null || frequency < selectedFrequency
+                    || (frequency == selectedFrequency && tieBreaker.compare(current, selected) < 0)) {
+                selected = current;
+                selectedFrequency = frequency;
+            }
+        }
+        return selected;
+    }
+}
@@ -21,6 +21,7 @@ import com.hazelcast.internal.eviction.EvictionCandidate;
 import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.eviction.EvictionListener;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
+import com.hazelcast.internal.eviction.impl.evaluator.TinyLFUEvictionPolicyEvaluator;
 
 /**
  * This strategy samples {@link Evictable} entries from {@link SampleableEvictableStore}, orders candidates
@@ -60,6 +61,35 @@ public final class SamplingEvictionStrategy<A, E extends Evictable, S extends Sa
         }
     }
 
+    /**
+     * Does eviction if required to make room for a new entry, unless the
+     * new entry is accessed less often than the entry that would be evicted
+     * for it.
+     *
+     * @param evictableStore            Store that holds {@link Evictable} entries
+     * @param evictionPolicyEvaluator   {@link TinyLFUEvictionPolicyEvaluator} to select the entry to evict
+     *                                  and to decide whether the new entry is admitted
+     * @param evictionChecker           {@link EvictionChecker} to check whether max size is reached, therefore
+     *                                  eviction is required or not.
+     * @param evictionListener          {@link EvictionListener} to listen evicted entries
+     * @param key                       the key of the new entry
+     *
+     * @return true if the new entry can be added, false if it is not admitted, in which case nothing is evicted
+     */
+    public boolean evictForAdmission(S evictableStore, TinyLFUEvictionPolicyEvaluator<A, E> evictionPolicyEvaluator,
+                                     EvictionChecker evictionChecker, EvictionListener<A, E> evictionListener,
+                                     Object key) {
+        if (!evictionChecker.isEvictionRequired()) {
+            return true;
+        }
+        final EvictionCandidate<A, E> evictionCandidate = evictionPolicyEvaluator.evaluate(evictableStore.sample(SAMPLE_COUNT));
+        if (!evictionPolicyEvaluator.admit(key, evictionCandidate)) {
+            return false;
+        }
+        evictableStore.tryEvict(evictionCandidate, evictionListener);
+        return true;
+    }
+
     /**
      * Processes sampling based eviction logic on {@link SampleableEvictableStore}.
      *
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.jfr;
+
+import com.hazelcast.internal.RequiresJfr;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@RequiresJfr
+@Name("com.hazelcast.Invocation")
+@Label("Invocation")
+@Category({"Hazelcast", "Operations"})
+@Description("A completed invocation of an operation; disabled by default since every invocation is recorded")
+@StackTrace(false)
+@Enabled(false)
+class InvocationEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Service")
+    String service;
+
+    @Label("Partition ID")
+    int partitionId;
+
+    @Label("Target")
+    String target;
+
+    @Label("Invoke Count")
+    int invokeCount;
+
+    @Label("Elapsed Time")
+    @Description("The time from the first invoke until the invocation is completed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsedNanos;
+
+    @Label("Outcome")
+    @Description("The outcome of the invocation: response, timeout, interrupted or error")
+    String outcome;
+}
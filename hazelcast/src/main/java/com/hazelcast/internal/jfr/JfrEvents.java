@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.jfr;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.RequiresJfr;
+import com.hazelcast.internal.partition.MigrationInfo;
+import com.hazelcast.internal.partition.PartitionReplica;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import jdk.jfr.EventType;
+
+/**
+ * Emits the Hazelcast events to the JDK Flight Recorder, so that recordings can correlate
+ * e.g. latency spikes or GC pauses with the operations, invocations and migrations that
+ * were running at that time.
+ * <p>
+ * The event classes are only loaded if the JDK Flight Recorder is present and the
+ * {@value #JFR_ENABLED_PROPERTY} system property isn't set to {@code false}. So callers
+ * should check that the event type is enabled, e.g. using {@link #isOperationEnabled()},
+ * before calling a begin method; this check is cheap and makes sure no event is allocated
+ * while no recording is running. The returned event is passed as an {@code Object}, so the
+ * callers don't depend on the event classes.
+ * <p>
+ * An invocation can live for a long time, so it only keeps the begin timestamp from
+ * {@link #beginInvocation()}; its event is only allocated when the invocation completes.
+ */
+@RequiresJfr
+public final class JfrEvents {
+
+    /**
+     * The name of the system property to disable the JDK Flight Recorder events.
+     */
+    public static final String JFR_ENABLED_PROPERTY = "hazelcast.jfr.enabled";
+
+    /**
+     * {@code true} if the JDK Flight Recorder events are emitted.
+     */
+    public static final boolean ENABLED = isJfrEnabled();
+
+    /**
+     * The begin timestamp of an invocation that isn't recorded.
+     */
+    public static final long NOT_RECORDED = Long.MIN_VALUE;
+
+    private JfrEvents() {
+    }
+
+    static boolean isJfrEnabled() {
+        if (!Boolean.parseBoolean(System.getProperty(JFR_ENABLED_PROPERTY, "true"))) {
+            return false;
+        }
+
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the begin timestamp of an invocation, or {@link #NOT_RECORDED} if the
+     * invocation events are disabled.
+     */
+    public static long beginInvocation() {
+        return ENABLED && EventTypes.INVOCATION.isEnabled() ? System.nanoTime() : NOT_RECORDED;
+    }
+
+    public static void commitInvocation(long beginNanos, Operation op, Address target, int invokeCount, String outcome) {
+        InvocationEvent event = new InvocationEvent();
+        if (event.shouldCommit()) {
+            event.elapsedNanos = System.nanoTime() - beginNanos;
+            event.operation = op.getClass().getName();
+            event.service = op.getServiceName();
+            event.partitionId = op.getPartitionId();
+            event.target = target == null ? null : target.toString();
+            event.invokeCount = invokeCount;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    public static boolean isOperationEnabled() {
+        return ENABLED && EventTypes.OPERATION.isEnabled();
+    }
+
+    public static Object beginOperation() {
+        OperationEvent event = new OperationEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void commitOperation(Object e, Operation op) {
+        OperationEvent event = (OperationEvent) e;
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = op.getClass().getName();
+            event.service = op.getServiceName();
+            event.partitionId = op.getPartitionId();
+            event.callId = op.getCallId();
+            event.commit();
+        }
+    }
+
+    public static boolean isMigrationEnabled() {
+        return ENABLED && EventTypes.MIGRATION.isEnabled();
+    }
+
+    public static Object beginMigration() {
+        MigrationEvent event = new MigrationEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void commitMigration(Object e, MigrationInfo migrationInfo) {
+        MigrationEvent event = (MigrationEvent) e;
+        event.end();
+        if (event.shouldCommit()) {
+            event.partitionId = migrationInfo.getPartitionId();
+            event.source = toString(migrationInfo.getSource());
+            event.destination = toString(migrationInfo.getDestination());
+            event.sourceCurrentReplicaIndex = migrationInfo.getSourceCurrentReplicaIndex();
+            event.destinationNewReplicaIndex = migrationInfo.getDestinationNewReplicaIndex();
+            event.status = String.valueOf(migrationInfo.getStatus());
+            event.commit();
+        }
+    }
+
+    public static boolean isSelectionKeysEnabled() {
+        return ENABLED && EventTypes.SELECTION_KEYS.isEnabled();
+    }
+
+    public static Object beginSelectionKeys() {
+        SelectionKeysEvent event = new SelectionKeysEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void commitSelectionKeys(Object e, int selectedKeys) {
+        SelectionKeysEvent event = (SelectionKeysEvent) e;
+        event.end();
+        if (event.shouldCommit()) {
+            event.selectedKeys = selectedKeys;
+            event.commit();
+        }
+    }
+
+    private static String toString(PartitionReplica replica) {
+        return replica == null ? null : replica.address().toString();
+    }
+
+    /**
+     * The event types, which are only loaded if the events are {@link #ENABLED}.
+     * Checking if an event type is enabled is just a field read.
+     */
+    @RequiresJfr
+    private static final class EventTypes {
+        static final EventType INVOCATION = EventType.getEventType(InvocationEvent.class);
+        static final EventType OPERATION = EventType.getEventType(OperationEvent.class);
+        static final EventType MIGRATION = EventType.getEventType(MigrationEvent.class);
+        static final EventType SELECTION_KEYS = EventType.getEventType(SelectionKeysEvent.class);
+
+        private EventTypes() {
+        }
+    }
+}
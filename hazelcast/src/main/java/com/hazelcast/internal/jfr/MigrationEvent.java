@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.jfr;
+
+import com.hazelcast.internal.RequiresJfr;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@RequiresJfr
+@Name("com.hazelcast.Migration")
+@Label("Migration")
+@Category({"Hazelcast", "Partitions"})
+@Description("A partition migration executed by the master")
+@StackTrace(false)
+class MigrationEvent extends jdk.jfr.Event {
+
+    @Label("Partition ID")
+    int partitionId;
+
+    @Label("Source")
+    String source;
+
+    @Label("Destination")
+    String destination;
+
+    @Label("Source Current Replica Index")
+    int sourceCurrentReplicaIndex;
+
+    @Label("Destination New Replica Index")
+    int destinationNewReplicaIndex;
+
+    @Label("Status")
+    String status;
+}
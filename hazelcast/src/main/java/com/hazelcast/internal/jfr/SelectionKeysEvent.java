@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.jfr;
+
+import com.hazelcast.internal.RequiresJfr;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@RequiresJfr
+@Name("com.hazelcast.SelectionKeys")
+@Label("Selection Keys Processed")
+@Category({"Hazelcast", "Networking"})
+@Description("The processing of the keys selected by an IO thread in a single round of its select loop")
+@StackTrace(false)
+@Threshold("1 ms")
+class SelectionKeysEvent extends jdk.jfr.Event {
+
+    @Label("Selected Keys")
+    int selectedKeys;
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+
+/**
+ * {@link MemoryAllocator} which allocates blocks from the native memory of
+ * the process using {@link sun.misc.Unsafe}.
+ * <p>
+ * Keeps track of the number of allocated bytes, so the owner can bound its
+ * memory usage. Blocks are not pooled, every allocation is passed to the
+ * {@code malloc()} of the platform. Disposing the allocator doesn't free the
+ * blocks which are still allocated; this is the responsibility of the owner.
+ */
+public final class UnsafeMemoryAllocator implements MemoryAllocator {
+
+    private final AtomicLong usedMemory = new AtomicLong();
+
+    public UnsafeMemoryAllocator() {
+        if (!UNSAFE_AVAILABLE) {
+            throw new UnsupportedOperationException("sun.misc.Unsafe is required to allocate native memory");
+        }
+    }
+
+    @Override
+    public long allocate(long size) {
+        long address;
+        try {
+            address = UNSAFE.allocateMemory(size);
+        } catch (OutOfMemoryError e) {
+            throw new NativeOutOfMemoryError("Could not allocate " + size + " bytes of native memory", e);
+        }
+        UNSAFE.setMemory(address, size, (byte) 0);
+        usedMemory.addAndGet(size);
+        return address;
+    }
+
+    @Override
+    public long reallocate(long address, long currentSize, long newSize) {
+        long newAddress;
+        try {
+            newAddress = UNSAFE.reallocateMemory(address, newSize);
+        } catch (OutOfMemoryError e) {
+            throw new NativeOutOfMemoryError("Could not reallocate " + newSize + " bytes of native memory", e);
+        }
+        if (newSize > currentSize) {
+            UNSAFE.setMemory(newAddress + currentSize, newSize - currentSize, (byte) 0);
+        }
+        usedMemory.addAndGet(newSize - currentSize);
+        return newAddress;
+    }
+
+    @Override
+    public void free(long address, long size) {
+        UNSAFE.freeMemory(address);
+        usedMemory.addAndGet(-size);
+    }
+
+    /**
+     * Returns the number of bytes which are allocated and not freed yet.
+     *
+     * @return the number of allocated bytes
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    @Override
+    public void dispose() {
+    }
+}
@@ -188,6 +188,16 @@ public final class MetricDescriptorConstants {
     public static final String HOTRESTART_METRIC_GC_LIVE_TOMBSTONES = "liveTombstones";
     // ===[/HOT-RESTART]================================================
 
+    // ===[HOTKEYS]=====================================================
+    public static final String HOTKEYS_PREFIX = "hotKeys";
+    public static final String HOTKEYS_DISCRIMINATOR_NAME = "name";
+    public static final String HOTKEYS_METRIC_OPERATION_COUNT = "operationCount";
+    public static final String HOTKEYS_METRIC_HOTTEST_PARTITION_ID = "hottestPartitionId";
+    public static final String HOTKEYS_METRIC_HOTTEST_PARTITION_OPERATION_COUNT = "hottestPartitionOperationCount";
+    public static final String HOTKEYS_METRIC_HOTTEST_KEY_HASH = "hottestKeyHash";
+    public static final String HOTKEYS_METRIC_HOTTEST_KEY_OPERATION_COUNT = "hottestKeyOperationCount";
+    // ===[/HOTKEYS]====================================================
+
     // ===[LIST]=======================================================
     public static final String LIST_PREFIX = "list";
     public static final String LIST_METRIC_LAST_ACCESS_TIME = "lastAccessTime";
@@ -322,6 +332,7 @@ public final class MetricDescriptorConstants {
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_IDLE_TIME_MILLIS = "idleTimeMillis";
     public static final String NETWORKING_METRIC_NIO_OUTBOUND_PIPELINE_SCHEDULED = "scheduled";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_PROCESS_COUNT = "processCount";
+    public static final String NETWORKING_METRIC_NIO_PIPELINE_PROCESS_TIME_NANOS = "processTimeNanos";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_OWNER_ID = "ownerId";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_STARTED_MIGRATIONS = "startedMigrations";
     public static final String NETWORKING_METRIC_NIO_PIPELINE_COMPLETED_MIGRATIONS = "completedMigrations";
@@ -332,6 +343,7 @@ public final class MetricDescriptorConstants {
     public static final String NETWORKING_METRIC_NIO_THREAD_FRAMES_TRANSCEIVED = "framesTransceived";
     public static final String NETWORKING_METRIC_NIO_THREAD_PRIORITY_FRAMES_TRANSCEIVED = "priorityFramesTransceived";
     public static final String NETWORKING_METRIC_NIO_THREAD_PROCESS_COUNT = "processCount";
+    public static final String NETWORKING_METRIC_NIO_THREAD_PROCESS_TIME_NANOS = "processTimeNanos";
     public static final String NETWORKING_METRIC_NIO_THREAD_TASK_QUEUE_SIZE = "taskQueueSize";
     public static final String NETWORKING_METRIC_NIO_THREAD_EVENT_COUNT = "eventCount";
     public static final String NETWORKING_METRIC_NIO_THREAD_SELECTOR_IO_EXCEPTION_COUNT = "selectorIOExceptionCount";
@@ -345,14 +357,22 @@ public final class MetricDescriptorConstants {
     // ===[OPERATION]===================================================
     public static final String OPERATION_PREFIX = "operation";
     public static final String OPERATION_PREFIX_ADHOC = "operation.adhoc";
+    public static final String OPERATION_PREFIX_BACKPRESSURE = "operation.backpressure";
+    public static final String OPERATION_PREFIX_BACKPRESSURE_MEMBER = "operation.backpressure.member";
     public static final String OPERATION_PREFIX_GENERIC = "operation.generic";
     public static final String OPERATION_PREFIX_INVOCATIONS = "operation.invocations";
+    public static final String OPERATION_PREFIX_LATENCY = "operation.latency";
+    public static final String OPERATION_PREFIX_LATENCY_OBJECT = "operation.latency.object";
     public static final String OPERATION_PREFIX_PARKER = "operation.parker";
     public static final String OPERATION_PREFIX_PARTITION = "operation.partition";
     public static final String OPERATION_PREFIX_THREAD = "operation.thread";
     public static final String OPERATION_DISCRIMINATOR_THREAD = "thread";
     public static final String OPERATION_DISCRIMINATOR_PARTITIONID = "partitionId";
     public static final String OPERATION_DISCRIMINATOR_GENERICID = "genericId";
+    public static final String OPERATION_DISCRIMINATOR_OPERATION = "operation";
+    public static final String OPERATION_DISCRIMINATOR_NAME = "name";
+    public static final String OPERATION_DISCRIMINATOR_MEMBER = "member";
+    public static final String OPERATION_TAG_SERVICE = "service";
     public static final String OPERATION_METRIC_EXECUTOR_RUNNING_COUNT = "runningCount";
     public static final String OPERATION_METRIC_EXECUTOR_RUNNING_PARTITION_COUNT = "runningPartitionCount";
     public static final String OPERATION_METRIC_EXECUTOR_RUNNING_GENERIC_COUNT = "runningGenericCount";
@@ -400,6 +420,17 @@ public final class MetricDescriptorConstants {
     public static final String OPERATION_METRIC_OPERATION_SERVICE_CALL_TIMEOUT_COUNT = "callTimeoutCount";
     public static final String OPERATION_METRIC_OPERATION_SERVICE_RETRY_COUNT = "retryCount";
     public static final String OPERATION_METRIC_OPERATION_SERVICE_FAILED_BACKUPS = "failedBackups";
+    public static final String OPERATION_METRIC_LATENCY_COUNT = "count";
+    public static final String OPERATION_METRIC_LATENCY_P50 = "p50";
+    public static final String OPERATION_METRIC_LATENCY_P99 = "p99";
+    public static final String OPERATION_METRIC_LATENCY_P999 = "p999";
+    public static final String OPERATION_METRIC_LATENCY_MAX = "max";
+    public static final String OPERATION_METRIC_BACKPRESSURE_LIMIT = "limit";
+    public static final String OPERATION_METRIC_BACKPRESSURE_IN_FLIGHT = "inFlight";
+    public static final String OPERATION_METRIC_BACKPRESSURE_PARTITION_LIMIT_MIN = "partitionLimitMin";
+    public static final String OPERATION_METRIC_BACKPRESSURE_PARTITION_LIMIT_AVG = "partitionLimitAvg";
+    public static final String OPERATION_METRIC_BACKPRESSURE_PARTITION_IN_FLIGHT = "partitionInFlight";
+    public static final String OPERATION_METRIC_BACKPRESSURE_REJECTED_COUNT = "rejectedCount";
     // ===[/OPERATION]==================================================
 
     // ===[OS]==========================================================
@@ -94,6 +94,20 @@ public interface NearCacheRecord<V> extends Expirable, Evictable<V> {
      */
     void incrementHits();
 
+    /**
+     * Records an access of this {@link Evictable} for the
+     * {@link com.hazelcast.config.EvictionPolicy#CLOCK} policy. Sets its
+     * reference bit and only writes the access time when it changes and
+     * the hit count on a sample of the accesses.
+     *
+     * @param now the access time in milliseconds
+     * @see com.hazelcast.internal.eviction.RelaxedAccessStats
+     */
+    default void onAccessRelaxed(long now) {
+        setLastAccessTime(now);
+        incrementHits();
+    }
+
     /**
      * It can have 2 different value:
      *
@@ -140,6 +154,11 @@ public interface NearCacheRecord<V> extends Expirable, Evictable<V> {
      */
     void setUuid(UUID uuid);
 
+    /**
+     * @return the partition UUID at time of this records' creation
+     */
+    UUID getUuid();
+
     /**
      * @return {@code true} if supplied UUID equals
      * existing one, otherwise and when one of supplied
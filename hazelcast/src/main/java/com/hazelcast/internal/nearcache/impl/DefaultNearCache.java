@@ -22,6 +22,7 @@ import com.hazelcast.internal.adapter.DataStructureAdapter;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheDataRecordStore;
+import com.hazelcast.internal.nearcache.impl.store.NearCacheNativeRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheObjectRecordStore;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
@@ -94,6 +95,8 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
                 return new NearCacheDataRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
             case OBJECT:
                 return new NearCacheObjectRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
+            case NATIVE:
+                return new NearCacheNativeRecordStore<K, V>(name, nearCacheConfig, serializationService);
             default:
                 throw new IllegalArgumentException("Invalid in memory format: " + inMemoryFormat);
         }
@@ -172,7 +175,7 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
 
     @Override
     public void preload(DataStructureAdapter<Object, ?> adapter) {
-        nearCacheRecordStore.loadKeys(adapter);
+        nearCacheRecordStore.loadKeys(adapter, scheduler);
         preloadDone = true;
     }
 
@@ -28,6 +28,7 @@ import com.hazelcast.internal.util.ConstructorFunction;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -39,14 +40,43 @@ import java.util.function.Function;
 
 import static com.hazelcast.core.LifecycleEvent.LifecycleState.SHUTTING_DOWN;
 import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static com.hazelcast.internal.util.ToHeapDataConverter.toHeapData;
 import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Sends invalidations to Near Cache in batches.
+ * <p>
+ * By default a batch is sent when {@code batchSize} invalidations are
+ * queued for a data structure, or at the latest after {@code batchFrequencySeconds}.
+ * <p>
+ * In adaptive mode, the batch size and the linger time are sized per data
+ * structure from its observed invalidation rate: a batch is targeted to gather
+ * the invalidations of {@value #ADAPTIVE_FLUSH_INTERVAL_MILLIS} milliseconds,
+ * so invalidations of a rarely updated data structure are sent right away,
+ * while a heavily updated one is sent in batches of up to {@code batchSize}.
+ * {@code batchFrequencySeconds} is the upper bound of the linger time.
+ * Additionally, repeated invalidations of the same key within a batch are
+ * collapsed into the latest one. To not leave gaps in the sequences seen by
+ * the Near Caches, sequences of key invalidations are assigned when a batch
+ * is sent, rather than when the invalidation is queued.
  */
 public class BatchInvalidator extends Invalidator {
 
+    /**
+     * Time a batch is targeted to gather invalidations in adaptive mode,
+     * which is also the period of the background sender.
+     */
+    static final long ADAPTIVE_FLUSH_INTERVAL_MILLIS = 100;
+
+    /**
+     * Weight of the latest sample in the smoothed invalidation rate.
+     */
+    private static final double RATE_SMOOTHING = 0.5;
+
+    private static final long ADAPTIVE_FLUSH_INTERVAL_NANOS = MILLISECONDS.toNanos(ADAPTIVE_FLUSH_INTERVAL_MILLIS);
+
     private final String invalidationExecutorName;
 
     /**
@@ -67,15 +97,22 @@ public class BatchInvalidator extends Invalidator {
 
     private final int batchSize;
     private final int batchFrequencySeconds;
+    private final boolean adaptive;
     private final UUID nodeShutdownListenerId;
     private final AtomicBoolean runningBackgroundTask = new AtomicBoolean(false);
 
     public BatchInvalidator(String serviceName, int batchSize, int batchFrequencySeconds,
                             Function<EventRegistration, Boolean> eventFilter, NodeEngine nodeEngine) {
+        this(serviceName, batchSize, batchFrequencySeconds, false, eventFilter, nodeEngine);
+    }
+
+    public BatchInvalidator(String serviceName, int batchSize, int batchFrequencySeconds, boolean adaptive,
+                            Function<EventRegistration, Boolean> eventFilter, NodeEngine nodeEngine) {
         super(serviceName, eventFilter, nodeEngine);
 
         this.batchSize = batchSize;
         this.batchFrequencySeconds = batchFrequencySeconds;
+        this.adaptive = adaptive;
         this.nodeShutdownListenerId = registerNodeShutdownListener();
         this.invalidationExecutorName = serviceName + getClass();
     }
@@ -83,6 +120,10 @@ public class BatchInvalidator extends Invalidator {
     @Override
     protected Invalidation newInvalidation(Data key, String dataStructureName, UUID sourceUuid, int partitionId) {
         checkBackgroundTaskIsRunning();
+        if (adaptive && key != null) {
+            // sequence is assigned when the batch is sent
+            return new PendingInvalidation(key, dataStructureName, sourceUuid, partitionId);
+        }
         return super.newInvalidation(key, dataStructureName, sourceUuid, partitionId);
     }
 
@@ -92,7 +133,8 @@ public class BatchInvalidator extends Invalidator {
         InvalidationQueue<Invalidation> invalidationQueue = invalidationQueueOf(dataStructureName);
         invalidationQueue.offer(invalidation);
 
-        if (invalidationQueue.size() >= batchSize) {
+        int flushThreshold = adaptive ? invalidationQueue.getFlushThreshold() : batchSize;
+        if (invalidationQueue.size() >= flushThreshold) {
             pollAndSendInvalidations(dataStructureName, invalidationQueue);
         }
     }
@@ -108,14 +150,28 @@ public class BatchInvalidator extends Invalidator {
             return;
         }
 
-        List<Invalidation> invalidations;
+        if (!adaptive) {
+            List<Invalidation> invalidations;
+            try {
+                invalidations = pollInvalidations(invalidationQueue);
+            } finally {
+                invalidationQueue.release();
+            }
+
+            sendInvalidations(dataStructureName, invalidations);
+            return;
+        }
+
+        // sequences are assigned here, so the batch is sent before the queue
+        // is released to publish the batches of a data structure in sequence order
         try {
-            invalidations = pollInvalidations(invalidationQueue);
+            List<Invalidation> invalidations = assignSequences(deduplicate(pollInvalidations(invalidationQueue)));
+            if (!invalidations.isEmpty()) {
+                sendInvalidations(dataStructureName, invalidations);
+            }
         } finally {
             invalidationQueue.release();
         }
-
-        sendInvalidations(dataStructureName, invalidations);
     }
 
     private List<Invalidation> pollInvalidations(InvalidationQueue<Invalidation> invalidationQueue) {
@@ -135,6 +191,38 @@ public class BatchInvalidator extends Invalidator {
         return invalidations;
     }
 
+    /**
+     * Keeps only the latest invalidation of each key, in the order of the
+     * latest invalidations.
+     */
+    private static List<Invalidation> deduplicate(List<Invalidation> invalidations) {
+        Map<Data, Integer> latestIndexes = new HashMap<>(invalidations.size());
+        for (int i = 0; i < invalidations.size(); i++) {
+            latestIndexes.put(invalidations.get(i).getKey(), i);
+        }
+        if (latestIndexes.size() == invalidations.size()) {
+            return invalidations;
+        }
+
+        List<Invalidation> deduplicated = new ArrayList<>(latestIndexes.size());
+        for (int i = 0; i < invalidations.size(); i++) {
+            Invalidation invalidation = invalidations.get(i);
+            if (latestIndexes.get(invalidation.getKey()) == i) {
+                deduplicated.add(invalidation);
+            }
+        }
+        return deduplicated;
+    }
+
+    private List<Invalidation> assignSequences(List<Invalidation> invalidations) {
+        for (int i = 0; i < invalidations.size(); i++) {
+            PendingInvalidation pending = (PendingInvalidation) invalidations.get(i);
+            invalidations.set(i, super.newInvalidation(pending.getKey(), pending.getName(),
+                    pending.getPendingSourceUuid(), pending.getPartitionId()));
+        }
+        return invalidations;
+    }
+
     private void sendInvalidations(String dataStructureName, List<Invalidation> invalidations) {
         // There will always be at least one listener which listens invalidations. This is the reason behind eager creation
         // of BatchNearCacheInvalidation instance here. There is a causality between listener and invalidation. Only if we have
@@ -180,8 +268,13 @@ public class BatchInvalidator extends Invalidator {
 
         if (runningBackgroundTask.compareAndSet(false, true)) {
             ExecutionService executionService = nodeEngine.getExecutionService();
-            executionService.scheduleWithRepetition(invalidationExecutorName,
-                    new BatchInvalidationEventSender(), batchFrequencySeconds, batchFrequencySeconds, SECONDS);
+            if (adaptive) {
+                executionService.scheduleWithRepetition(invalidationExecutorName, new BatchInvalidationEventSender(),
+                        ADAPTIVE_FLUSH_INTERVAL_MILLIS, ADAPTIVE_FLUSH_INTERVAL_MILLIS, MILLISECONDS);
+            } else {
+                executionService.scheduleWithRepetition(invalidationExecutorName,
+                        new BatchInvalidationEventSender(), batchFrequencySeconds, batchFrequencySeconds, SECONDS);
+            }
         }
     }
 
@@ -198,13 +291,57 @@ public class BatchInvalidator extends Invalidator {
                 }
                 String name = entry.getKey();
                 InvalidationQueue<Invalidation> invalidationQueue = entry.getValue();
-                if (invalidationQueue.size() > 0) {
+                if (adaptive) {
+                    long now = System.nanoTime();
+                    invalidationQueue.adapt(now, RATE_SMOOTHING, ADAPTIVE_FLUSH_INTERVAL_NANOS,
+                            batchSize, ADAPTIVE_FLUSH_INTERVAL_NANOS, SECONDS.toNanos(batchFrequencySeconds));
+                    if (invalidationQueue.size() > 0
+                            && now - invalidationQueue.getOldestOfferNanos() >= invalidationQueue.getLingerNanos()) {
+                        pollAndSendInvalidations(name, invalidationQueue);
+                    }
+                } else if (invalidationQueue.size() > 0) {
                     pollAndSendInvalidations(name, invalidationQueue);
                 }
             }
         }
     }
 
+    /**
+     * A key invalidation which is queued in adaptive mode, before its
+     * sequence is assigned. It's never sent to the Near Caches.
+     */
+    private static final class PendingInvalidation extends Invalidation {
+
+        private final Data key;
+        private final UUID sourceUuid;
+        private final int partitionId;
+
+        PendingInvalidation(Data key, String dataStructureName, UUID sourceUuid, int partitionId) {
+            super(dataStructureName);
+            this.key = toHeapData(key);
+            this.sourceUuid = sourceUuid;
+            this.partitionId = partitionId;
+        }
+
+        @Override
+        public Data getKey() {
+            return key;
+        }
+
+        UUID getPendingSourceUuid() {
+            return sourceUuid;
+        }
+
+        int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public int getClassId() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     @Override
     public void destroy(String dataStructureName, UUID sourceUuid) {
         invalidationQueues.remove(dataStructureName);
@@ -28,6 +28,15 @@ public final class InvalidationQueue<T> extends ConcurrentLinkedQueue<T> {
     private final AtomicInteger elementCount = new AtomicInteger(0);
     private final AtomicBoolean flushingInProgress = new AtomicBoolean(false);
 
+    // state of the adaptive batching, see BatchInvalidator
+    private volatile long pollCount;
+    private volatile long oldestOfferNanos;
+    private volatile int flushThreshold = 1;
+    private volatile long lingerNanos;
+    private long sampledOfferCount;
+    private long sampledNanos;
+    private double offerRate;
+
     @Override
     public int size() {
         return elementCount.get();
@@ -36,8 +45,8 @@ public final class InvalidationQueue<T> extends ConcurrentLinkedQueue<T> {
     @Override
     public boolean offer(T invalidation) {
         boolean offered = super.offer(invalidation);
-        if (offered) {
-            elementCount.incrementAndGet();
+        if (offered && elementCount.incrementAndGet() == 1) {
+            oldestOfferNanos = System.nanoTime();
         }
         return offered;
     }
@@ -47,10 +56,65 @@ public final class InvalidationQueue<T> extends ConcurrentLinkedQueue<T> {
         T invalidation = super.poll();
         if (invalidation != null) {
             elementCount.decrementAndGet();
+            pollCount++;
         }
         return invalidation;
     }
 
+    /**
+     * Returns the total number of invalidations offered to this queue so far.
+     * Polling is only done by the flushing thread, so this is not atomic, but
+     * it never goes backwards.
+     */
+    long getOfferCount() {
+        return pollCount + size();
+    }
+
+    long getOldestOfferNanos() {
+        return oldestOfferNanos;
+    }
+
+    int getFlushThreshold() {
+        return flushThreshold;
+    }
+
+    long getLingerNanos() {
+        return lingerNanos;
+    }
+
+    /**
+     * Updates the smoothed offer rate of this queue with the offers seen since
+     * the previous sample and resizes the adaptive flush threshold and linger
+     * time from it.
+     * <p>
+     * Only called by the background sender of the {@link BatchInvalidator}.
+     *
+     * @param nowNanos       current time in nanos
+     * @param smoothing      weight of the latest sample in the smoothed rate
+     * @param flushInterval  time in nanos a batch is targeted to gather invalidations
+     * @param maxBatchSize   upper bound of the flush threshold
+     * @param minLingerNanos lower bound of the linger time
+     * @param maxLingerNanos upper bound of the linger time
+     */
+    @SuppressWarnings("checkstyle:parameternumber")
+    void adapt(long nowNanos, double smoothing, long flushInterval,
+               int maxBatchSize, long minLingerNanos, long maxLingerNanos) {
+        long offerCount = getOfferCount();
+        long elapsedNanos = nowNanos - sampledNanos;
+        if (sampledNanos != 0 && elapsedNanos > 0) {
+            double sample = (double) (offerCount - sampledOfferCount) / elapsedNanos;
+            offerRate = smoothing * sample + (1 - smoothing) * offerRate;
+        }
+        sampledOfferCount = offerCount;
+        sampledNanos = nowNanos;
+
+        double expectedPerInterval = offerRate * flushInterval;
+        int threshold = (int) Math.max(1, Math.min(maxBatchSize, Math.ceil(expectedPerInterval)));
+        long linger = offerRate > 0 ? (long) (threshold / offerRate) : minLingerNanos;
+        flushThreshold = threshold;
+        lingerNanos = Math.max(minLingerNanos, Math.min(maxLingerNanos, linger));
+    }
+
     public boolean tryAcquire() {
         return flushingInProgress.compareAndSet(false, true);
     }
@@ -85,6 +85,23 @@ public abstract class Invalidator {
         sendImmediately(invalidation, orderKey);
     }
 
+    /**
+     * Advances the sequence of the partition of the supplied key without sending
+     * an invalidation, if invalidations have been sent for the data structure before.
+     * <p>
+     * This is used when there is no invalidation listener, so a Near Cache which
+     * has been stored with its invalidation metadata can detect the change, when
+     * it's pre-loaded again.
+     *
+     * @param key               key of the changed entry
+     * @param dataStructureName name of the changed data structure
+     */
+    public final void advanceSequence(Data key, String dataStructureName) {
+        if (metaDataGenerator.isSequenceGenerated(dataStructureName)) {
+            metaDataGenerator.nextSequence(dataStructureName, getPartitionId(key));
+        }
+    }
+
     public final MetaDataGenerator getMetaDataGenerator() {
         return metaDataGenerator;
     }
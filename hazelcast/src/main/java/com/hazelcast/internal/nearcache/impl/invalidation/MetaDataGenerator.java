@@ -73,6 +73,14 @@ public class MetaDataGenerator {
         return sequenceGenerator(name).incrementAndGet(partitionId);
     }
 
+    /**
+     * @param name name of the data structure
+     * @return {@code true} if sequences have been generated for the data structure
+     */
+    public boolean isSequenceGenerated(String name) {
+        return sequenceGenerators.containsKey(name);
+    }
+
     public void setCurrentSequence(String name, int partitionId, long sequence) {
         sequenceGenerator(name).set(partitionId, sequence);
     }
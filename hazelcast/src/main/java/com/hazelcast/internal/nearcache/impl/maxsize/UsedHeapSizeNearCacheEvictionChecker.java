@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.maxsize;
+
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.nearcache.NearCacheStats;
+
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+
+/**
+ * Near Cache max-size policy implementation for {@link MaxSizePolicy#USED_HEAP_SIZE}.
+ * <p>
+ * Checks if the estimated heap cost of the Near Cache entries exceeds the
+ * configured size in megabytes.
+ *
+ * @see EvictionChecker
+ */
+public class UsedHeapSizeNearCacheEvictionChecker
+        implements EvictionChecker {
+
+    private final NearCacheStats nearCacheStats;
+    private final long maxHeapCost;
+
+    public UsedHeapSizeNearCacheEvictionChecker(int sizeInMegaBytes, NearCacheStats nearCacheStats) {
+        this.maxHeapCost = MEGABYTES.toBytes(sizeInMegaBytes);
+        this.nearCacheStats = nearCacheStats;
+    }
+
+    @Override
+    public boolean isEvictionRequired() {
+        return nearCacheStats.getOwnedEntryMemoryCost() > maxHeapCost;
+    }
+}
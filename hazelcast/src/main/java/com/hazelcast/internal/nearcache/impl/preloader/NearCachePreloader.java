@@ -18,6 +18,7 @@ package com.hazelcast.internal.nearcache.impl.preloader;
 
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.util.BufferingInputStream;
 import com.hazelcast.internal.util.collection.InflatableSet;
@@ -35,36 +36,85 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.Iterator;
-
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.readLongB;
 import static com.hazelcast.internal.nio.Bits.writeIntB;
 import static com.hazelcast.internal.nio.IOUtil.closeResource;
 import static com.hazelcast.internal.nio.IOUtil.deleteQuietly;
 import static com.hazelcast.internal.nio.IOUtil.getPath;
+import static com.hazelcast.internal.nio.IOUtil.readFully;
 import static com.hazelcast.internal.nio.IOUtil.readFullyOrNothing;
 import static com.hazelcast.internal.nio.IOUtil.rename;
 import static com.hazelcast.internal.nio.IOUtil.toFileName;
+import static com.hazelcast.internal.util.Clock.currentTimeMillis;
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.StringUtil.isNullOrEmpty;
 import static java.lang.String.format;
 import static java.nio.ByteBuffer.allocate;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Loads and stores the keys from a Near Cache into a file.
+ * <p>
+ * The keys are loaded in batches, which are fetched concurrently by the loading
+ * thread and up to {@link NearCachePreloaderConfig#getLoadConcurrency()} - 1 tasks
+ * on the supplied executor, and throttled
+ * to {@link NearCachePreloaderConfig#getLoadRateLimit()} keys per second.
+ * If {@link NearCachePreloaderConfig#isStoreValues()} is enabled, the values
+ * are stored with the invalidation metadata of their partition, so they can
+ * be restored without fetching them as long as they haven't changed.
  *
  * @param <K> type of the {@link com.hazelcast.internal.nearcache.NearCacheRecord} keys
  */
 public class NearCachePreloader<K> {
 
+    /**
+     * Restores a stored value into the Near Cache.
+     */
+    @FunctionalInterface
+    public interface ValueRestorer {
+
+        /**
+         * Puts the stored value into the Near Cache, if the invalidation
+         * metadata of its partition still matches the stored one.
+         *
+         * @param key           the serialized key
+         * @param value         the serialized value
+         * @param partitionId   the partition ID of the key when the value was stored
+         * @param partitionUuid the partition UUID when the value was stored
+         * @param sequence      the invalidation sequence when the value was stored
+         * @return {@code true} if the value has been restored, {@code false} if it has to be fetched
+         */
+        boolean restore(Data key, Data value, int partitionId, UUID partitionUuid, long sequence);
+    }
+
     /**
      * File format for the file header.
      */
     private enum FileFormat {
-        INTERLEAVED_LENGTH_FIELD
+        INTERLEAVED_LENGTH_FIELD,
+        INTERLEAVED_LENGTH_FIELD_WITH_VALUES
     }
 
+    /**
+     * Length field of an entry without a stored value.
+     */
+    private static final int NO_VALUE = -1;
+
     /**
      * Magic bytes for the file header.
      */
@@ -90,6 +140,9 @@ public class NearCachePreloader<K> {
     private final String nearCacheName;
     private final NearCacheStatsImpl nearCacheStats;
     private final SerializationService serializationService;
+    private final boolean storeValues;
+    private final int loadConcurrency;
+    private final long loadNanosPerKey;
 
     private final NearCachePreloaderLock lock;
     private final File storeFile;
@@ -104,6 +157,10 @@ public class NearCachePreloader<K> {
         this.nearCacheName = nearCacheName;
         this.nearCacheStats = nearCacheStats;
         this.serializationService = serializationService;
+        this.storeValues = preloaderConfig.isStoreValues();
+        this.loadConcurrency = preloaderConfig.getLoadConcurrency();
+        this.loadNanosPerKey = preloaderConfig.getLoadRateLimit() > 0
+                ? SECONDS.toNanos(1) / preloaderConfig.getLoadRateLimit() : 0;
 
         String filename = getFilename(preloaderConfig.getDirectory(), nearCacheName);
         this.lock = new NearCachePreloaderLock(logger, filename + ".lock");
@@ -115,12 +172,36 @@ public class NearCachePreloader<K> {
         lock.release();
     }
 
+    /**
+     * Returns if the values should be stored alongside the keys.
+     *
+     * @return {@code true} if {@link #storeRecords(Iterator)} should be used to store the Near Cache
+     */
+    public boolean isStoreValues() {
+        return storeValues;
+    }
+
+    /**
+     * Loads the values via a stored key file into the supplied {@link DataStructureAdapter}.
+     *
+     * @param adapter  the {@link DataStructureAdapter} to load the values from
+     * @param executor the executor to load batches concurrently on
+     */
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter, Executor executor) {
+        loadKeys(adapter, null, executor);
+    }
+
     /**
      * Loads the values via a stored key file into the supplied {@link DataStructureAdapter}.
+     * <p>
+     * Stored values are passed to the supplied {@link ValueRestorer} first, only the
+     * values which it can't restore are loaded from the {@link DataStructureAdapter}.
      *
-     * @param adapter the {@link DataStructureAdapter} to load the values from
+     * @param adapter  the {@link DataStructureAdapter} to load the values from
+     * @param restorer the {@link ValueRestorer} for stored values, can be {@code null}
+     * @param executor the executor to load batches concurrently on
      */
-    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter, ValueRestorer restorer, Executor executor) {
         if (!storeFile.exists()) {
             logger.info(format("Skipped loading keys of Near Cache %s since storage file doesn't exist (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
@@ -131,14 +212,17 @@ public class NearCachePreloader<K> {
         BufferingInputStream bis = null;
         try {
             bis = new BufferingInputStream(new FileInputStream(storeFile), BUFFER_SIZE);
-            if (!checkHeader(bis)) {
+            FileFormat fileFormat = checkHeader(bis);
+            if (fileFormat == null) {
                 return;
             }
 
-            int loadedKeys = loadKeySet(bis, adapter);
+            KeyLoader keyLoader = new KeyLoader(bis, fileFormat, adapter, restorer, executor);
+            keyLoader.load();
 
             long elapsedMillis = getElapsedMillis(startedNanos);
-            logger.info(format("Loaded %d keys of Near Cache %s in %d ms", loadedKeys, nearCacheName, elapsedMillis));
+            logger.info(format("Loaded %d keys of Near Cache %s in %d ms (%d values restored)", keyLoader.loadedKeys.get(),
+                    nearCacheName, elapsedMillis, keyLoader.restoredValues.get()));
         } catch (Exception e) {
             logger.warning(format("Could not pre-load Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()), e);
         } finally {
@@ -146,19 +230,19 @@ public class NearCachePreloader<K> {
         }
     }
 
-    private boolean checkHeader(BufferingInputStream bis) throws IOException {
+    private FileFormat checkHeader(BufferingInputStream bis) throws IOException {
         int magicBytes = readInt(bis);
         if (magicBytes != MAGIC_BYTES) {
             logger.warning(format("Found invalid header for Near Cache %s (%s)", nearCacheName, storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
         int fileFormat = readInt(bis);
         if (fileFormat < 0 || fileFormat > FileFormat.values().length - 1) {
             logger.warning(format("Found invalid file format for Near Cache %s (%s)", nearCacheName,
                     storeFile.getAbsolutePath()));
-            return false;
+            return null;
         }
-        return true;
+        return FileFormat.values()[fileFormat];
     }
 
     /**
@@ -167,6 +251,22 @@ public class NearCachePreloader<K> {
      * @param iterator {@link Iterator} over the key set of a {@link com.hazelcast.internal.nearcache.NearCacheRecordStore}
      */
     public void storeKeys(Iterator<K> iterator) {
+        store(FileFormat.INTERLEAVED_LENGTH_FIELD, iterator);
+    }
+
+    /**
+     * Stores the Near Cache keys and the values of valid records from the supplied iterator.
+     * <p>
+     * A value is only stored if the record has been created with invalidation
+     * metadata, since the metadata is needed to verify the value on loading.
+     *
+     * @param iterator {@link Iterator} over the entries of a {@link com.hazelcast.internal.nearcache.NearCacheRecordStore}
+     */
+    public void storeRecords(Iterator<? extends Map.Entry<K, ? extends NearCacheRecord>> iterator) {
+        store(FileFormat.INTERLEAVED_LENGTH_FIELD_WITH_VALUES, iterator);
+    }
+
+    private void store(FileFormat fileFormat, Iterator<?> iterator) {
         long startedNanos = System.nanoTime();
         FileOutputStream fos = null;
         try {
@@ -178,8 +278,8 @@ public class NearCachePreloader<K> {
 
             // write header and keys
             writeInt(fos, MAGIC_BYTES);
-            writeInt(fos, FileFormat.INTERLEAVED_LENGTH_FIELD.ordinal());
-            writeKeySet(fos, fos.getChannel(), iterator);
+            writeInt(fos, fileFormat.ordinal());
+            writeKeySet(fos, fos.getChannel(), fileFormat, iterator);
 
             // cleanup if no keys have been written
             if (lastKeyCount == 0) {
@@ -211,53 +311,76 @@ public class NearCachePreloader<K> {
                 MemoryUnit.BYTES.toKiloBytes(lastWrittenBytes)));
     }
 
-    private int loadKeySet(BufferingInputStream bis, DataStructureAdapter<Object, ?> adapter) throws IOException {
-        int loadedKeys = 0;
-
-        Builder<Object> builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
-        while (readFullyOrNothing(bis, tmpBytes)) {
-            int dataSize = readIntB(tmpBytes, 0);
-            byte[] payload = new byte[dataSize];
-            if (!readFullyOrNothing(bis, payload)) {
-                break;
-            }
-            Data key = new HeapData(payload);
-            builder.add(serializationService.toObject(key));
-            if (builder.size() == LOAD_BATCH_SIZE) {
-                adapter.getAll(builder.build());
-                builder = InflatableSet.newBuilder(LOAD_BATCH_SIZE);
+    @SuppressWarnings("unchecked")
+    private void writeKeySet(FileOutputStream fos, FileChannel outChannel, FileFormat fileFormat, Iterator<?> iterator)
+            throws IOException {
+        long now = currentTimeMillis();
+        while (iterator.hasNext()) {
+            if (fileFormat == FileFormat.INTERLEAVED_LENGTH_FIELD_WITH_VALUES) {
+                writeRecord(fos, (Map.Entry<K, ? extends NearCacheRecord>) iterator.next(), now);
+            } else {
+                writeKey(fos, (K) iterator.next());
             }
-            loadedKeys++;
+            flushLocalBuffer(outChannel);
         }
-        if (builder.size() > 0) {
-            adapter.getAll(builder.build());
+    }
+
+    private void writeKey(FileOutputStream fos, K key) throws IOException {
+        Data dataKey = serializationService.toData(key);
+        if (dataKey != null) {
+            writeData(fos, dataKey);
+            lastKeyCount++;
         }
-        return loadedKeys;
     }
 
-    private void writeKeySet(FileOutputStream fos, FileChannel outChannel, Iterator<K> iterator) throws IOException {
-        while (iterator.hasNext()) {
-            K key = iterator.next();
-            Data dataKey = serializationService.toData(key);
-            if (dataKey != null) {
-                int dataSize = dataKey.totalSize();
-                writeInt(fos, dataSize);
-
-                int position = 0;
-                int remaining = dataSize;
-                while (remaining > 0) {
-                    int transferredCount = Math.min(BUFFER_SIZE - buf.position(), remaining);
-                    ensureBufHasRoom(fos, transferredCount);
-                    buf.put(dataKey.toByteArray(), position, transferredCount);
-                    position += transferredCount;
-                    remaining -= transferredCount;
-                }
+    private void writeRecord(FileOutputStream fos, Map.Entry<K, ? extends NearCacheRecord> entry, long now)
+            throws IOException {
+        Data dataKey = serializationService.toData(entry.getKey());
+        if (dataKey == null) {
+            return;
+        }
+        NearCacheRecord record = entry.getValue();
+        Data dataValue = isRestorable(record, now) ? serializationService.toData(record.getValue()) : null;
+        UUID uuid = dataValue == null ? null : record.getUuid();
+
+        writeData(fos, dataKey);
+        if (dataValue == null) {
+            writeInt(fos, NO_VALUE);
+            lastWrittenBytes += INT_SIZE_IN_BYTES;
+        } else {
+            writeData(fos, dataValue);
+        }
+        writeInt(fos, record.getPartitionId());
+        writeLong(fos, uuid == null ? 0 : uuid.getMostSignificantBits());
+        writeLong(fos, uuid == null ? 0 : uuid.getLeastSignificantBits());
+        writeLong(fos, record.getInvalidationSequence());
+        lastWrittenBytes += INT_SIZE_IN_BYTES + 3 * LONG_SIZE_IN_BYTES;
+        lastKeyCount++;
+    }
 
-                lastWrittenBytes += INT_SIZE_IN_BYTES + dataSize;
-                lastKeyCount++;
-            }
-            flushLocalBuffer(outChannel);
+    private static boolean isRestorable(NearCacheRecord record, long now) {
+        if (record == null || record.getReservationId() != READ_PERMITTED || record.getUuid() == null) {
+            return false;
         }
+        return !record.isCachedAsNull() && record.getValue() != null && !record.isExpiredAt(now);
+    }
+
+    private void writeData(FileOutputStream fos, Data data) throws IOException {
+        int dataSize = data.totalSize();
+        writeInt(fos, dataSize);
+
+        byte[] bytes = data.toByteArray();
+        int position = 0;
+        int remaining = dataSize;
+        while (remaining > 0) {
+            int transferredCount = Math.min(BUFFER_SIZE - buf.position(), remaining);
+            ensureBufHasRoom(fos, transferredCount);
+            buf.put(bytes, position, transferredCount);
+            position += transferredCount;
+            remaining -= transferredCount;
+        }
+
+        lastWrittenBytes += INT_SIZE_IN_BYTES + dataSize;
     }
 
     private int readInt(BufferingInputStream bis) throws IOException {
@@ -271,11 +394,16 @@ public class NearCachePreloader<K> {
         buf.put(tmpBytes);
     }
 
+    private void writeLong(FileOutputStream fos, long value) throws IOException {
+        ensureBufHasRoom(fos, LONG_SIZE_IN_BYTES);
+        buf.putLong(value);
+    }
+
     private void ensureBufHasRoom(FileOutputStream fos, int expectedSize) throws IOException {
         if (buf.position() < BUFFER_SIZE - expectedSize) {
             return;
         }
-        fos.write(buf.array());
+        fos.write(buf.array(), 0, buf.position());
         buf.position(0);
     }
 
@@ -290,6 +418,216 @@ public class NearCachePreloader<K> {
         buf.clear();
     }
 
+    /**
+     * Reads the stored entries in batches and loads them concurrently.
+     * <p>
+     * The calling thread loads batches as well, so {@code loadConcurrency - 1}
+     * additional loader tasks are submitted to the executor. The calling thread
+     * only waits for the loaders which have started before it ran out of batches,
+     * so the loading doesn't depend on a free thread of the executor. The first
+     * failure stops the loading.
+     */
+    private final class KeyLoader {
+
+        final AtomicInteger loadedKeys = new AtomicInteger();
+        final AtomicInteger restoredValues = new AtomicInteger();
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final byte[] intBytes = new byte[INT_SIZE_IN_BYTES];
+        private final byte[] longBytes = new byte[LONG_SIZE_IN_BYTES];
+
+        private final BufferingInputStream bis;
+        private final FileFormat fileFormat;
+        private final DataStructureAdapter<Object, ?> adapter;
+        private final ValueRestorer restorer;
+        private final Executor executor;
+        private final Object loaderMutex = new Object();
+
+        // guarded by the KeyLoader
+        private long nextLoadNanos = System.nanoTime();
+        // guarded by the loaderMutex
+        private int runningLoaders;
+        private boolean loadingDone;
+        // guarded by the BufferingInputStream
+        private boolean endOfFile;
+
+        KeyLoader(BufferingInputStream bis, FileFormat fileFormat, DataStructureAdapter<Object, ?> adapter,
+                  ValueRestorer restorer, Executor executor) {
+            this.bis = bis;
+            this.fileFormat = fileFormat;
+            this.adapter = adapter;
+            this.restorer = restorer;
+            this.executor = executor;
+        }
+
+        void load() throws InterruptedException {
+            for (int i = 1; i < loadConcurrency; i++) {
+                try {
+                    executor.execute(this::runLoader);
+                } catch (RejectedExecutionException e) {
+                    // the remaining batches are loaded by the other loaders
+                    break;
+                }
+            }
+            try {
+                loadBatches();
+            } finally {
+                awaitLoaders();
+            }
+            Throwable throwable = failure.get();
+            if (throwable != null) {
+                throw rethrow(throwable);
+            }
+        }
+
+        private void runLoader() {
+            synchronized (loaderMutex) {
+                if (loadingDone) {
+                    return;
+                }
+                runningLoaders++;
+            }
+            try {
+                loadBatches();
+            } finally {
+                synchronized (loaderMutex) {
+                    runningLoaders--;
+                    loaderMutex.notifyAll();
+                }
+            }
+        }
+
+        private void awaitLoaders() throws InterruptedException {
+            synchronized (loaderMutex) {
+                loadingDone = true;
+                try {
+                    while (runningLoaders > 0) {
+                        loaderMutex.wait();
+                    }
+                } catch (InterruptedException e) {
+                    failure.compareAndSet(null, e);
+                    throw e;
+                }
+            }
+        }
+
+        private void loadBatches() {
+            try {
+                List<StoredEntry> batch;
+                while (failure.get() == null && (batch = readBatch()) != null) {
+                    loadBatch(batch);
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        }
+
+        private void loadBatch(List<StoredEntry> batch) throws InterruptedException {
+            Builder<Object> builder = InflatableSet.newBuilder(batch.size());
+            for (StoredEntry entry : batch) {
+                if (entry.restore(restorer)) {
+                    restoredValues.incrementAndGet();
+                } else {
+                    builder.add(serializationService.toObject(entry.key));
+                }
+            }
+            if (builder.size() > 0) {
+                throttle(builder.size());
+                adapter.getAll(builder.build());
+            }
+            loadedKeys.addAndGet(batch.size());
+        }
+
+        private void throttle(int keyCount) throws InterruptedException {
+            if (loadNanosPerKey == 0) {
+                return;
+            }
+            long delayNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (nextLoadNanos - now < 0) {
+                    nextLoadNanos = now;
+                }
+                delayNanos = nextLoadNanos - now;
+                nextLoadNanos += keyCount * loadNanosPerKey;
+            }
+            if (delayNanos > 0) {
+                NANOSECONDS.sleep(delayNanos);
+            }
+        }
+
+        private List<StoredEntry> readBatch() throws IOException {
+            synchronized (bis) {
+                List<StoredEntry> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+                while (!endOfFile && batch.size() < LOAD_BATCH_SIZE) {
+                    StoredEntry entry = readEntry();
+                    if (entry == null) {
+                        endOfFile = true;
+                    } else {
+                        batch.add(entry);
+                    }
+                }
+                return batch.isEmpty() ? null : batch;
+            }
+        }
+
+        private StoredEntry readEntry() throws IOException {
+            if (!readFullyOrNothing(bis, intBytes)) {
+                return null;
+            }
+            Data key = readData(readIntB(intBytes, 0));
+            if (fileFormat != FileFormat.INTERLEAVED_LENGTH_FIELD_WITH_VALUES) {
+                return new StoredEntry(key, null, 0, null, 0);
+            }
+            int valueSize = readInt();
+            Data value = valueSize == NO_VALUE ? null : readData(valueSize);
+            int partitionId = readInt();
+            UUID partitionUuid = new UUID(readLong(), readLong());
+            return new StoredEntry(key, value, partitionId, partitionUuid, readLong());
+        }
+
+        private int readInt() throws IOException {
+            readFully(bis, intBytes);
+            return readIntB(intBytes, 0);
+        }
+
+        private long readLong() throws IOException {
+            readFully(bis, longBytes);
+            return readLongB(longBytes, 0);
+        }
+
+        private Data readData(int dataSize) throws IOException {
+            byte[] payload = new byte[dataSize];
+            readFully(bis, payload);
+            return new HeapData(payload);
+        }
+    }
+
+    /**
+     * A key read from the storage file, with its stored value and the
+     * invalidation metadata of its partition, if the value has been stored.
+     */
+    private static final class StoredEntry {
+
+        private final Data key;
+        private final Data value;
+        private final int partitionId;
+        private final UUID partitionUuid;
+        private final long sequence;
+
+        StoredEntry(Data key, Data value, int partitionId, UUID partitionUuid, long sequence) {
+            this.key = key;
+            this.value = value;
+            this.partitionId = partitionId;
+            this.partitionUuid = partitionUuid;
+            this.sequence = sequence;
+        }
+
+        boolean restore(ValueRestorer restorer) {
+            return restorer != null && value != null && restorer.restore(key, value, partitionId, partitionUuid, sequence);
+        }
+    }
+
     private static String getFilename(String directory, String nearCacheName) {
         String filename = toFileName("nearCache-" + nearCacheName + ".store");
         if (isNullOrEmpty(directory)) {
@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.nearcache.impl.record;
 
+import com.hazelcast.internal.eviction.RelaxedAccessStats;
 import com.hazelcast.internal.nearcache.NearCacheRecord;
 
 import java.util.UUID;
@@ -35,8 +36,8 @@ public abstract class AbstractNearCacheRecord<V> implements NearCacheRecord<V> {
     // primitive int typed fields: "partitionId", "hits",
     // "lastAccessTime","expirationTime" and "creationTime"
     public static final int NUMBER_OF_INTEGER_FIELD_TYPES = 5;
-    // primitive boolean typed field: "cachedAsNull"
-    public static final int NUMBER_OF_BOOLEAN_FIELD_TYPES = 1;
+    // primitive boolean typed fields: "cachedAsNull", "referenced"
+    public static final int NUMBER_OF_BOOLEAN_FIELD_TYPES = 2;
 
     private static final AtomicIntegerFieldUpdater<AbstractNearCacheRecord> HITS =
             AtomicIntegerFieldUpdater.newUpdater(AbstractNearCacheRecord.class, "hits");
@@ -48,6 +49,7 @@ public abstract class AbstractNearCacheRecord<V> implements NearCacheRecord<V> {
     protected volatile V value;
     protected volatile UUID uuid;
     protected volatile boolean cachedAsNull;
+    protected volatile boolean referenced;
     protected volatile int hits;
     protected volatile int partitionId;
     protected volatile int lastAccessTime = TIME_NOT_SET;
@@ -126,6 +128,34 @@ public abstract class AbstractNearCacheRecord<V> implements NearCacheRecord<V> {
         HITS.addAndGet(this, 1);
     }
 
+    @Override
+    public void onAccessRelaxed(long now) {
+        // the fields are only written when they change, so reading
+        // a hot record from many threads doesn't contend on them
+        if (!referenced) {
+            referenced = true;
+        }
+        int accessTime = stripBaseTime(now);
+        if (lastAccessTime != accessTime) {
+            lastAccessTime = accessTime;
+        }
+        int currentHits = hits;
+        int newHits = RelaxedAccessStats.incrementHits(currentHits);
+        if (newHits != currentHits) {
+            // a concurrently sampled access may be lost, the hit count is an estimate anyway
+            hits = newHits;
+        }
+    }
+
+    @Override
+    public boolean clearReferenced() {
+        if (!referenced) {
+            return false;
+        }
+        referenced = false;
+        return true;
+    }
+
     @Override
     public long getReservationId() {
         return reservationId;
@@ -161,6 +191,11 @@ public abstract class AbstractNearCacheRecord<V> implements NearCacheRecord<V> {
         this.uuid = uuid;
     }
 
+    @Override
+    public UUID getUuid() {
+        return uuid;
+    }
+
     @Override
     public boolean hasSameUuid(UUID thatUuid) {
         return uuid != null && thatUuid != null && uuid.equals(thatUuid);
@@ -173,6 +208,7 @@ public abstract class AbstractNearCacheRecord<V> implements NearCacheRecord<V> {
                 + ", value=" + value
                 + ", uuid=" + uuid
                 + ", cachedAsNull=" + cachedAsNull
+                + ", referenced=" + referenced
                 + ", hits=" + hits
                 + ", partitionId=" + partitionId
                 + ", lastAccessTime=" + lastAccessTime
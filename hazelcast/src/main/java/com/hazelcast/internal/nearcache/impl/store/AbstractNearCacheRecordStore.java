@@ -19,10 +19,12 @@ package com.hazelcast.internal.nearcache.impl.store;
 import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.eviction.EvictionListener;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
+import com.hazelcast.internal.eviction.impl.evaluator.TinyLFUEvictionPolicyEvaluator;
 import com.hazelcast.internal.eviction.impl.strategy.sampling.SamplingEvictionStrategy;
 import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
 import com.hazelcast.internal.nearcache.NearCache;
@@ -36,8 +38,11 @@ import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.nearcache.NearCacheStats;
 
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
+import static com.hazelcast.config.MaxSizePolicy.USED_HEAP_PERCENTAGE;
+import static com.hazelcast.config.MaxSizePolicy.USED_HEAP_SIZE;
 import static com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider.getEvictionPolicyEvaluator;
 import static com.hazelcast.internal.nearcache.NearCache.CACHED_AS_NULL;
 import static com.hazelcast.internal.nearcache.NearCache.UpdateSemantic.READ_UPDATE;
@@ -69,6 +74,8 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     protected final long timeToLiveMillis;
     protected final long maxIdleMillis;
     protected final boolean evictionDisabled;
+    protected final boolean heapCostBounded;
+    protected final boolean relaxedAccessStats;
     protected final ClassLoader classLoader;
     protected final InMemoryFormat inMemoryFormat;
     protected final NearCacheConfig nearCacheConfig;
@@ -100,6 +107,9 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         this.classLoader = classLoader;
         this.nearCacheStats = nearCacheStats;
         this.evictionDisabled = nearCacheConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.NONE;
+        MaxSizePolicy maxSizePolicy = nearCacheConfig.getEvictionConfig().getMaxSizePolicy();
+        this.heapCostBounded = maxSizePolicy == USED_HEAP_SIZE || maxSizePolicy == USED_HEAP_PERCENTAGE;
+        this.relaxedAccessStats = nearCacheConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.CLOCK;
     }
 
     @Override
@@ -225,6 +235,9 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         R record = null;
         V value = null;
         try {
+            if (evictionPolicyEvaluator != null) {
+                evictionPolicyEvaluator.recordAccess(key, records.size());
+            }
             record = getRecord(key);
 
             if (record == null) {
@@ -328,6 +341,11 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
             return false;
         }
 
+        if (!withoutMaxSizeCheck && isAdmissionChecked()) {
+            // the entry to evict is selected when a new entry is reserved, since it depends on the new key
+            return true;
+        }
+
         EvictionChecker evictionChecker = withoutMaxSizeCheck ? null : this.evictionChecker;
         evictionStrategy.evict(records, evictionPolicyEvaluator, evictionChecker, this);
         return true;
@@ -341,6 +359,9 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         if (evictionDisabled && evictionChecker.isEvictionRequired() && !containsRecordKey(key)) {
             return NOT_RESERVED;
         }
+        if (isAdmissionChecked() && !containsRecordKey(key) && !admit(key)) {
+            return NOT_RESERVED;
+        }
 
         long reservationId = nextReservationId();
 
@@ -380,7 +401,43 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         return reservedRecord;
     }
 
+    /**
+     * Evicts entries until the estimated heap cost of the Near Cache is
+     * within the limit of a memory based max-size policy again.
+     * <p>
+     * The number of evictions is bounded by the size of the Near Cache, so
+     * a single entry which exceeds the limit on its own can't make this loop
+     * forever.
+     */
+    protected void evictIfOverMemoryBudget() {
+        if (!heapCostBounded || evictionDisabled) {
+            return;
+        }
+        for (int i = records.size(); i > 0 && evictionChecker.isEvictionRequired(); i--) {
+            if (!evictionStrategy.evict(records, evictionPolicyEvaluator, null, this)) {
+                break;
+            }
+        }
+    }
+
+    private boolean isAdmissionChecked() {
+        return evictionPolicyEvaluator instanceof TinyLFUEvictionPolicyEvaluator;
+    }
+
+    /**
+     * Evicts an entry if required to make room for the new key, unless the
+     * new key is accessed less often than the entry that would be evicted.
+     */
+    private boolean admit(K key) {
+        return evictionStrategy.evictForAdmission(records, (TinyLFUEvictionPolicyEvaluator<KS, R>) evictionPolicyEvaluator,
+                evictionChecker, this, key);
+    }
+
     private void onRecordAccess(R record) {
+        if (relaxedAccessStats) {
+            record.onAccessRelaxed(Clock.currentTimeMillis());
+            return;
+        }
         record.setLastAccessTime(Clock.currentTimeMillis());
         record.incrementHits();
     }
@@ -398,6 +455,44 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         record.setUuid(metaDataContainer.getUuid());
     }
 
+    /**
+     * Puts a value which has been stored by the pre-loader into the Near Cache,
+     * if the invalidation metadata of its partition hasn't changed since the
+     * value was stored, so no invalidation can have been missed in between.
+     *
+     * @see com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader.ValueRestorer
+     */
+    @SuppressWarnings("unchecked")
+    protected boolean restoreValue(Data keyData, Data value, int partitionId, UUID partitionUuid, long sequence) {
+        StaleReadDetector staleReadDetector = this.staleReadDetector;
+        if (staleReadDetector == ALWAYS_FRESH
+                || !isUnchanged(staleReadDetector, keyData, partitionId, partitionUuid, sequence)) {
+            return false;
+        }
+
+        K key = nearCacheConfig.isSerializeKeys() ? (K) keyData : serializationService.toObject(keyData);
+        long reservationId = tryReserveForUpdate(key, keyData, READ_UPDATE);
+        if (reservationId == NOT_RESERVED) {
+            return false;
+        }
+        // an invalidation could have been received before the key was reserved
+        if (!isUnchanged(staleReadDetector, keyData, partitionId, partitionUuid, sequence)) {
+            invalidate(key);
+            return false;
+        }
+        tryPublishReserved(key, (V) value, reservationId, false);
+        return true;
+    }
+
+    static boolean isUnchanged(StaleReadDetector staleReadDetector, Data keyData, int partitionId, UUID partitionUuid,
+                               long sequence) {
+        if (staleReadDetector.getPartitionId(keyData) != partitionId) {
+            return false;
+        }
+        MetaDataContainer metaDataContainer = staleReadDetector.getMetaDataContainer(partitionId);
+        return partitionUuid.equals(metaDataContainer.getUuid()) && metaDataContainer.getSequence() == sequence;
+    }
+
     private long nextReservationId() {
         return RESERVATION_ID.incrementAndGet(this);
     }
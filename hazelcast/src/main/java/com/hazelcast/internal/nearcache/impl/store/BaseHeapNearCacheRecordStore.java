@@ -24,12 +24,15 @@ import com.hazelcast.internal.adapter.DataStructureAdapter;
 import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.nearcache.NearCacheRecord;
 import com.hazelcast.internal.nearcache.impl.maxsize.EntryCountNearCacheEvictionChecker;
+import com.hazelcast.internal.nearcache.impl.maxsize.UsedHeapPercentageNearCacheEvictionChecker;
+import com.hazelcast.internal.nearcache.impl.maxsize.UsedHeapSizeNearCacheEvictionChecker;
 import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 
 import javax.annotation.Nullable;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -63,12 +66,20 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     protected EvictionChecker createNearCacheEvictionChecker(EvictionConfig evictionConfig,
                                                              NearCacheConfig nearCacheConfig) {
         MaxSizePolicy maxSizePolicy = evictionConfig.getMaxSizePolicy();
-        if (maxSizePolicy == MaxSizePolicy.ENTRY_COUNT) {
-            return new EntryCountNearCacheEvictionChecker(evictionConfig.getSize(), records);
+        switch (maxSizePolicy) {
+            case ENTRY_COUNT:
+                return new EntryCountNearCacheEvictionChecker(evictionConfig.getSize(), records);
+            case USED_HEAP_SIZE:
+                return new UsedHeapSizeNearCacheEvictionChecker(evictionConfig.getSize(), nearCacheStats);
+            case USED_HEAP_PERCENTAGE:
+                return new UsedHeapPercentageNearCacheEvictionChecker(evictionConfig.getSize(),
+                        Runtime.getRuntime().maxMemory(), nearCacheStats);
+            default:
+                throw new IllegalArgumentException(format("Invalid max-size policy (%s) for %s!"
+                        + " Only %s, %s and %s are supported.",
+                        maxSizePolicy, getClass().getName(), MaxSizePolicy.ENTRY_COUNT, MaxSizePolicy.USED_HEAP_SIZE,
+                        MaxSizePolicy.USED_HEAP_PERCENTAGE));
         }
-
-        throw new IllegalArgumentException(format("Invalid max-size policy (%s) for %s! Only %s is supported.",
-                maxSizePolicy, getClass().getName(), MaxSizePolicy.ENTRY_COUNT));
     }
 
     @Override
@@ -115,16 +126,20 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     }
 
     @Override
-    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter, Executor executor) {
         if (nearCachePreloader != null) {
-            nearCachePreloader.loadKeys(adapter);
+            nearCachePreloader.loadKeys(adapter, nearCachePreloader.isStoreValues() ? this::restoreValue : null, executor);
         }
     }
 
     @Override
     public void storeKeys() {
         if (nearCachePreloader != null) {
-            nearCachePreloader.storeKeys(records.keySet().iterator());
+            if (nearCachePreloader.isStoreValues()) {
+                nearCachePreloader.storeRecords(records.entrySet().iterator());
+            } else {
+                nearCachePreloader.storeKeys(records.keySet().iterator());
+            }
         }
     }
 
@@ -141,6 +156,9 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
     public V tryPublishReserved(K key, V value, long reservationId, boolean deserialize) {
         R existingRecord = records.applyIfPresent(key,
                 (key1, reservedRecord) -> publishReservedRecord(key1, value, reservedRecord, reservationId));
+        // the size of a value is only known once it is published, so memory
+        // based max-size policies are checked again after every publication
+        evictIfOverMemoryBudget();
 
         if (existingRecord == null || !deserialize) {
             return null;
@@ -26,6 +26,7 @@ import static com.hazelcast.internal.nearcache.impl.record.AbstractNearCacheReco
 import static com.hazelcast.internal.nearcache.impl.record.AbstractNearCacheRecord.NUMBER_OF_INTEGER_FIELD_TYPES;
 import static com.hazelcast.internal.nearcache.impl.record.AbstractNearCacheRecord.NUMBER_OF_LONG_FIELD_TYPES;
 import static com.hazelcast.internal.util.Clock.currentTimeMillis;
+import static com.hazelcast.internal.util.JVMUtil.OBJECT_HEADER_COST_IN_BYTES;
 import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
 
 /**
@@ -37,6 +38,12 @@ import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
  */
 public class NearCacheDataRecordStore<K, V> extends BaseHeapNearCacheRecordStore<K, V, NearCacheDataRecord> {
 
+    // entry of the underlying ConcurrentHashMap: object header,
+    // "hash" field and references to key, value and next entry
+    @SuppressWarnings("checkstyle:magicnumber")
+    private static final int MAP_ENTRY_COST_IN_BYTES = OBJECT_HEADER_COST_IN_BYTES
+            + (Integer.SIZE / Byte.SIZE) + 3 * REFERENCE_COST_IN_BYTES;
+
     public NearCacheDataRecordStore(String name,
                                     NearCacheConfig nearCacheConfig,
                                     SerializationService serializationService,
@@ -50,8 +57,12 @@ public class NearCacheDataRecordStore<K, V> extends BaseHeapNearCacheRecordStore
             return
                     // reference to this key data inside map ("store" field)
                     REFERENCE_COST_IN_BYTES
-                            // heap cost of this key data
-                            + ((Data) key).getHeapCost();
+                            // object header and heap cost of this key data
+                            + OBJECT_HEADER_COST_IN_BYTES + ((Data) key).getHeapCost();
+        } else if (heapCostBounded) {
+            // the heap cost of a deserialized key is estimated by its serialized form,
+            // which is only worth the serialization cost when the max-size depends on it
+            return REFERENCE_COST_IN_BYTES + OBJECT_HEADER_COST_IN_BYTES + toData(key).getHeapCost();
         } else {
             // memory cost for non-data typed instance is not supported
             return 0L;
@@ -63,18 +74,19 @@ public class NearCacheDataRecordStore<K, V> extends BaseHeapNearCacheRecordStore
         if (record == null) {
             return 0L;
         }
-        // TODO: we don't handle object header (mark, class definition) for heap memory cost
         Data value = record.getValue();
-        // reference to this record inside map ("store" field)
-        return REFERENCE_COST_IN_BYTES
+        // entry of this record inside map ("store" field)
+        return MAP_ENTRY_COST_IN_BYTES
+                // object header of this record
+                + OBJECT_HEADER_COST_IN_BYTES
                 // reference to "value" field
                 + REFERENCE_COST_IN_BYTES
                 // partition Id
                 + (Integer.SIZE / Byte.SIZE)
-                // "uuid" ref size + 2 long in uuid
-                + REFERENCE_COST_IN_BYTES + (2 * (Long.SIZE / Byte.SIZE))
-                // heap cost of this value data
-                + (value != null ? value.getHeapCost() : 0)
+                // "uuid" ref size + object header and 2 long in uuid
+                + REFERENCE_COST_IN_BYTES + OBJECT_HEADER_COST_IN_BYTES + (2 * (Long.SIZE / Byte.SIZE))
+                // object header and heap cost of this value data
+                + (value != null ? OBJECT_HEADER_COST_IN_BYTES + value.getHeapCost() : 0)
                 + NUMBER_OF_LONG_FIELD_TYPES * (Long.SIZE / Byte.SIZE)
                 + NUMBER_OF_INTEGER_FIELD_TYPES * (Integer.SIZE / Byte.SIZE)
                 + NUMBER_OF_BOOLEAN_FIELD_TYPES;
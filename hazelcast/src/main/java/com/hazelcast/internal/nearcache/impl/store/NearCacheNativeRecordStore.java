@@ -0,0 +1,906 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.internal.nearcache.NearCache;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheDataRecord;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.util.hashslot.HashSlotArray8byteKey;
+import com.hazelcast.internal.util.hashslot.HashSlotCursor8byteKey;
+import com.hazelcast.internal.util.hashslot.SlotAssignmentResult;
+import com.hazelcast.internal.util.hashslot.impl.HashSlotArray8byteKeyImpl;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.nearcache.NearCacheStats;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nearcache.NearCache.CACHED_AS_NULL;
+import static com.hazelcast.internal.nearcache.NearCache.UpdateSemantic.READ_UPDATE;
+import static com.hazelcast.internal.nearcache.NearCache.UpdateSemantic.WRITE_UPDATE;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.internal.nearcache.impl.invalidation.StaleReadDetector.ALWAYS_FRESH;
+import static com.hazelcast.internal.nearcache.impl.store.AbstractNearCacheRecordStore.isUnchanged;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.Clock.currentTimeMillis;
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+import static java.lang.String.format;
+
+/**
+ * {@link NearCacheRecordStore} implementation for Near Caches with
+ * {@link com.hazelcast.config.InMemoryFormat#NATIVE} in-memory-format.
+ * <p>
+ * Keys and values are stored in serialized form outside of the Java heap,
+ * so a large Near Cache doesn't increase the heap size and the GC pauses of
+ * the application. The entries are spread over a fixed number of segments.
+ * Each segment maps the 64-bit hash of a key to the address of an entry
+ * block with a {@link HashSlotArray8byteKey} and has a lock, which guards
+ * all access to the native memory of the segment. An entry block holds the
+ * metadata of the record, followed by the key and the value bytes. The key
+ * bytes are compared on lookup, so a colliding hash never returns the value
+ * of another key; a new key replaces the entry of a colliding one.
+ * <p>
+ * Values are copied to the heap and deserialized on every read. Eviction
+ * samples the entries of a random segment, starting where the previous
+ * eviction of the segment stopped, so every eviction looks at other entries.
+ *
+ * @param <K> the type of the key stored in Near Cache
+ * @param <V> the type of the value stored in Near Cache
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class NearCacheNativeRecordStore<K, V> implements NearCacheRecordStore<K, V> {
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final int SEGMENT_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SEGMENT_COUNT);
+    private static final int SAMPLE_COUNT = 15;
+    private static final long MILLI_SECONDS_IN_A_SECOND = 1000;
+
+    // layout of an entry block
+    private static final int RESERVATION_ID_OFFSET = 0;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int UUID_MOST_SIG_BITS_OFFSET = 16;
+    private static final int UUID_LEAST_SIG_BITS_OFFSET = 24;
+    private static final int CREATION_TIME_OFFSET = 32;
+    private static final int EXPIRATION_TIME_OFFSET = 40;
+    private static final int LAST_ACCESS_TIME_OFFSET = 48;
+    private static final int HITS_OFFSET = 56;
+    private static final int PARTITION_ID_OFFSET = 60;
+    private static final int KEY_SIZE_OFFSET = 64;
+    private static final int VALUE_SIZE_OFFSET = 68;
+    private static final int HEADER_SIZE = 72;
+
+    // value sizes of entries without value bytes
+    private static final int NO_VALUE = -1;
+    private static final int NULL_VALUE = -2;
+
+    private final String name;
+    private final long maxSize;
+    private final long maxIdleMillis;
+    private final long timeToLiveMillis;
+    private final boolean memoryBounded;
+    private final boolean evictionDisabled;
+    private final boolean serializeKeys;
+    private final EvictionPolicy evictionPolicy;
+    private final NearCacheStatsImpl nearCacheStats = new NearCacheStatsImpl();
+    private final NearCachePreloader<K> nearCachePreloader;
+    private final SerializationService serializationService;
+    private final AtomicLong reservationIdGenerator = new AtomicLong();
+    private final MemoryAccessor mem = MEM;
+
+    private UnsafeMemoryAllocator malloc;
+    private Segment[] segments;
+
+    private volatile StaleReadDetector staleReadDetector = ALWAYS_FRESH;
+
+    public NearCacheNativeRecordStore(String name, NearCacheConfig nearCacheConfig,
+                                      SerializationService serializationService) {
+        EvictionConfig evictionConfig = nearCacheConfig.getEvictionConfig();
+        MaxSizePolicy maxSizePolicy = evictionConfig.getMaxSizePolicy();
+        if (maxSizePolicy != MaxSizePolicy.ENTRY_COUNT && maxSizePolicy != MaxSizePolicy.USED_NATIVE_MEMORY_SIZE) {
+            throw new IllegalArgumentException(format("Invalid max-size policy (%s) for %s! Only %s and %s are supported.",
+                    maxSizePolicy, getClass().getName(), MaxSizePolicy.ENTRY_COUNT, MaxSizePolicy.USED_NATIVE_MEMORY_SIZE));
+        }
+        this.name = name;
+        this.memoryBounded = maxSizePolicy == MaxSizePolicy.USED_NATIVE_MEMORY_SIZE;
+        this.maxSize = memoryBounded ? MEGABYTES.toBytes(evictionConfig.getSize()) : evictionConfig.getSize();
+        this.maxIdleMillis = nearCacheConfig.getMaxIdleSeconds() * MILLI_SECONDS_IN_A_SECOND;
+        this.timeToLiveMillis = nearCacheConfig.getTimeToLiveSeconds() * MILLI_SECONDS_IN_A_SECOND;
+        this.evictionPolicy = evictionConfig.getEvictionPolicy();
+        this.evictionDisabled = evictionPolicy == EvictionPolicy.NONE;
+        this.serializeKeys = nearCacheConfig.isSerializeKeys();
+        this.serializationService = serializationService;
+
+        NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
+        this.nearCachePreloader = preloaderConfig.isEnabled()
+                ? new NearCachePreloader<>(name, preloaderConfig, nearCacheStats, serializationService) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void initialize() {
+        UnsafeMemoryAllocator malloc = new UnsafeMemoryAllocator();
+        MemoryManagerBean memoryManager = new MemoryManagerBean(malloc, mem);
+        Segment[] segments = new NearCacheNativeRecordStore.Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(new HashSlotArray8byteKeyImpl(NULL_ADDRESS, memoryManager, LONG_SIZE_IN_BYTES));
+        }
+        this.malloc = malloc;
+        this.segments = segments;
+        nearCacheStats.setOwnedEntryMemoryCost(malloc.getUsedMemory());
+    }
+
+    @Override
+    public void setStaleReadDetector(StaleReadDetector staleReadDetector) {
+        this.staleReadDetector = staleReadDetector;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        checkAvailable();
+
+        Data keyData = toData(key);
+        long hash = keyData.hash64();
+        Segment segment = segmentOf(hash);
+        Data value;
+        segment.lock.lock();
+        try {
+            long entry = segment.find(hash, keyData);
+            if (entry == NULL_ADDRESS || !isReadPermitted(entry) || isStaleRead(key, segment, hash, entry)) {
+                nearCacheStats.incrementMisses();
+                return null;
+            }
+            long now = currentTimeMillis();
+            if (isExpired(entry, now)) {
+                // the stats are updated before the entry is freed by its removal
+                onExpire(entry);
+                segment.remove(hash, entry);
+                nearCacheStats.incrementMisses();
+                return null;
+            }
+            mem.putLong(entry + LAST_ACCESS_TIME_OFFSET, now);
+            mem.putInt(entry + HITS_OFFSET, mem.getInt(entry + HITS_OFFSET) + 1);
+            value = readValue(entry);
+        } finally {
+            segment.lock.unlock();
+        }
+        nearCacheStats.incrementHits();
+        return value == null ? (V) CACHED_AS_NULL : toValue(value);
+    }
+
+    // only implemented for testing purposes
+    @Override
+    public void put(K key, Data keyData, V value, Data valueData) {
+        long reservationId = tryReserveForUpdate(key, keyData, NearCache.UpdateSemantic.READ_UPDATE);
+        if (reservationId != NOT_RESERVED) {
+            tryPublishReserved(key, value, reservationId, false);
+        }
+    }
+
+    @Override
+    public long tryReserveForUpdate(K key, Data keyData, NearCache.UpdateSemantic updateSemantic) {
+        checkAvailable();
+
+        Data data = keyData != null ? keyData : toData(key);
+        long hash = data.hash64();
+        Segment segment = segmentOf(hash);
+        segment.lock.lock();
+        try {
+            long entry = segment.find(hash, data);
+            if (entry == NULL_ADDRESS) {
+                // if there is no eviction configured we return if the Near Cache is full and it's a new key
+                return evictionDisabled && isEvictionRequired() ? NOT_RESERVED : segment.reserve(hash, data);
+            }
+            if (updateSemantic != WRITE_UPDATE) {
+                return NOT_RESERVED;
+            }
+            if (isReadPermitted(entry)) {
+                long reservationId = reservationIdGenerator.incrementAndGet();
+                mem.putLong(entry + RESERVATION_ID_OFFSET, reservationId);
+                return reservationId;
+            }
+            // a previously reserved entry is removed on a write update,
+            // see AbstractNearCacheRecordStore#reserveForWriteUpdate()
+            segment.remove(hash, entry);
+            return NOT_RESERVED;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public V tryPublishReserved(K key, V value, long reservationId, boolean deserialize) {
+        checkAvailable();
+
+        Data keyData = toData(key);
+        Data valueData = toData(value);
+        long hash = keyData.hash64();
+        Segment segment = segmentOf(hash);
+        Data cachedValue;
+        segment.lock.lock();
+        try {
+            long entry = segment.find(hash, keyData);
+            if (entry == NULL_ADDRESS) {
+                return null;
+            }
+            if (mem.getLong(entry + RESERVATION_ID_OFFSET) == reservationId) {
+                cachedValue = segment.publish(hash, entry, valueData) ? valueData : null;
+            } else {
+                cachedValue = isReadPermitted(entry) ? readValue(entry) : null;
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        // the size of a value is only known once it is published, so the
+        // memory based max-size policy is checked again after every publication
+        evictIfOverMemoryBudget();
+
+        return deserialize && cachedValue != null ? toValue(cachedValue) : null;
+    }
+
+    @Override
+    public void invalidate(K key) {
+        checkAvailable();
+
+        Data keyData = toData(key);
+        long hash = keyData.hash64();
+        Segment segment = segmentOf(hash);
+        segment.lock.lock();
+        try {
+            long entry = segment.find(hash, keyData);
+            if (entry != NULL_ADDRESS) {
+                onInvalidate(entry);
+                segment.remove(hash, entry);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    @Override
+    public void clear() {
+        checkAvailable();
+
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.clear(false);
+        }
+        nearCacheStats.setOwnedEntryCount(0);
+        nearCacheStats.setOwnedEntryMemoryCost(malloc.getUsedMemory());
+        nearCacheStats.incrementInvalidations(size);
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    @Override
+    public void destroy() {
+        checkAvailable();
+
+        for (Segment segment : segments) {
+            segment.clear(true);
+        }
+        nearCacheStats.setOwnedEntryCount(0);
+        nearCacheStats.setOwnedEntryMemoryCost(malloc.getUsedMemory());
+        if (nearCachePreloader != null) {
+            nearCachePreloader.destroy();
+        }
+    }
+
+    @Override
+    public int size() {
+        checkAvailable();
+
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    @Override
+    public NearCacheRecord getRecord(K key) {
+        checkAvailable();
+
+        Data keyData = toData(key);
+        long hash = keyData.hash64();
+        Segment segment = segmentOf(hash);
+        segment.lock.lock();
+        try {
+            long entry = segment.find(hash, keyData);
+            return entry == NULL_ADDRESS ? null : toRecord(entry);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public NearCacheStats getNearCacheStats() {
+        checkAvailable();
+
+        return nearCacheStats;
+    }
+
+    @Override
+    public void doExpiration() {
+        checkAvailable();
+
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.removeExpired();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean doEviction(boolean withoutMaxSizeCheck) {
+        checkAvailable();
+
+        if (evictionDisabled) {
+            return false;
+        }
+        if (withoutMaxSizeCheck || isEvictionRequired()) {
+            evictOne();
+        }
+        return true;
+    }
+
+    @Override
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter, Executor executor) {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.loadKeys(adapter, nearCachePreloader.isStoreValues() ? this::restoreValue : null, executor);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void storeKeys() {
+        if (nearCachePreloader == null) {
+            return;
+        }
+        if (nearCachePreloader.isStoreValues()) {
+            storeRecords();
+            return;
+        }
+        // keys are always serialized with NATIVE in-memory-format
+        List<K> keys = new ArrayList<>(size());
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.collectKeys((List<Data>) keys);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        nearCachePreloader.storeKeys(keys.iterator());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void storeRecords() {
+        List<Map.Entry<Data, NearCacheRecord>> records = new ArrayList<>(size());
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.collectRecords(records);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        nearCachePreloader.storeRecords((Iterator) records.iterator());
+    }
+
+    /**
+     * Puts a value which has been stored by the pre-loader into the Near Cache,
+     * if the invalidation metadata of its partition hasn't changed since the
+     * value was stored.
+     *
+     * @see AbstractNearCacheRecordStore#restoreValue(Data, Data, int, UUID, long)
+     */
+    @SuppressWarnings("unchecked")
+    private boolean restoreValue(Data keyData, Data value, int partitionId, UUID partitionUuid, long sequence) {
+        StaleReadDetector staleReadDetector = this.staleReadDetector;
+        if (staleReadDetector == ALWAYS_FRESH
+                || !isUnchanged(staleReadDetector, keyData, partitionId, partitionUuid, sequence)) {
+            return false;
+        }
+
+        K key = serializeKeys ? (K) keyData : serializationService.toObject(keyData);
+        long reservationId = tryReserveForUpdate(key, keyData, READ_UPDATE);
+        if (reservationId == NOT_RESERVED) {
+            return false;
+        }
+        // an invalidation could have been received before the key was reserved
+        if (!isUnchanged(staleReadDetector, keyData, partitionId, partitionUuid, sequence)) {
+            invalidate(key);
+            return false;
+        }
+        tryPublishReserved(key, (V) value, reservationId, false);
+        return true;
+    }
+
+    private void checkAvailable() {
+        if (segments == null) {
+            throw new IllegalStateException(name + " named Near Cache record store is not available");
+        }
+    }
+
+    private Segment segmentOf(long hash) {
+        return segments[(int) (hash >>> SEGMENT_SHIFT)];
+    }
+
+    private boolean isEvictionRequired() {
+        return memoryBounded ? malloc.getUsedMemory() > maxSize : size() >= maxSize;
+    }
+
+    /**
+     * Evicts entries until the native memory used by the Near Cache is within
+     * the limit of the max-size policy again. The number of evictions is
+     * bounded by the size of the Near Cache, so a single entry which exceeds
+     * the limit on its own can't make this loop forever.
+     */
+    private void evictIfOverMemoryBudget() {
+        if (!memoryBounded || evictionDisabled) {
+            return;
+        }
+        for (int i = size(); i > 0 && isEvictionRequired(); i--) {
+            if (!evictOne()) {
+                break;
+            }
+        }
+    }
+
+    private boolean evictOne() {
+        int start = ThreadLocalRandom.current().nextInt(SEGMENT_COUNT);
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            Segment segment = segments[(start + i) & (SEGMENT_COUNT - 1)];
+            if (segment.size == 0) {
+                continue;
+            }
+            segment.lock.lock();
+            try {
+                if (segment.evict()) {
+                    return true;
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    private boolean isStaleRead(K key, Segment segment, long hash, long entry) {
+        StaleReadDetector staleReadDetector = this.staleReadDetector;
+        if (staleReadDetector == ALWAYS_FRESH || !staleReadDetector.isStaleRead(key, toRecord(entry))) {
+            return false;
+        }
+        onInvalidate(entry);
+        segment.remove(hash, entry);
+        nearCacheStats.incrementInvalidationRequests();
+        return true;
+    }
+
+    private boolean isExpired(long entry, long now) {
+        long expirationTime = mem.getLong(entry + EXPIRATION_TIME_OFFSET);
+        if (expirationTime != TIME_NOT_SET && expirationTime <= now) {
+            return true;
+        }
+        if (maxIdleMillis <= 0) {
+            return false;
+        }
+        long lastAccessTime = mem.getLong(entry + LAST_ACCESS_TIME_OFFSET);
+        long idleSince = lastAccessTime != TIME_NOT_SET ? lastAccessTime : mem.getLong(entry + CREATION_TIME_OFFSET);
+        return idleSince + maxIdleMillis < now;
+    }
+
+    /**
+     * Returns {@code true} if the candidate should rather be evicted than the
+     * current victim according to the eviction policy. {@link EvictionPolicy#TINY_LFU}
+     * falls back to the hit count of the entries, there is no frequency sketch
+     * for native entries, and {@link EvictionPolicy#CLOCK} falls back to the
+     * access time, there is no reference bit in the native entry layout.
+     */
+    private boolean isBetterVictim(long candidate, long victim) {
+        switch (evictionPolicy) {
+            case LRU:
+            case CLOCK:
+                return accessTime(candidate) < accessTime(victim);
+            case LFU:
+            case TINY_LFU:
+                return mem.getInt(candidate + HITS_OFFSET) < mem.getInt(victim + HITS_OFFSET);
+            default:
+                return false;
+        }
+    }
+
+    private long accessTime(long entry) {
+        long lastAccessTime = mem.getLong(entry + LAST_ACCESS_TIME_OFFSET);
+        return lastAccessTime != TIME_NOT_SET ? lastAccessTime : mem.getLong(entry + CREATION_TIME_OFFSET);
+    }
+
+    private boolean isReadPermitted(long entry) {
+        return mem.getLong(entry + RESERVATION_ID_OFFSET) == READ_PERMITTED;
+    }
+
+    private void onInvalidate(long entry) {
+        if (isReadPermitted(entry)) {
+            nearCacheStats.decrementOwnedEntryCount();
+            nearCacheStats.incrementInvalidations();
+        }
+    }
+
+    private void onExpire(long entry) {
+        if (isReadPermitted(entry)) {
+            nearCacheStats.decrementOwnedEntryCount();
+        }
+        nearCacheStats.incrementExpirations();
+    }
+
+    private void onEvict(long entry) {
+        if (isReadPermitted(entry)) {
+            nearCacheStats.decrementOwnedEntryCount();
+        }
+        nearCacheStats.incrementEvictions();
+    }
+
+    private Data readKey(long entry) {
+        byte[] bytes = new byte[mem.getInt(entry + KEY_SIZE_OFFSET)];
+        mem.copyToByteArray(entry + HEADER_SIZE, bytes, 0, bytes.length);
+        return new HeapData(bytes);
+    }
+
+    /**
+     * Returns the value of the entry, or {@code null} if the entry has no value
+     * yet or the value is cached as {@code null}.
+     */
+    private Data readValue(long entry) {
+        int valueSize = mem.getInt(entry + VALUE_SIZE_OFFSET);
+        if (valueSize < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[valueSize];
+        mem.copyToByteArray(entry + HEADER_SIZE + mem.getInt(entry + KEY_SIZE_OFFSET), bytes, 0, valueSize);
+        return new HeapData(bytes);
+    }
+
+    private boolean keyEquals(long entry, byte[] keyBytes) {
+        if (mem.getInt(entry + KEY_SIZE_OFFSET) != keyBytes.length) {
+            return false;
+        }
+        long address = entry + HEADER_SIZE;
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (mem.getByte(address + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long entrySize(long entry) {
+        return HEADER_SIZE + mem.getInt(entry + KEY_SIZE_OFFSET) + Math.max(mem.getInt(entry + VALUE_SIZE_OFFSET), 0);
+    }
+
+    /**
+     * Allocates a new entry block with the given key and value bytes and an
+     * uninitialized header.
+     */
+    private long allocateEntry(byte[] keyBytes, byte[] valueBytes, int valueSize) {
+        long entry = malloc.allocate(HEADER_SIZE + keyBytes.length + Math.max(valueSize, 0));
+        mem.putInt(entry + KEY_SIZE_OFFSET, keyBytes.length);
+        mem.putInt(entry + VALUE_SIZE_OFFSET, valueSize);
+        mem.copyFromByteArray(keyBytes, 0, entry + HEADER_SIZE, keyBytes.length);
+        if (valueBytes != null) {
+            mem.copyFromByteArray(valueBytes, 0, entry + HEADER_SIZE + keyBytes.length, valueBytes.length);
+        }
+        return entry;
+    }
+
+    private void initInvalidationMetaData(long entry, Data keyData) {
+        StaleReadDetector staleReadDetector = this.staleReadDetector;
+        if (staleReadDetector == ALWAYS_FRESH) {
+            // means invalidation event creation is disabled for this Near Cache
+            return;
+        }
+        int partitionId = staleReadDetector.getPartitionId(keyData);
+        MetaDataContainer metaDataContainer = staleReadDetector.getMetaDataContainer(partitionId);
+        UUID uuid = metaDataContainer.getUuid();
+        mem.putInt(entry + PARTITION_ID_OFFSET, partitionId);
+        mem.putLong(entry + SEQUENCE_OFFSET, metaDataContainer.getSequence());
+        if (uuid != null) {
+            mem.putLong(entry + UUID_MOST_SIG_BITS_OFFSET, uuid.getMostSignificantBits());
+            mem.putLong(entry + UUID_LEAST_SIG_BITS_OFFSET, uuid.getLeastSignificantBits());
+        }
+    }
+
+    /**
+     * Creates an on-heap copy of the record of the entry.
+     */
+    private NearCacheRecord toRecord(long entry) {
+        NearCacheDataRecord record = new NearCacheDataRecord(readValue(entry),
+                mem.getLong(entry + CREATION_TIME_OFFSET), mem.getLong(entry + EXPIRATION_TIME_OFFSET));
+        record.setLastAccessTime(mem.getLong(entry + LAST_ACCESS_TIME_OFFSET));
+        record.setHits(mem.getInt(entry + HITS_OFFSET));
+        record.setReservationId(mem.getLong(entry + RESERVATION_ID_OFFSET));
+        record.setPartitionId(mem.getInt(entry + PARTITION_ID_OFFSET));
+        record.setInvalidationSequence(mem.getLong(entry + SEQUENCE_OFFSET));
+        record.setCachedAsNull(mem.getInt(entry + VALUE_SIZE_OFFSET) == NULL_VALUE);
+        long mostSigBits = mem.getLong(entry + UUID_MOST_SIG_BITS_OFFSET);
+        long leastSigBits = mem.getLong(entry + UUID_LEAST_SIG_BITS_OFFSET);
+        if (mostSigBits != 0 || leastSigBits != 0) {
+            record.setUuid(new UUID(mostSigBits, leastSigBits));
+        }
+        return record;
+    }
+
+    private Data toData(Object obj) {
+        return serializationService.toData(obj);
+    }
+
+    private V toValue(Object obj) {
+        return serializationService.toObject(obj);
+    }
+
+    /**
+     * A part of the entries of the Near Cache. All methods must be called
+     * while holding the lock of the segment.
+     */
+    private final class Segment {
+
+        private final Lock lock = new ReentrantLock();
+        private final HashSlotArray8byteKey entries;
+        // rotates over the entries to sample them for eviction
+        private final HashSlotCursor8byteKey sampleCursor;
+
+        // the number of entries, which can be read without holding the lock
+        private volatile int size;
+        private boolean destroyed;
+
+        Segment(HashSlotArray8byteKey entries) {
+            this.entries = entries;
+            entries.gotoNew();
+            this.sampleCursor = entries.cursor();
+        }
+
+        long find(long hash, Data keyData) {
+            if (destroyed) {
+                return NULL_ADDRESS;
+            }
+            long slot = entries.get(hash);
+            if (slot == NULL_ADDRESS) {
+                return NULL_ADDRESS;
+            }
+            long entry = mem.getLong(slot);
+            return keyEquals(entry, keyData.toByteArray()) ? entry : NULL_ADDRESS;
+        }
+
+        long reserve(long hash, Data keyData) {
+            if (destroyed) {
+                return NOT_RESERVED;
+            }
+            long collidingSlot = entries.get(hash);
+            if (collidingSlot != NULL_ADDRESS) {
+                long collidingEntry = mem.getLong(collidingSlot);
+                onEvict(collidingEntry);
+                remove(hash, collidingEntry);
+            }
+            long entry = NULL_ADDRESS;
+            try {
+                entry = allocateEntry(keyData.toByteArray(), null, NO_VALUE);
+                long reservationId = reservationIdGenerator.incrementAndGet();
+                long now = currentTimeMillis();
+                mem.putLong(entry + RESERVATION_ID_OFFSET, reservationId);
+                mem.putLong(entry + CREATION_TIME_OFFSET, now);
+                mem.putLong(entry + EXPIRATION_TIME_OFFSET, timeToLiveMillis > 0 ? now + timeToLiveMillis : TIME_NOT_SET);
+                mem.putLong(entry + LAST_ACCESS_TIME_OFFSET, TIME_NOT_SET);
+                initInvalidationMetaData(entry, keyData);
+                SlotAssignmentResult slot = entries.ensure(hash);
+                mem.putLong(slot.address(), entry);
+                updateSize();
+                return reservationId;
+            } catch (NativeOutOfMemoryError e) {
+                // the key is just not cached when there is no native memory left
+                if (entry != NULL_ADDRESS) {
+                    malloc.free(entry, entrySize(entry));
+                }
+                return NOT_RESERVED;
+            }
+        }
+
+        /**
+         * Replaces the entry with a copy which contains the value and can be read.
+         *
+         * @return {@code true} if the value was published, {@code false} if there
+         * was not enough native memory, in which case the entry is removed
+         */
+        boolean publish(long hash, long entry, Data valueData) {
+            boolean update = mem.getInt(entry + VALUE_SIZE_OFFSET) != NO_VALUE;
+            byte[] keyBytes = new byte[mem.getInt(entry + KEY_SIZE_OFFSET)];
+            byte[] valueBytes = valueData != null ? valueData.toByteArray() : null;
+            long newEntry;
+            try {
+                mem.copyToByteArray(entry + HEADER_SIZE, keyBytes, 0, keyBytes.length);
+                newEntry = allocateEntry(keyBytes, valueBytes, valueBytes != null ? valueBytes.length : NULL_VALUE);
+            } catch (NativeOutOfMemoryError e) {
+                remove(hash, entry);
+                return false;
+            }
+            mem.copyMemory(entry, newEntry, KEY_SIZE_OFFSET);
+            mem.putLong(newEntry + RESERVATION_ID_OFFSET, READ_PERMITTED);
+            mem.putLong(entries.get(hash), newEntry);
+            malloc.free(entry, entrySize(entry));
+            if (!update) {
+                nearCacheStats.incrementOwnedEntryCount();
+            }
+            nearCacheStats.setOwnedEntryMemoryCost(malloc.getUsedMemory());
+            return true;
+        }
+
+        void remove(long hash, long entry) {
+            entries.remove(hash);
+            malloc.free(entry, entrySize(entry));
+            updateSize();
+        }
+
+        /**
+         * Evicts one of the sampled entries, preferring expired ones.
+         *
+         * @return {@code true} if an entry was evicted
+         */
+        boolean evict() {
+            if (destroyed) {
+                return false;
+            }
+            long now = currentTimeMillis();
+            long victimHash = 0;
+            long victim = NULL_ADDRESS;
+            boolean wrapped = false;
+            for (int sampled = 0; sampled < SAMPLE_COUNT; ) {
+                if (!sampleCursor.advance()) {
+                    sampleCursor.reset();
+                    if (wrapped) {
+                        break;
+                    }
+                    wrapped = true;
+                    continue;
+                }
+                sampled++;
+                long entry = mem.getLong(sampleCursor.valueAddress());
+                if (isExpired(entry, now)) {
+                    onExpire(entry);
+                    remove(sampleCursor.key(), entry);
+                    return true;
+                }
+                if (victim == NULL_ADDRESS || isBetterVictim(entry, victim)) {
+                    victim = entry;
+                    victimHash = sampleCursor.key();
+                }
+            }
+            if (victim == NULL_ADDRESS) {
+                return false;
+            }
+            onEvict(victim);
+            remove(victimHash, victim);
+            return true;
+        }
+
+        void removeExpired() {
+            if (destroyed) {
+                return;
+            }
+            long now = currentTimeMillis();
+            List<Long> expiredHashes = new ArrayList<>();
+            for (HashSlotCursor8byteKey cursor = entries.cursor(); cursor.advance(); ) {
+                if (isExpired(mem.getLong(cursor.valueAddress()), now)) {
+                    expiredHashes.add(cursor.key());
+                }
+            }
+            for (long hash : expiredHashes) {
+                long entry = mem.getLong(entries.get(hash));
+                onExpire(entry);
+                remove(hash, entry);
+            }
+        }
+
+        void collectKeys(List<Data> keys) {
+            if (destroyed) {
+                return;
+            }
+            for (HashSlotCursor8byteKey cursor = entries.cursor(); cursor.advance(); ) {
+                keys.add(readKey(mem.getLong(cursor.valueAddress())));
+            }
+        }
+
+        void collectRecords(List<Map.Entry<Data, NearCacheRecord>> records) {
+            if (destroyed) {
+                return;
+            }
+            for (HashSlotCursor8byteKey cursor = entries.cursor(); cursor.advance(); ) {
+                long entry = mem.getLong(cursor.valueAddress());
+                records.add(new SimpleImmutableEntry<>(readKey(entry), toRecord(entry)));
+            }
+        }
+
+        /**
+         * Frees all entries of the segment.
+         *
+         * @param destroy {@code true} if the segment can't be used anymore
+         * @return the number of freed entries
+         */
+        int clear(boolean destroy) {
+            lock.lock();
+            try {
+                if (destroyed) {
+                    return 0;
+                }
+                int cleared = (int) entries.size();
+                for (HashSlotCursor8byteKey cursor = entries.cursor(); cursor.advance(); ) {
+                    long entry = mem.getLong(cursor.valueAddress());
+                    malloc.free(entry, entrySize(entry));
+                }
+                if (destroy) {
+                    entries.dispose();
+                    destroyed = true;
+                    size = 0;
+                } else {
+                    entries.clear();
+                    entries.trimToSize();
+                    updateSize();
+                }
+                return cleared;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void updateSize() {
+            size = (int) entries.size();
+            // the owned entry memory cost includes the hash slot arrays of the segments
+            nearCacheStats.setOwnedEntryMemoryCost(malloc.getUsedMemory());
+        }
+    }
+}
@@ -51,4 +51,14 @@ public interface MigratablePipeline {
      * @return total load recorded by this pipeline
      */
     long load();
+
+    /**
+     * Get the total time the owning {@link NioThread NioThreads} have spent processing this
+     * pipeline. Unlike the {@link #load()}, it reflects the actual cost of the work; e.g. a
+     * pipeline doing many tiny writes and a pipeline moving a few large frames can have the
+     * same load while consuming a very different amount of CPU time.
+     *
+     * @return total processing time in nanoseconds recorded by this pipeline
+     */
+    long processTimeNanos();
 }
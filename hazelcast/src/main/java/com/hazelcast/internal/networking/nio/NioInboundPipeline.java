@@ -69,6 +69,7 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
     private volatile long normalFramesReadLastPublish;
     private volatile long priorityFramesReadLastPublish;
     private volatile long processCountLastPublish;
+    private volatile long processTimeNanosLastPublish;
 
     NioInboundPipeline(NioChannel channel,
                        NioThread owner,
@@ -184,11 +185,13 @@ public final class NioInboundPipeline extends NioPipeline implements InboundPipe
         owner.framesTransceived += normalFramesRead.get() - normalFramesReadLastPublish;
         owner.priorityFramesTransceived += priorityFramesRead.get() - priorityFramesReadLastPublish;
         owner.processCount += processCount.get() - processCountLastPublish;
+        owner.processTimeNanos += processTimeNanos.get() - processTimeNanosLastPublish;
 
         bytesReadLastPublish = bytesRead.get();
         normalFramesReadLastPublish = normalFramesRead.get();
         priorityFramesReadLastPublish = priorityFramesRead.get();
         processCountLastPublish = processCount.get();
+        processTimeNanosLastPublish = processTimeNanos.get();
     }
 
     @Override
@@ -127,6 +127,7 @@ public final class NioOutboundPipeline
     private long normalFramesWrittenLastPublish;
     private long priorityFramesWrittenLastPublish;
     private long processCountLastPublish;
+    private long processTimeNanosLastPublish;
     private final ConcurrencyDetection concurrencyDetection;
     private final boolean writeThroughEnabled;
     private final boolean selectionKeyWakeupEnabled;
@@ -446,11 +447,13 @@ public final class NioOutboundPipeline
         owner.framesTransceived += normalFramesWritten.get() - normalFramesWrittenLastPublish;
         owner.priorityFramesTransceived += priorityFramesWritten.get() - priorityFramesWrittenLastPublish;
         owner.processCount += processCount.get() - processCountLastPublish;
+        owner.processTimeNanos += processTimeNanos.get() - processTimeNanosLastPublish;
 
         bytesWrittenLastPublish = bytesWritten.get();
         normalFramesWrittenLastPublish = normalFramesWritten.get();
         priorityFramesWrittenLastPublish = priorityFramesWritten.get();
         processCountLastPublish = processCount.get();
+        processTimeNanosLastPublish = processTimeNanos.get();
     }
 
     @Override
@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.networking.nio;
 
+import com.hazelcast.internal.jfr.JfrEvents;
 import com.hazelcast.internal.metrics.ExcludedMetricTargets;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.networking.ChannelErrorHandler;
@@ -42,12 +43,14 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKIN
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_IO_THREAD_ID;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_PRIORITY_FRAMES_TRANSCEIVED;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_PROCESS_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_PROCESS_TIME_NANOS;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_SELECTOR_IO_EXCEPTION_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_SELECTOR_REBUILD_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.NETWORKING_METRIC_NIO_THREAD_TASK_QUEUE_SIZE;
 import static com.hazelcast.internal.metrics.MetricTarget.MANAGEMENT_CENTER;
 import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
 import static com.hazelcast.internal.networking.nio.SelectorMode.SELECT_NOW;
 import static com.hazelcast.internal.networking.nio.SelectorOptimizer.newSelector;
 import static com.hazelcast.internal.util.EmptyStatement.ignore;
@@ -85,6 +88,8 @@ public class NioThread extends Thread implements OperationHostileThread {
     volatile long priorityFramesTransceived;
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_PROCESS_COUNT)
     volatile long processCount;
+    @Probe(name = NETWORKING_METRIC_NIO_THREAD_PROCESS_TIME_NANOS, unit = NS)
+    volatile long processTimeNanos;
 
     @Probe(name = NETWORKING_METRIC_NIO_THREAD_TASK_QUEUE_SIZE)
     private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<>();
@@ -165,6 +170,15 @@ public class NioThread extends Thread implements OperationHostileThread {
         return processCount;
     }
 
+    /**
+     * Returns the total time this thread has spent processing its pipelines.
+     *
+     * @return the process time in nanoseconds.
+     */
+    public long processTimeNanos() {
+        return processTimeNanos;
+    }
+
     public long eventCount() {
         return eventCount.get();
     }
@@ -360,16 +374,23 @@ public class NioThread extends Thread implements OperationHostileThread {
 
     private void processSelectionKeys() {
         lastSelectTimeMs = currentTimeMillis();
+        Object jfrEvent = JfrEvents.isSelectionKeysEnabled() ? JfrEvents.beginSelectionKeys() : null;
+        int selectedKeys = 0;
         Iterator<SelectionKey> it = selector.selectedKeys().iterator();
         while (it.hasNext()) {
             SelectionKey sk = it.next();
             it.remove();
             processSelectionKey(sk);
+            selectedKeys++;
+        }
+        if (jfrEvent != null) {
+            JfrEvents.commitSelectionKeys(jfrEvent, selectedKeys);
         }
     }
 
     private void processSelectionKey(SelectionKey sk) {
         NioPipeline pipeline = (NioPipeline) sk.attachment();
+        long startNanos = System.nanoTime();
         try {
             if (!sk.isValid()) {
                 // if the selectionKey isn't valid, we throw this exception to feedback the situation into the pipeline.onFailure
@@ -382,6 +403,8 @@ public class NioThread extends Thread implements OperationHostileThread {
             pipeline.process();
         } catch (Throwable t) {
              pipeline.onError(t);
+        } finally {
+            pipeline.recordProcessTime(System.nanoTime() - startNanos);
         }
     }
 
@@ -52,6 +52,8 @@ import static com.hazelcast.spi.properties.ClusterProperty.IO_THREAD_COUNT;
  *
  * It measures load serviced by each pipeline in a given interval and
  * if imbalance is detected then it schedules pipeline migration to fix the situation.
+ * The load is based on the bytes processed by a pipeline and the time its
+ * {@link NioThread} spent processing it; see {@link LoadTracker}.
  * The exact migration strategy can be customized via
  * {@link com.hazelcast.internal.networking.nio.iobalancer.MigrationStrategy}.
  *
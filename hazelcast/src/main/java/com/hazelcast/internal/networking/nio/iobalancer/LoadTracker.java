@@ -27,10 +27,18 @@ import java.util.Set;
 
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
 import static com.hazelcast.internal.util.StringUtil.LINE_SEPARATOR;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 /**
  * Tracks the load of of NioThread(s) and creates a mapping between NioThread -> NioPipeline.
  * <p>
+ * The load of a pipeline combines two signals: the {@link MigratablePipeline#load()} (by default
+ * the number of bytes processed) and the {@link MigratablePipeline#processTimeNanos() time} the
+ * owning NioThread spent processing the pipeline. The time is converted to load units using the
+ * ratio between the total load and the total time of all pipelines in the last interval, so both
+ * signals have an equal weight. This way a pipeline doing many tiny writes, which costs a lot of
+ * CPU time for a few bytes, isn't considered cheap compared to a pipeline moving large frames.
+ * <p>
  * This class is not thread-safe with the exception of
  * {@link #addPipeline(MigratablePipeline)}   and
  * {@link #removePipeline(MigratablePipeline)}
@@ -44,11 +52,15 @@ class LoadTracker {
 
     //load per pipeline since an instance started
     private final ItemCounter<MigratablePipeline> lastLoadCounter = new ItemCounter<MigratablePipeline>();
+    //process time per pipeline since an instance started
+    private final ItemCounter<MigratablePipeline> lastProcessTimeCounter = new ItemCounter<MigratablePipeline>();
 
     //load per NioThread since last calculation
     private final ItemCounter<NioThread> ownerLoad = new ItemCounter<NioThread>();
     //load per pipeline since last calculation
     private final ItemCounter<MigratablePipeline> pipelineLoadCount = new ItemCounter<MigratablePipeline>();
+    //process time per pipeline since last calculation
+    private final ItemCounter<MigratablePipeline> pipelineProcessTime = new ItemCounter<MigratablePipeline>();
 
     //contains all known pipelines
     private final Set<MigratablePipeline> pipelines = new HashSet<MigratablePipeline>();
@@ -97,6 +109,11 @@ class LoadTracker {
         return pipelineLoadCount;
     }
 
+    // just for testing
+    ItemCounter<MigratablePipeline> getPipelineProcessTime() {
+        return pipelineProcessTime;
+    }
+
     private void updateNewFinalImbalance() {
         imbalance.minimumLoad = Long.MAX_VALUE;
         imbalance.maximumLoad = Long.MIN_VALUE;
@@ -122,13 +139,27 @@ class LoadTracker {
     }
 
     private void updateNewWorkingImbalance() {
+        long totalLoad = 0;
+        long totalProcessTime = 0;
         for (MigratablePipeline pipeline : pipelines) {
-            updatePipelineState(pipeline);
+            long load = getLoadSinceLastCheck(pipeline);
+            long processTime = getProcessTimeSinceLastCheck(pipeline);
+            pipelineLoadCount.set(pipeline, load);
+            pipelineProcessTime.set(pipeline, processTime);
+            totalLoad += load;
+            totalProcessTime += processTime;
+        }
+
+        // the number of load units a nanosecond of process time is worth
+        double processTimeWeight = totalLoad == 0 || totalProcessTime == 0 ? 1 : (double) totalLoad / totalProcessTime;
+        for (MigratablePipeline pipeline : pipelines) {
+            updatePipelineState(pipeline, processTimeWeight);
         }
     }
 
-    private void updatePipelineState(MigratablePipeline pipeline) {
-        long pipelineLoad = getLoadSinceLastCheck(pipeline);
+    private void updatePipelineState(MigratablePipeline pipeline, double processTimeWeight) {
+        long pipelineLoad = pipelineLoadCount.get(pipeline)
+                + Math.round(pipelineProcessTime.get(pipeline) * processTimeWeight);
         pipelineLoadCount.set(pipeline, pipelineLoad);
         NioThread owner = pipeline.owner();
         if (owner == null) {
@@ -145,8 +176,15 @@ class LoadTracker {
         return load - lastLoad;
     }
 
+    private long getProcessTimeSinceLastCheck(MigratablePipeline pipeline) {
+        long processTime = pipeline.processTimeNanos();
+        long lastProcessTime = lastProcessTimeCounter.getAndSet(pipeline, processTime);
+        return processTime - lastProcessTime;
+    }
+
     private void clearWorkingImbalance() {
         pipelineLoadCount.reset();
+        pipelineProcessTime.reset();
         ownerLoad.reset();
         for (Set<MigratablePipeline> pipelines : ownerToPipelines.values()) {
             pipelines.clear();
@@ -161,6 +199,8 @@ class LoadTracker {
         pipelines.remove(pipeline);
         pipelineLoadCount.remove(pipeline);
         lastLoadCounter.remove(pipeline);
+        pipelineProcessTime.remove(pipeline);
+        lastProcessTimeCounter.remove(pipeline);
     }
 
     private void printDebugTable() {
@@ -226,6 +266,9 @@ class LoadTracker {
             sb.append(pipeline)
                     .append(":  ")
                     .append(loadPerPipeline)
+                    .append(" (process-time ")
+                    .append(NANOSECONDS.toMicros(pipelineProcessTime.get(pipeline)))
+                    .append(" us)")
                     .append(LINE_SEPARATOR);
         }
         sb.append(LINE_SEPARATOR);
@@ -18,6 +18,9 @@ package com.hazelcast.internal.nio;
 
 import com.hazelcast.internal.networking.OutboundFrame;
 import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.serialization.impl.bufferpool.PooledByteArray;
+
+import java.util.Arrays;
 
 import static com.hazelcast.internal.nio.PacketIOHelper.HEADER_SIZE;
 
@@ -89,7 +92,15 @@ public final class Packet extends HeapData implements OutboundFrame {
     public static final int FLAG_OP_CONTROL = 1 << 6;
 
 
-    // 3.b Jet packet flags
+    // 3.b Event packet flags
+
+    /**
+     * Marks an Event packet as a batch of events
+     */
+    public static final int FLAG_EVENT_BATCH = 1 << 1;
+
+
+    // 3.c Jet packet flags
 
     /**
      * Marks a Jet packet as Flow control
@@ -105,6 +116,7 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     private int partitionId;
     private transient Connection conn;
+    private transient PooledByteArray pooledPayload;
 
     public Packet() {
     }
@@ -118,6 +130,22 @@ public final class Packet extends HeapData implements OutboundFrame {
         this.partitionId = partitionId;
     }
 
+    /**
+     * Creates a Packet with a payload backed by a pooled byte-array. The byte-array can be larger than the
+     * payload; only the first {@link PooledByteArray#length()} bytes are sent.
+     * <p>
+     * The packet takes over the caller's reference to the pooled byte-array and releases it once the packet
+     * has been written, see {@link #release()}. So the packet should be written to a single connection only,
+     * unless the pooled byte-array is retained for every additional write.
+     *
+     * @param payload     the pooled payload
+     * @param partitionId the partition ID or -1
+     */
+    public Packet(PooledByteArray payload, int partitionId) {
+        this(payload.bytes(), partitionId);
+        this.pooledPayload = payload;
+    }
+
     /**
      * Gets the Connection this Packet was send with.
      *
@@ -194,6 +222,47 @@ public final class Packet extends HeapData implements OutboundFrame {
         return (flags & flagsToCheck) != 0;
     }
 
+    /**
+     * Releases the pooled byte-array backing this packet, if any. Called once the packet has been written or when
+     * it could not be sent. For packets not backed by a pooled byte-array this call is a no-op.
+     */
+    public void release() {
+        if (pooledPayload != null) {
+            pooledPayload.release();
+        }
+    }
+
+    @Override
+    public int totalSize() {
+        return pooledPayload != null ? pooledPayload.length() : super.totalSize();
+    }
+
+    /**
+     * Returns the payload. For a packet backed by a pooled byte-array, a copy of the valid bytes is returned since
+     * the pooled byte-array can be larger than the payload and is reused once the packet has been released.
+     */
+    @Override
+    public byte[] toByteArray() {
+        return pooledPayload != null ? Arrays.copyOf(payload, pooledPayload.length()) : payload;
+    }
+
+    /**
+     * Returns the byte-array backing this packet without copying it. Only the first {@link #totalSize()} bytes
+     * are valid.
+     */
+    byte[] payloadArray() {
+        return payload;
+    }
+
+    @Override
+    public void copyTo(byte[] dest, int destPos) {
+        if (pooledPayload != null) {
+            System.arraycopy(payload, 0, dest, destPos, pooledPayload.length());
+        } else {
+            super.copyTo(dest, destPos);
+        }
+    }
+
     /**
      * @return the complete flags bitfield as a {@code char}.
      */
@@ -289,7 +358,12 @@ public final class Packet extends HeapData implements OutboundFrame {
          * <p>
          * {@code ordinal = 2}
          */
-        EVENT,
+        EVENT {
+            @Override
+            public String describeFlags(char flags) {
+                return "[isBatch=" + isFlagRaised(flags, FLAG_EVENT_BATCH) + ']';
+            }
+        },
         /**
          * The type of a Jet packet.
          * <p>
@@ -47,7 +47,8 @@ public class PacketIOHelper {
 
     /**
      * Writes the packet data to the supplied {@code ByteBuffer}, up to the buffer's limit. If it returns {@code false},
-     * it should be called again to write the remaining data.
+     * it should be called again to write the remaining data. Once the packet is completely written, its pooled
+     * payload (if any) is released.
      *
      * @param dst the destination byte buffer
      * @return {@code true} if all the packet's data is now written out; {@code false} otherwise.
@@ -68,6 +69,7 @@ public class PacketIOHelper {
 
         if (writeValue(packet, dst)) {
             reset();
+            packet.release();
             return true;
         } else {
             return false;
@@ -94,7 +96,7 @@ public class PacketIOHelper {
                 done = false;
             }
 
-            byte[] byteArray = packet.toByteArray();
+            byte[] byteArray = packet.payloadArray();
             dst.put(byteArray, valueOffset, bytesWrite);
             valueOffset += bytesWrite;
 
@@ -947,7 +947,7 @@ public class InternalPartitionServiceImpl implements InternalPartitionService,
 
     @Override
     public final int getPartitionId(@Nonnull Object key) {
-        return getPartitionId(nodeEngine.toData(key));
+        return HashUtil.hashToIndex(node.getSerializationService().getPartitionHash(key), partitionCount);
     }
 
     @Override
@@ -24,6 +24,7 @@ import com.hazelcast.core.MemberLeftException;
 import com.hazelcast.core.OperationTimeoutException;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
+import com.hazelcast.internal.jfr.JfrEvents;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.partition.IPartitionLostEvent;
 import com.hazelcast.internal.partition.InternalPartition;
@@ -978,6 +979,7 @@ public class MigrationManager {
             if (partitionOwner == null) {
                 return;
             }
+            Object jfrEvent = JfrEvents.isMigrationEnabled() ? JfrEvents.beginMigration() : null;
             long start = System.nanoTime();
             try {
                 beforeMigration();
@@ -993,6 +995,9 @@ public class MigrationManager {
                 PartitionEventManager partitionEventManager = partitionService.getPartitionEventManager();
                 partitionEventManager.sendMigrationEvent(stats.toMigrationState(), migrationInfo,
                         TimeUnit.NANOSECONDS.toMillis(elapsed));
+                if (jfrEvent != null) {
+                    JfrEvents.commitMigration(jfrEvent, migrationInfo);
+                }
             }
         }
 
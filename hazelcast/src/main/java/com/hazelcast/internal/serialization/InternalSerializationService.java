@@ -21,6 +21,8 @@ import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.internal.nio.BufferObjectDataInput;
 import com.hazelcast.internal.nio.BufferObjectDataOutput;
 import com.hazelcast.internal.nio.Disposable;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
+import com.hazelcast.internal.serialization.impl.bufferpool.PooledByteArray;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.PortableReader;
@@ -64,8 +66,52 @@ public interface InternalSerializationService extends SerializationService, Disp
      */
     byte[] toBytes(Object obj, int leftPadding, boolean insertPartitionHash);
 
+    /**
+     * Writes the obj to a byte-array taken from the given pool. This call is the same as {@link #toBytes(Object)}
+     * except that the byte-array the object is serialized into is handed over as is, instead of being copied into
+     * a new byte-array of the exact length. So the returned byte-array can be larger than its content.
+     * <p>
+     * The caller owns the returned {@link PooledByteArray} and needs to release it once it is done with it.
+     * A serialization service that can't serialize into pooled byte-arrays returns the result of
+     * {@link #toBytes(Object)}, which isn't returned to the pool on release.
+     *
+     * @param obj  object to write to byte array
+     * @param pool the pool to take the byte-array from
+     */
+    default PooledByteArray toPooledBytes(Object obj, ByteArrayPool pool) {
+        byte[] bytes = toBytes(obj);
+        return new PooledByteArray(bytes, bytes.length, null);
+    }
+
+    /**
+     * Writes the obj to a byte-array taken from the given pool. This call is the same as
+     * {@link #toBytes(Object, int, boolean)} except that the byte-array is handed over as is, see
+     * {@link #toPooledBytes(Object, ByteArrayPool)}.
+     *
+     * @param obj                 object to write to byte array
+     * @param leftPadding         offset from beginning of byte array to start writing the object's bytes
+     * @param insertPartitionHash {@code true} to include the partition hash in the byte array, otherwise {@code false}
+     * @param pool                the pool to take the byte-array from
+     */
+    default PooledByteArray toPooledBytes(Object obj, int leftPadding, boolean insertPartitionHash, ByteArrayPool pool) {
+        byte[] bytes = toBytes(obj, leftPadding, insertPartitionHash);
+        return new PooledByteArray(bytes, bytes.length, null);
+    }
+
     <B extends Data> B toData(Object obj, DataType type);
 
+    /**
+     * Returns the partition hash of an object, the same as {@code toData(obj).getPartitionHash()}.
+     * <p>
+     * The partition hash of a {@code Long} or an {@code Integer} is computed from its value without
+     * serializing it, unless the global partitioning strategy derives another partition key from it or
+     * the configured byte order isn't {@link ByteOrder#BIG_ENDIAN}.
+     *
+     * @param obj the object, not {@code null}
+     * @return the partition hash
+     */
+    int getPartitionHash(Object obj);
+
     <B extends Data> B toData(Object obj, DataType type, PartitioningStrategy strategy);
 
     <B extends Data> B convertData(Data data, DataType type);
@@ -26,6 +26,8 @@ import com.hazelcast.internal.serialization.impl.bufferpool.BufferPool;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactory;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolFactoryImpl;
 import com.hazelcast.internal.serialization.impl.bufferpool.BufferPoolThreadLocal;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
+import com.hazelcast.internal.serialization.impl.bufferpool.PooledByteArray;
 import com.hazelcast.internal.usercodedeployment.impl.ClassLocator;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
@@ -38,6 +40,7 @@ import com.hazelcast.nio.serialization.Serializer;
 import com.hazelcast.partition.PartitioningStrategy;
 
 import java.io.Externalizable;
+import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteOrder;
 import java.util.IdentityHashMap;
@@ -56,6 +59,7 @@ import static com.hazelcast.internal.serialization.impl.SerializationUtil.handle
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.handleSerializeException;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.indexForDefaultType;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.isNullData;
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_x86_32;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static java.nio.ByteOrder.BIG_ENDIAN;
 
@@ -145,6 +149,25 @@ public abstract class AbstractSerializationService implements InternalSerializat
         return toBytes(obj, leftPadding, insertPartitionHash, globalPartitioningStrategy, getByteOrder());
     }
 
+    @Override
+    public final int getPartitionHash(Object obj) {
+        checkNotNull(obj);
+        if ((obj instanceof Long || obj instanceof Integer) && getByteOrder() == BIG_ENDIAN && isOwnPartitionKey(obj)) {
+            // the serialized value is the big-endian bytes of the primitive, so its hash needs no serialization
+            return obj instanceof Long ? MurmurHash3_x86_32((long) obj) : MurmurHash3_x86_32((int) obj);
+        }
+        Data data = toData(obj);
+        return data.getPartitionHash();
+    }
+
+    private boolean isOwnPartitionKey(Object obj) {
+        if (globalPartitioningStrategy == null) {
+            return true;
+        }
+        Object partitionKey = globalPartitioningStrategy.getPartitionKey(obj);
+        return partitionKey == null || partitionKey == obj;
+    }
+
     private byte[] toBytes(Object obj, int leftPadding, boolean writeHash, PartitioningStrategy strategy) {
         return toBytes(obj, leftPadding, writeHash, strategy, BIG_ENDIAN);
     }
@@ -157,25 +180,77 @@ public abstract class AbstractSerializationService implements InternalSerializat
         BufferPool pool = bufferPoolThreadLocal.get();
         BufferObjectDataOutput out = pool.takeOutputBuffer();
         try {
-            out.position(leftPadding);
+            writeBytes(out, obj, leftPadding, writeHash, strategy, serializerTypeIdByteOrder);
+            return out.toByteArray();
+        } catch (Throwable e) {
+            throw handleSerializeException(obj, e);
+        } finally {
+            pool.returnOutputBuffer(out);
+        }
+    }
 
-            SerializerAdapter serializer = serializerFor(obj);
-            if (writeHash) {
-                int partitionHash = calculatePartitionHash(obj, strategy);
-                out.writeInt(partitionHash, BIG_ENDIAN);
-            }
+    @Override
+    public PooledByteArray toPooledBytes(Object obj, ByteArrayPool byteArrayPool) {
+        return toPooledBytes(obj, 0, true, byteArrayPool, BIG_ENDIAN);
+    }
 
-            out.writeInt(serializer.getTypeId(), serializerTypeIdByteOrder);
+    @Override
+    public PooledByteArray toPooledBytes(Object obj, int leftPadding, boolean insertPartitionHash,
+                                         ByteArrayPool byteArrayPool) {
+        return toPooledBytes(obj, leftPadding, insertPartitionHash, byteArrayPool, getByteOrder());
+    }
 
-            serializer.write(out, obj);
-            return out.toByteArray();
+    private PooledByteArray toPooledBytes(Object obj, int leftPadding, boolean writeHash, ByteArrayPool byteArrayPool,
+                                          ByteOrder serializerTypeIdByteOrder) {
+        checkNotNull(obj);
+        checkNotNull(byteArrayPool);
+
+        BufferPool pool = bufferPoolThreadLocal.get();
+        BufferObjectDataOutput out = pool.takeOutputBuffer();
+        if (!(out instanceof ByteArrayObjectDataOutput)) {
+            // we can't swap the buffer of an unknown output, so we fall back to a regular copy
+            try {
+                writeBytes(out, obj, leftPadding, writeHash, globalPartitioningStrategy, serializerTypeIdByteOrder);
+                byte[] bytes = out.toByteArray();
+                return new PooledByteArray(bytes, bytes.length, null);
+            } catch (Throwable e) {
+                throw handleSerializeException(obj, e);
+            } finally {
+                pool.returnOutputBuffer(out);
+            }
+        }
+
+        // the output writes directly into a pooled byte-array; the output keeps its own buffer for regular use
+        ByteArrayObjectDataOutput byteArrayOut = (ByteArrayObjectDataOutput) out;
+        byte[] ownBuffer = byteArrayOut.buffer;
+        byteArrayOut.buffer = byteArrayPool.take(ownBuffer != null ? ownBuffer.length : byteArrayOut.initialSize);
+        try {
+            writeBytes(out, obj, leftPadding, writeHash, globalPartitioningStrategy, serializerTypeIdByteOrder);
+            return new PooledByteArray(byteArrayOut.buffer, byteArrayOut.pos, byteArrayPool);
         } catch (Throwable e) {
+            byteArrayPool.offer(byteArrayOut.buffer);
             throw handleSerializeException(obj, e);
         } finally {
+            byteArrayOut.buffer = ownBuffer;
             pool.returnOutputBuffer(out);
         }
     }
 
+    private void writeBytes(BufferObjectDataOutput out, Object obj, int leftPadding, boolean writeHash,
+                            PartitioningStrategy strategy, ByteOrder serializerTypeIdByteOrder) throws IOException {
+        out.position(leftPadding);
+
+        SerializerAdapter serializer = serializerFor(obj);
+        if (writeHash) {
+            int partitionHash = calculatePartitionHash(obj, strategy);
+            out.writeInt(partitionHash, BIG_ENDIAN);
+        }
+
+        out.writeInt(serializer.getTypeId(), serializerTypeIdByteOrder);
+
+        serializer.write(out, obj);
+    }
+
     @Override
     public final <T> T toObject(final Object object) {
         if (!(object instanceof Data)) {
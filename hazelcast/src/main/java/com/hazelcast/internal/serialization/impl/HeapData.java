@@ -124,18 +124,18 @@ public class HeapData implements Data {
             return false;
         }
 
-        return dataSize == 0 || equals(this.payload, data.toByteArray());
+        return dataSize == 0 || equals(this.payload, totalSize(), data.toByteArray());
     }
 
-    // Same as Arrays.equals(byte[] a, byte[] a2) but loop order is reversed.
-    private static boolean equals(byte[] data1, byte[] data2) {
+    // Same as Arrays.equals(byte[] a, byte[] a2) but loop order is reversed. Only the first length bytes of
+    // data1 are compared since the payload of a subclass can be backed by a larger byte-array.
+    private static boolean equals(byte[] data1, int length, byte[] data2) {
         if (data1 == data2) {
             return true;
         }
         if (data1 == null || data2 == null) {
             return false;
         }
-        final int length = data1.length;
         if (data2.length != length) {
             return false;
         }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import com.hazelcast.internal.util.QuickMath;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+
+/**
+ * A thread-safe pool of byte-arrays organized in power of two size classes.
+ *
+ * Unlike the {@link BufferPool}, which is confined to a single thread, the byte-arrays in this pool are
+ * taken by one thread (e.g. a partition thread serializing an operation) and returned by another thread
+ * (e.g. an IO thread once the bytes have been written to the socket). See {@link PooledByteArray}.
+ *
+ * Each size class has a fixed number of slots. Taking and offering is lock-free and allocation-free; when
+ * a size class is empty a new array is allocated and when it is full the offered array is left for the gc.
+ * Because the arrays live on the heap, an array that is never returned is not a leak.
+ */
+public final class ByteArrayPool {
+
+    /**
+     * The number of larger size classes that are checked when the requested size class is empty.
+     */
+    static final int SIZE_CLASS_LOOKAHEAD = 1;
+
+    private final int minSizeShift;
+    private final int maxSize;
+    private final int slotsPerSizeClass;
+    private final AtomicReferenceArray<byte[]>[] sizeClasses;
+
+    /**
+     * Creates a ByteArrayPool.
+     *
+     * @param minSize           the size of the smallest pooled byte-array. Rounded up to the next power of two.
+     * @param maxSize           the size of the largest size class. Rounded up to the next power of two.
+     *                          Larger byte-arrays are allocated on demand and are never pooled.
+     * @param slotsPerSizeClass the maximum number of pooled byte-arrays per size class
+     */
+    @SuppressWarnings("unchecked")
+    public ByteArrayPool(int minSize, int maxSize, int slotsPerSizeClass) {
+        checkPositive(minSize, "minSize should be positive");
+        checkTrue(maxSize >= minSize, "maxSize should not be smaller than minSize");
+        checkPositive(slotsPerSizeClass, "slotsPerSizeClass should be positive");
+
+        int maxSizeShift = shiftFor(maxSize);
+        this.minSizeShift = shiftFor(minSize);
+        this.maxSize = 1 << maxSizeShift;
+        this.slotsPerSizeClass = slotsPerSizeClass;
+        this.sizeClasses = new AtomicReferenceArray[maxSizeShift - minSizeShift + 1];
+        for (int k = 0; k < sizeClasses.length; k++) {
+            sizeClasses[k] = new AtomicReferenceArray<>(slotsPerSizeClass);
+        }
+    }
+
+    /**
+     * Takes a byte-array with a length of at least {@code minLength}. If no matching byte-array is pooled,
+     * a new one is created with the length of the size class.
+     *
+     * @param minLength the minimum length of the byte-array
+     * @return the byte-array
+     */
+    public byte[] take(int minLength) {
+        if (minLength > maxSize) {
+            return new byte[minLength];
+        }
+
+        int sizeClass = sizeClassFor(minLength);
+        int lastSizeClass = Math.min(sizeClass + SIZE_CLASS_LOOKAHEAD, sizeClasses.length - 1);
+        for (int k = sizeClass; k <= lastSizeClass; k++) {
+            AtomicReferenceArray<byte[]> slots = sizeClasses[k];
+            for (int slot = 0; slot < slotsPerSizeClass; slot++) {
+                byte[] bytes = slots.get(slot);
+                if (bytes != null && slots.compareAndSet(slot, bytes, null)) {
+                    return bytes;
+                }
+            }
+        }
+        return new byte[1 << (sizeClass + minSizeShift)];
+    }
+
+    /**
+     * Offers a byte-array to the pool. The byte-array is added to the largest size class it can serve. If
+     * it is too small or too large, or if the size class is full, the byte-array is dropped.
+     *
+     * The caller should not access the byte-array after offering it.
+     *
+     * @param bytes the byte-array to return
+     * @return {@code true} if the byte-array got pooled, {@code false} if it got dropped
+     */
+    public boolean offer(byte[] bytes) {
+        if (bytes.length < (1 << minSizeShift)) {
+            return false;
+        }
+
+        int sizeClass = QuickMath.log2(bytes.length) - minSizeShift;
+        if (sizeClass >= sizeClasses.length) {
+            return false;
+        }
+
+        AtomicReferenceArray<byte[]> slots = sizeClasses[sizeClass];
+        for (int slot = 0; slot < slotsPerSizeClass; slot++) {
+            if (slots.get(slot) == null && slots.compareAndSet(slot, null, bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int sizeClassFor(int length) {
+        return Math.max(shiftFor(length) - minSizeShift, 0);
+    }
+
+    private static int shiftFor(int size) {
+        return QuickMath.log2(QuickMath.nextPowerOfTwo(size));
+    }
+}
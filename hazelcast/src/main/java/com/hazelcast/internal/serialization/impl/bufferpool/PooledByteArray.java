@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A reference counted byte-array taken from a {@link ByteArrayPool}.
+ *
+ * The byte-array can be larger than the actual content; only the first {@link #length()} bytes are valid.
+ * A PooledByteArray starts with a reference count of 1. Every additional owner should call {@link #retain()}
+ * and every owner calls {@link #release()} once it is done with the content. When the reference count drops
+ * to 0, the byte-array is returned to the pool and must not be accessed anymore.
+ */
+public final class PooledByteArray {
+
+    private static final AtomicIntegerFieldUpdater<PooledByteArray> REF_COUNT
+            = AtomicIntegerFieldUpdater.newUpdater(PooledByteArray.class, "refCount");
+
+    private final byte[] bytes;
+    private final int length;
+    private final ByteArrayPool pool;
+    private volatile int refCount = 1;
+
+    /**
+     * Creates a PooledByteArray.
+     *
+     * @param bytes  the byte-array
+     * @param length the number of valid bytes
+     * @param pool   the pool to return the byte-array to, or {@code null} if the byte-array is not pooled
+     */
+    public PooledByteArray(byte[] bytes, int length, ByteArrayPool pool) {
+        this.bytes = bytes;
+        this.length = length;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the underlying byte-array. The byte-array must not be accessed after the last release.
+     *
+     * @return the byte-array
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of valid bytes in the byte-array.
+     *
+     * @return the number of valid bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Increments the reference count.
+     *
+     * @throws IllegalStateException if the byte-array has already been released
+     */
+    public void retain() {
+        for (; ; ) {
+            int current = refCount;
+            if (current <= 0) {
+                throw new IllegalStateException("PooledByteArray has already been released");
+            }
+            if (REF_COUNT.compareAndSet(this, current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Decrements the reference count and returns the byte-array to the pool when it drops to 0.
+     *
+     * @return {@code true} if this was the last reference, {@code false} otherwise
+     * @throws IllegalStateException if the byte-array has already been released
+     */
+    public boolean release() {
+        int remaining = REF_COUNT.decrementAndGet(this);
+        if (remaining > 0) {
+            return false;
+        }
+        if (remaining < 0) {
+            throw new IllegalStateException("PooledByteArray has already been released");
+        }
+        if (pool != null) {
+            pool.offer(bytes);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the current reference count.
+     *
+     * @return the reference count
+     */
+    public int refCount() {
+        return refCount;
+    }
+}
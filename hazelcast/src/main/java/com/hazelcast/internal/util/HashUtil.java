@@ -96,16 +96,7 @@ public final class HashUtil {
 
         for (long blockAddr = offset; blockAddr < tailStart; blockAddr += MURMUR32_BLOCK_SIZE) {
             // little-endian load order
-            int k1 = loader.getInt(resource, blockAddr);
-            k1 *= c1;
-            // ROTL32(k1,15);
-            k1 = (k1 << 15) | (k1 >>> 17);
-            k1 *= c2;
-
-            h1 ^= k1;
-            // ROTL32(h1,13);
-            h1 = (h1 << 13) | (h1 >>> 19);
-            h1 = h1 * 5 + 0xe6546b64;
+            h1 = MurmurHash3_x86_32_block(h1, loader.getInt(resource, blockAddr));
         }
 
         // tail
@@ -134,6 +125,40 @@ public final class HashUtil {
         return h1;
     }
 
+    /**
+     * Returns the MurmurHash3_x86_32 hash of the big-endian bytes of a {@code long}, the same as
+     * {@link #MurmurHash3_x86_32(byte[], int, int)} of the 8 bytes written by {@code Bits.writeLongB}.
+     */
+    public static int MurmurHash3_x86_32(long value) {
+        int h1 = MurmurHash3_x86_32_block(DEFAULT_MURMUR_SEED, Integer.reverseBytes((int) (value >>> Integer.SIZE)));
+        h1 = MurmurHash3_x86_32_block(h1, Integer.reverseBytes((int) value));
+        return MurmurHash3_fmix(h1 ^ Long.BYTES);
+    }
+
+    /**
+     * Returns the MurmurHash3_x86_32 hash of the big-endian bytes of an {@code int}, the same as
+     * {@link #MurmurHash3_x86_32(byte[], int, int)} of the 4 bytes written by {@code Bits.writeIntB}.
+     */
+    public static int MurmurHash3_x86_32(int value) {
+        int h1 = MurmurHash3_x86_32_block(DEFAULT_MURMUR_SEED, Integer.reverseBytes(value));
+        return MurmurHash3_fmix(h1 ^ Integer.BYTES);
+    }
+
+    private static int MurmurHash3_x86_32_block(int h1, int k1) {
+        int c1 = 0xcc9e2d51;
+        int c2 = 0x1b873593;
+
+        k1 *= c1;
+        // ROTL32(k1,15);
+        k1 = (k1 << 15) | (k1 >>> 17);
+        k1 *= c2;
+
+        h1 ^= k1;
+        // ROTL32(h1,13);
+        h1 = (h1 << 13) | (h1 >>> 19);
+        return h1 * 5 + 0xe6546b64;
+    }
+
     /**
      * Returns the MurmurHash3_x86_32 hash of a block inside a byte array.
      */
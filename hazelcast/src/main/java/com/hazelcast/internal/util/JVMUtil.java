@@ -39,6 +39,12 @@ public final class JVMUtil {
     @SuppressWarnings("checkstyle:magicnumber")
     public static final int REFERENCE_COST_IN_BYTES = is32bitJVM() || isCompressedOops() ? 4 : 8;
 
+    /**
+     * Defines the costs for an object header (mark word and class pointer) in Bytes.
+     */
+    @SuppressWarnings("checkstyle:magicnumber")
+    public static final int OBJECT_HEADER_COST_IN_BYTES = is32bitJVM() ? 8 : 8 + REFERENCE_COST_IN_BYTES;
+
     private JVMUtil() {
     }
 
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
+
+/**
+ * A lock-free interval histogram with HDR style log-linear buckets.
+ * <p>
+ * Every power of two range is split into {@value #SUB_BUCKET_COUNT} linear sub-buckets,
+ * so the value reported for a percentile is at most 1/{@value #SUB_BUCKET_COUNT} off
+ * from the recorded value, no matter its magnitude. Values up to a bit over 78 hours in
+ * nanoseconds are tracked; bigger values are counted in the last bucket.
+ * <p>
+ * Recording a value doesn't allocate and is a single atomic increment, plus a CAS if the
+ * value is a new maximum. The values are recorded in one of a few stripes, picked by the
+ * recording thread, so threads recording concurrently rarely contend on the same buckets
+ * or maximum.
+ * <p>
+ * The recorded values are read by {@link #getIntervalSnapshot()}, which resets the
+ * histogram, so every snapshot covers the values recorded since the previous one. Taking
+ * a snapshot isn't atomic with respect to recording, so a value that is being recorded can
+ * end up in the count of one snapshot and in the maximum of the next one.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // the highest bit of a trackable value
+    static final int MAX_BIT = 47;
+    static final int BUCKET_COUNT = (MAX_BIT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    // a stripe takes a few KB, so the number of stripes is kept low
+    private static final int MAX_STRIPE_COUNT = 4;
+    private static final int STRIPE_COUNT
+            = Math.min(QuickMath.nextPowerOfTwo(RuntimeAvailableProcessors.get()), MAX_STRIPE_COUNT);
+
+    private static final double HUNDRED = 100d;
+    private static final long MAX_TRACKABLE_VALUE = (1L << (MAX_BIT + 1)) - 1;
+    private static final AtomicLongFieldUpdater<Stripe> MAX = newUpdater(Stripe.class, "max");
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public LatencyHistogram() {
+        this(STRIPE_COUNT);
+    }
+
+    /**
+     * @param stripeCount the number of stripes, a power of two
+     */
+    LatencyHistogram(int stripeCount) {
+        this.stripes = new Stripe[stripeCount];
+        for (int k = 0; k < stripeCount; k++) {
+            stripes[k] = new Stripe();
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param value the value, e.g. a duration in nanoseconds
+     */
+    public void recordValue(long value) {
+        value = Math.min(Math.max(value, 0), MAX_TRACKABLE_VALUE);
+        Stripe stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+        stripe.buckets.incrementAndGet(bucketIndex(value));
+
+        for (; ; ) {
+            long currentMax = stripe.max;
+            if (value <= currentMax || MAX.compareAndSet(stripe, currentMax, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns the values recorded since the previous snapshot, and starts a new interval.
+     */
+    public Snapshot getIntervalSnapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long max = 0;
+        for (Stripe stripe : stripes) {
+            for (int k = 0; k < BUCKET_COUNT; k++) {
+                // most buckets are empty, there is no need to write them
+                if (stripe.buckets.get(k) != 0) {
+                    counts[k] += stripe.buckets.getAndSet(k, 0);
+                }
+            }
+            max = Math.max(max, MAX.getAndSet(stripe, 0));
+        }
+        return new Snapshot(counts, max);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        // the value is shifted so that its highest bit and the sub-bucket bits below it remain
+        int shift = (Long.SIZE - 1 - numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long lowestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        return lowestValueInBucket(index) + (1L << shift) - 1;
+    }
+
+    private static final class Stripe {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        volatile long max;
+    }
+
+    /**
+     * The values recorded in an interval of a {@link LatencyHistogram}.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long max;
+
+        Snapshot(long[] counts, long max) {
+            this.counts = counts;
+            long count = 0;
+            int highestIndex = 0;
+            for (int k = 0; k < BUCKET_COUNT; k++) {
+                if (counts[k] != 0) {
+                    count += counts[k];
+                    highestIndex = k;
+                }
+            }
+            this.count = count;
+            // the max of a value can be recorded in the next interval, see the class docs
+            this.max = Math.max(max, lowestValueInBucket(highestIndex));
+        }
+
+        /**
+         * Returns the number of recorded values.
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Returns the highest recorded value, or 0 if nothing was recorded.
+         */
+        public long max() {
+            return max;
+        }
+
+        /**
+         * Returns the value at the given percentile, e.g. 99.9, which is the highest value
+         * that is equivalent to the recorded values in its bucket. The returned value is never
+         * higher than {@link #max()}.
+         *
+         * @param percentile the percentile between 0 and 100
+         * @return the value at the percentile, or 0 if nothing was recorded.
+         */
+        public long valueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) ceil(Math.min(percentile, HUNDRED) / HUNDRED * count));
+            long seen = 0;
+            int k = 0;
+            for (; k < BUCKET_COUNT - 1; k++) {
+                seen += counts[k];
+                if (seen >= rank) {
+                    break;
+                }
+            }
+            return Math.min(highestValueInBucket(k), max);
+        }
+    }
+}
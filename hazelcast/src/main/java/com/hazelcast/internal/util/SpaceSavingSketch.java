@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+
+/**
+ * A Space-Saving sketch that finds the most frequent items in a stream using a
+ * fixed number of counters.
+ * <p>
+ * If an offered item isn't monitored and all counters are in use, the counter
+ * with the lowest count is taken over by the item, and the item inherits its
+ * count. So the count of an item is never underestimated, and it is
+ * overestimated by at most the error of its counter. Every item that occurs
+ * more often than {@code total / capacity} times is guaranteed to be monitored.
+ * <p>
+ * The counters are scanned linearly, so the capacity should be small.
+ * <p>
+ * This class isn't thread-safe.
+ */
+public final class SpaceSavingSketch {
+
+    private final long[] items;
+    private final long[] counts;
+    private final long[] errors;
+    private int size;
+    private long total;
+
+    public SpaceSavingSketch(int capacity) {
+        checkPositive(capacity, "capacity should be positive");
+        this.items = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+    }
+
+    /**
+     * Offers an occurrence of the given item.
+     *
+     * @param item the item
+     */
+    public void offer(long item) {
+        total++;
+        int minIndex = 0;
+        for (int k = 0; k < size; k++) {
+            if (items[k] == item) {
+                counts[k]++;
+                return;
+            }
+            if (counts[k] < counts[minIndex]) {
+                minIndex = k;
+            }
+        }
+
+        if (size < items.length) {
+            items[size] = item;
+            counts[size] = 1;
+            errors[size] = 0;
+            size++;
+        } else {
+            items[minIndex] = item;
+            errors[minIndex] = counts[minIndex];
+            counts[minIndex]++;
+        }
+    }
+
+    /**
+     * Returns the number of offered occurrences.
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Returns the most frequent items, in descending order of their count.
+     *
+     * @param k the maximum number of items to return
+     * @return the list of the most frequent items
+     */
+    public List<Counter> top(int k) {
+        List<Counter> result = new ArrayList<>(Math.min(k, size));
+        boolean[] taken = new boolean[size];
+        for (int i = 0; i < k && i < size; i++) {
+            int maxIndex = -1;
+            for (int j = 0; j < size; j++) {
+                if (!taken[j] && (maxIndex == -1 || counts[j] > counts[maxIndex])) {
+                    maxIndex = j;
+                }
+            }
+            taken[maxIndex] = true;
+            result.add(new Counter(items[maxIndex], counts[maxIndex], errors[maxIndex]));
+        }
+        return result;
+    }
+
+    /**
+     * The count of a monitored item.
+     */
+    public static final class Counter {
+
+        private final long item;
+        private final long count;
+        private final long error;
+
+        Counter(long item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long item() {
+            return item;
+        }
+
+        /**
+         * Returns the estimated count, which is never lower than the actual count.
+         */
+        public long count() {
+            return count;
+        }
+
+        /**
+         * Returns the maximum overestimation of the count.
+         */
+        public long error() {
+            return error;
+        }
+    }
+}
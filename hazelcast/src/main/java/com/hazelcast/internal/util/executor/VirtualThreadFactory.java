@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.executor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A {@link ThreadFactory} that creates virtual threads.
+ * <p>
+ * Virtual threads are only available on JDK 21 and newer. Since Hazelcast is compiled
+ * for an older JDK, the virtual thread builder is looked up reflectively; use
+ * {@link #isSupported()} to check if the running JVM supports virtual threads before
+ * creating the factory.
+ * <p>
+ * Blocking a virtual thread doesn't block its carrier thread, so tasks that block on IO
+ * can be executed on virtual threads without needing a large pool of platform threads.
+ */
+public final class VirtualThreadFactory implements ThreadFactory {
+
+    // Thread.ofVirtual(), Thread.Builder.OfVirtual.name(String, long) and Thread.Builder.factory()
+    private static final Method[] BUILDER_METHODS = builderMethods();
+
+    private final ThreadFactory factory;
+    private final ClassLoader classLoader;
+
+    /**
+     * Creates a factory for virtual threads.
+     *
+     * @param threadNamePrefix the prefix of the thread names; it is followed by a counter
+     * @param classLoader      the context class loader of the created threads
+     * @throws UnsupportedOperationException if the JVM doesn't support virtual threads
+     */
+    public VirtualThreadFactory(String threadNamePrefix, ClassLoader classLoader) {
+        if (BUILDER_METHODS == null) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        }
+        try {
+            this.factory = newFactory(BUILDER_METHODS, threadNamePrefix);
+        } catch (Exception e) {
+            throw new UnsupportedOperationException("Failed to create virtual thread factory", e);
+        }
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Checks if the running JVM supports virtual threads.
+     *
+     * @return {@code true} if virtual threads are supported, {@code false} otherwise
+     */
+    public static boolean isSupported() {
+        return BUILDER_METHODS != null;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        Thread thread = factory.newThread(r);
+        if (classLoader != null) {
+            thread.setContextClassLoader(classLoader);
+        }
+        return thread;
+    }
+
+    private static ThreadFactory newFactory(Method[] builderMethods, String threadNamePrefix) throws Exception {
+        Object builder = builderMethods[0].invoke(null);
+        builder = builderMethods[1].invoke(builder, threadNamePrefix, 0L);
+        return (ThreadFactory) builderMethods[2].invoke(builder);
+    }
+
+    /**
+     * Returns the methods to build a virtual thread factory, or {@code null} if virtual
+     * threads are not available.
+     */
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private static Method[] builderMethods() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Class<?> virtualBuilderClass = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            Method[] builderMethods = {
+                    Thread.class.getMethod("ofVirtual"),
+                    virtualBuilderClass.getMethod("name", String.class, long.class),
+                    builderClass.getMethod("factory"),
+            };
+
+            // fails when virtual threads are a preview feature that is not enabled
+            newFactory(builderMethods, "probe");
+            return builderMethods;
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+}
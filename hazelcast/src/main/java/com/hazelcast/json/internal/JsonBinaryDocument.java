@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.json.internal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.hazelcast.internal.json.NonTerminalJsonValue;
+import com.hazelcast.query.impl.getters.JsonPathCursor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.UTF_8;
+import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.readLongB;
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.nio.Bits.writeLongB;
+
+/**
+ * A pre-parsed, binary representation of a Json document. It is
+ * created once when a value is stored and lets the query getters
+ * reach a value in O(path depth) without tokenizing the Json text.
+ *
+ * Every value is a type byte followed by its payload:
+ * <ul>
+ *     <li>{@code null}, {@code true} and {@code false} have no payload</li>
+ *     <li>integral numbers are stored as 8 byte longs</li>
+ *     <li>floating point numbers are stored as 8 byte doubles</li>
+ *     <li>strings are a 4 byte length followed by UTF-8 bytes</li>
+ *     <li>arrays are a 4 byte item count followed by a directory
+ *     of 4 byte item offsets and then the items</li>
+ *     <li>objects are a 4 byte attribute count followed by a
+ *     directory of 4 byte name offset and 4 byte value offset pairs,
+ *     then the length-prefixed UTF-8 names and then the values</li>
+ * </ul>
+ * Offsets in a directory are relative to the start of the enclosing
+ * array or object, so encoded values can be embedded into their
+ * parents without being rewritten.
+ */
+public final class JsonBinaryDocument {
+
+    /**
+     * Returned by {@link #findValue(JsonPathCursor)} when the path
+     * does not lead to a value in this document.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Returned by {@link #findValue(JsonPathCursor)} when the path
+     * contains "any". Such paths may match multiple values and are
+     * not resolved by this document.
+     */
+    public static final int ANY_PATH = -2;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_TRUE = 1;
+    private static final byte TYPE_FALSE = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_STRING = 5;
+    private static final byte TYPE_ARRAY = 6;
+    private static final byte TYPE_OBJECT = 7;
+
+    private static final int TYPE_SIZE = 1;
+    private static final int STRUCT_HEADER_SIZE = TYPE_SIZE + INT_SIZE_IN_BYTES;
+    private static final int ARRAY_ENTRY_SIZE = INT_SIZE_IN_BYTES;
+    private static final int OBJECT_ENTRY_SIZE = 2 * INT_SIZE_IN_BYTES;
+    private static final int INITIAL_BUFFER_SIZE = 64;
+
+    private final byte[] buffer;
+
+    private JsonBinaryDocument(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates a binary document from the Json read by the given
+     * parser. The parser must be pointing to the start of the input.
+     *
+     * @param parser the parser to read the Json from
+     * @return the binary document or {@code null} if the input is empty
+     * @throws IOException if the input is not a valid Json or contains
+     *                     an integral number that does not fit in a long
+     */
+    public static JsonBinaryDocument create(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return null;
+        }
+        Output out = new Output(INITIAL_BUFFER_SIZE);
+        writeValue(parser, token, out);
+        return new JsonBinaryDocument(out.toByteArray());
+    }
+
+    /**
+     * Returns the size of this document in bytes.
+     *
+     * @return the size of this document in bytes
+     */
+    public int size() {
+        return buffer.length;
+    }
+
+    /**
+     * Locates the value at the given path.
+     *
+     * @param path the query path, it is consumed by this method
+     * @return the position of the value, {@link #NOT_FOUND} if there
+     * is no value at the given path or {@link #ANY_PATH} if the path
+     * contains "any"
+     */
+    public int findValue(JsonPathCursor path) {
+        int pos = 0;
+        while (path.getNext() != null) {
+            if (path.isArray()) {
+                if (path.isAny()) {
+                    return ANY_PATH;
+                }
+                pos = findArrayItem(pos, path.getArrayIndex());
+            } else {
+                pos = findAttribute(pos, path.getCurrentAsUTF8());
+            }
+            if (pos == NOT_FOUND) {
+                return NOT_FOUND;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Reads the value at the given position. Strings are returned as
+     * {@link String}, integral numbers as {@code long}, floating point
+     * numbers as {@code double} and Json {@code null} as {@code null}.
+     * Objects and arrays are returned as {@link NonTerminalJsonValue#INSTANCE}.
+     *
+     * @param pos a position returned by {@link #findValue(JsonPathCursor)}
+     * @return the value at the given position
+     */
+    public Object readValue(int pos) {
+        switch (buffer[pos]) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_TRUE:
+                return true;
+            case TYPE_FALSE:
+                return false;
+            case TYPE_LONG:
+                return readLongB(buffer, pos + TYPE_SIZE);
+            case TYPE_DOUBLE:
+                return Double.longBitsToDouble(readLongB(buffer, pos + TYPE_SIZE));
+            case TYPE_STRING:
+                int length = readIntB(buffer, pos + TYPE_SIZE);
+                return new String(buffer, pos + STRUCT_HEADER_SIZE, length, UTF_8);
+            default:
+                return NonTerminalJsonValue.INSTANCE;
+        }
+    }
+
+    private int findArrayItem(int pos, int index) {
+        if (buffer[pos] != TYPE_ARRAY || index < 0) {
+            return NOT_FOUND;
+        }
+        int count = readIntB(buffer, pos + TYPE_SIZE);
+        if (index >= count) {
+            return NOT_FOUND;
+        }
+        return pos + readIntB(buffer, pos + STRUCT_HEADER_SIZE + index * ARRAY_ENTRY_SIZE);
+    }
+
+    private int findAttribute(int pos, byte[] name) {
+        if (buffer[pos] != TYPE_OBJECT) {
+            return NOT_FOUND;
+        }
+        int count = readIntB(buffer, pos + TYPE_SIZE);
+        int entry = pos + STRUCT_HEADER_SIZE;
+        for (int i = 0; i < count; i++, entry += OBJECT_ENTRY_SIZE) {
+            int namePos = pos + readIntB(buffer, entry);
+            if (nameEquals(namePos, name)) {
+                return pos + readIntB(buffer, entry + INT_SIZE_IN_BYTES);
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private boolean nameEquals(int namePos, byte[] name) {
+        int length = readIntB(buffer, namePos);
+        if (length != name.length) {
+            return false;
+        }
+        int start = namePos + INT_SIZE_IN_BYTES;
+        for (int i = 0; i < length; i++) {
+            if (buffer[start + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeValue(JsonParser parser, JsonToken token, Output out) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                writeObject(parser, out);
+                break;
+            case START_ARRAY:
+                writeArray(parser, out);
+                break;
+            case VALUE_STRING:
+                out.writeByte(TYPE_STRING);
+                out.writeBytes(parser.getText().getBytes(UTF_8));
+                break;
+            case VALUE_NUMBER_INT:
+                out.writeByte(TYPE_LONG);
+                out.writeLong(parser.getLongValue());
+                break;
+            case VALUE_NUMBER_FLOAT:
+                out.writeByte(TYPE_DOUBLE);
+                out.writeLong(Double.doubleToRawLongBits(parser.getValueAsDouble()));
+                break;
+            case VALUE_TRUE:
+                out.writeByte(TYPE_TRUE);
+                break;
+            case VALUE_FALSE:
+                out.writeByte(TYPE_FALSE);
+                break;
+            case VALUE_NULL:
+                out.writeByte(TYPE_NULL);
+                break;
+            default:
+                throw new IOException("Unexpected token " + token + " at " + parser.getCurrentLocation());
+        }
+    }
+
+    private static void writeArray(JsonParser parser, Output out) throws IOException {
+        Output items = new Output(INITIAL_BUFFER_SIZE);
+        int[] itemStarts = new int[INITIAL_BUFFER_SIZE / ARRAY_ENTRY_SIZE];
+        int count = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (count == itemStarts.length) {
+                itemStarts = Arrays.copyOf(itemStarts, count * 2);
+            }
+            itemStarts[count++] = items.position();
+            writeValue(parser, token, items);
+        }
+        int headerSize = STRUCT_HEADER_SIZE + count * ARRAY_ENTRY_SIZE;
+        out.writeByte(TYPE_ARRAY);
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            out.writeInt(headerSize + itemStarts[i]);
+        }
+        out.write(items);
+    }
+
+    private static void writeObject(JsonParser parser, Output out) throws IOException {
+        Output values = new Output(INITIAL_BUFFER_SIZE);
+        List<byte[]> names = new ArrayList<>();
+        int[] valueStarts = new int[INITIAL_BUFFER_SIZE / OBJECT_ENTRY_SIZE];
+        int namesSize = 0;
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            byte[] name = parser.getCurrentName().getBytes(UTF_8);
+            int count = names.size();
+            if (count == valueStarts.length) {
+                valueStarts = Arrays.copyOf(valueStarts, count * 2);
+            }
+            names.add(name);
+            namesSize += INT_SIZE_IN_BYTES + name.length;
+            valueStarts[count] = values.position();
+            writeValue(parser, parser.nextToken(), values);
+        }
+        int count = names.size();
+        int headerSize = STRUCT_HEADER_SIZE + count * OBJECT_ENTRY_SIZE;
+        out.writeByte(TYPE_OBJECT);
+        out.writeInt(count);
+        int nameOffset = headerSize;
+        for (int i = 0; i < count; i++) {
+            out.writeInt(nameOffset);
+            out.writeInt(headerSize + namesSize + valueStarts[i]);
+            nameOffset += INT_SIZE_IN_BYTES + names.get(i).length;
+        }
+        for (byte[] name : names) {
+            out.writeBytes(name);
+        }
+        out.write(values);
+    }
+
+    /**
+     * A minimal growable byte buffer used while encoding.
+     */
+    private static final class Output {
+
+        private byte[] bytes;
+        private int pos;
+
+        Output(int initialSize) {
+            bytes = new byte[initialSize];
+        }
+
+        int position() {
+            return pos;
+        }
+
+        void writeByte(byte value) {
+            ensureAvailable(TYPE_SIZE);
+            bytes[pos++] = value;
+        }
+
+        void writeInt(int value) {
+            ensureAvailable(INT_SIZE_IN_BYTES);
+            writeIntB(bytes, pos, value);
+            pos += INT_SIZE_IN_BYTES;
+        }
+
+        void writeLong(long value) {
+            ensureAvailable(LONG_SIZE_IN_BYTES);
+            writeLongB(bytes, pos, value);
+            pos += LONG_SIZE_IN_BYTES;
+        }
+
+        /**
+         * Writes the given bytes prefixed with their length.
+         */
+        void writeBytes(byte[] value) {
+            writeInt(value.length);
+            ensureAvailable(value.length);
+            System.arraycopy(value, 0, bytes, pos, value.length);
+            pos += value.length;
+        }
+
+        void write(Output other) {
+            ensureAvailable(other.pos);
+            System.arraycopy(other.bytes, 0, bytes, pos, other.pos);
+            pos += other.pos;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, pos);
+        }
+
+        private void ensureAvailable(int length) {
+            if (pos + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, pos + length));
+            }
+        }
+    }
+}
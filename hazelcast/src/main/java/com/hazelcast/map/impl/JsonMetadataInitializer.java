@@ -39,7 +39,7 @@ public class JsonMetadataInitializer implements MetadataInitializer {
         if (data.isJson()) {
             try (JsonParser parser = FACTORY.createParser(new ByteArrayInputStream(data.toByteArray(),
                     HEAP_DATA_OVERHEAD + UTF_CHAR_COUNT_FIELD_SIZE, data.dataSize() - UTF_CHAR_COUNT_FIELD_SIZE))) {
-                return JsonSchemaHelper.createSchema(parser);
+                return createFromParser(parser);
             }
         }
         return null;
@@ -49,9 +49,16 @@ public class JsonMetadataInitializer implements MetadataInitializer {
         if (obj instanceof HazelcastJsonValue) {
             String str = obj.toString();
             try (JsonParser parser = FACTORY.createParser(str)) {
-                return JsonSchemaHelper.createSchema(parser);
+                return createFromParser(parser);
             }
         }
         return null;
     }
+
+    /**
+     * Creates the metadata for the Json text the given parser points to.
+     */
+    protected Object createFromParser(JsonParser parser) throws IOException {
+        return JsonSchemaHelper.createSchema(parser);
+    }
 }
@@ -26,6 +26,8 @@ import com.hazelcast.config.WanReplicationConfig;
 import com.hazelcast.config.WanConsumerConfig;
 import com.hazelcast.config.WanReplicationRef;
 import com.hazelcast.config.WanSyncConfig;
+import com.hazelcast.internal.diagnostics.Diagnostics;
+import com.hazelcast.internal.diagnostics.HotKeysPlugin;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -45,6 +47,7 @@ import com.hazelcast.map.impl.query.QueryEntryFactory;
 import com.hazelcast.map.impl.record.DataRecordFactory;
 import com.hazelcast.map.impl.record.ObjectRecordFactory;
 import com.hazelcast.map.impl.record.RecordFactory;
+import com.hazelcast.map.impl.recordstore.CompactRecordFactory;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.query.impl.Index;
@@ -53,6 +56,7 @@ import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.query.impl.getters.Extractors;
 import com.hazelcast.spi.eviction.EvictionPolicyComparator;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.wan.impl.DelegatingWanScheme;
 import com.hazelcast.wan.impl.WanReplicationService;
@@ -63,11 +67,13 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static com.hazelcast.config.ConsistencyCheckStrategy.MERKLE_TREES;
+import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider.getEvictionPolicyComparator;
 import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
 import static com.hazelcast.map.impl.mapstore.MapStoreContextFactory.createMapStoreContext;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_COMPACT_STORAGE_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.MAP_EVICTION_BATCH_SIZE;
 import static java.lang.System.getProperty;
 
@@ -95,6 +101,8 @@ public class MapContainer {
     protected final Function<Object, Data> toDataFunction = new ObjectToData();
     protected final InterceptorRegistry interceptorRegistry = new InterceptorRegistry();
     protected final ConstructorFunction<Void, RecordFactory> recordFactoryConstructor;
+    protected final boolean compactStorage;
+    protected final Diagnostics diagnostics;
     /**
      * Holds number of registered {@link InvalidationListener} from clients.
      */
@@ -105,6 +113,7 @@ public class MapContainer {
 
     protected volatile MapConfig mapConfig;
     private volatile Evictor evictor;
+    private volatile HotKeysPlugin.HotKeys hotKeys;
 
     private boolean persistWanReplicatedData;
 
@@ -123,6 +132,10 @@ public class MapContainer {
         this.partitioningStrategy = createPartitioningStrategy();
         this.splitBrainProtectionName = mapConfig.getSplitBrainProtectionName();
         this.serializationService = ((InternalSerializationService) nodeEngine.getSerializationService());
+        // backups are read outside of the partition threads if read-backup-data is enabled
+        this.compactStorage = mapConfig.getInMemoryFormat() == BINARY
+                && !mapConfig.isReadBackupData()
+                && nodeEngine.getProperties().getBoolean(MAP_COMPACT_STORAGE_ENABLED);
         this.recordFactoryConstructor = createRecordFactoryConstructor(serializationService);
         this.objectNamespace = MapService.getObjectNamespace(name);
         this.extractors = Extractors.newBuilder(serializationService)
@@ -133,6 +146,7 @@ public class MapContainer {
                 serializationService, extractors);
         this.globalIndexes = shouldUseGlobalIndex() ? createIndexes(true) : null;
         this.mapStoreContext = createMapStoreContext(this);
+        this.diagnostics = nodeEngine instanceof NodeEngineImpl ? ((NodeEngineImpl) nodeEngine).getDiagnostics() : null;
         initWanReplication(mapServiceContext.getNodeEngine());
     }
 
@@ -202,7 +216,9 @@ public class MapContainer {
         return anyArg -> {
             switch (mapConfig.getInMemoryFormat()) {
                 case BINARY:
-                    return new DataRecordFactory(mapConfig, serializationService);
+                    return compactStorage
+                            ? new CompactRecordFactory(mapConfig, serializationService)
+                            : new DataRecordFactory(mapConfig, serializationService);
                 case OBJECT:
                     return new ObjectRecordFactory(mapConfig, serializationService);
                 default:
@@ -353,6 +369,16 @@ public class MapContainer {
         return toDataFunction;
     }
 
+    /**
+     * Returns {@code true} if the partitions of this map keep their entries
+     * in a {@link com.hazelcast.map.impl.recordstore.CompactStorage}, which
+     * may only be accessed from the partition threads. Maps with read-backup-data
+     * enabled never use it, since they read their backups from the user threads.
+     */
+    public boolean isCompactStorage() {
+        return compactStorage;
+    }
+
     public ConstructorFunction<Void, RecordFactory> getRecordFactoryConstructor() {
         return recordFactoryConstructor;
     }
@@ -386,12 +412,40 @@ public class MapContainer {
         invalidationListenerCount.decrementAndGet();
     }
 
+    /**
+     * Returns the tracker of the hot keys of this map.
+     * <p>
+     * The tracker is looked up on first use, so maps created before the
+     * {@link HotKeysPlugin} is registered are tracked as well.
+     *
+     * @return the tracker or {@code null} if the {@link HotKeysPlugin} isn't enabled
+     */
+    public HotKeysPlugin.HotKeys getHotKeys() {
+        HotKeysPlugin.HotKeys hotKeys = this.hotKeys;
+        if (hotKeys == null) {
+            HotKeysPlugin hotKeysPlugin = getHotKeysPlugin();
+            if (hotKeysPlugin != null) {
+                hotKeys = hotKeysPlugin.getHotKeys(name);
+                this.hotKeys = hotKeys;
+            }
+        }
+        return hotKeys;
+    }
+
+    private HotKeysPlugin getHotKeysPlugin() {
+        return diagnostics == null ? null : diagnostics.getPlugin(HotKeysPlugin.class);
+    }
+
     public InterceptorRegistry getInterceptorRegistry() {
         return interceptorRegistry;
     }
 
     // callback called when the MapContainer is de-registered from MapService and destroyed - basically on map-destroy
     public void onDestroy() {
+        HotKeysPlugin hotKeysPlugin = getHotKeysPlugin();
+        if (hotKeysPlugin != null) {
+            hotKeysPlugin.removeHotKeys(name);
+        }
     }
 
     public boolean shouldCloneOnEntryProcessing(int partitionId) {
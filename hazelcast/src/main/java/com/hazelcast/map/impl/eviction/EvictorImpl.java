@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.eviction;
 
 import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.eviction.impl.evaluator.FrequencySketch;
 import com.hazelcast.internal.partition.IPartition;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.util.Clock;
@@ -27,6 +28,7 @@ import com.hazelcast.map.impl.recordstore.Storage;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.eviction.EvictionPolicyComparator;
 
+import static com.hazelcast.config.EvictionPolicy.CLOCK;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.ThreadUtil.assertRunningOnPartitionThread;
 
@@ -69,27 +71,49 @@ public class EvictorImpl implements Evictor {
         // NOP.
     }
 
-    @SuppressWarnings("checkstyle:rvcheckcomparetoforspecificreturnvalue")
     private EntryView selectEvictableEntry(RecordStore recordStore, Data excludedKey) {
+        FrequencySketch frequencySketch = recordStore.getFrequencySketch();
         EntryView excluded = null;
         EntryView selected = null;
+        int selectedFrequency = 0;
+        boolean selectedReferenced = true;
+        boolean clock = recordStore.getMapContainer().getMapConfig().getEvictionConfig().getEvictionPolicy() == CLOCK;
 
         for (EntryView current : getRandomSamples(recordStore)) {
+            Data dataKey = getDataKeyFromEntryView(current);
             if (excludedKey != null && excluded == null
-                    && getDataKeyFromEntryView(current).equals(excludedKey)) {
+                    && dataKey.equals(excludedKey)) {
                 excluded = current;
                 continue;
             }
 
-            if (selected == null
-                    || policy.compare(current, selected) < 0) {
+            // with the CLOCK policy, the entries which haven't been accessed since they
+            // were sampled last time are preferred and their reference bits are cleared
+            boolean referenced = clearReferenced(clock, current);
+            // with a frequency sketch, the entries are compared by their estimated
+            // access frequency first and the policy only breaks the ties
+            int frequency = frequencySketch == null ? 0 : frequencySketch.frequency(dataKey.getPartitionHash());
+            if (selected == null || (selectedReferenced && !referenced)
+                    || (referenced == selectedReferenced && isBetter(current, frequency, selected, selectedFrequency))) {
                 selected = current;
+                selectedFrequency = frequency;
+                selectedReferenced = referenced;
             }
         }
 
         return selected == null ? excluded : selected;
     }
 
+    private boolean clearReferenced(boolean clock, EntryView entryView) {
+        return clock && getRecordFromEntryView(entryView).clearReferenced();
+    }
+
+    @SuppressWarnings("checkstyle:rvcheckcomparetoforspecificreturnvalue")
+    private boolean isBetter(EntryView current, int frequency, EntryView selected, int selectedFrequency) {
+        return frequency < selectedFrequency
+                || (frequency == selectedFrequency && policy.compare(current, selected) < 0);
+    }
+
     private void evictEntry(RecordStore recordStore, EntryView selectedEntry) {
         Record record = getRecordFromEntryView(selectedEntry);
         Data dataKey = getDataKeyFromEntryView(selectedEntry);
@@ -49,6 +49,11 @@ public abstract class KeyBasedMapOperation extends MapOperation
         return dataKey;
     }
 
+    @Override
+    protected final Data getKeyOrNull() {
+        return dataKey;
+    }
+
     @Override
     public final long getThreadId() {
         return threadId;
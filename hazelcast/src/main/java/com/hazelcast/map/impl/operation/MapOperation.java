@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.internal.diagnostics.HotKeysPlugin;
 import com.hazelcast.internal.nearcache.impl.invalidation.Invalidator;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.services.ObjectNamespace;
@@ -98,9 +99,33 @@ public abstract class MapOperation extends AbstractNamedOperation
 
         assertNativeMapOnPartitionThread();
 
+        recordHotKey();
+
         innerBeforeRun();
     }
 
+    private void recordHotKey() {
+        HotKeysPlugin.HotKeys hotKeys = mapContainer.getHotKeys();
+        if (hotKeys == null || this instanceof BackupOperation) {
+            return;
+        }
+
+        Data key = getKeyOrNull();
+        int partitionId = getPartitionId();
+        if (key != null && partitionId >= 0) {
+            hotKeys.record(partitionId, key);
+        }
+    }
+
+    /**
+     * Returns the key this operation works on.
+     *
+     * @return the key or {@code null} if this operation isn't key based
+     */
+    protected Data getKeyOrNull() {
+        return null;
+    }
+
     protected void innerBeforeRun() throws Exception {
         // Intentionally empty method body.
         // Concrete classes can override this method.
@@ -239,25 +264,35 @@ public abstract class MapOperation extends AbstractNamedOperation
     }
 
     protected final void invalidateNearCache(List<Data> keys) {
-        if (!mapContainer.hasInvalidationListener() || isEmpty(keys)) {
+        if (isEmpty(keys)) {
             return;
         }
 
         Invalidator invalidator = getNearCacheInvalidator();
+        boolean hasInvalidationListener = mapContainer.hasInvalidationListener();
 
         for (Data key : keys) {
-            invalidator.invalidateKey(key, name, getCallerUuid());
+            if (hasInvalidationListener) {
+                invalidator.invalidateKey(key, name, getCallerUuid());
+            } else {
+                invalidator.advanceSequence(key, name);
+            }
         }
     }
 
     // TODO: improve here it's possible that client cannot manage to attach listener
     public final void invalidateNearCache(Data key) {
-        if (!mapContainer.hasInvalidationListener() || key == null) {
+        if (key == null) {
             return;
         }
 
         Invalidator invalidator = getNearCacheInvalidator();
-        invalidator.invalidateKey(key, name, getCallerUuid());
+        if (mapContainer.hasInvalidationListener()) {
+            invalidator.invalidateKey(key, name, getCallerUuid());
+        } else {
+            // keeps the sequences of stored Near Caches up to date
+            invalidator.advanceSequence(key, name);
+        }
     }
 
     /**
@@ -275,6 +310,11 @@ public abstract class MapOperation extends AbstractNamedOperation
             }
 
             invalidator.resetPartitionMetaData(name, getPartitionId());
+        } else {
+            Invalidator invalidator = getNearCacheInvalidator();
+            if (invalidator.getMetaDataGenerator().isSequenceGenerated(name)) {
+                invalidator.resetPartitionMetaData(name, getPartitionId());
+            }
         }
     }
 
@@ -42,6 +42,11 @@ public abstract class ReadonlyKeyBasedMapOperation extends MapOperation
         this.dataKey = dataKey;
     }
 
+    @Override
+    protected final Data getKeyOrNull() {
+        return dataKey;
+    }
+
     @Override
     public final long getThreadId() {
         return threadId;
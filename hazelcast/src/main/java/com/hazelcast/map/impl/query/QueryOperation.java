@@ -86,22 +86,49 @@ public class QueryOperation extends AbstractNamedOperation implements ReadonlyOp
         switch (getMapInMemoryFormat()) {
             case BINARY:
             case OBJECT:
+                if (isCompactStorage()) {
+                    return callOnCompactStorage(queryRunner);
+                }
                 result = queryRunner.runIndexOrPartitionScanQueryOnOwnedPartitions(query);
                 return RESPONSE;
             case NATIVE:
-                BitSet localPartitions = localPartitions();
-                if (localPartitions.cardinality() == 0) {
-                    // important to deal with situation of not having any partitions
-                    result = queryRunner.populateEmptyResult(query, Collections.emptyList());
-                    return RESPONSE;
-                } else {
-                    return new OffloadedImpl(queryRunner, localPartitions);
-                }
+                return callOnPartitionThreads(queryRunner);
             default:
                 throw new IllegalArgumentException("Unsupported in memory format");
         }
     }
 
+    private boolean isCompactStorage() {
+        return getMapServiceContext().getMapContainer(name).isCompactStorage();
+    }
+
+    /**
+     * Runs the query using the global indexes if possible. Otherwise, the
+     * partitions are scanned on the partition threads, since a compact
+     * storage may only be accessed from them.
+     */
+    private CallStatus callOnCompactStorage(QueryRunner queryRunner) {
+        if (!localPartitions().isEmpty()) {
+            Result indexResult = queryRunner.runIndexQueryOnOwnedPartitions(query);
+            if (indexResult.getPartitionIds() != null) {
+                result = indexResult;
+                return RESPONSE;
+            }
+        }
+        return callOnPartitionThreads(queryRunner);
+    }
+
+    private CallStatus callOnPartitionThreads(QueryRunner queryRunner) {
+        BitSet localPartitions = localPartitions();
+        if (localPartitions.cardinality() == 0) {
+            // important to deal with situation of not having any partitions
+            result = queryRunner.populateEmptyResult(query, Collections.emptyList());
+            return RESPONSE;
+        } else {
+            return new OffloadedImpl(queryRunner, localPartitions);
+        }
+    }
+
     private int partitionCount() {
         return getNodeEngine().getPartitionService().getPartitionCount();
     }
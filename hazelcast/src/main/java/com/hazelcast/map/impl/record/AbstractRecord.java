@@ -21,6 +21,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.util.Objects;
 
+import static com.hazelcast.internal.nio.Bits.BOOLEAN_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_READER_WRITER;
@@ -33,6 +34,7 @@ public abstract class AbstractRecord<V> implements Record<V> {
 
     private static final int NUMBER_OF_LONGS = 1;
     private static final int NUMBER_OF_INTS = 6;
+    private static final int NUMBER_OF_BOOLEANS = 1;
 
     protected int ttl;
     protected int maxIdle;
@@ -42,6 +44,7 @@ public abstract class AbstractRecord<V> implements Record<V> {
             justification = "Record can be accessed by only its own partition thread.")
     protected volatile int hits;
     private volatile int lastAccessTime = UNSET;
+    private volatile boolean referenced;
     private volatile int lastUpdateTime = UNSET;
 
     private int creationTime = UNSET;
@@ -86,6 +89,28 @@ public abstract class AbstractRecord<V> implements Record<V> {
         this.lastAccessTime = stripBaseTime(lastAccessTime);
     }
 
+    @Override
+    public void onAccessSafe(long now) {
+        // the fields are only written when they change, so accessing
+        // a record from many threads doesn't contend on them
+        int accessTime = stripBaseTime(now);
+        if (lastAccessTime != accessTime) {
+            lastAccessTime = accessTime;
+        }
+        if (!referenced) {
+            referenced = true;
+        }
+    }
+
+    @Override
+    public boolean clearReferenced() {
+        if (!referenced) {
+            return false;
+        }
+        referenced = false;
+        return true;
+    }
+
     @Override
     public long getLastUpdateTime() {
         return recomputeWithBaseTime(lastUpdateTime);
@@ -119,7 +144,8 @@ public abstract class AbstractRecord<V> implements Record<V> {
     @Override
     public long getCost() {
         return (NUMBER_OF_LONGS * LONG_SIZE_IN_BYTES)
-                + (NUMBER_OF_INTS * INT_SIZE_IN_BYTES);
+                + (NUMBER_OF_INTS * INT_SIZE_IN_BYTES)
+                + (NUMBER_OF_BOOLEANS * BOOLEAN_SIZE_IN_BYTES);
     }
 
     @Override
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.record;
 
+import com.hazelcast.internal.eviction.RelaxedAccessStats;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.query.impl.Metadata;
 
@@ -188,6 +189,23 @@ public interface Record<V> {
         onAccessSafe(now);
     }
 
+    /**
+     * Records an access for the {@link com.hazelcast.config.EvictionPolicy#CLOCK}
+     * policy, which only needs the hit count to be estimated: it's only
+     * updated on a sample of the accesses.
+     *
+     * @see RelaxedAccessStats
+     */
+    default void onAccessRelaxed(long now) {
+        int hits = getHits();
+        int newHits = RelaxedAccessStats.incrementHits(hits);
+        if (newHits != hits) {
+            setHits(newHits);
+        }
+
+        onAccessSafe(now);
+    }
+
     /**
      * An implementation must be thread safe if the
      * record might be accessed from multiple threads.
@@ -196,6 +214,16 @@ public interface Record<V> {
         setLastAccessTime(now);
     }
 
+    /**
+     * Returns whether this record has been accessed since its reference
+     * bit was last cleared, and clears it.
+     *
+     * @see com.hazelcast.internal.eviction.Evictable#clearReferenced()
+     */
+    default boolean clearReferenced() {
+        return false;
+    }
+
     default void onUpdate(long now) {
         setVersion(getVersion() + 1);
         setLastUpdateTime(now);
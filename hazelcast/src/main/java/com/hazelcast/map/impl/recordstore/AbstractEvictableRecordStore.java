@@ -17,10 +17,12 @@
 package com.hazelcast.map.impl.recordstore;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.EntryView;
 import com.hazelcast.internal.eviction.ClearExpiredRecordsTask;
 import com.hazelcast.internal.eviction.ExpiredKey;
+import com.hazelcast.internal.eviction.impl.evaluator.FrequencySketch;
 import com.hazelcast.internal.nearcache.impl.invalidation.InvalidationQueue;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.MapContainer;
@@ -39,6 +41,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.core.EntryEventType.EVICTED;
@@ -51,12 +54,18 @@ import static com.hazelcast.map.impl.ExpirationTimeSetter.setExpirationTime;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
 import static com.hazelcast.map.impl.record.Record.UNSET;
+import static com.hazelcast.map.impl.recordstore.ExpiryIndex.NOT_SCHEDULED;
 
 /**
  * Contains eviction specific functionality.
  */
 public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
 
+    /**
+     * The granularity of the expiry index; entries are removed at most this much later than they expire.
+     */
+    static final long EXPIRY_INDEX_TICK_MILLIS = 1000;
+
     protected final long expiryDelayMillis;
     protected final Address thisAddress;
     protected final EventService eventService;
@@ -71,6 +80,24 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
 
     protected volatile boolean hasEntryWithCustomExpiration;
 
+    /**
+     * The keys by expiration time, or {@code null} if the expiry index is disabled
+     * and the expired entries are found by sampling.
+     */
+    protected final ExpiryIndex expiryIndex;
+
+    /**
+     * The access frequencies of the keys, or {@code null} if the map doesn't
+     * use the {@link EvictionPolicy#TINY_LFU} eviction policy.
+     */
+    protected final FrequencySketch frequencySketch;
+
+    /**
+     * Whether the hit counts of the records are only estimated, which is
+     * enough for the {@link EvictionPolicy#CLOCK} eviction policy.
+     */
+    protected final boolean relaxedAccessStats;
+
     protected AbstractEvictableRecordStore(MapContainer mapContainer, int partitionId) {
         super(mapContainer, partitionId);
         NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
@@ -80,6 +107,20 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         mapEventPublisher = mapServiceContext.getMapEventPublisher();
         thisAddress = nodeEngine.getThisAddress();
         clearExpiredRecordsTask = mapServiceContext.getExpirationManager().getTask();
+        expiryIndex = hazelcastProperties.getBoolean(ClusterProperty.MAP_EXPIRY_INDEX_ENABLED)
+                ? new ExpiryIndex(EXPIRY_INDEX_TICK_MILLIS, getNow())
+                : null;
+        EvictionPolicy evictionPolicy = mapContainer.getMapConfig().getEvictionConfig().getEvictionPolicy();
+        frequencySketch = evictionPolicy == EvictionPolicy.TINY_LFU ? new FrequencySketch() : null;
+        relaxedAccessStats = evictionPolicy == EvictionPolicy.CLOCK;
+    }
+
+    @Override
+    protected void addMutationObservers() {
+        super.addMutationObservers();
+        if (expiryIndex != null) {
+            mutationObserver.add(new ExpiryIndexMutationObserver(this));
+        }
     }
 
     /**
@@ -97,6 +138,12 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         long now = getNow();
         int size = size();
         int maxIterationCount = getMaxIterationCount(size, percentage);
+        if (expiryIndex != null) {
+            expiryIndex.advance(now, maxIterationCount, (key, time) -> checkExpiry(key, time, backup));
+            accumulateOrSendExpiredKey(null, null);
+            return;
+        }
+
         int maxRetry = 3;
         int loop = 0;
         int evictedEntryCount = 0;
@@ -163,6 +210,86 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         return evictedEntryCount;
     }
 
+    /**
+     * Checks a key of the expiry index and evicts its entry if it is expired.
+     *
+     * @return the time the key should be checked again, or {@link ExpiryIndex#NOT_SCHEDULED}
+     */
+    private long checkExpiry(Data key, long now, boolean backup) {
+        Record record = storage.get(key);
+        if (record == null || getOrNullIfExpired(key, record, now, backup) == null) {
+            return NOT_SCHEDULED;
+        }
+        // not expired yet, e.g. because it was accessed, or because it is locked
+        long expirationTime = getExpirationTime(record, backup);
+        return expirationTime == Long.MAX_VALUE ? NOT_SCHEDULED : expirationTime;
+    }
+
+    /**
+     * Adds the key to the expiry index, if the index is enabled and the entry can expire.
+     */
+    void scheduleExpiry(Data key, Record record) {
+        if (expiryIndex != null) {
+            expiryIndex.add(key, getExpirationTime(record, false));
+        }
+    }
+
+    void unscheduleExpiry(Data key) {
+        if (expiryIndex != null) {
+            expiryIndex.remove(key);
+        }
+    }
+
+    void clearExpiryIndex() {
+        if (expiryIndex != null) {
+            expiryIndex.clear();
+        }
+    }
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    @Override
+    protected void updateRecord(Data key, Record record, Object oldValue, Object newValue,
+                                long now, boolean countAsAccess,
+                                long ttl, long maxIdle, boolean mapStoreOperation,
+                                UUID transactionId, boolean backup) {
+        long oldTtl = record.getTtl();
+        long oldMaxIdle = record.getMaxIdle();
+        super.updateRecord(key, record, oldValue, newValue, now, countAsAccess, ttl, maxIdle,
+                mapStoreOperation, transactionId, backup);
+        // an update only moves the expiration time earlier if it shortens the TTL or max-idle
+        if (record.getTtl() < oldTtl || record.getMaxIdle() < oldMaxIdle) {
+            scheduleExpiry(key, record);
+        }
+    }
+
+    /**
+     * Returns the time at which the record expires, in the same way as {@link #isExpired(Record, long, boolean)}
+     * decides whether it is expired.
+     */
+    private long getExpirationTime(Record record, boolean backup) {
+        long expirationTime = Long.MAX_VALUE;
+
+        long ttl = getRecordTTLOrConfig(record);
+        if (ttl >= 1L && ttl != Long.MAX_VALUE) {
+            expirationTime = sumForExpiration(getLifeStartTime(record),
+                    calculateExpirationWithDelay(ttl, expiryDelayMillis, backup));
+        }
+
+        boolean idleCheckedOnBackup = !mapServiceContext.getClearExpiredRecordsTask().canPrimaryDriveExpiration();
+        long maxIdle = getRecordMaxIdleOrConfig(record);
+        if (maxIdle >= 1L && maxIdle != Long.MAX_VALUE && (!backup || idleCheckedOnBackup)) {
+            expirationTime = Math.min(expirationTime, sumForExpiration(getIdlenessStartTime(record),
+                    calculateExpirationWithDelay(maxIdle, expiryDelayMillis, backup)));
+        }
+        return expirationTime;
+    }
+
+    private static long sumForExpiration(long startTime, long millis) {
+        long sum = startTime + millis;
+        // detect potential overflow
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
     private void initExpirationIterator() {
         if (expirationIterator == null || !expirationIterator.hasNext()) {
             expirationIterator = storage.mutationTolerantIterator();
@@ -171,11 +298,32 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
 
     @Override
     public void evictEntries(Data excludedKey) {
+        if (frequencySketch != null) {
+            // the sketch grows with the store, so it is sized right by the time the store is full
+            frequencySketch.ensureCapacity(storage.size());
+        }
         if (shouldEvict()) {
             mapContainer.getEvictor().evict(this, excludedKey);
         }
     }
 
+    @Override
+    public FrequencySketch getFrequencySketch() {
+        return frequencySketch;
+    }
+
+    /**
+     * Lets the eviction policy track the access frequency of the key. The
+     * partition hash is used since it is stored in the key and, unlike
+     * {@link Data#hashCode()}, isn't computed on every access. Keys with the
+     * same partition key therefore share their access frequency.
+     */
+    protected void recordKeyAccess(Data key) {
+        if (frequencySketch != null) {
+            frequencySketch.increment(key.getPartitionHash());
+        }
+    }
+
     @Override
     public void sampleAndForceRemoveEntries(int entryCountToRemove) {
         Queue<Data> keysToRemove = new LinkedList<>();
@@ -339,7 +487,11 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
 
     @Override
     public void accessRecord(Record record, long now) {
-        record.onAccess(now);
+        if (relaxedAccessStats) {
+            record.onAccessRelaxed(now);
+        } else {
+            record.onAccess(now);
+        }
         updateStatsOnGet(now);
         setExpirationTime(record);
     }
@@ -29,6 +29,7 @@ import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.comparators.ValueComparator;
 import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.JsonBinaryMetadataInitializer;
 import com.hazelcast.map.impl.JsonMetadataInitializer;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapService;
@@ -101,8 +102,11 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         }
 
         // Add observer for json metadata
-        if (mapContainer.getMapConfig().getMetadataPolicy() == MetadataPolicy.CREATE_ON_UPDATE) {
+        MetadataPolicy metadataPolicy = mapContainer.getMapConfig().getMetadataPolicy();
+        if (metadataPolicy == MetadataPolicy.CREATE_ON_UPDATE) {
             addJsonMetadataMutationObserver();
+        } else if (metadataPolicy == MetadataPolicy.CREATE_BINARY_ON_UPDATE) {
+            addJsonBinaryMetadataMutationObserver();
         }
 
         // Add observer for indexing
@@ -116,6 +120,11 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
                 JsonMetadataInitializer.INSTANCE));
     }
 
+    protected void addJsonBinaryMetadataMutationObserver() {
+        mutationObserver.add(new JsonMetadataMutationObserver(serializationService,
+                JsonBinaryMetadataInitializer.INSTANCE));
+    }
+
     public IndexingMutationObserver<Record> getIndexingObserver() {
         return indexingObserver;
     }
@@ -168,6 +177,9 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     }
 
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (recordFactory instanceof CompactRecordFactory) {
+            return new CompactStorage(((CompactRecordFactory) recordFactory).isStatisticsEnabled(), serializationService);
+        }
         return new StorageImpl(memoryFormat, serializationService);
     }
 
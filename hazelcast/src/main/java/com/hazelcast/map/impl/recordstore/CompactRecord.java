@@ -0,0 +1,414 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReaderWriter;
+import com.hazelcast.query.impl.Metadata;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_READER_WRITER;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
+import static com.hazelcast.map.impl.recordstore.CompactStorage.CREATION_TIME;
+import static com.hazelcast.map.impl.recordstore.CompactStorage.EXPIRATION_TIME;
+import static com.hazelcast.map.impl.recordstore.CompactStorage.HITS;
+import static com.hazelcast.map.impl.recordstore.CompactStorage.LAST_ACCESS_TIME;
+import static com.hazelcast.map.impl.recordstore.CompactStorage.LAST_STORED_TIME;
+import static com.hazelcast.map.impl.recordstore.CompactStorage.LAST_UPDATE_TIME;
+import static com.hazelcast.map.impl.recordstore.CompactStorage.MAX_IDLE;
+import static com.hazelcast.map.impl.recordstore.CompactStorage.NUMBER_OF_INT_FIELDS_WITH_STATS;
+import static com.hazelcast.map.impl.recordstore.CompactStorage.TTL;
+import static com.hazelcast.map.impl.recordstore.CompactStorage.intFieldCount;
+
+/**
+ * A {@link Record} of a {@link CompactStorage}.
+ * <p>
+ * While detached, the record keeps its state in its own fields. Once it is
+ * put into the storage, it becomes a view of an entry of the storage: its
+ * state is moved into the arrays of the storage and every read and write
+ * goes to them. A record removed from the storage gets its state back. The
+ * records returned by the storage are views which are only valid while
+ * their entry is in the storage.
+ * <p>
+ * Deserialized values are never cached by these records.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+class CompactRecord implements Record<Data> {
+
+    private CompactStorage storage;
+    private int entry;
+
+    // state of a detached record
+    private Data value;
+    private long version;
+    private int[] fields;
+    private Metadata metadata;
+    private boolean referenced;
+
+    CompactRecord(Data value, boolean statisticsEnabled) {
+        this.value = value;
+        this.fields = new int[intFieldCount(statisticsEnabled)];
+        fields[CREATION_TIME] = UNSET;
+        fields[LAST_ACCESS_TIME] = UNSET;
+        fields[LAST_UPDATE_TIME] = UNSET;
+        if (statisticsEnabled) {
+            fields[LAST_STORED_TIME] = UNSET;
+            fields[EXPIRATION_TIME] = UNSET;
+        }
+    }
+
+    CompactRecord(CompactStorage storage, int entry) {
+        this.storage = storage;
+        this.entry = entry;
+    }
+
+    boolean isDetached() {
+        return storage == null;
+    }
+
+    boolean isAttachedTo(CompactStorage storage, int entry) {
+        return this.storage == storage && this.entry == entry;
+    }
+
+    /**
+     * Moves the state of this record into the given entry of the storage.
+     * The value of the entry must already be written by the storage.
+     */
+    void attach(CompactStorage storage, int entry) {
+        storage.setVersion(entry, version);
+        for (int field = 0; field < fields.length; field++) {
+            storage.setIntField(entry, field, fields[field]);
+        }
+        storage.setMetadata(entry, metadata);
+        storage.setReferenced(entry, referenced);
+        this.storage = storage;
+        this.entry = entry;
+        this.value = null;
+        this.fields = null;
+        this.metadata = null;
+    }
+
+    /**
+     * Copies the state of the entry back into this record before the
+     * entry is removed from the storage.
+     */
+    void detach() {
+        int[] entryFields = new int[intFieldCount(storage.isStatisticsEnabled())];
+        for (int field = 0; field < entryFields.length; field++) {
+            entryFields[field] = storage.getIntField(entry, field);
+        }
+        value = storage.getValue(entry);
+        version = storage.getVersion(entry);
+        metadata = storage.getMetadata(entry);
+        referenced = storage.isReferenced(entry);
+        fields = entryFields;
+        storage = null;
+    }
+
+    private int getField(int field) {
+        return storage == null ? fields[field] : storage.getIntField(entry, field);
+    }
+
+    private void setField(int field, int fieldValue) {
+        if (storage == null) {
+            fields[field] = fieldValue;
+        } else {
+            storage.setIntField(entry, field, fieldValue);
+        }
+    }
+
+    private boolean isStatisticsEnabled() {
+        return storage == null ? fields.length == NUMBER_OF_INT_FIELDS_WITH_STATS : storage.isStatisticsEnabled();
+    }
+
+    @Override
+    public Data getValue() {
+        return storage == null ? value : storage.getValue(entry);
+    }
+
+    @Override
+    public void setValue(Data value) {
+        if (storage == null) {
+            this.value = value;
+        } else {
+            storage.setValue(entry, value);
+        }
+    }
+
+    @Override
+    public long getCost() {
+        if (storage != null) {
+            return storage.getCost(entry);
+        }
+        return LONG_SIZE_IN_BYTES + fields.length * INT_SIZE_IN_BYTES
+                + REFERENCE_COST_IN_BYTES + (value == null ? 0L : value.getHeapCost());
+    }
+
+    @Override
+    public long getVersion() {
+        return storage == null ? version : storage.getVersion(entry);
+    }
+
+    @Override
+    public void setVersion(long version) {
+        if (storage == null) {
+            this.version = version;
+        } else {
+            storage.setVersion(entry, version);
+        }
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return Record.NOT_CACHED;
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(getField(LAST_ACCESS_TIME));
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        setField(LAST_ACCESS_TIME, stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public void onAccessSafe(long now) {
+        int accessTime = stripBaseTime(now);
+        if (getField(LAST_ACCESS_TIME) != accessTime) {
+            setField(LAST_ACCESS_TIME, accessTime);
+        }
+        if (storage == null) {
+            referenced = true;
+        } else {
+            storage.setReferenced(entry, true);
+        }
+    }
+
+    @Override
+    public boolean clearReferenced() {
+        boolean wasReferenced = storage == null ? referenced : storage.isReferenced(entry);
+        if (storage == null) {
+            referenced = false;
+        } else if (wasReferenced) {
+            storage.setReferenced(entry, false);
+        }
+        return wasReferenced;
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(getField(LAST_UPDATE_TIME));
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        setField(LAST_UPDATE_TIME, stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(getField(CREATION_TIME));
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        setField(CREATION_TIME, stripBaseTime(creationTime));
+    }
+
+    @Override
+    public int getHits() {
+        return getField(HITS);
+    }
+
+    @Override
+    public void setHits(int hits) {
+        setField(HITS, hits);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        if (!isStatisticsEnabled()) {
+            return UNSET;
+        }
+        int expirationTime = getField(EXPIRATION_TIME);
+        if (expirationTime == UNSET) {
+            return 0L;
+        }
+        if (expirationTime == Integer.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return recomputeWithBaseTime(expirationTime);
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        if (isStatisticsEnabled()) {
+            setField(EXPIRATION_TIME, expirationTime == Long.MAX_VALUE
+                    ? Integer.MAX_VALUE
+                    : stripBaseTime(expirationTime));
+        }
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        if (!isStatisticsEnabled()) {
+            return UNSET;
+        }
+        int lastStoredTime = getField(LAST_STORED_TIME);
+        return lastStoredTime == UNSET ? 0L : recomputeWithBaseTime(lastStoredTime);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        if (isStatisticsEnabled()) {
+            setField(LAST_STORED_TIME, stripBaseTime(lastStoredTime));
+        }
+    }
+
+    @Override
+    public long getSequence() {
+        return UNSET;
+    }
+
+    @Override
+    public void setSequence(long sequence) {
+    }
+
+    @Override
+    public void setMetadata(Metadata metadata) {
+        if (storage == null) {
+            this.metadata = metadata;
+        } else {
+            storage.setMetadata(entry, metadata);
+        }
+    }
+
+    @Override
+    public Metadata getMetadata() {
+        return storage == null ? metadata : storage.getMetadata(entry);
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return isStatisticsEnabled() ? DATA_RECORD_WITH_STATS_READER_WRITER : DATA_RECORD_READER_WRITER;
+    }
+
+    @Override
+    public int getRawTtl() {
+        return getField(TTL);
+    }
+
+    @Override
+    public int getRawMaxIdle() {
+        return getField(MAX_IDLE);
+    }
+
+    @Override
+    public int getRawCreationTime() {
+        return getField(CREATION_TIME);
+    }
+
+    @Override
+    public int getRawLastAccessTime() {
+        return getField(LAST_ACCESS_TIME);
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return getField(LAST_UPDATE_TIME);
+    }
+
+    @Override
+    public void setRawTtl(int ttl) {
+        setField(TTL, ttl);
+    }
+
+    @Override
+    public void setRawMaxIdle(int maxIdle) {
+        setField(MAX_IDLE, maxIdle);
+    }
+
+    @Override
+    public void setRawCreationTime(int creationTime) {
+        setField(CREATION_TIME, creationTime);
+    }
+
+    @Override
+    public void setRawLastAccessTime(int lastAccessTime) {
+        setField(LAST_ACCESS_TIME, lastAccessTime);
+    }
+
+    @Override
+    public void setRawLastUpdateTime(int lastUpdateTime) {
+        setField(LAST_UPDATE_TIME, lastUpdateTime);
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        checkStatisticsEnabled();
+        return getField(LAST_STORED_TIME);
+    }
+
+    @Override
+    public void setRawLastStoredTime(int time) {
+        checkStatisticsEnabled();
+        setField(LAST_STORED_TIME, time);
+    }
+
+    @Override
+    public int getRawExpirationTime() {
+        checkStatisticsEnabled();
+        return getField(EXPIRATION_TIME);
+    }
+
+    @Override
+    public void setRawExpirationTime(int time) {
+        checkStatisticsEnabled();
+        setField(EXPIRATION_TIME, time);
+    }
+
+    private void checkStatisticsEnabled() {
+        if (!isStatisticsEnabled()) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompactRecord{"
+                + "attached=" + !isDetached()
+                + ", ttl=" + getRawTtl()
+                + ", maxIdle=" + getRawMaxIdle()
+                + ", version=" + getVersion()
+                + ", hits=" + getHits()
+                + ", lastAccessTime=" + getRawLastAccessTime()
+                + ", lastUpdateTime=" + getRawLastUpdateTime()
+                + ", creationTime=" + getRawCreationTime()
+                + ", metadata=" + getMetadata()
+                + '}';
+    }
+}
@@ -0,0 +1,892 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.query.impl.Metadata;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.readLongB;
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.internal.nio.Bits.writeLongB;
+import static com.hazelcast.internal.serialization.impl.HeapData.DATA_OFFSET;
+import static com.hazelcast.internal.serialization.impl.HeapData.PARTITION_HASH_OFFSET;
+import static com.hazelcast.internal.serialization.impl.HeapData.TYPE_OFFSET;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_INTEGER;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_LONG;
+import static com.hazelcast.internal.util.HashUtil.fastLongMix;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A {@link Storage} which keeps the records of a {@code BINARY} map in a
+ * struct-of-arrays layout instead of one record object per entry.
+ * <p>
+ * Every entry is an index into parallel primitive arrays holding its key
+ * hash, the addresses of its serialized key and value, its version and its
+ * packed int fields (ttl, max-idle, timestamps and hits). The serialized
+ * keys and values are copied into slab {@code byte[]} pages, so a small
+ * entry costs a few dozen bytes instead of a record, a hash map entry and
+ * two {@link HeapData} objects with their byte arrays. {@code Long} and
+ * {@code Integer} keys are not copied into the pages but kept unboxed in a
+ * primitive array, and are hashed by their value. Keys are found through an
+ * open-addressing table of entry indexes with linear probing.
+ * <p>
+ * Only the storage of the keys is specialized: keys still arrive as
+ * {@link Data} and their partition is computed from the serialized key.
+ * The {@link Data} of an unboxed key is only created when the key is read,
+ * so the samples for eviction and the entries of an iteration materialize
+ * their key lazily.
+ * <p>
+ * The {@link Record}s handed out by this storage are {@link CompactRecord}
+ * views which read and write the arrays of their entry. A record created
+ * by the {@link CompactRecordFactory} keeps its own state until it is
+ * {@link #put put} into the storage and gets it back when it is removed.
+ * <p>
+ * This storage is not thread-safe and must only be accessed from the
+ * partition thread owning it; queries on such maps are run on the partition
+ * threads for this reason.
+ */
+@SuppressWarnings({"checkstyle:methodcount", "checkstyle:classfanoutcomplexity"})
+public class CompactStorage implements Storage<Data, Record> {
+
+    static final int TTL = 0;
+    static final int MAX_IDLE = 1;
+    static final int CREATION_TIME = 2;
+    static final int LAST_ACCESS_TIME = 3;
+    static final int LAST_UPDATE_TIME = 4;
+    static final int HITS = 5;
+    static final int LAST_STORED_TIME = 6;
+    static final int EXPIRATION_TIME = 7;
+
+    static final int NUMBER_OF_INT_FIELDS = 6;
+    static final int NUMBER_OF_INT_FIELDS_WITH_STATS = 8;
+
+    /**
+     * Size of a slab page. Keys and values larger than a quarter of a
+     * page get a page of their own.
+     */
+    private static final int PAGE_SIZE = 64 * 1024;
+
+    private static final int LARGE_ITEM_SIZE = PAGE_SIZE >> 2;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAX_RANDOM_PICKS = 64;
+    private static final int RANDOM_PICK_ATTEMPTS = 4;
+    private static final long NULL_ADDRESS = -1L;
+    // the key addresses of the keys stored unboxed, see primitiveKeys
+    private static final long LONG_KEY = -2L;
+    private static final long INT_KEY = -3L;
+    private static final int LONG_KEY_SIZE = DATA_OFFSET + LONG_SIZE_IN_BYTES;
+    private static final int INT_KEY_SIZE = DATA_OFFSET + INT_SIZE_IN_BYTES;
+    private static final int NO_ENTRY = -1;
+    private static final int ADDRESS_SHIFT = 32;
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+    private static final int BITS_PER_LONG = 64;
+    private static final int LOAD_FACTOR_NUMERATOR = 3;
+    private static final int LOAD_FACTOR_DENOMINATOR = 4;
+    // the hash, the key and value addresses, the version and the table slot of an entry
+    private static final int FIXED_ENTRY_COST = 2 * INT_SIZE_IN_BYTES + 3 * LONG_SIZE_IN_BYTES;
+
+    private final SerializationService serializationService;
+    private final boolean statisticsEnabled;
+    private final int intFieldCount;
+
+    // per-entry arrays, indexed by entry index. The hash of a free
+    // entry links it to the next free entry
+    private int[] hashes;
+    private long[] keyAddresses;
+    private long[] valueAddresses;
+    private long[] versions;
+    private int[] intFields;
+    private long[] referencedBits;
+    private Metadata[] metadata;
+    // the serialized Long and Integer keys without a partition hash are stored
+    // unboxed, as the raw bytes of their value. Allocated with the first such key
+    private long[] primitiveKeys;
+    private int highWatermark;
+    private int freeEntry = NO_ENTRY;
+    private int size;
+
+    // open-addressing table of entry index + 1, zero marks an empty slot
+    private int[] table;
+
+    // slab pages holding the length-prefixed serialized keys and values
+    private byte[][] pages;
+    private int pageCount;
+    private int currentPage = NO_ENTRY;
+    private int pageOffset;
+    private long liveBytes;
+    private long garbageBytes;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator = new CompactEntryCostEstimator();
+
+    public CompactStorage(boolean statisticsEnabled, SerializationService serializationService) {
+        this.serializationService = serializationService;
+        this.statisticsEnabled = statisticsEnabled;
+        this.intFieldCount = intFieldCount(statisticsEnabled);
+        init();
+    }
+
+    static int intFieldCount(boolean statisticsEnabled) {
+        return statisticsEnabled ? NUMBER_OF_INT_FIELDS_WITH_STATS : NUMBER_OF_INT_FIELDS;
+    }
+
+    private void init() {
+        hashes = new int[INITIAL_CAPACITY];
+        keyAddresses = new long[INITIAL_CAPACITY];
+        valueAddresses = new long[INITIAL_CAPACITY];
+        versions = new long[INITIAL_CAPACITY];
+        intFields = new int[INITIAL_CAPACITY * intFieldCount];
+        referencedBits = new long[INITIAL_CAPACITY / BITS_PER_LONG + 1];
+        metadata = null;
+        primitiveKeys = null;
+        highWatermark = 0;
+        freeEntry = NO_ENTRY;
+        size = 0;
+        table = new int[INITIAL_CAPACITY * 2];
+        pages = new byte[INITIAL_CAPACITY][];
+        pageCount = 0;
+        currentPage = NO_ENTRY;
+        pageOffset = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+    }
+
+    @Override
+    public void put(Data key, Record record) {
+        int entry = findEntry(key);
+        if (entry == NO_ENTRY) {
+            entry = newEntry(key);
+        } else if (record instanceof CompactRecord && ((CompactRecord) record).isAttachedTo(this, entry)) {
+            return;
+        }
+
+        long oldValueAddress = valueAddresses[entry];
+        valueAddresses[entry] = allocate((Data) record.getValue());
+        release(oldValueAddress);
+
+        if (record instanceof CompactRecord && ((CompactRecord) record).isDetached()) {
+            ((CompactRecord) record).attach(this, entry);
+        } else {
+            Records.copyMetadataFrom(record, new CompactRecord(this, entry));
+            setMetadata(entry, record.getMetadata());
+        }
+        compactIfNeeded();
+    }
+
+    @Override
+    public void updateRecordValue(Data key, Record record, Object value) {
+        record.setValue(serializationService.toData(value));
+    }
+
+    @Override
+    public Record get(Data key) {
+        int entry = findEntry(key);
+        return entry == NO_ENTRY ? null : new CompactRecord(this, entry);
+    }
+
+    @Override
+    public Record getIfSameKey(Data key) {
+        throw new UnsupportedOperationException("CompactStorage#getIfSameKey");
+    }
+
+    @Override
+    public void removeRecord(Data dataKey, Record record) {
+        int slot = findSlot(dataKey);
+        if (slot == NO_ENTRY) {
+            return;
+        }
+        int entry = table[slot] - 1;
+        if (record instanceof CompactRecord && ((CompactRecord) record).isAttachedTo(this, entry)) {
+            ((CompactRecord) record).detach();
+        }
+        removeSlot(slot);
+        freeEntry(entry);
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return findEntry(key) != NO_ENTRY;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Data, Record>> mutationTolerantIterator() {
+        return new EntryIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        init();
+        entryCostEstimator.reset();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        clear(isDuringShutdown);
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    /**
+     * Samples the entries by picking random entry indexes. If that does
+     * not find enough live entries, e.g. because many entries were removed
+     * or because many samples are requested, the sample is completed by
+     * scanning the entry indexes from a random position.
+     */
+    @Override
+    public Iterable<EntryView> getRandomSamples(int sampleCount) {
+        int count = Math.min(sampleCount, size);
+        List<EntryView> samples = new ArrayList<>(count);
+        if (count == 0) {
+            return samples;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] sampled = new int[count];
+        int sampledCount = 0;
+        if (count <= MAX_RANDOM_PICKS) {
+            for (int i = 0; i < count * RANDOM_PICK_ATTEMPTS && sampledCount < count; i++) {
+                int entry = random.nextInt(highWatermark);
+                if (isLive(entry) && !contains(sampled, sampledCount, entry)) {
+                    sampled[sampledCount++] = entry;
+                }
+            }
+        }
+        int start = random.nextInt(highWatermark);
+        for (int i = 0; i < highWatermark && sampledCount < count; i++) {
+            int entry = (start + i) % highWatermark;
+            if (isLive(entry) && !contains(sampled, sampledCount, entry)) {
+                sampled[sampledCount++] = entry;
+            }
+        }
+        for (int i = 0; i < sampledCount; i++) {
+            int entry = sampled[i];
+            samples.add(new SampledEntryView(entry));
+        }
+        return samples;
+    }
+
+    private static boolean contains(int[] entries, int count, int entry) {
+        for (int i = 0; i < count; i++) {
+            if (entries[i] == entry) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fetches the entries by descending entry index. Entry indexes are
+     * stable, so the iteration does not need to be restarted when the
+     * storage grows; entries put behind the cursor are not returned.
+     */
+    @Override
+    public MapKeysWithCursor fetchKeys(IterationPointer[] pointers, int size) {
+        List<Data> keys = new ArrayList<>(size);
+        IterationPointer[] newPointers = copyPointers(pointers);
+        IterationPointer pointer = newPointers[newPointers.length - 1];
+        int entry = startEntry(pointer);
+        for (; entry >= 0 && keys.size() < size; entry--) {
+            if (isLive(entry)) {
+                keys.add(getKey(entry));
+            }
+        }
+        pointer.setIndex(entry);
+        return new MapKeysWithCursor(keys, newPointers);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(IterationPointer[] pointers, int size) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<>(size);
+        IterationPointer[] newPointers = copyPointers(pointers);
+        IterationPointer pointer = newPointers[newPointers.length - 1];
+        int entry = startEntry(pointer);
+        for (; entry >= 0 && entries.size() < size; entry--) {
+            if (isLive(entry)) {
+                entries.add(new AbstractMap.SimpleEntry<>(getKey(entry), getValue(entry)));
+            }
+        }
+        pointer.setIndex(entry);
+        return new MapEntriesWithCursor(entries, newPointers);
+    }
+
+    private static IterationPointer[] copyPointers(IterationPointer[] pointers) {
+        IterationPointer[] copy = new IterationPointer[pointers.length];
+        for (int i = 0; i < pointers.length; i++) {
+            copy[i] = new IterationPointer(pointers[i]);
+        }
+        return copy;
+    }
+
+    private int startEntry(IterationPointer pointer) {
+        if (pointer.getSize() == -1) {
+            // iteration has not started yet
+            pointer.setSize(hashes.length);
+            return highWatermark - 1;
+        }
+        return Math.min(pointer.getIndex(), highWatermark - 1);
+    }
+
+    @Override
+    public Record extractRecordFromLazy(EntryView entryView) {
+        return ((LazyEvictableEntryView) entryView).getRecord();
+    }
+
+    @Override
+    public Data extractDataKeyFromLazy(EntryView entryView) {
+        return ((LazyEvictableEntryView) entryView).getDataKey();
+    }
+
+    @Override
+    public Data toBackingDataKeyFormat(Data key) {
+        return key;
+    }
+
+    // entry accessors used by the record views
+
+    Data getKey(int entry) {
+        long address = keyAddresses[entry];
+        if (address == LONG_KEY) {
+            byte[] bytes = new byte[LONG_KEY_SIZE];
+            writeIntB(bytes, TYPE_OFFSET, CONSTANT_TYPE_LONG);
+            writeLongB(bytes, DATA_OFFSET, primitiveKeys[entry]);
+            return new HeapData(bytes);
+        }
+        if (address == INT_KEY) {
+            byte[] bytes = new byte[INT_KEY_SIZE];
+            writeIntB(bytes, TYPE_OFFSET, CONSTANT_TYPE_INTEGER);
+            writeIntB(bytes, DATA_OFFSET, (int) primitiveKeys[entry]);
+            return new HeapData(bytes);
+        }
+        return readData(address);
+    }
+
+    Data getValue(int entry) {
+        return readData(valueAddresses[entry]);
+    }
+
+    void setValue(int entry, Data value) {
+        long oldAddress = valueAddresses[entry];
+        valueAddresses[entry] = allocate(value);
+        release(oldAddress);
+        compactIfNeeded();
+    }
+
+    long getVersion(int entry) {
+        return versions[entry];
+    }
+
+    void setVersion(int entry, long version) {
+        versions[entry] = version;
+    }
+
+    int getIntField(int entry, int field) {
+        return intFields[entry * intFieldCount + field];
+    }
+
+    void setIntField(int entry, int field, int value) {
+        intFields[entry * intFieldCount + field] = value;
+    }
+
+    boolean isReferenced(int entry) {
+        return (referencedBits[entry / BITS_PER_LONG] & (1L << entry)) != 0;
+    }
+
+    void setReferenced(int entry, boolean referenced) {
+        if (referenced) {
+            referencedBits[entry / BITS_PER_LONG] |= 1L << entry;
+        } else {
+            referencedBits[entry / BITS_PER_LONG] &= ~(1L << entry);
+        }
+    }
+
+    Metadata getMetadata(int entry) {
+        return metadata == null ? null : metadata[entry];
+    }
+
+    void setMetadata(int entry, Metadata entryMetadata) {
+        if (metadata == null) {
+            if (entryMetadata == null) {
+                return;
+            }
+            metadata = new Metadata[hashes.length];
+        }
+        metadata[entry] = entryMetadata;
+    }
+
+    boolean isStatisticsEnabled() {
+        return statisticsEnabled;
+    }
+
+    boolean isLive(int entry) {
+        return keyAddresses[entry] != NULL_ADDRESS;
+    }
+
+    long getCost(int entry) {
+        return FIXED_ENTRY_COST + intFieldCount * INT_SIZE_IN_BYTES + itemSize(valueAddresses[entry]);
+    }
+
+    /**
+     * Returns the cost of the live entries: their share of the arrays and
+     * their serialized keys and values. The spare capacity of the arrays
+     * and the released bytes which are not compacted yet are not counted,
+     * so removing an entry lowers the cost right away.
+     */
+    long getLiveCost() {
+        int entryCost = FIXED_ENTRY_COST + intFieldCount * INT_SIZE_IN_BYTES
+                + (primitiveKeys == null ? 0 : LONG_SIZE_IN_BYTES);
+        return (long) size * entryCost + liveBytes;
+    }
+
+    // key index
+
+    /**
+     * Returns the key address marking the given serialized key as stored
+     * unboxed, or {@link #NULL_ADDRESS} if it is stored in the pages. Only the
+     * keys without a partition hash qualify, since it is not stored.
+     */
+    private static long primitiveKeyAddress(byte[] keyBytes) {
+        if (keyBytes == null || keyBytes.length < DATA_OFFSET || readIntB(keyBytes, PARTITION_HASH_OFFSET) != 0) {
+            return NULL_ADDRESS;
+        }
+        int type = readIntB(keyBytes, TYPE_OFFSET);
+        if (type == CONSTANT_TYPE_LONG && keyBytes.length == LONG_KEY_SIZE) {
+            return LONG_KEY;
+        }
+        if (type == CONSTANT_TYPE_INTEGER && keyBytes.length == INT_KEY_SIZE) {
+            return INT_KEY;
+        }
+        return NULL_ADDRESS;
+    }
+
+    private static long primitiveKey(long keyAddress, byte[] keyBytes) {
+        return keyAddress == LONG_KEY ? readLongB(keyBytes, DATA_OFFSET) : readIntB(keyBytes, DATA_OFFSET);
+    }
+
+    private static int hash(Data key, long primitiveKeyAddress, long primitiveKey) {
+        if (primitiveKeyAddress == NULL_ADDRESS) {
+            return key.hashCode();
+        }
+        // hashing the value is cheaper than hashing the serialized key
+        long mixed = fastLongMix(primitiveKey + primitiveKeyAddress);
+        return (int) (mixed ^ (mixed >>> Integer.SIZE));
+    }
+
+    private int findEntry(Data key) {
+        int slot = findSlot(key);
+        return slot == NO_ENTRY ? NO_ENTRY : table[slot] - 1;
+    }
+
+    private int findSlot(Data key) {
+        byte[] keyBytes = key.toByteArray();
+        long primitiveKeyAddress = primitiveKeyAddress(keyBytes);
+        long primitiveKey = primitiveKeyAddress == NULL_ADDRESS ? 0 : primitiveKey(primitiveKeyAddress, keyBytes);
+        int hash = hash(key, primitiveKeyAddress, primitiveKey);
+        int mask = table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (entry == NO_ENTRY) {
+                return NO_ENTRY;
+            }
+            if (hashes[entry] == hash && keyEquals(entry, keyBytes, primitiveKeyAddress, primitiveKey)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean keyEquals(int entry, byte[] keyBytes, long primitiveKeyAddress, long primitiveKey) {
+        long address = keyAddresses[entry];
+        if (primitiveKeyAddress != NULL_ADDRESS) {
+            return address == primitiveKeyAddress && primitiveKeys[entry] == primitiveKey;
+        }
+        return address >= 0 && itemEquals(address, keyBytes);
+    }
+
+    private void insertSlot(int entry) {
+        int mask = table.length - 1;
+        int slot = hashes[entry] & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry + 1;
+    }
+
+    /**
+     * Removes the given slot from the table and shifts the following
+     * slots of the probe sequence back, so no tombstones are needed.
+     */
+    private void removeSlot(int slot) {
+        int mask = table.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+            int home = hashes[table[next] - 1] & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private void resizeTable(int newLength) {
+        table = new int[newLength];
+        for (int entry = 0; entry < highWatermark; entry++) {
+            if (isLive(entry)) {
+                insertSlot(entry);
+            }
+        }
+    }
+
+    // entries
+
+    private int newEntry(Data key) {
+        if ((size + 1) * LOAD_FACTOR_DENOMINATOR > table.length * LOAD_FACTOR_NUMERATOR) {
+            resizeTable(table.length << 1);
+        }
+        int entry = freeEntry;
+        if (entry != NO_ENTRY) {
+            freeEntry = hashes[entry];
+        } else {
+            if (highWatermark == hashes.length) {
+                growEntries(nextPowerOfTwo(highWatermark + 1));
+            }
+            entry = highWatermark++;
+        }
+        byte[] keyBytes = key.toByteArray();
+        long primitiveKeyAddress = primitiveKeyAddress(keyBytes);
+        if (primitiveKeyAddress == NULL_ADDRESS) {
+            hashes[entry] = hash(key, NULL_ADDRESS, 0);
+            keyAddresses[entry] = allocate(key);
+        } else {
+            if (primitiveKeys == null) {
+                primitiveKeys = new long[hashes.length];
+            }
+            long primitiveKey = primitiveKey(primitiveKeyAddress, keyBytes);
+            primitiveKeys[entry] = primitiveKey;
+            hashes[entry] = hash(key, primitiveKeyAddress, primitiveKey);
+            keyAddresses[entry] = primitiveKeyAddress;
+        }
+        valueAddresses[entry] = NULL_ADDRESS;
+        versions[entry] = 0;
+        Arrays.fill(intFields, entry * intFieldCount, (entry + 1) * intFieldCount, 0);
+        setReferenced(entry, false);
+        setMetadata(entry, null);
+        insertSlot(entry);
+        size++;
+        return entry;
+    }
+
+    /**
+     * Frees the entry. The state of the entry is left in place, so the
+     * views of the removed entry, e.g. the ones passed to the post-eviction
+     * operations, can still be read until the next put into this storage
+     * reuses the entry or compacts the pages.
+     */
+    private void freeEntry(int entry) {
+        release(keyAddresses[entry]);
+        release(valueAddresses[entry]);
+        keyAddresses[entry] = NULL_ADDRESS;
+        hashes[entry] = freeEntry;
+        freeEntry = entry;
+        size--;
+    }
+
+    private void growEntries(int capacity) {
+        hashes = Arrays.copyOf(hashes, capacity);
+        keyAddresses = Arrays.copyOf(keyAddresses, capacity);
+        valueAddresses = Arrays.copyOf(valueAddresses, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        intFields = Arrays.copyOf(intFields, capacity * intFieldCount);
+        referencedBits = Arrays.copyOf(referencedBits, capacity / BITS_PER_LONG + 1);
+        if (metadata != null) {
+            metadata = Arrays.copyOf(metadata, capacity);
+        }
+        if (primitiveKeys != null) {
+            primitiveKeys = Arrays.copyOf(primitiveKeys, capacity);
+        }
+    }
+
+    // slab pages
+
+    private long allocate(Data data) {
+        if (data == null) {
+            return NULL_ADDRESS;
+        }
+        byte[] bytes = data.toByteArray();
+        return bytes == null ? allocate(bytes, 0, 0) : allocate(bytes, 0, bytes.length);
+    }
+
+    private long allocate(byte[] source, int sourceOffset, int length) {
+        int itemSize = INT_SIZE_IN_BYTES + length;
+        int page;
+        int offset;
+        if (itemSize > LARGE_ITEM_SIZE) {
+            page = addPage(itemSize);
+            offset = 0;
+        } else {
+            if (currentPage == NO_ENTRY || pageOffset + itemSize > PAGE_SIZE) {
+                currentPage = addPage(PAGE_SIZE);
+                pageOffset = 0;
+            }
+            page = currentPage;
+            offset = pageOffset;
+            pageOffset += itemSize;
+        }
+        writeIntB(pages[page], offset, length);
+        if (length > 0) {
+            System.arraycopy(source, sourceOffset, pages[page], offset + INT_SIZE_IN_BYTES, length);
+        }
+        liveBytes += itemSize;
+        return ((long) page << ADDRESS_SHIFT) | offset;
+    }
+
+    private int addPage(int pageSize) {
+        if (pageCount == pages.length) {
+            pages = Arrays.copyOf(pages, pageCount << 1);
+        }
+        pages[pageCount] = new byte[pageSize];
+        return pageCount++;
+    }
+
+    private void release(long address) {
+        if (address < 0) {
+            return;
+        }
+        int itemSize = itemSize(address);
+        liveBytes -= itemSize;
+        garbageBytes += itemSize;
+    }
+
+    private int itemSize(long address) {
+        if (address < 0) {
+            return 0;
+        }
+        byte[] page = pages[(int) (address >>> ADDRESS_SHIFT)];
+        return INT_SIZE_IN_BYTES + readIntB(page, (int) (address & OFFSET_MASK));
+    }
+
+    private Data readData(long address) {
+        if (address == NULL_ADDRESS) {
+            return null;
+        }
+        byte[] page = pages[(int) (address >>> ADDRESS_SHIFT)];
+        int offset = (int) (address & OFFSET_MASK);
+        int length = readIntB(page, offset);
+        int start = offset + INT_SIZE_IN_BYTES;
+        return new HeapData(Arrays.copyOfRange(page, start, start + length));
+    }
+
+    private boolean itemEquals(long address, byte[] bytes) {
+        byte[] page = pages[(int) (address >>> ADDRESS_SHIFT)];
+        int offset = (int) (address & OFFSET_MASK);
+        int length = bytes == null ? 0 : bytes.length;
+        if (readIntB(page, offset) != length) {
+            return false;
+        }
+        int start = offset + INT_SIZE_IN_BYTES;
+        for (int i = 0; i < length; i++) {
+            if (page[start + i] != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the live keys and values into new pages once the released
+     * items take more space than the live ones. Only called when putting
+     * a key or a value, see {@link #freeEntry(int)}.
+     */
+    private void compactIfNeeded() {
+        if (garbageBytes < PAGE_SIZE || garbageBytes <= liveBytes) {
+            return;
+        }
+        byte[][] oldPages = pages;
+        pages = new byte[Math.max(INITIAL_CAPACITY, pageCount)][];
+        pageCount = 0;
+        currentPage = NO_ENTRY;
+        pageOffset = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        for (int entry = 0; entry < highWatermark; entry++) {
+            if (isLive(entry)) {
+                keyAddresses[entry] = move(oldPages, keyAddresses[entry]);
+                valueAddresses[entry] = move(oldPages, valueAddresses[entry]);
+            } else {
+                valueAddresses[entry] = NULL_ADDRESS;
+            }
+        }
+    }
+
+    private long move(byte[][] oldPages, long address) {
+        if (address < 0) {
+            // not in the pages
+            return address;
+        }
+        byte[] page = oldPages[(int) (address >>> ADDRESS_SHIFT)];
+        int offset = (int) (address & OFFSET_MASK);
+        return allocate(page, offset + INT_SIZE_IN_BYTES, readIntB(page, offset));
+    }
+
+    /**
+     * Iterates the live entries by ascending entry index. Entries added
+     * or removed during the iteration may or may not be returned.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<Data, Record>> {
+
+        private int nextEntry;
+
+        @Override
+        public boolean hasNext() {
+            while (nextEntry < highWatermark && !isLive(nextEntry)) {
+                nextEntry++;
+            }
+            return nextEntry < highWatermark;
+        }
+
+        @Override
+        public Map.Entry<Data, Record> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int entry = nextEntry++;
+            return new LazyKeyEntry(entry);
+        }
+    }
+
+    /**
+     * An entry of the storage which only reads its key when it is needed.
+     */
+    private final class LazyKeyEntry implements Map.Entry<Data, Record> {
+
+        private final int entry;
+        private final Record record;
+        private Data key;
+
+        LazyKeyEntry(int entry) {
+            this.entry = entry;
+            this.record = new CompactRecord(CompactStorage.this, entry);
+        }
+
+        @Override
+        public Data getKey() {
+            if (key == null) {
+                key = CompactStorage.this.getKey(entry);
+            }
+            return key;
+        }
+
+        @Override
+        public Record getValue() {
+            return record;
+        }
+
+        @Override
+        public Record setValue(Record value) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A sample for eviction; only the key of the evicted sample is read.
+     */
+    private final class SampledEntryView extends LazyEvictableEntryView<Record> {
+
+        private final int entry;
+        private Data dataKey;
+
+        SampledEntryView(int entry) {
+            super(null, new CompactRecord(CompactStorage.this, entry), serializationService);
+            this.entry = entry;
+        }
+
+        @Override
+        public Data getDataKey() {
+            if (dataKey == null) {
+                dataKey = CompactStorage.this.getKey(entry);
+            }
+            return dataKey;
+        }
+    }
+
+    /**
+     * Estimates the cost of the entries from the storage itself, which
+     * already accounts for every entry.
+     */
+    private final class CompactEntryCostEstimator implements EntryCostEstimator<Data, Record> {
+
+        @Override
+        public long getEstimate() {
+            return getLiveCost();
+        }
+
+        @Override
+        public void adjustEstimateBy(long adjustment) {
+        }
+
+        @Override
+        public long calculateValueCost(Record record) {
+            return record.getCost();
+        }
+
+        @Override
+        public long calculateEntryCost(Data key, Record record) {
+            return INT_SIZE_IN_BYTES + key.totalSize() + record.getCost();
+        }
+
+        @Override
+        public void reset() {
+        }
+    }
+}
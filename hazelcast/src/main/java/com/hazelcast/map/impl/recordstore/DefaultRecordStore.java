@@ -822,6 +822,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
 
             if (valueComparator.isEqual(newValue, oldValue, serializationService)) {
                 mergeRecordExpiration(record, mergingEntry);
+                scheduleExpiry(key, record);
                 return true;
             }
 
@@ -911,6 +912,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             updateRecord(key, record, oldValue, value, now, true, UNSET,
                     UNSET, false, null, false);
             setExpirationTimes(ttl, maxIdle, record, mapContainer.getMapConfig(), false);
+            scheduleExpiry(key, record);
         }
         mapDataStore.addTransient(key, now);
         return oldValue;
@@ -1057,6 +1059,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     }
 
     protected Record getRecordOrNull(Data key, long now, boolean backup) {
+        recordKeyAccess(key);
         Record record = storage.get(key);
         if (record == null) {
             return null;
@@ -1083,7 +1086,9 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
                 = ((WriteBehindStore) mapDataStore).getWriteBehindQueue();
         List<DelayedEntry> delayedEntries = writeBehindQueue.asList();
         for (DelayedEntry delayedEntry : delayedEntries) {
-            Record record = getRecordOrNull(toData(delayedEntry.getKey()), now, false);
+            // not an access of the key, so it doesn't go through getRecordOrNull
+            Data key = toData(delayedEntry.getKey());
+            Record record = getOrNullIfExpired(key, storage.get(key), now, false);
             onStore(record);
         }
     }
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * An index of the keys of a record store by their expiration time, so the expired entries can be
+ * found without scanning the record store.
+ * <p>
+ * The index is a hierarchical timing wheel: {@value #LEVELS} wheels of {@value #WHEEL_SIZE} slots,
+ * where the slots of the first wheel span a single tick and the slots of every next wheel span all
+ * slots of the previous one. A key is put in the slot of the lowest wheel that covers its scheduled
+ * tick; when time advances into the span of a slot of a higher wheel, the keys of that slot are
+ * distributed over the lower wheels, and when time advances past a slot of the first wheel, its keys
+ * are due. So adding and removing a key is constant time, and advancing time costs a slot per tick plus
+ * the keys that move between wheels or become due, regardless of the number of keys in the index.
+ * <p>
+ * Every key is scheduled at most once. Removed keys are removed from the index, but a key isn't moved
+ * when its expiration time is extended, e.g. because it is accessed. Instead, every key that is due
+ * is passed to an {@link ExpiryChecker} that looks up the record, expires it if needed and returns the
+ * time the key should be checked again. So a key that moves its expiration time earlier must be added
+ * again, a key that moves it later doesn't need to.
+ * <p>
+ * The due keys are queued and checked in bounded batches, so a lot of keys that are due at the same
+ * time don't block the partition thread; the keys that are left are checked by the next advance.
+ * <p>
+ * Expiration times beyond the span of the last wheel are put in the last wheel at its maximum span and
+ * are checked again once that slot is due.
+ * <p>
+ * This class is not thread-safe; it is accessed by the partition thread only.
+ */
+final class ExpiryIndex {
+
+    /**
+     * Returned by the {@link ExpiryChecker} if the key doesn't need to be checked again.
+     */
+    static final long NOT_SCHEDULED = -1;
+
+    static final int LEVELS = 4;
+    static final int WHEEL_SIZE = 64;
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final long MAX_DELTA = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Set<Data>[][] wheels;
+    // the scheduled tick of every key in the index, including the due keys that aren't checked yet
+    private final Map<Data, Long> ticks = new HashMap<>();
+    // the keys that are due; removed and rescheduled keys are skipped when they are polled
+    private final Queue<Data> due = new ArrayDeque<>();
+    // the number of keys in the wheels
+    private int scheduled;
+    // the last tick that has been processed
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    ExpiryIndex(long tickMillis, long now) {
+        this.tickMillis = tickMillis;
+        this.wheels = new Set[LEVELS][WHEEL_SIZE];
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * Adds a key that expires at the given time. If the key is already scheduled at an earlier
+     * time, it is left there.
+     *
+     * @param key            the key
+     * @param expirationTime the expiration time in millis; if it is already passed, the key is due at the next tick
+     */
+    void add(Data key, long expirationTime) {
+        if (expirationTime < 0 || expirationTime == Long.MAX_VALUE) {
+            return;
+        }
+        // rounded up, so a key is never due before its expiration time
+        long tick = expirationTime / tickMillis + (expirationTime % tickMillis == 0 ? 0 : 1);
+        tick = Math.min(Math.max(tick, currentTick + 1), currentTick + MAX_DELTA);
+
+        Long scheduledTick = ticks.get(key);
+        if (scheduledTick != null) {
+            if (scheduledTick <= tick) {
+                return;
+            }
+            unlink(key, scheduledTick);
+        }
+        ticks.put(key, tick);
+        insert(key, tick);
+    }
+
+    /**
+     * Removes a key from the index.
+     *
+     * @param key the key
+     */
+    void remove(Data key) {
+        Long scheduledTick = ticks.remove(key);
+        if (scheduledTick != null) {
+            unlink(key, scheduledTick);
+        }
+    }
+
+    /**
+     * Advances the time of the index and passes at most {@code maxChecks} of the due keys to the
+     * checker. The due keys that are left are checked by the next advance.
+     *
+     * @param now       the current time in millis
+     * @param maxChecks the maximum number of keys to check
+     * @param checker   checks the keys
+     */
+    void advance(long now, int maxChecks, ExpiryChecker checker) {
+        long nowTick = now / tickMillis;
+        while (currentTick < nowTick) {
+            if (scheduled == 0) {
+                currentTick = nowTick;
+                break;
+            }
+
+            long tick = ++currentTick;
+            if ((tick & WHEEL_MASK) == 0) {
+                cascade(1, tick);
+            }
+            Set<Data> keys = detach(0, (int) (tick & WHEEL_MASK));
+            if (keys != null) {
+                due.addAll(keys);
+            }
+        }
+
+        int checks = 0;
+        while (checks < maxChecks && !due.isEmpty()) {
+            Data key = due.poll();
+            Long scheduledTick = ticks.get(key);
+            if (scheduledTick == null || scheduledTick > currentTick) {
+                // removed, or removed and added again
+                continue;
+            }
+
+            ticks.remove(key);
+            checks++;
+            long nextCheckTime = checker.check(key, now);
+            if (nextCheckTime != NOT_SCHEDULED) {
+                add(key, nextCheckTime);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys in the index.
+     */
+    int size() {
+        return ticks.size();
+    }
+
+    void clear() {
+        for (Set<Data>[] wheel : wheels) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                wheel[slot] = null;
+            }
+        }
+        ticks.clear();
+        due.clear();
+        scheduled = 0;
+    }
+
+    private void cascade(int level, long tick) {
+        int slot = slot(tick, level);
+        if (slot == 0 && level < LEVELS - 1) {
+            cascade(level + 1, tick);
+        }
+
+        Set<Data> keys = detach(level, slot);
+        if (keys != null) {
+            for (Data key : keys) {
+                insert(key, ticks.get(key));
+            }
+        }
+    }
+
+    private Set<Data> detach(int level, int slot) {
+        Set<Data> keys = wheels[level][slot];
+        if (keys != null) {
+            wheels[level][slot] = null;
+            scheduled -= keys.size();
+        }
+        return keys;
+    }
+
+    private void insert(Data key, long tick) {
+        long delta = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+
+        int slot = slot(tick, level);
+        Set<Data> keys = wheels[level][slot];
+        if (keys == null) {
+            keys = new HashSet<>();
+            wheels[level][slot] = keys;
+        }
+        if (keys.add(key)) {
+            scheduled++;
+        }
+    }
+
+    /**
+     * Removes a key from its slot. The slot of a key that is scheduled at a passed tick
+     * has been detached; the key is skipped when it is polled from the due keys.
+     */
+    private void unlink(Data key, long tick) {
+        if (tick <= currentTick) {
+            return;
+        }
+
+        for (int level = 0; level < LEVELS; level++) {
+            int slot = slot(tick, level);
+            Set<Data> keys = wheels[level][slot];
+            if (keys != null && keys.remove(key)) {
+                scheduled--;
+                if (keys.isEmpty()) {
+                    wheels[level][slot] = null;
+                }
+                return;
+            }
+        }
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) ((tick >> (WHEEL_BITS * level)) & WHEEL_MASK);
+    }
+
+    /**
+     * Checks a key of the index when it is due.
+     */
+    @FunctionalInterface
+    interface ExpiryChecker {
+
+        /**
+         * Checks the key and expires it if needed.
+         *
+         * @param key the key
+         * @param now the current time in millis
+         * @return the time the key should be checked again, or {@link #NOT_SCHEDULED} if the key
+         * doesn't need to be checked again, e.g. because it expired or was removed
+         */
+        long check(Data key, long now);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.record.Record;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Adds the keys of new records to the {@link ExpiryIndex} of the record store, and removes the keys
+ * of removed and evicted records, so the index doesn't keep their keys alive until they are due.
+ * <p>
+ * Updates don't need to be observed: an update can only extend the expiration time, unless it
+ * shortens the TTL or max-idle of the record, which is handled by the record store itself.
+ */
+class ExpiryIndexMutationObserver implements MutationObserver<Record> {
+
+    private final AbstractEvictableRecordStore recordStore;
+
+    ExpiryIndexMutationObserver(AbstractEvictableRecordStore recordStore) {
+        this.recordStore = recordStore;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        if (record != null) {
+            recordStore.scheduleExpiry(key, record);
+        }
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, boolean populateIndex) {
+        recordStore.scheduleExpiry(key, record);
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record,
+                               Object oldValue, Object newValue, boolean backup) {
+        // NOP
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record) {
+        recordStore.unscheduleExpiry(key);
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record) {
+        recordStore.unscheduleExpiry(key);
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        recordStore.scheduleExpiry(key, record);
+    }
+
+    @Override
+    public void onReset() {
+        recordStore.clearExpiryIndex();
+    }
+
+    @Override
+    public void onClear() {
+        recordStore.clearExpiryIndex();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        recordStore.clearExpiryIndex();
+    }
+}
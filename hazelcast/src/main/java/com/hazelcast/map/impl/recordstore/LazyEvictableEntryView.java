@@ -54,7 +54,7 @@ public class LazyEvictableEntryView<R extends Record>
     @Override
     public Object getKey() {
         if (key == null) {
-            key = serializationService.toObject(dataKey);
+            key = serializationService.toObject(getDataKey());
         }
         return key;
     }
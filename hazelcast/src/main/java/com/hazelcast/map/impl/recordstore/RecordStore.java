@@ -20,6 +20,7 @@ import com.hazelcast.cluster.Address;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.internal.eviction.ExpiredKey;
+import com.hazelcast.internal.eviction.impl.evaluator.FrequencySketch;
 import com.hazelcast.internal.iteration.IterationPointer;
 import com.hazelcast.internal.monitor.LocalRecordStoreStats;
 import com.hazelcast.internal.nearcache.impl.invalidation.InvalidationQueue;
@@ -455,6 +456,16 @@ public interface RecordStore<R extends Record> {
      */
     void evictEntries(Data excludedKey);
 
+    /**
+     * Returns the estimated access frequencies of the keys of this
+     * record-store, used to select the entries to evict with the
+     * {@link EvictionPolicy#TINY_LFU} policy.
+     *
+     * @return the frequency sketch or {@code null} if the map doesn't use the
+     * {@link EvictionPolicy#TINY_LFU} policy
+     */
+    FrequencySketch getFrequencySketch();
+
     /**
      * Returns <code>true</code> if eviction is allowed on this record-store, otherwise <code>false</code>
      *
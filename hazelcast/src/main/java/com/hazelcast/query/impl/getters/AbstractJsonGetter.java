@@ -24,6 +24,7 @@ import com.hazelcast.internal.json.JsonValue;
 import com.hazelcast.internal.json.NonTerminalJsonValue;
 import com.hazelcast.internal.serialization.impl.NavigableJsonInputAdapter;
 import com.hazelcast.internal.util.collection.WeightedEvictableList.WeightedItem;
+import com.hazelcast.json.internal.JsonBinaryDocument;
 import com.hazelcast.json.internal.JsonPattern;
 import com.hazelcast.json.internal.JsonSchemaHelper;
 import com.hazelcast.json.internal.JsonSchemaNode;
@@ -149,6 +150,9 @@ public abstract class AbstractJsonGetter extends Getter {
         if (metadata == null) {
             return getValue(obj, attributePath);
         }
+        if (metadata instanceof JsonBinaryDocument) {
+            return getValue(obj, attributePath, (JsonBinaryDocument) metadata);
+        }
         JsonSchemaNode schemaNode = (JsonSchemaNode) metadata;
 
         NavigableJsonInputAdapter adapter = annotate(obj);
@@ -179,6 +183,18 @@ public abstract class AbstractJsonGetter extends Getter {
         return null;
     }
 
+    private Object getValue(Object obj, String attributePath, JsonBinaryDocument document) {
+        JsonPathCursor pathCursor = contextCache.getContext(attributePath).newJsonPathCursor();
+        int valuePos = document.findValue(pathCursor);
+        if (valuePos == JsonBinaryDocument.ANY_PATH) {
+            return getValue(obj, attributePath);
+        }
+        if (valuePos == JsonBinaryDocument.NOT_FOUND) {
+            return null;
+        }
+        return document.readValue(valuePos);
+    }
+
     @Override
     Class getReturnType() {
         throw new IllegalArgumentException("Non applicable for Json getters");
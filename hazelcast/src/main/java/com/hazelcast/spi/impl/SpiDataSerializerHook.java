@@ -24,6 +24,7 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.security.SimpleTokenCredentials;
 import com.hazelcast.security.UsernamePasswordCredentials;
 import com.hazelcast.spi.impl.eventservice.impl.EventEnvelope;
+import com.hazelcast.spi.impl.eventservice.impl.EventEnvelopeBatch;
 import com.hazelcast.spi.impl.eventservice.impl.Registration;
 import com.hazelcast.spi.impl.eventservice.impl.TrueEventFilter;
 import com.hazelcast.spi.impl.eventservice.impl.operations.DeregistrationOperation;
@@ -33,9 +34,11 @@ import com.hazelcast.spi.impl.eventservice.impl.operations.SendEventOperation;
 import com.hazelcast.spi.impl.operationservice.BinaryOperationFactory;
 import com.hazelcast.spi.impl.operationservice.OperationControl;
 import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch;
 import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation;
 import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation.PartitionResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.BackupAckResponse;
+import com.hazelcast.spi.impl.operationservice.impl.responses.BatchBackupAckResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
@@ -78,6 +81,14 @@ public final class SpiDataSerializerHook implements DataSerializerHook {
     public static final int USERNAME_PWD_CRED = 23;
     public static final int SIMPLE_TOKEN_CRED = 24;
     public static final int DISTRIBUTED_OBJECT_EVENT_PACKET = 25;
+    public static final int EVENT_ENVELOPE_BATCH = 26;
+    public static final int BACKUP_BATCH = 27;
+    public static final int BATCH_BACKUP_ACK_RESPONSE = 28;
+    /**
+     * The type ID of a batch response; it is only written and read by offsets, see
+     * {@link com.hazelcast.spi.impl.operationservice.impl.responses.BatchResponse}.
+     */
+    public static final int BATCH_RESPONSE = 29;
 
     private static final DataSerializableFactory FACTORY = createFactoryInternal();
 
@@ -143,6 +154,12 @@ public final class SpiDataSerializerHook implements DataSerializerHook {
                         return new SimpleTokenCredentials();
                     case DISTRIBUTED_OBJECT_EVENT_PACKET:
                         return new DistributedObjectEventPacket();
+                    case EVENT_ENVELOPE_BATCH:
+                        return new EventEnvelopeBatch();
+                    case BACKUP_BATCH:
+                        return new BackupBatch();
+                    case BATCH_BACKUP_ACK_RESPONSE:
+                        return new BatchBackupAckResponse();
                     default:
                         return null;
                 }
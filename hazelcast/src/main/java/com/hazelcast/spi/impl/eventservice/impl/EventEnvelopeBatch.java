@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of {@link EventEnvelope}s for the same subscriber that is sent as a single event
+ * packet. Every envelope carries its own order key, the subscriber dispatches the envelopes
+ * in the order of the batch on the event thread of their order key.
+ *
+ * @see RemoteEventBatcher
+ */
+public final class EventEnvelopeBatch implements IdentifiedDataSerializable {
+
+    private List<EventEnvelope> envelopes;
+    private int[] orderKeys;
+
+    public EventEnvelopeBatch() {
+    }
+
+    /**
+     * @param envelopes the envelopes
+     * @param orderKeys the order keys of the envelopes, can be longer than the envelopes
+     */
+    EventEnvelopeBatch(List<EventEnvelope> envelopes, int[] orderKeys) {
+        this.envelopes = envelopes;
+        this.orderKeys = orderKeys;
+    }
+
+    public List<EventEnvelope> getEnvelopes() {
+        return envelopes;
+    }
+
+    /**
+     * Returns the order key of the envelope at the given index.
+     */
+    public int getOrderKey(int index) {
+        return orderKeys[index];
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SpiDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SpiDataSerializerHook.EVENT_ENVELOPE_BATCH;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(envelopes.size());
+        // the envelopes are all of the same type, so there is no need to write a header per envelope
+        for (int i = 0; i < envelopes.size(); i++) {
+            out.writeInt(orderKeys[i]);
+            envelopes.get(i).writeData(out);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        envelopes = new ArrayList<>(size);
+        orderKeys = new int[size];
+        for (int i = 0; i < size; i++) {
+            orderKeys[i] = in.readInt();
+            EventEnvelope envelope = new EventEnvelope();
+            envelope.readData(in);
+            envelopes.add(envelope);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "EventEnvelopeBatch{size=" + envelopes.size() + '}';
+    }
+}
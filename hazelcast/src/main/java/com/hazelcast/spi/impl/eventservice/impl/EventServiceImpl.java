@@ -49,6 +49,7 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -70,6 +71,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_MET
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_METRIC_EVENT_SERVICE_TOTAL_FAILURE_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EVENT_PREFIX;
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.nio.Packet.FLAG_EVENT_BATCH;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.EmptyStatement.ignore;
 import static com.hazelcast.internal.util.FutureUtil.getValue;
@@ -78,6 +80,8 @@ import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.spi.impl.InternalCompletableFuture.newCompletedFuture;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_LINGER_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_SIZE;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_QUEUE_CAPACITY;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_QUEUE_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.EVENT_SYNC_TIMEOUT_MILLIS;
@@ -178,6 +182,8 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
 
     private final InternalSerializationService serializationService;
     private final int eventSyncFrequency;
+    /** Coalesces the asynchronous remote events, or {@code null} if batching is disabled */
+    private final RemoteEventBatcher remoteEventBatcher;
 
     public EventServiceImpl(NodeEngineImpl nodeEngine) {
         this.nodeEngine = nodeEngine;
@@ -189,6 +195,10 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
         this.eventQueueTimeoutMs = hazelcastProperties.getMillis(EVENT_QUEUE_TIMEOUT_MILLIS);
         this.sendEventSyncTimeoutMillis = hazelcastProperties.getInteger(EVENT_SYNC_TIMEOUT_MILLIS);
         this.eventSyncFrequency = loadEventSyncFrequency();
+        int eventBatchSize = hazelcastProperties.getInteger(EVENT_BATCH_SIZE);
+        this.remoteEventBatcher = eventBatchSize > 1
+                ? new RemoteEventBatcher(this, eventBatchSize, hazelcastProperties.getMillis(EVENT_BATCH_LINGER_MILLIS))
+                : null;
 
         this.eventExecutor = new StripedExecutor(
                 nodeEngine.getNode().getLogger(EventServiceImpl.class),
@@ -561,7 +571,8 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
      * A synchronous event means that we send the event as an {@link SendEventOperation} and in case of failure
      * we increase the failure count and log the failure (see {@link EventProcessor})
      * Otherwise, we send an asynchronous event. This means that we don't wait to see if the processing failed with an
-     * exception (see {@link RemoteEventProcessor})
+     * exception (see {@link RemoteEventProcessor}). If event batching is enabled, asynchronous events for the same
+     * subscriber are coalesced by the {@link RemoteEventBatcher}.
      */
     private void sendEvent(Address subscriber, EventEnvelope eventEnvelope, int orderKey) {
         String serviceName = eventEnvelope.getServiceName();
@@ -569,6 +580,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
         boolean sync = segment.incrementPublish() % eventSyncFrequency == 0;
 
         if (sync) {
+            if (remoteEventBatcher != null) {
+                remoteEventBatcher.flush(subscriber);
+            }
             SendEventOperation op = new SendEventOperation(eventEnvelope, orderKey);
             Future f = nodeEngine.getOperationService()
                     .createInvocationBuilder(serviceName, op, subscriber)
@@ -581,15 +595,28 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
                     logger.finest("Sync event delivery failed. Event: " + eventEnvelope, e);
                 }
             }
+        } else if (remoteEventBatcher != null) {
+            remoteEventBatcher.add(subscriber, eventEnvelope, orderKey);
         } else {
-            Packet packet = new Packet(serializationService.toBytes(eventEnvelope), orderKey)
-                    .setPacketType(Packet.Type.EVENT);
+            transmit(subscriber, eventEnvelope, orderKey);
+        }
+    }
 
-            EndpointManager em = nodeEngine.getNode().getNetworkingService().getEndpointManager(MEMBER);
-            if (!em.transmit(packet, subscriber)) {
-                if (nodeEngine.isRunning()) {
-                    logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
-                }
+    /**
+     * Sends an {@link EventEnvelope} or an {@link EventEnvelopeBatch} as an event packet to the {@code subscriber}.
+     * The packet of a batch is marked with {@link Packet#FLAG_EVENT_BATCH}.
+     */
+    void transmit(Address subscriber, Object eventEnvelope, int orderKey) {
+        Packet packet = new Packet(serializationService.toBytes(eventEnvelope), orderKey)
+                .setPacketType(Packet.Type.EVENT);
+        if (eventEnvelope instanceof EventEnvelopeBatch) {
+            packet.raiseFlags(FLAG_EVENT_BATCH);
+        }
+
+        EndpointManager em = nodeEngine.getNode().getNetworkingService().getEndpointManager(MEMBER);
+        if (!em.transmit(packet, subscriber)) {
+            if (nodeEngine.isRunning()) {
+                logFailure("Failed to send event packet to: %s, connection might not be alive.", subscriber);
             }
         }
     }
@@ -656,14 +683,37 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
      * Handles an asynchronous remote event with a {@link RemoteEventProcessor}. The
      * processor may determine the thread which will handle the event. If the execution is rejected,
      * the rejection count is increased and a failure is logged. The event processing is not retried.
+     * <p>
+     * The envelopes of an {@link EventEnvelopeBatch} are unpacked on the calling thread and each of them is
+     * handed to the event thread of its own order key, in the order of the batch. Since a synchronous event
+     * is only sent once the pending batch has been sent, it can't overtake the events of the batch.
      *
      * @param packet the response packet to handle
      * @see #sendEvent(Address, EventEnvelope, int)
      */
     @Override
     public void accept(Packet packet) {
+        if (!packet.isFlagRaised(FLAG_EVENT_BATCH)) {
+            execute(new RemoteEventProcessor(this, packet), packet);
+            return;
+        }
+
+        EventEnvelopeBatch batch;
         try {
-            eventExecutor.execute(new RemoteEventProcessor(this, packet));
+            batch = nodeEngine.toObject(packet);
+        } catch (Exception e) {
+            logger.warning("Error while logging processing event", e);
+            return;
+        }
+        List<EventEnvelope> envelopes = batch.getEnvelopes();
+        for (int i = 0; i < envelopes.size(); i++) {
+            execute(new RemoteEventProcessor(this, envelopes.get(i), batch.getOrderKey(i)), packet);
+        }
+    }
+
+    private void execute(RemoteEventProcessor processor, Packet packet) {
+        try {
+            eventExecutor.execute(processor);
         } catch (RejectedExecutionException e) {
             rejectedCount.inc();
 
@@ -703,6 +753,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
     }
 
     public void shutdown() {
+        if (remoteEventBatcher != null) {
+            remoteEventBatcher.shutdown();
+        }
         logger.finest("Stopping event executor...");
         eventExecutor.shutdown();
         for (EventServiceSegment segment : segments.values()) {
@@ -713,6 +766,9 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
 
     public void onMemberLeft(MemberImpl member) {
         Address address = member.getAddress();
+        if (remoteEventBatcher != null) {
+            remoteEventBatcher.onMemberLeft(address);
+        }
         for (EventServiceSegment segment : segments.values()) {
             segment.onMemberLeft(address);
         }
@@ -741,4 +797,8 @@ public class EventServiceImpl implements EventService, StaticMetricsProvider {
         }
     }
 
+    // just for testing
+    RemoteEventBatcher getRemoteEventBatcher() {
+        return remoteEventBatcher;
+    }
 }
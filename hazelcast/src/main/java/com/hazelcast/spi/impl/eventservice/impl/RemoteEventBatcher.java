@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Coalesces asynchronous remote events for the same subscriber into batches, so that
+ * a high-rate listener doesn't need an event packet per event.
+ * <p>
+ * There is a single batch per subscriber and every event keeps its own order key in the
+ * batch, see {@link EventEnvelopeBatch}. A batch is sent as soon as it contains batchSize
+ * events, the remaining events are sent by a background task that runs every lingerMillis.
+ * A batch is sent while holding its lock, so the events for the same subscriber are
+ * transmitted in the order they were added. The subscriber unpacks a batch as soon as it
+ * is received and dispatches every event of it to the event thread of its order key.
+ * <p>
+ * A batch that stayed empty for a whole linger period is removed, so subscribers that
+ * don't receive events anymore don't cost anything.
+ */
+class RemoteEventBatcher {
+
+    private static final String EXECUTOR_NAME = "hz:event-batcher";
+    private static final int MAX_INITIAL_CAPACITY = 16;
+
+    private final EventServiceImpl eventService;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final AtomicBoolean runningBackgroundTask = new AtomicBoolean();
+    private final ConcurrentMap<Address, EventBatch> batchPerSubscriber = new ConcurrentHashMap<>();
+
+    RemoteEventBatcher(EventServiceImpl eventService, int batchSize, long lingerMillis) {
+        this.eventService = eventService;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+    }
+
+    void add(Address subscriber, EventEnvelope eventEnvelope, int orderKey) {
+        checkBackgroundTaskIsRunning();
+
+        for (; ; ) {
+            EventBatch batch = batchPerSubscriber.get(subscriber);
+            if (batch == null) {
+                batch = new EventBatch(subscriber);
+                EventBatch found = batchPerSubscriber.putIfAbsent(subscriber, batch);
+                batch = found == null ? batch : found;
+            }
+            if (batch.add(eventEnvelope, orderKey)) {
+                return;
+            }
+            // the batch has been removed concurrently
+            batchPerSubscriber.remove(subscriber, batch);
+        }
+    }
+
+    /**
+     * Sends the pending events for the subscriber, so an event that is sent through
+     * a different path isn't overtaken by them.
+     */
+    void flush(Address subscriber) {
+        EventBatch batch = batchPerSubscriber.get(subscriber);
+        if (batch != null) {
+            batch.flush();
+        }
+    }
+
+    void flushAll() {
+        for (Map.Entry<Address, EventBatch> entry : batchPerSubscriber.entrySet()) {
+            if (currentThread().isInterrupted()) {
+                return;
+            }
+            EventBatch batch = entry.getValue();
+            if (batch.flushOrRetire()) {
+                batchPerSubscriber.remove(entry.getKey(), batch);
+            }
+        }
+    }
+
+    void onMemberLeft(Address address) {
+        batchPerSubscriber.remove(address);
+    }
+
+    void shutdown() {
+        flushAll();
+        eventService.nodeEngine.getExecutionService().shutdownExecutor(EXECUTOR_NAME);
+        batchPerSubscriber.clear();
+    }
+
+    // just for testing
+    int pendingCount() {
+        int count = 0;
+        for (EventBatch batch : batchPerSubscriber.values()) {
+            count += batch.size();
+        }
+        return count;
+    }
+
+    // just for testing
+    int batchCount() {
+        return batchPerSubscriber.size();
+    }
+
+    private void checkBackgroundTaskIsRunning() {
+        if (runningBackgroundTask.get()) {
+            return;
+        }
+
+        if (runningBackgroundTask.compareAndSet(false, true)) {
+            ExecutionService executionService = eventService.nodeEngine.getExecutionService();
+            executionService.scheduleWithRepetition(EXECUTOR_NAME, this::flushAll, lingerMillis, lingerMillis, MILLISECONDS);
+        }
+    }
+
+    private final class EventBatch {
+        private final Address subscriber;
+        private final List<EventEnvelope> envelopes;
+        private int[] orderKeys;
+        private boolean retired;
+
+        EventBatch(Address subscriber) {
+            this.subscriber = subscriber;
+            int initialCapacity = Math.min(batchSize, MAX_INITIAL_CAPACITY);
+            this.envelopes = new ArrayList<>(initialCapacity);
+            this.orderKeys = new int[initialCapacity];
+        }
+
+        /**
+         * Adds the event to the batch.
+         *
+         * @return {@code false} if the batch has been retired and the event has not been added
+         */
+        synchronized boolean add(EventEnvelope eventEnvelope, int orderKey) {
+            if (retired) {
+                return false;
+            }
+            int size = envelopes.size();
+            if (size == orderKeys.length) {
+                orderKeys = Arrays.copyOf(orderKeys, size * 2);
+            }
+            orderKeys[size] = orderKey;
+            envelopes.add(eventEnvelope);
+            if (size + 1 >= batchSize) {
+                flush();
+            }
+            return true;
+        }
+
+        synchronized void flush() {
+            int size = envelopes.size();
+            if (size == 0) {
+                return;
+            }
+
+            // the batch is serialized while transmitting, so the envelopes and order keys can be reused
+            // the envelopes carry their own order keys, the packet doesn't need one
+            eventService.transmit(subscriber, new EventEnvelopeBatch(envelopes, orderKeys), -1);
+            envelopes.clear();
+        }
+
+        /**
+         * Sends the pending events or retires the batch if there are none.
+         *
+         * @return {@code true} if the batch has been retired
+         */
+        synchronized boolean flushOrRetire() {
+            if (envelopes.isEmpty()) {
+                retired = true;
+                return true;
+            }
+            flush();
+            return false;
+        }
+
+        synchronized int size() {
+            return envelopes.size();
+        }
+    }
+}
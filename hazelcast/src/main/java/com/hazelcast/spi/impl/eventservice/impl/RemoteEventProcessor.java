@@ -27,6 +27,8 @@ import static com.hazelcast.internal.util.EmptyStatement.ignore;
  * An extension of the {@link EventProcessor} which logs and swallows any exception while processing the event.
  * The {@link #orderKey} for this processor is equal to the packet partition ID. This means that when running
  * inside a {@link com.hazelcast.internal.util.executor.StripedExecutor}, all events for the same partition ID will be ordered.
+ * The envelopes of an {@link EventEnvelopeBatch} are unpacked by the {@link EventServiceImpl} and each of them is
+ * processed by a processor with its own order key.
  *
  * @see EventServiceImpl#sendEvent(Address, EventEnvelope, int)
  */
@@ -34,17 +36,41 @@ public class RemoteEventProcessor extends EventProcessor implements StripedRunna
 
     private final EventServiceImpl eventService;
     private final Packet packet;
+    private final EventEnvelope envelope;
 
     public RemoteEventProcessor(EventServiceImpl eventService, Packet packet) {
         super(eventService, null, packet.getPartitionId());
         this.eventService = eventService;
         this.packet = packet;
+        this.envelope = null;
+    }
+
+    RemoteEventProcessor(EventServiceImpl eventService, EventEnvelope envelope, int orderKey) {
+        super(eventService, envelope, orderKey);
+        this.eventService = eventService;
+        this.packet = null;
+        this.envelope = envelope;
     }
 
     @Override
     public void run() {
+        if (packet == null) {
+            processSafely(envelope);
+            return;
+        }
+
+        EventEnvelope eventEnvelope;
+        try {
+            eventEnvelope = eventService.nodeEngine.toObject(packet);
+        } catch (Exception e) {
+            eventService.logger.warning("Error while logging processing event", e);
+            return;
+        }
+        processSafely(eventEnvelope);
+    }
+
+    private void processSafely(EventEnvelope eventEnvelope) {
         try {
-            EventEnvelope eventEnvelope = eventService.nodeEngine.toObject(packet);
             process(eventEnvelope);
         } catch (ReplicatedMapCantBeCreatedOnLiteMemberException e) {
             // this happens when there is a lite member in the cluster
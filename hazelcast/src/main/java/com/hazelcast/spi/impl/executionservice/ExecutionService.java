@@ -129,6 +129,18 @@ public interface ExecutionService {
 
     ManagedExecutorService getExecutor(String name);
 
+    /**
+     * Returns the executor with the given name for tasks that may block, e.g. the tasks of an
+     * {@link com.hazelcast.core.IExecutorService}. If
+     * {@link com.hazelcast.spi.properties.ClusterProperty#EXECUTOR_VIRTUAL_THREADS_ENABLED} is set and
+     * virtual threads are supported, a newly created executor runs its tasks on virtual threads; its pool
+     * size still limits the number of tasks running concurrently. An existing executor is returned as is.
+     *
+     * @param name name of the executor
+     * @return managed executor service
+     */
+    ManagedExecutorService getBlockingExecutor(String name);
+
     void shutdownExecutor(String name);
 
     void execute(String name, Runnable command);
@@ -33,12 +33,15 @@ import com.hazelcast.internal.util.executor.ManagedExecutorService;
 import com.hazelcast.internal.util.executor.NamedThreadPoolExecutor;
 import com.hazelcast.internal.util.executor.PoolExecutorThreadFactory;
 import com.hazelcast.internal.util.executor.SingleExecutorThreadFactory;
+import com.hazelcast.internal.util.executor.VirtualThreadFactory;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.InternalCompletableFuture;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.executionservice.TaskScheduler;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -57,7 +60,9 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EXECUTOR_
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.EXECUTOR_PREFIX_SCHEDULED_INTERNAL;
 import static com.hazelcast.internal.metrics.MetricTarget.MANAGEMENT_CENTER;
 import static com.hazelcast.internal.util.ThreadUtil.createThreadPoolName;
+import static com.hazelcast.spi.properties.ClusterProperty.EXECUTOR_VIRTUAL_THREADS_ENABLED;
 import static java.lang.Thread.currentThread;
+import static java.util.Arrays.asList;
 
 @SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:methodcount"})
 public final class ExecutionServiceImpl implements ExecutionService {
@@ -72,9 +77,14 @@ public final class ExecutionServiceImpl implements ExecutionService {
     private static final int QUEUE_MULTIPLIER = 100000;
     private static final int ASYNC_QUEUE_CAPACITY = 100000;
     private static final int OFFLOADABLE_QUEUE_CAPACITY = 100000;
+    // the internal executors that run blocking work: the offloaded entry processors and the map loading
+    private static final Set<String> BLOCKING_EXECUTORS = new HashSet<>(asList(
+            OFFLOADABLE_EXECUTOR, MAP_LOADER_EXECUTOR, MAP_LOAD_ALL_KEYS_EXECUTOR));
 
     private final NodeEngineImpl nodeEngine;
     private final ExecutorService cachedExecutorService;
+    // null if the blocking executors run on platform threads
+    private final ExecutorService virtualThreadExecutorService;
     private final LoggingScheduledExecutor scheduledExecutorService;
     private final TaskScheduler globalTaskScheduler;
     private final ILogger logger;
@@ -90,9 +100,15 @@ public final class ExecutionServiceImpl implements ExecutionService {
             new ConstructorFunction<String, ManagedExecutorService>() {
                 @Override
                 public ManagedExecutorService createNew(String name) {
-                    ExecutorConfig config = nodeEngine.getConfig().findExecutorConfig(name);
-                    int queueCapacity = config.getQueueCapacity() <= 0 ? Integer.MAX_VALUE : config.getQueueCapacity();
-                    return createExecutor(name, config.getPoolSize(), queueCapacity, ExecutorType.CACHED, null);
+                    return createConfiguredExecutor(name, BLOCKING_EXECUTORS.contains(name));
+                }
+            };
+
+    private final ConstructorFunction<String, ManagedExecutorService> blockingConstructor =
+            new ConstructorFunction<String, ManagedExecutorService>() {
+                @Override
+                public ManagedExecutorService createNew(String name) {
+                    return createConfiguredExecutor(name, true);
                 }
             };
 
@@ -101,7 +117,7 @@ public final class ExecutionServiceImpl implements ExecutionService {
                 @Override
                 public ManagedExecutorService createNew(String name) {
                     DurableExecutorConfig cfg = nodeEngine.getConfig().findDurableExecutorConfig(name);
-                    return createExecutor(name, cfg.getPoolSize(), Integer.MAX_VALUE, ExecutorType.CACHED, null);
+                    return createExecutor(name, cfg.getPoolSize(), Integer.MAX_VALUE, ExecutorType.CACHED, null, false);
                 }
             };
 
@@ -110,7 +126,7 @@ public final class ExecutionServiceImpl implements ExecutionService {
                 @Override
                 public ManagedExecutorService createNew(String name) {
                     ScheduledExecutorConfig cfg = nodeEngine.getConfig().findScheduledExecutorConfig(name);
-                    return createExecutor(name, cfg.getPoolSize(), Integer.MAX_VALUE, ExecutorType.CACHED, null);
+                    return createExecutor(name, cfg.getPoolSize(), Integer.MAX_VALUE, ExecutorType.CACHED, null, false);
                 }
             };
 
@@ -132,16 +148,14 @@ public final class ExecutionServiceImpl implements ExecutionService {
                     }
                 });
 
+        this.virtualThreadExecutorService = newVirtualThreadExecutorService(node, hzName, configClassLoader);
+
         ThreadFactory singleExecutorThreadFactory = new SingleExecutorThreadFactory(configClassLoader,
                 createThreadPoolName(hzName, "scheduled"));
         this.scheduledExecutorService = new LoggingScheduledExecutor(logger, 1, singleExecutorThreadFactory);
 
-        int coreSize = Math.max(RuntimeAvailableProcessors.get(), 2);
         // default executors
-        register(SYSTEM_EXECUTOR, coreSize, Integer.MAX_VALUE, ExecutorType.CACHED);
-        register(SCHEDULED_EXECUTOR, coreSize * POOL_MULTIPLIER, coreSize * QUEUE_MULTIPLIER, ExecutorType.CACHED);
-        register(ASYNC_EXECUTOR, coreSize, ASYNC_QUEUE_CAPACITY, ExecutorType.CONCRETE);
-        register(OFFLOADABLE_EXECUTOR, coreSize, OFFLOADABLE_QUEUE_CAPACITY, ExecutorType.CACHED);
+        registerDefaultExecutors();
         this.globalTaskScheduler = getTaskScheduler(SCHEDULED_EXECUTOR);
 
         // register CompletableFuture task
@@ -153,6 +167,41 @@ public final class ExecutionServiceImpl implements ExecutionService {
                 scheduleDurableExecutors));
     }
 
+    private void registerDefaultExecutors() {
+        int coreSize = Math.max(RuntimeAvailableProcessors.get(), 2);
+        register(SYSTEM_EXECUTOR, coreSize, Integer.MAX_VALUE, ExecutorType.CACHED);
+        register(SCHEDULED_EXECUTOR, coreSize * POOL_MULTIPLIER, coreSize * QUEUE_MULTIPLIER, ExecutorType.CACHED);
+        register(ASYNC_EXECUTOR, coreSize, ASYNC_QUEUE_CAPACITY, ExecutorType.CONCRETE);
+        register(OFFLOADABLE_EXECUTOR, coreSize, OFFLOADABLE_QUEUE_CAPACITY, ExecutorType.CACHED);
+    }
+
+    private ExecutorService newVirtualThreadExecutorService(Node node, String hzName, ClassLoader configClassLoader) {
+        if (!node.getProperties().getBoolean(EXECUTOR_VIRTUAL_THREADS_ENABLED)) {
+            return null;
+        }
+        if (!VirtualThreadFactory.isSupported()) {
+            logger.warning(EXECUTOR_VIRTUAL_THREADS_ENABLED.getName() + " is set but virtual threads are not supported "
+                    + "by this JVM; blocking tasks run on platform threads.");
+            return null;
+        }
+
+        logger.info("Blocking tasks run on virtual threads");
+        ThreadFactory threadFactory = new VirtualThreadFactory(createThreadPoolName(hzName, "virtual"), configClassLoader);
+        // a thread per task; virtual threads are cheap to create so there is no point in keeping them around
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0L, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory,
+                (r, executor) -> {
+                    if (logger.isFinestEnabled()) {
+                        logger.finest("Node is shutting down; discarding the task: " + r);
+                    }
+                });
+    }
+
+    private ManagedExecutorService createConfiguredExecutor(String name, boolean blocking) {
+        ExecutorConfig config = nodeEngine.getConfig().findExecutorConfig(name);
+        int queueCapacity = config.getQueueCapacity() <= 0 ? Integer.MAX_VALUE : config.getQueueCapacity();
+        return createExecutor(name, config.getPoolSize(), queueCapacity, ExecutorType.CACHED, null, blocking);
+    }
+
     // only used in tests
     public LoggingScheduledExecutor getScheduledExecutorService() {
         return scheduledExecutorService;
@@ -185,7 +234,8 @@ public final class ExecutionServiceImpl implements ExecutionService {
             }
         }
 
-        ManagedExecutorService executor = createExecutor(name, poolSize, queueCapacity, type, threadFactory);
+        ManagedExecutorService executor = createExecutor(name, poolSize, queueCapacity, type, threadFactory,
+                BLOCKING_EXECUTORS.contains(name));
         if (executors.putIfAbsent(name, executor) != null) {
             throw new IllegalArgumentException("ExecutorService['" + name + "'] already exists!");
         }
@@ -194,13 +244,16 @@ public final class ExecutionServiceImpl implements ExecutionService {
     }
 
     private ManagedExecutorService createExecutor(String name, int poolSize, int queueCapacity,
-                                                  ExecutorType type, ThreadFactory threadFactory) {
+                                                  ExecutorType type, ThreadFactory threadFactory, boolean blocking) {
         ManagedExecutorService executor;
         if (type == ExecutorType.CACHED) {
             if (threadFactory != null) {
                 throw new IllegalArgumentException("Cached executor can not be used with external thread factory");
             }
-            executor = new CachedExecutorServiceDelegate(name, cachedExecutorService, poolSize, queueCapacity);
+            // the pool size still limits the concurrency on virtual threads, e.g. it could match a connection pool
+            ExecutorService delegate = blocking && virtualThreadExecutorService != null
+                    ? virtualThreadExecutorService : cachedExecutorService;
+            executor = new CachedExecutorServiceDelegate(name, delegate, poolSize, queueCapacity);
         } else if (type == ExecutorType.CONCRETE) {
             if (threadFactory == null) {
                 ClassLoader classLoader = nodeEngine.getConfigClassLoader();
@@ -225,6 +278,11 @@ public final class ExecutionServiceImpl implements ExecutionService {
         return ConcurrencyUtil.getOrPutIfAbsent(executors, name, constructor);
     }
 
+    @Override
+    public ManagedExecutorService getBlockingExecutor(String name) {
+        return ConcurrencyUtil.getOrPutIfAbsent(executors, name, blockingConstructor);
+    }
+
     @Override
     public ManagedExecutorService getDurable(String name) {
         return ConcurrencyUtil.getOrPutIfAbsent(durableExecutors, name, durableConstructor);
@@ -327,6 +385,9 @@ public final class ExecutionServiceImpl implements ExecutionService {
         }
         scheduledExecutorService.shutdownNow();
         cachedExecutorService.shutdown();
+        if (virtualThreadExecutorService != null) {
+            virtualThreadExecutorService.shutdown();
+        }
         try {
             scheduledExecutorService.awaitTermination(AWAIT_TIME, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
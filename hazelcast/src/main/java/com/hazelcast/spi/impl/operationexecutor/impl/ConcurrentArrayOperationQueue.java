@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.internal.util.concurrent.ManyToOneConcurrentArrayQueue;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.unpark;
+
+/**
+ * An {@link OperationQueue} for a single consumer, backed by a bounded
+ * {@link ManyToOneConcurrentArrayQueue}.
+ * <p>
+ * Adding a normal task doesn't allocate and doesn't take a lock, and the consumer
+ * drains up to batchSize normal tasks per wakeup into a private buffer, so the
+ * shared head is only published once per batch. Priority tasks are checked before
+ * every task taken from the buffer, so they don't need to wait for the batch to
+ * complete.
+ * <p>
+ * If the array queue is full, tasks end up in an unbounded overflow queue instead of
+ * failing or blocking the producer; the producer could be an IO thread or the
+ * consumer itself. Once a task is in the overflow queue, new tasks are added to it
+ * as well until it has been drained, so the FIFO ordering of tasks added by the same
+ * producer is preserved.
+ * <p>
+ * If there is nothing to take, the consumer idles using the {@link IdleStrategy},
+ * e.g. spin, then yield, then park. If no idle strategy is configured, the consumer
+ * blocks and the producers unpark it.
+ * <p>
+ * This queue can only be used by a single consumer, so it can't be used by the
+ * generic operation threads.
+ */
+public final class ConcurrentArrayOperationQueue implements OperationQueue {
+
+    private final ManyToOneConcurrentArrayQueue<Object> normalQueue;
+    private final Queue<Object> overflowQueue = new ConcurrentLinkedQueue<>();
+    private final Queue<Object> priorityQueue = new ConcurrentLinkedQueue<>();
+    private final IdleStrategy idleStrategy;
+    private final Predicate<Object> drainHandler = this::addToBatch;
+
+    // only accessed by the consumer thread
+    private final Object[] batch;
+    private int batchIndex;
+    private int batchSize;
+    // written by the consumer thread; only read for monitoring, so a stale value is fine
+    private int batchRemaining;
+
+    private volatile boolean consumerBlocked;
+    private Thread consumerThread;
+
+    /**
+     * Creates a new ConcurrentArrayOperationQueue.
+     *
+     * @param capacity     the capacity of the array queue for normal tasks
+     * @param batchSize    the maximum number of normal tasks drained per wakeup
+     * @param idleStrategy the idleStrategy. If null, the consumer will block if the queue is empty.
+     */
+    public ConcurrentArrayOperationQueue(int capacity, int batchSize, IdleStrategy idleStrategy) {
+        checkPositive(capacity, "capacity should be positive");
+        checkPositive(batchSize, "batchSize should be positive");
+        this.normalQueue = new ManyToOneConcurrentArrayQueue<>(capacity);
+        this.batch = new Object[batchSize];
+        this.idleStrategy = idleStrategy;
+    }
+
+    /**
+     * Sets the consumer thread.
+     * <p>
+     * The consumer thread is needed for blocking, so that a producer knows which
+     * thread to wake up. This method should be called before the queue is safely
+     * published.
+     *
+     * @param consumerThread the consumer thread.
+     * @throws NullPointerException when consumerThread null.
+     */
+    public void setConsumerThread(Thread consumerThread) {
+        this.consumerThread = checkNotNull(consumerThread, "consumerThread can't be null");
+    }
+
+    @Override
+    public int normalSize() {
+        return normalQueue.size() + overflowQueue.size() + batchRemaining;
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size();
+    }
+
+    @Override
+    public int size() {
+        return normalSize() + prioritySize();
+    }
+
+    @Override
+    public void add(Object task, boolean priority) {
+        checkNotNull(task, "task can't be null");
+
+        if (priority) {
+            priorityQueue.add(task);
+        } else if (!overflowQueue.isEmpty() || !normalQueue.offer(task)) {
+            overflowQueue.add(task);
+        }
+
+        if (consumerBlocked) {
+            consumerBlocked = false;
+            unpark(consumerThread);
+        }
+    }
+
+    @Override
+    public Object take(boolean priorityOnly) throws InterruptedException {
+        long iteration = 0;
+        for (; ; ) {
+            Object task = priorityQueue.poll();
+            if (task == null && !priorityOnly) {
+                task = nextNormal();
+            }
+
+            if (task != null) {
+                return task;
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            idle(iteration++);
+        }
+    }
+
+    private Object nextNormal() {
+        if (batchIndex == batchSize) {
+            batchIndex = 0;
+            batchSize = 0;
+            normalQueue.drain(drainHandler);
+            if (batchSize == 0) {
+                // the array queue is drained before the overflow queue, since
+                // it contains the tasks that were added before the overflow
+                return overflowQueue.poll();
+            }
+        }
+
+        Object task = batch[batchIndex];
+        batch[batchIndex] = null;
+        batchIndex++;
+        batchRemaining = batchSize - batchIndex;
+        return task;
+    }
+
+    private boolean addToBatch(Object task) {
+        batch[batchSize++] = task;
+        return batchSize < batch.length;
+    }
+
+    private void idle(long iteration) {
+        if (idleStrategy != null) {
+            idleStrategy.idle(iteration);
+            return;
+        }
+
+        consumerBlocked = true;
+        if (isEmpty()) {
+            park();
+        }
+        consumerBlocked = false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        // the size of the array queue is based on the tail sequence, which is claimed before
+        // the producer checks if the consumer is blocked; the slot itself is written lazily
+        return batchIndex == batchSize
+                && priorityQueue.isEmpty() && normalQueue.size() == 0 && overflowQueue.isEmpty();
+    }
+}
@@ -36,6 +36,7 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
 import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
 import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.properties.HazelcastProperty;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -88,6 +89,13 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  */
 @SuppressWarnings("checkstyle:methodcount")
 public final class OperationExecutorImpl implements OperationExecutor, StaticMetricsProvider {
+    // if enabled, the partition threads use bounded array backed queues that are drained in batches
+    static final HazelcastProperty ARRAY_QUEUE_ENABLED
+            = new HazelcastProperty("hazelcast.operation.partitionthread.arrayqueue.enabled", false);
+    static final HazelcastProperty ARRAY_QUEUE_CAPACITY
+            = new HazelcastProperty("hazelcast.operation.partitionthread.arrayqueue.capacity", 65536);
+    static final HazelcastProperty ARRAY_QUEUE_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.operation.partitionthread.arrayqueue.batchsize", 64);
     private static final HazelcastProperty IDLE_STRATEGY
             = new HazelcastProperty("hazelcast.operation.partitionthread.idlestrategy", "block");
     private static final int TERMINATION_TIMEOUT_SECONDS = 3;
@@ -154,19 +162,31 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
         int threadCount = properties.getInteger(PARTITION_OPERATION_THREAD_COUNT);
 
         IdleStrategy idleStrategy = getIdleStrategy(properties, IDLE_STRATEGY);
+        boolean arrayQueueEnabled = properties.getBoolean(ARRAY_QUEUE_ENABLED);
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = createThreadPoolName(hzName, "partition-operation") + threadId;
-            // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
-            MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(idleStrategy);
 
-            OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<Object>());
+            PartitionOperationThread partitionThread;
+            if (arrayQueueEnabled) {
+                // the idle strategy is shared; the BackoffIdleStrategy and BusySpinIdleStrategy are stateless
+                ConcurrentArrayOperationQueue operationQueue = new ConcurrentArrayOperationQueue(
+                        properties.getInteger(ARRAY_QUEUE_CAPACITY), properties.getInteger(ARRAY_QUEUE_BATCH_SIZE), idleStrategy);
+                partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
+                        nodeExtension, partitionOperationRunners, configClassLoader);
+                operationQueue.setConsumerThread(partitionThread);
+            } else {
+                // the normalQueue will be a blocking queue. We don't want to idle, because there are many operation threads.
+                MPSCQueue<Object> normalQueue = new MPSCQueue<Object>(idleStrategy);
+
+                OperationQueue operationQueue = new OperationQueueImpl(normalQueue, new ConcurrentLinkedQueue<Object>());
 
-            PartitionOperationThread partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
-                    nodeExtension, partitionOperationRunners, configClassLoader);
+                partitionThread = new PartitionOperationThread(threadName, threadId, operationQueue, logger,
+                        nodeExtension, partitionOperationRunners, configClassLoader);
+                normalQueue.setConsumerThread(partitionThread);
+            }
 
             threads[threadId] = partitionThread;
-            normalQueue.setConsumerThread(partitionThread);
         }
 
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
@@ -246,7 +266,8 @@ public final class OperationExecutorImpl implements OperationExecutor, StaticMet
     private void scan(OperationRunner[] runners, LiveOperations result) {
         for (OperationRunner runner : runners) {
             Object task = runner.currentTask();
-            if (!(task instanceof Operation) || task.getClass() == Backup.class) {
+            if (!(task instanceof Operation) || task.getClass() == Backup.class
+                    || task.getClass() == BackupBatch.class) {
                 continue;
             }
             Operation operation = (Operation) task;
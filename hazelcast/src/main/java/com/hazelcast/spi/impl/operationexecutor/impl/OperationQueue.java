@@ -91,4 +91,16 @@ public interface OperationQueue {
      * @return the total number of pending operations.
      */
     int size();
+
+    /**
+     * Checks if there are no pending operations.
+     *
+     * Unlike {@link #size()}, this method doesn't traverse the pending
+     * operations, so it is cheap enough to be called after every operation.
+     * The result is only reliable for the consumer; the queue can't become
+     * empty while the consumer isn't taking from it.
+     *
+     * @return {@code true} if there are no pending operations.
+     */
+    boolean isEmpty();
 }
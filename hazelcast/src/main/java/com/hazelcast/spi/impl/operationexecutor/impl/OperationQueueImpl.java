@@ -58,6 +58,17 @@ public final class OperationQueueImpl implements OperationQueue {
         return normalQueue.size() + priorityQueue.size();
     }
 
+    @Override
+    public boolean isEmpty() {
+        // a trigger task is left behind when its priority task was taken before it; take
+        // would skip it, so it is dropped instead of making the queue look non-empty. Only
+        // the consumer calls this method, so the polled task is the peeked trigger task
+        while (normalQueue.peek() == TRIGGER_TASK) {
+            normalQueue.poll();
+        }
+        return normalQueue.isEmpty() && priorityQueue.isEmpty();
+    }
+
     @Override
     public void add(Object task, boolean priority) {
         checkNotNull(task, "task can't be null");
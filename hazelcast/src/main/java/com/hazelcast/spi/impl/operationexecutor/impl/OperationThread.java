@@ -121,6 +121,7 @@ public abstract class OperationThread extends HazelcastManagedThread implements
                 }
 
                 process(task);
+                afterProcess();
             }
         } catch (Throwable t) {
             inspectOutOfMemoryError(t);
@@ -130,6 +131,13 @@ public abstract class OperationThread extends HazelcastManagedThread implements
         }
     }
 
+    /**
+     * Called after every processed task. Can be overridden to do some work, e.g. flushing
+     * buffered output, before the next task is taken.
+     */
+    void afterProcess() {
+    }
+
     private void process(Object task) {
         try {
             if (task.getClass() == Packet.class) {
@@ -20,6 +20,7 @@ import com.hazelcast.instance.impl.NodeExtension;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationservice.impl.ResponseBuffer;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_PARTITION_OPERATION_THREAD_NORMAL_PENDING_COUNT;
@@ -32,6 +33,8 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION
 public final class PartitionOperationThread extends OperationThread {
 
     private final OperationRunner[] partitionOperationRunners;
+    // only accessed by this thread; null if responses are not batched
+    private ResponseBuffer responseBuffer;
 
     @SuppressFBWarnings("EI_EXPOSE_REP")
     public PartitionOperationThread(String name,
@@ -54,6 +57,38 @@ public final class PartitionOperationThread extends OperationThread {
         return partitionOperationRunners[partitionId];
     }
 
+    /**
+     * Returns the buffer for the responses sent by this thread.
+     * <p>
+     * Should only be called by this thread.
+     *
+     * @return the response buffer, or {@code null} if it was not set
+     */
+    public ResponseBuffer getResponseBuffer() {
+        return responseBuffer;
+    }
+
+    /**
+     * Sets the buffer for the responses sent by this thread. The buffer is flushed
+     * as soon as this thread runs out of work.
+     * <p>
+     * Should only be called by this thread.
+     *
+     * @param responseBuffer the response buffer
+     */
+    public void setResponseBuffer(ResponseBuffer responseBuffer) {
+        this.responseBuffer = responseBuffer;
+    }
+
+    @Override
+    void afterProcess() {
+        // from the consumer side a non-empty queue can't turn out to be empty, so the
+        // buffered responses are always flushed before this thread waits for work
+        if (responseBuffer != null && !responseBuffer.isEmpty() && queue.isEmpty()) {
+            responseBuffer.flush();
+        }
+    }
+
     @Probe(name = OPERATION_METRIC_PARTITION_OPERATION_THREAD_PRIORITY_PENDING_COUNT)
     int priorityPendingCount() {
         return queue.prioritySize();
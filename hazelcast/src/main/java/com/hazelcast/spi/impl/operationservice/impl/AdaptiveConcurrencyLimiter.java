@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.util.ConstructorFunction;
+import com.hazelcast.internal.util.counters.MwCounter;
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.internal.util.concurrent.IdleStrategy;
+import com.hazelcast.spi.impl.operationservice.BlockingOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_DISCRIMINATOR_MEMBER;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKPRESSURE_IN_FLIGHT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKPRESSURE_LIMIT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKPRESSURE_PARTITION_IN_FLIGHT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKPRESSURE_PARTITION_LIMIT_AVG;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKPRESSURE_PARTITION_LIMIT_MIN;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_BACKPRESSURE_REJECTED_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_BACKPRESSURE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_BACKPRESSURE_MEMBER;
+import static com.hazelcast.internal.metrics.MetricTarget.MANAGEMENT_CENTER;
+import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.metrics.ProbeUnit.COUNT;
+import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Double.longBitsToDouble;
+import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Limits the number of concurrent invocations per partition and per target member, where the
+ * limits adapt to the observed invocation latency using AIMD (additive increase, multiplicative
+ * decrease), just like the congestion window of TCP.
+ * <p>
+ * When an invocation completes within the latency threshold, the limits it was accounted to grow
+ * by {@code 1/limit}, so by roughly one for every round trip of a full window. The limits only grow
+ * if they are actually used, otherwise a long period of light load would build up a limit that
+ * doesn't protect anything once the load increases. When an invocation exceeds the latency threshold,
+ * the limits are multiplied by {@link #DECREASE_FACTOR}; at most once per threshold period, so a burst
+ * of slow responses that were all sent before the previous decrease doesn't collapse the limit.
+ * <p>
+ * Since the latency is measured from registration to deregistration of the invocation, it includes the
+ * time the operation was waiting in the operation queue of the target member. So a member that falls
+ * behind gets less invocations before its queues build up, instead of getting a fixed number of
+ * invocations per partition no matter how long they have to wait.
+ * <p>
+ * An invocation that doesn't fit into the limits is delayed with an exponential backoff till it fits,
+ * or till the backoff timeout elapses and a {@link HazelcastOverloadException} is thrown.
+ * <p>
+ * The limits are updated with a CAS on the bits of their value, so no concurrent update is lost. The limit
+ * of a member is dropped when the member leaves the cluster.
+ */
+class AdaptiveConcurrencyLimiter implements DynamicMetricsProvider {
+
+    /**
+     * The factor the limit is multiplied with when the latency threshold is exceeded.
+     */
+    static final double DECREASE_FACTOR = 0.9;
+
+    static final int MIN_LIMIT = 1;
+    private static final int MAX_DELAY_MS = 500;
+    private static final IdleStrategy IDLER = new BackoffIdleStrategy(
+            0, 0, MILLISECONDS.toNanos(1), MILLISECONDS.toNanos(MAX_DELAY_MS));
+    private static final AtomicLongFieldUpdater<Limit> LIMIT_BITS = newUpdater(Limit.class, "limitBits");
+    private static final AtomicLongFieldUpdater<Limit> LAST_DECREASE_NANOS = newUpdater(Limit.class, "lastDecreaseNanos");
+
+    private final ConstructorFunction<Address, Limit> memberLimitConstructor;
+    private final ConcurrentMap<Address, Limit> memberLimits = new ConcurrentHashMap<>();
+    private final Limit[] partitionLimits;
+    private final long latencyThresholdNanos;
+    private final long backoffTimeoutNanos;
+    private final MwCounter rejectedCount = newMwCounter();
+
+    AdaptiveConcurrencyLimiter(int partitionCount, int maxConcurrentInvocationsPerPartition,
+                               int maxConcurrentInvocationsPerMember, long latencyThresholdMillis, long backoffTimeoutMillis) {
+        this.latencyThresholdNanos = MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffTimeoutNanos = MILLISECONDS.toNanos(backoffTimeoutMillis);
+        this.partitionLimits = new Limit[partitionCount];
+        for (int k = 0; k < partitionCount; k++) {
+            partitionLimits[k] = new Limit(maxConcurrentInvocationsPerPartition);
+        }
+        this.memberLimitConstructor = address -> new Limit(maxConcurrentInvocationsPerMember);
+    }
+
+    /**
+     * Accounts the invocation to the limits of its partition and target member. If it doesn't fit
+     * and it isn't forced, waits till it fits.
+     *
+     * @param invocation the invocation
+     * @param force      {@code true} if the invocation should be accounted without checking the limits,
+     *                   e.g. because it is an urgent operation or a retry
+     * @throws HazelcastOverloadException if the invocation doesn't fit within the backoff timeout
+     */
+    void acquire(Invocation invocation, boolean force) {
+        Operation op = invocation.op;
+        int partitionId = op.getPartitionId();
+        Address target = invocation.getTargetAddress();
+        Limit partitionLimit = partitionId >= 0 && partitionId < partitionLimits.length ? partitionLimits[partitionId] : null;
+        Limit memberLimit = target == null ? null : getOrPutIfAbsent(memberLimits, target, memberLimitConstructor);
+
+        if (force || op instanceof BlockingOperation) {
+            // blocking operations can legitimately take very long, so they aren't limited and don't feed the latency
+            acquire(partitionLimit);
+            acquire(memberLimit);
+        } else if (!tryAcquire(partitionLimit, memberLimit)) {
+            waitForSpace(invocation, partitionLimit, memberLimit);
+        }
+
+        invocation.partitionLimit = partitionLimit;
+        invocation.memberLimit = memberLimit;
+        invocation.limiterStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Releases the invocation from the limits it was accounted to and adjusts them to its latency.
+     * Takes no action if the invocation isn't accounted to any limit.
+     *
+     * @param invocation the invocation
+     */
+    void release(Invocation invocation) {
+        Limit partitionLimit = invocation.partitionLimit;
+        Limit memberLimit = invocation.memberLimit;
+        invocation.partitionLimit = null;
+        invocation.memberLimit = null;
+
+        long nowNanos = System.nanoTime();
+        long latencyNanos = invocation.op instanceof BlockingOperation ? -1 : nowNanos - invocation.limiterStartNanos;
+        if (partitionLimit != null) {
+            partitionLimit.release(latencyNanos, nowNanos);
+        }
+        if (memberLimit != null) {
+            memberLimit.release(latencyNanos, nowNanos);
+        }
+    }
+
+    /**
+     * Drops the limit of a member that left the cluster. The invocations that are still accounted
+     * to it release it as usual.
+     *
+     * @param address the address of the member
+     */
+    void onMemberLeft(Address address) {
+        memberLimits.remove(address);
+    }
+
+    Limit getPartitionLimit(int partitionId) {
+        return partitionLimits[partitionId];
+    }
+
+    Limit getMemberLimit(Address address) {
+        return memberLimits.get(address);
+    }
+
+    private static void acquire(Limit limit) {
+        if (limit != null) {
+            limit.forceAcquire();
+        }
+    }
+
+    private static boolean tryAcquire(Limit partitionLimit, Limit memberLimit) {
+        if (partitionLimit != null && !partitionLimit.tryAcquire()) {
+            return false;
+        }
+        if (memberLimit != null && !memberLimit.tryAcquire()) {
+            if (partitionLimit != null) {
+                partitionLimit.undoAcquire();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void waitForSpace(Invocation invocation, Limit partitionLimit, Limit memberLimit) {
+        long start = System.nanoTime();
+        for (long idleCount = 0; ; idleCount++) {
+            long elapsedNanos = System.nanoTime() - start;
+            if (elapsedNanos > backoffTimeoutNanos) {
+                rejectedCount.inc();
+                throw new HazelcastOverloadException(String.format("Timed out waiting for the adaptive concurrency limit."
+                                + " partitionLimit = %s, memberLimit = %s, backoffTimeout = %d msecs, elapsed:%d msecs,"
+                                + " invocation: %s",
+                        partitionLimit, memberLimit, NANOSECONDS.toMillis(backoffTimeoutNanos),
+                        NANOSECONDS.toMillis(elapsedNanos), invocation));
+            }
+            IDLER.idle(idleCount);
+            if (tryAcquire(partitionLimit, memberLimit)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        double minLimit = Double.MAX_VALUE;
+        double sumLimit = 0;
+        long inFlight = 0;
+        for (Limit limit : partitionLimits) {
+            double value = limit.value();
+            minLimit = Math.min(minLimit, value);
+            sumLimit += value;
+            inFlight += limit.inFlight();
+        }
+
+        MetricDescriptor partitionsDescriptor = descriptor
+                .copy()
+                .withPrefix(OPERATION_PREFIX_BACKPRESSURE)
+                .withExcludedTarget(MANAGEMENT_CENTER);
+        if (partitionLimits.length > 0) {
+            context.collect(partitionsDescriptor, OPERATION_METRIC_BACKPRESSURE_PARTITION_LIMIT_MIN, MANDATORY, COUNT,
+                    (long) minLimit);
+            context.collect(partitionsDescriptor, OPERATION_METRIC_BACKPRESSURE_PARTITION_LIMIT_AVG, MANDATORY, COUNT,
+                    sumLimit / partitionLimits.length);
+        }
+        context.collect(partitionsDescriptor, OPERATION_METRIC_BACKPRESSURE_PARTITION_IN_FLIGHT, MANDATORY, COUNT, inFlight);
+        context.collect(partitionsDescriptor, OPERATION_METRIC_BACKPRESSURE_REJECTED_COUNT, MANDATORY, COUNT,
+                rejectedCount.get());
+
+        for (Map.Entry<Address, Limit> entry : memberLimits.entrySet()) {
+            Limit limit = entry.getValue();
+            MetricDescriptor memberDescriptor = descriptor
+                    .copy()
+                    .withPrefix(OPERATION_PREFIX_BACKPRESSURE_MEMBER)
+                    .withDiscriminator(OPERATION_DISCRIMINATOR_MEMBER, entry.getKey().toString())
+                    .withExcludedTarget(MANAGEMENT_CENTER);
+            context.collect(memberDescriptor, OPERATION_METRIC_BACKPRESSURE_LIMIT, MANDATORY, COUNT, limit.limit());
+            context.collect(memberDescriptor, OPERATION_METRIC_BACKPRESSURE_IN_FLIGHT, MANDATORY, COUNT, limit.inFlight());
+        }
+    }
+
+    /**
+     * The adaptive limit of a single partition or member.
+     */
+    final class Limit {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final int maxLimit;
+        // the bits of the double value of the limit, so it can be updated with a CAS
+        volatile long limitBits;
+        volatile long lastDecreaseNanos;
+
+        Limit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            this.limitBits = doubleToRawLongBits(maxLimit);
+            this.lastDecreaseNanos = System.nanoTime() - latencyThresholdNanos;
+        }
+
+        int limit() {
+            return (int) value();
+        }
+
+        double value() {
+            return longBitsToDouble(limitBits);
+        }
+
+        int inFlight() {
+            return inFlight.get();
+        }
+
+        void forceAcquire() {
+            inFlight.incrementAndGet();
+        }
+
+        void undoAcquire() {
+            inFlight.decrementAndGet();
+        }
+
+        boolean tryAcquire() {
+            for (; ; ) {
+                int current = inFlight.get();
+                if (current >= limit()) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @param latencyNanos the latency of the released invocation, or a negative value if it should be ignored
+         * @param nowNanos     the current time
+         */
+        void release(long latencyNanos, long nowNanos) {
+            int inFlightBefore = inFlight.getAndDecrement();
+            if (latencyNanos < 0) {
+                return;
+            }
+
+            if (latencyNanos > latencyThresholdNanos) {
+                long lastDecrease = lastDecreaseNanos;
+                // only a single invocation decreases the limit per threshold period
+                if (nowNanos - lastDecrease >= latencyThresholdNanos
+                        && LAST_DECREASE_NANOS.compareAndSet(this, lastDecrease, nowNanos)) {
+                    decrease();
+                }
+            } else {
+                increase(inFlightBefore);
+            }
+        }
+
+        private void decrease() {
+            for (; ; ) {
+                long currentBits = limitBits;
+                double current = longBitsToDouble(currentBits);
+                double decreased = Math.max(MIN_LIMIT, current * DECREASE_FACTOR);
+                if (LIMIT_BITS.compareAndSet(this, currentBits, doubleToRawLongBits(decreased))) {
+                    return;
+                }
+            }
+        }
+
+        private void increase(int inFlightBefore) {
+            for (; ; ) {
+                long currentBits = limitBits;
+                double current = longBitsToDouble(currentBits);
+                if (current >= maxLimit || 2 * inFlightBefore < current) {
+                    return;
+                }
+                double increased = Math.min(maxLimit, current + 1 / current);
+                if (LIMIT_BITS.compareAndSet(this, currentBits, doubleToRawLongBits(increased))) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Limit{limit=" + limit() + ", inFlight=" + inFlight.get() + '}';
+        }
+    }
+}
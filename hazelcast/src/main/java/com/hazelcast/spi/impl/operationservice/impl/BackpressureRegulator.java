@@ -28,6 +28,8 @@ import com.hazelcast.spi.properties.HazelcastProperties;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ADAPTIVE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ADAPTIVE_LATENCY_THRESHOLD_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_BACKOFF_TIMEOUT_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION;
@@ -63,6 +65,8 @@ import static java.util.concurrent.TimeUnit.MINUTES;
  * overloaded.
  * </li>
  * </ol>
+ * When adaptive backpressure is enabled, the maximum number of concurrent invocations per partition and per member
+ * is not fixed, but adapts to the observed invocation latency; see {@link AdaptiveConcurrencyLimiter}.
  */
 class BackpressureRegulator {
 
@@ -78,6 +82,9 @@ class BackpressureRegulator {
     private final int partitionCount;
     private final int maxConcurrentInvocations;
     private final int backoffTimeoutMs;
+    private final int maxConcurrentInvocationsPerPartition;
+    private final boolean adaptive;
+    private final long adaptiveLatencyThresholdMs;
 
     BackpressureRegulator(HazelcastProperties properties, ILogger logger) {
         this.enabled = properties.getBoolean(BACKPRESSURE_ENABLED);
@@ -87,11 +94,15 @@ class BackpressureRegulator {
         this.syncCountdown.set(syncWindow);
         this.maxConcurrentInvocations = getMaxConcurrentInvocations(properties);
         this.backoffTimeoutMs = getBackoffTimeoutMs(properties);
+        this.maxConcurrentInvocationsPerPartition = properties.getInteger(BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION);
+        this.adaptive = enabled && properties.getBoolean(BACKPRESSURE_ADAPTIVE_ENABLED);
+        this.adaptiveLatencyThresholdMs = getAdaptiveLatencyThresholdMs(properties);
 
         if (enabled) {
             logger.info("Backpressure is enabled"
                     + ", maxConcurrentInvocations:" + maxConcurrentInvocations
-                    + ", syncWindow: " + syncWindow);
+                    + ", syncWindow: " + syncWindow
+                    + (adaptive ? ", adaptive latencyThreshold: " + adaptiveLatencyThresholdMs + " ms" : ""));
 
             int backupTimeoutMillis = properties.getInteger(OPERATION_BACKUP_TIMEOUT_MILLIS);
             if (backupTimeoutMillis < MINUTES.toMillis(1)) {
@@ -125,6 +136,15 @@ class BackpressureRegulator {
         return backoffTimeoutMs;
     }
 
+    private long getAdaptiveLatencyThresholdMs(HazelcastProperties props) {
+        long latencyThresholdMs = props.getMillis(BACKPRESSURE_ADAPTIVE_LATENCY_THRESHOLD_MILLIS);
+        if (adaptive && latencyThresholdMs <= 0) {
+            throw new IllegalArgumentException("Can't have '" + BACKPRESSURE_ADAPTIVE_LATENCY_THRESHOLD_MILLIS
+                    + "' with a value smaller than 1");
+        }
+        return latencyThresholdMs;
+    }
+
     private int getMaxConcurrentInvocations(HazelcastProperties props) {
         if (disabled) {
             return Integer.MAX_VALUE;
@@ -160,6 +180,19 @@ class BackpressureRegulator {
         return CallIdFactory.newCallIdSequence(maxConcurrentInvocations, backoffTimeoutMs, concurrencyDetection);
     }
 
+    /**
+     * Creates the limiter for the adaptive backpressure.
+     *
+     * @return the created limiter, or {@code null} if adaptive backpressure is disabled
+     */
+    AdaptiveConcurrencyLimiter newAdaptiveConcurrencyLimiter() {
+        if (!adaptive) {
+            return null;
+        }
+        return new AdaptiveConcurrencyLimiter(partitionCount, maxConcurrentInvocationsPerPartition,
+                maxConcurrentInvocations, adaptiveLatencyThresholdMs, backoffTimeoutMs);
+    }
+
     /**
      * Checks if a sync is forced for the given BackupAwareOperation.
      * <p>
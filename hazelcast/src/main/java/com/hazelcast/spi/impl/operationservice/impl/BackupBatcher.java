@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.util.ConstructorFunction;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
+import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutIfAbsent;
+import static com.hazelcast.internal.util.ThreadUtil.createThreadName;
+import static java.util.concurrent.locks.LockSupport.park;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static java.util.concurrent.locks.LockSupport.unpark;
+
+/**
+ * Coalesces the {@link Backup}s for the same partition and target member into a
+ * {@link BackupBatch}, so a write heavy workload doesn't need a packet per backup.
+ * <p>
+ * A batch is sent as soon as it contains batchSize backups; the remaining backups
+ * are sent by the flush thread one window after the first of them was added. The flush
+ * thread is parked while there are no pending backups. The pending backups of a
+ * partition and target are sent while holding their lock, so the backups of a
+ * partition are received in the order they were created; just like when they are
+ * sent one by one.
+ */
+final class BackupBatcher {
+
+    private final OutboundOperationHandler outboundOperationHandler;
+    private final int partitionCount;
+    private final int batchSize;
+    private final long windowNanos;
+    private final ILogger logger;
+    private final FlushThread flushThread;
+
+    private final ConstructorFunction<Address, AtomicReferenceArray<PendingBackups>> pendingConstructor;
+    private final ConcurrentMap<Address, AtomicReferenceArray<PendingBackups>> pendingPerTarget = new ConcurrentHashMap<>();
+    // the pending backups that have been added to since the last flush of the flush thread
+    private final Queue<PendingBackups> dirtyQueue = new ConcurrentLinkedQueue<>();
+
+    BackupBatcher(OutboundOperationHandler outboundOperationHandler, int partitionCount, int batchSize,
+                  long windowNanos, String hzName, ILogger logger) {
+        this.outboundOperationHandler = outboundOperationHandler;
+        this.partitionCount = partitionCount;
+        this.batchSize = batchSize;
+        this.windowNanos = windowNanos;
+        this.logger = logger;
+        this.pendingConstructor = target -> new AtomicReferenceArray<>(partitionCount);
+        this.flushThread = new FlushThread(hzName);
+    }
+
+    void send(Backup backup, Address target) {
+        int partitionId = backup.getPartitionId();
+        assert partitionId >= 0 && partitionId < partitionCount : "invalid partition: " + partitionId;
+
+        AtomicReferenceArray<PendingBackups> pendingPerPartition
+                = getOrPutIfAbsent(pendingPerTarget, target, pendingConstructor);
+        PendingBackups pending = pendingPerPartition.get(partitionId);
+        if (pending == null) {
+            pendingPerPartition.compareAndSet(partitionId, null, new PendingBackups(target));
+            pending = pendingPerPartition.get(partitionId);
+        }
+        pending.add(backup);
+    }
+
+    void onMemberLeft(Address address) {
+        // the pending backups for the member can't be sent anyway
+        pendingPerTarget.remove(address);
+    }
+
+    void start() {
+        flushThread.start();
+    }
+
+    void shutdown() {
+        flushThread.shutdown();
+        // the backups that are still pending are sent, rather than dropped
+        flushDirty();
+    }
+
+    // just for testing
+    int pendingCount() {
+        int count = 0;
+        for (AtomicReferenceArray<PendingBackups> pendingPerPartition : pendingPerTarget.values()) {
+            for (int partitionId = 0; partitionId < pendingPerPartition.length(); partitionId++) {
+                PendingBackups pending = pendingPerPartition.get(partitionId);
+                if (pending != null) {
+                    count += pending.size();
+                }
+            }
+        }
+        return count;
+    }
+
+    // just for testing
+    Thread.State flushThreadState() {
+        return flushThread.getState();
+    }
+
+    private void flushDirty() {
+        for (; ; ) {
+            PendingBackups pending = dirtyQueue.poll();
+            if (pending == null) {
+                return;
+            }
+            pending.flushDirty();
+        }
+    }
+
+    private final class PendingBackups {
+        private final Address target;
+        private List<Backup> backups = new ArrayList<>();
+        private boolean dirty;
+
+        PendingBackups(Address target) {
+            this.target = target;
+        }
+
+        synchronized void add(Backup backup) {
+            backups.add(backup);
+            if (backups.size() >= batchSize) {
+                flush();
+            } else if (!dirty) {
+                dirty = true;
+                dirtyQueue.add(this);
+                flushThread.wakeup();
+            }
+        }
+
+        synchronized void flushDirty() {
+            dirty = false;
+            flush();
+        }
+
+        synchronized int size() {
+            return backups.size();
+        }
+
+        private void flush() {
+            int size = backups.size();
+            if (size == 0) {
+                return;
+            }
+
+            boolean sent;
+            if (size == 1) {
+                sent = outboundOperationHandler.send(backups.get(0), target);
+                backups.clear();
+            } else {
+                BackupBatch batch = new BackupBatch(backups);
+                batch.setPartitionId(backups.get(0).getPartitionId());
+                sent = outboundOperationHandler.send(batch, target);
+                backups = new ArrayList<>(size);
+            }
+
+            if (!sent && logger.isFinestEnabled()) {
+                logger.finest("Could not send " + size + " backups to " + target);
+            }
+        }
+    }
+
+    private final class FlushThread extends Thread implements OperationHostileThread {
+
+        private volatile boolean running = true;
+        private volatile boolean parked;
+
+        private FlushThread(String hzName) {
+            super(createThreadName(hzName, "BackupBatcherThread"));
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    if (dirtyQueue.isEmpty()) {
+                        parkUntilDirty();
+                        continue;
+                    }
+                    // gives the pending backups a window to fill up
+                    parkNanos(windowNanos);
+                    flushDirty();
+                }
+            } catch (Throwable t) {
+                logger.severe(t);
+            }
+        }
+
+        private void parkUntilDirty() {
+            parked = true;
+            // the queue is checked again after publishing parked, so a concurrent wakeup can't be missed
+            if (dirtyQueue.isEmpty() && running) {
+                park();
+            }
+            parked = false;
+        }
+
+        private void wakeup() {
+            if (parked) {
+                unpark(this);
+            }
+        }
+
+        private void shutdown() {
+            running = false;
+            interrupt();
+        }
+    }
+}
@@ -17,7 +17,9 @@
 package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.internal.partition.ReplicaErrorLogger;
+import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.internal.util.counters.SwCounter;
 import com.hazelcast.logging.ILogger;
@@ -28,17 +30,29 @@ import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.internal.nio.Packet.Type.OPERATION;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.BATCH_BACKUP_ACK_RESPONSE;
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.BATCH_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.CALL_TIMEOUT_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.ERROR_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.NORMAL_RESPONSE;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchBackupAckResponse.OFFSET_CALL_IDS;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchBackupAckResponse.OFFSET_CALL_ID_COUNT;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchResponse.OFFSET_RESPONSES;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchResponse.OFFSET_RESPONSE_COUNT;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_BACKUP_ACKS;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_DATA_LENGTH;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_DATA_PAYLOAD;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_IS_DATA;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_CALL_ID;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_TYPE_ID;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
@@ -81,33 +95,89 @@ public final class InboundResponseHandler implements Consumer<Packet> {
         checkTrue(packet.isFlagRaised(FLAG_OP_RESPONSE), "FLAG_OP_RESPONSE is not set");
 
         byte[] bytes = packet.toByteArray();
-        int typeId = Bits.readInt(bytes, OFFSET_TYPE_ID, useBigEndian);
-        long callId = Bits.readLong(bytes, OFFSET_CALL_ID, useBigEndian);
         Address sender = packet.getConn().getEndPoint();
         try {
-            switch (typeId) {
-                case NORMAL_RESPONSE:
-                    byte backupAcks = bytes[OFFSET_BACKUP_ACKS];
-                    notifyNormalResponse(callId, packet, backupAcks, sender);
-                    break;
-                case BACKUP_ACK_RESPONSE:
-                    notifyBackupComplete(callId);
-                    break;
-                case CALL_TIMEOUT_RESPONSE:
-                    notifyCallTimeout(callId, sender);
-                    break;
-                case ERROR_RESPONSE:
-                    ErrorResponse errorResponse = serializationService.toObject(packet);
-                    notifyErrorResponse(callId, errorResponse.getCause(), sender);
-                    break;
-                default:
-                    logger.severe("Unrecognized type: " + typeId + " packet:" + packet);
+            if (Bits.readInt(bytes, OFFSET_TYPE_ID, useBigEndian) == BATCH_RESPONSE) {
+                notifyBatchResponse(bytes, sender);
+            } else {
+                handleResponse(packet, bytes, 0, bytes.length, sender);
             }
         } catch (Throwable e) {
             logger.severe("While processing response...", e);
         }
     }
 
+    /**
+     * Handles the response at the given offset of the byte-array. The response is either the whole packet, or
+     * it is part of a batch response in which case the packet is {@code null}.
+     */
+    private void handleResponse(Packet packet, byte[] bytes, int offset, int length, Address sender) {
+        int typeId = Bits.readInt(bytes, offset + OFFSET_TYPE_ID, useBigEndian);
+        long callId = Bits.readLong(bytes, offset + OFFSET_CALL_ID, useBigEndian);
+        switch (typeId) {
+            case NORMAL_RESPONSE:
+                byte backupAcks = bytes[offset + OFFSET_BACKUP_ACKS];
+                Object value = packet != null ? packet : batchedNormalResponseValue(bytes, offset, length);
+                notifyNormalResponse(callId, value, backupAcks, sender);
+                break;
+            case BACKUP_ACK_RESPONSE:
+                notifyBackupComplete(callId);
+                break;
+            case BATCH_BACKUP_ACK_RESPONSE:
+                int callIdCount = Bits.readInt(bytes, offset + OFFSET_CALL_ID_COUNT, useBigEndian);
+                for (int i = 0; i < callIdCount; i++) {
+                    notifyBackupComplete(Bits.readLong(bytes, offset + OFFSET_CALL_IDS + i * LONG_SIZE_IN_BYTES,
+                            useBigEndian));
+                }
+                break;
+            case CALL_TIMEOUT_RESPONSE:
+                notifyCallTimeout(callId, sender);
+                break;
+            case ERROR_RESPONSE:
+                Data errorData = packet != null ? packet : new HeapData(Arrays.copyOfRange(bytes, offset, offset + length));
+                ErrorResponse errorResponse = serializationService.toObject(errorData);
+                notifyErrorResponse(callId, errorResponse.getCause(), sender);
+                break;
+            default:
+                logger.severe("Unrecognized type: " + typeId + " packet:" + packet);
+        }
+    }
+
+    /**
+     * Dispatches the responses of a batch response straight from their offsets in the batch.
+     */
+    private void notifyBatchResponse(byte[] bytes, Address sender) {
+        int responseCount = Bits.readInt(bytes, OFFSET_RESPONSE_COUNT, useBigEndian);
+        int offset = OFFSET_RESPONSES;
+        for (int i = 0; i < responseCount; i++) {
+            int responseLength = Bits.readInt(bytes, offset, useBigEndian);
+            offset += INT_SIZE_IN_BYTES;
+            try {
+                handleResponse(null, bytes, offset, responseLength, sender);
+            } catch (Throwable e) {
+                logger.severe("While processing response...", e);
+            }
+            offset += responseLength;
+        }
+    }
+
+    /**
+     * Returns the value of a normal response that is part of a batch response. The value outlives the batch,
+     * so it needs a byte-array of its own: a Data value is copied out directly, which is the same copy the
+     * deserialization of the response would make. Any other value is left to be deserialized by the invocation,
+     * so the response is copied into a packet of its own.
+     */
+    private Object batchedNormalResponseValue(byte[] bytes, int offset, int length) {
+        if (bytes[offset + OFFSET_IS_DATA] == 1) {
+            int dataLength = Bits.readInt(bytes, offset + OFFSET_DATA_LENGTH, useBigEndian);
+            int dataOffset = offset + OFFSET_DATA_PAYLOAD;
+            return new HeapData(Arrays.copyOfRange(bytes, dataOffset, dataOffset + dataLength));
+        }
+        return new Packet(Arrays.copyOfRange(bytes, offset, offset + length))
+                .setPacketType(OPERATION)
+                .raiseFlags(FLAG_OP_RESPONSE);
+    }
+
     public void notifyBackupComplete(long callId) {
         responsesBackup.inc();
 
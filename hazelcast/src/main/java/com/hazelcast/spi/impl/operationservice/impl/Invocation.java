@@ -21,10 +21,12 @@ import com.hazelcast.cluster.Address;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.core.OperationTimeoutException;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.instance.impl.NodeState;
 import com.hazelcast.internal.cluster.ClusterClock;
 import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.jfr.JfrEvents;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.internal.nio.EndpointManager;
 import com.hazelcast.internal.nio.NetworkingService;
@@ -134,6 +136,14 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
     final InvocationFuture future;
     final long callTimeoutMillis;
 
+    /**
+     * The adaptive concurrency limits this invocation is accounted to while it is registered, or {@code null}
+     * if adaptive backpressure is disabled. Only accessed by the {@link AdaptiveConcurrencyLimiter}.
+     */
+    AdaptiveConcurrencyLimiter.Limit partitionLimit;
+    AdaptiveConcurrencyLimiter.Limit memberLimit;
+    long limiterStartNanos;
+
     /**
      * Shows number of times this Invocation is invoked.
      * On each call of {@link #doInvoke(boolean)} method, {@code invokeCount} is incremented by one.
@@ -144,6 +154,12 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
      */
     private volatile int invokeCount;
 
+    /**
+     * The begin timestamp of the JDK Flight Recorder event of this invocation, or
+     * {@link JfrEvents#NOT_RECORDED} if the invocation events are disabled.
+     */
+    private long jfrBeginNanos = JfrEvents.NOT_RECORDED;
+
     /**
      * Shows whether this Invocation is targeting a remote member or not.
      */
@@ -526,6 +542,7 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
             setCallTimeout(op, callTimeoutMillis);
             setCallerAddress(op, context.thisAddress);
             op.setNodeEngine(context.nodeEngine);
+            jfrBeginNanos = JfrEvents.beginInvocation();
 
             boolean isAllowed = context.operationExecutor.isInvocationAllowed(op, isAsync);
             if (!isAllowed && !isMigrationOperation(op)) {
@@ -653,15 +670,25 @@ public abstract class Invocation<T> extends BaseInvocation implements OperationR
     @Override
     protected void complete(Object value) {
         future.complete(value);
-        if (context.invocationRegistry.deregister(this) && taskDoneCallback != null) {
-            context.asyncExecutor.execute(taskDoneCallback);
+        if (context.invocationRegistry.deregister(this)) {
+            onDeregistered(value == CALL_TIMEOUT || value == HEARTBEAT_TIMEOUT ? "timeout"
+                    : value == INTERRUPTED ? "interrupted" : "response");
         }
     }
 
     @Override
     protected void completeExceptionally(Throwable t) {
         future.completeExceptionallyInternal(t);
-        if (context.invocationRegistry.deregister(this) && taskDoneCallback != null) {
+        if (context.invocationRegistry.deregister(this)) {
+            onDeregistered(t instanceof OperationTimeoutException ? "timeout" : "error");
+        }
+    }
+
+    private void onDeregistered(String outcome) {
+        if (jfrBeginNanos != JfrEvents.NOT_RECORDED) {
+            JfrEvents.commitInvocation(jfrBeginNanos, op, targetAddress, invokeCount, outcome);
+        }
+        if (taskDoneCallback != null) {
             context.asyncExecutor.execute(taskDoneCallback);
         }
     }
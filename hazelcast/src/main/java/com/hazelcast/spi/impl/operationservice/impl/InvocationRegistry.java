@@ -22,15 +22,19 @@ import com.hazelcast.core.MemberLeftException;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.metrics.StaticMetricsProvider;
+import com.hazelcast.internal.util.QuickMath;
 import com.hazelcast.internal.util.RuntimeAvailableProcessors;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.sequence.CallIdSequence;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_LAST_CALL_ID;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING;
@@ -50,14 +54,14 @@ import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallI
  * {@link com.hazelcast.spi.impl.operationservice.impl.responses.Response} comes in, the
  * appropriate invocation can be looked up.
  * <p>
- * Some ideas:
- * <ul>
- * <li>Use a ringbuffer to store all invocations instead of a CHM. The call ID can be used as sequence ID for this
- * ringbuffer. It can be that you run in slots that have not been released; if that happens, just keep increasing
- * the sequence (although you now get sequence-gaps).</li>
- * <li>Pre-allocate all invocations. Because the ringbuffer has a fixed capacity, pre-allocation should be easy. Also
- * the PartitionInvocation and TargetInvocation can be folded into Invocation.</li>
- * </ul>
+ * The invocations are stored in a number of stripes, each one an open addressing long-to-object
+ * table that is modified under its own lock and read without locking. The stripe is selected by
+ * the lower bits of the call ID; since the call IDs are handed out in sequence, invocations registered
+ * one after another by different threads end up in different stripes and the response threads looking
+ * them up are spread over the stripes as well. Unlike a {@code ConcurrentHashMap<Long, Invocation>}, registering and deregistering an
+ * invocation doesn't box the call ID and doesn't create a map node, and the slots of deregistered
+ * invocations are reused, so the table of a stripe is only reallocated when the number of pending
+ * invocations outgrows it.
  */
 public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsProvider {
 
@@ -66,25 +70,44 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
     private static final int CONCURRENCY_LEVEL = 16;
 
     private static final int INITIAL_CAPACITY = 1000;
-    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_STRIPE_CAPACITY = 16;
     private static final double HUNDRED_PERCENT = 100d;
 
-    @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING, level = MANDATORY)
-    private final ConcurrentMap<Long, Invocation> invocations;
+    private final Stripe[] stripes;
+    private final int stripeMask;
     private final ILogger logger;
     private final CallIdSequence callIdSequence;
+    private final AdaptiveConcurrencyLimiter limiter;
 
     private volatile boolean alive = true;
 
     public InvocationRegistry(ILogger logger, CallIdSequence callIdSequence) {
+        this(logger, callIdSequence, null);
+    }
+
+    InvocationRegistry(ILogger logger, CallIdSequence callIdSequence, AdaptiveConcurrencyLimiter limiter) {
+        this(logger, callIdSequence, limiter, defaultConcurrencyLevel());
+    }
+
+    InvocationRegistry(ILogger logger, CallIdSequence callIdSequence, AdaptiveConcurrencyLimiter limiter,
+                       int concurrencyLevel) {
         this.logger = logger;
         this.callIdSequence = callIdSequence;
+        this.limiter = limiter;
 
+        int stripeCount = QuickMath.nextPowerOfTwo(concurrencyLevel);
+        int stripeCapacity = QuickMath.nextPowerOfTwo(Math.max(INITIAL_CAPACITY / stripeCount, MIN_STRIPE_CAPACITY));
+        this.stripes = new Stripe[stripeCount];
+        for (int k = 0; k < stripeCount; k++) {
+            stripes[k] = new Stripe(stripeCapacity, Integer.numberOfTrailingZeros(stripeCount));
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    private static int defaultConcurrencyLevel() {
         int coreSize = RuntimeAvailableProcessors.get();
         boolean reallyMultiCore = coreSize >= CORE_SIZE_CHECK;
-        int concurrencyLevel = reallyMultiCore ? coreSize * CORE_SIZE_FACTOR : CONCURRENCY_LEVEL;
-
-        this.invocations = new ConcurrentHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+        return reallyMultiCore ? coreSize * CORE_SIZE_FACTOR : CONCURRENCY_LEVEL;
     }
 
     @Override
@@ -99,7 +122,7 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             return 0;
         }
 
-        return (HUNDRED_PERCENT * invocations.size()) / maxConcurrentInvocations;
+        return (HUNDRED_PERCENT * size()) / maxConcurrentInvocations;
     }
 
     @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_LAST_CALL_ID)
@@ -121,14 +144,25 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
         } catch (HazelcastOverloadException e) {
             throw new HazelcastOverloadException("Failed to start invocation due to overload: " + invocation, e);
         }
+        if (limiter != null) {
+            try {
+                limiter.acquire(invocation, force);
+            } catch (HazelcastOverloadException e) {
+                callIdSequence.complete();
+                throw e;
+            }
+        }
         try {
             // fails with IllegalStateException if the operation is already active
             setCallId(invocation.op, callId);
         } catch (IllegalStateException e) {
             callIdSequence.complete();
+            if (limiter != null) {
+                limiter.release(invocation);
+            }
             throw e;
         }
-        invocations.put(callId, invocation);
+        stripe(callId).put(callId, invocation);
         if (!alive) {
             invocation.notifyError(new HazelcastInstanceNotActiveException());
             return false;
@@ -147,8 +181,12 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
         if (!deactivate(invocation.op)) {
             return false;
         }
-        invocations.remove(invocation.op.getCallId());
+        long callId = invocation.op.getCallId();
+        stripe(callId).remove(callId);
         callIdSequence.complete();
+        if (limiter != null) {
+            limiter.release(invocation);
+        }
         return true;
     }
 
@@ -157,22 +195,41 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
      *
      * @return the number of pending invocations
      */
+    @Probe(name = OPERATION_METRIC_INVOCATION_REGISTRY_INVOCATIONS_PENDING, level = MANDATORY)
     public int size() {
-        return invocations.size();
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
     }
 
+    /**
+     * Returns an iterator over a snapshot of the pending invocations, so the invocations
+     * can be deregistered while iterating.
+     *
+     * @return the iterator
+     */
     @Override
     public Iterator<Invocation> iterator() {
-        return invocations.values().iterator();
+        List<Invocation> snapshot = new ArrayList<>(size());
+        for (Stripe stripe : stripes) {
+            stripe.copyValuesTo(snapshot);
+        }
+        return snapshot.iterator();
     }
 
     /**
-     * Intention to expose the entry set is to mutate it.
+     * Returns a snapshot of the pending invocations by call ID.
      *
      * @return set of invocations in this registry
      */
     public Set<Map.Entry<Long, Invocation>> entrySet() {
-        return invocations.entrySet();
+        Map<Long, Invocation> snapshot = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.copyTo(snapshot);
+        }
+        return snapshot.entrySet();
     }
 
     /**
@@ -182,7 +239,29 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
      * @return the Invocation for the given call ID, or {@code null} if no invocation was found.
      */
     public Invocation get(long callId) {
-        return invocations.get(callId);
+        return stripe(callId).get(callId);
+    }
+
+    // just for testing
+    int rebuildCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.rebuildCount();
+        }
+        return count;
+    }
+
+    // just for testing
+    int maxProbe() {
+        int maxProbe = 0;
+        for (Stripe stripe : stripes) {
+            maxProbe = Math.max(maxProbe, stripe.maxProbe());
+        }
+        return maxProbe;
+    }
+
+    private Stripe stripe(long callId) {
+        return stripes[(int) callId & stripeMask];
     }
 
     public void reset(Throwable cause) {
@@ -206,4 +285,180 @@ public class InvocationRegistry implements Iterable<Invocation>, StaticMetricsPr
             }
         }
     }
+
+    /**
+     * A part of the registry: an open addressing table from call ID to invocation with linear probing.
+     * <p>
+     * The slot of a call ID is taken from the bits above the ones selecting the stripe. So the call IDs of a
+     * stripe, which are handed out in sequence, take consecutive slots like in a ringbuffer, and a new call ID
+     * usually lands on the slot of a call ID that was deregistered one round before.
+     * <p>
+     * Registering and deregistering are done while holding the lock of the stripe, looking up an invocation
+     * is lock-free. A deregistered invocation only clears the value of its slot, so the probing sequences of
+     * the other call IDs stay intact, and a new call ID takes the first slot without a value in its probing
+     * sequence. The key of a slot is written before its value and a reader checks the key again after reading
+     * the value; since call IDs are never reused, a reader never returns the invocation of another call ID.
+     * The table is only rebuilt when more than half of its slots hold a registered invocation.
+     * <p>
+     * Since keys are never cleared, a table that has wrapped around has no empty slot left to end the probing
+     * sequence of a call ID that isn't in the table, e.g. the call ID of a response that arrives after its
+     * invocation timed out. So the table records the longest distance between a call ID's slot and the start
+     * of its probing sequence, and a lookup probes no further than that. Registering a call ID happens-before
+     * any lookup that is expected to find it, so the lookup sees the distance recorded for the call ID.
+     */
+    private static final class Stripe {
+        // call IDs are always positive
+        private static final long EMPTY = 0;
+
+        private final int initialCapacity;
+        private final int slotShift;
+        private volatile Table table;
+        // written under the lock, read without it for the metrics
+        private volatile int size;
+        private int rebuildCount;
+
+        Stripe(int initialCapacity, int slotShift) {
+            this.initialCapacity = initialCapacity;
+            this.slotShift = slotShift;
+            this.table = new Table(initialCapacity, slotShift);
+        }
+
+        synchronized void put(long callId, Invocation invocation) {
+            Table t = table;
+            // at most half of the slots hold an invocation, so there is always a slot without a value
+            if ((size + 1) * 2 > t.keys.length()) {
+                t = rebuild(t);
+            }
+            t.set(t.freeIndexOf(callId), callId, invocation);
+            size++;
+        }
+
+        Invocation get(long callId) {
+            Table t = table;
+            int index = t.indexOf(callId);
+            if (index < 0) {
+                return null;
+            }
+            Invocation invocation = t.values.get(index);
+            // the slot has been reused by another call ID after our invocation was deregistered
+            return t.keys.get(index) == callId ? invocation : null;
+        }
+
+        synchronized void remove(long callId) {
+            Table t = table;
+            int index = t.indexOf(callId);
+            if (index >= 0 && t.values.get(index) != null) {
+                t.values.set(index, null);
+                size--;
+            }
+        }
+
+        synchronized void copyValuesTo(List<Invocation> target) {
+            Table t = table;
+            for (int k = 0; k < t.values.length(); k++) {
+                Invocation invocation = t.values.get(k);
+                if (invocation != null) {
+                    target.add(invocation);
+                }
+            }
+        }
+
+        synchronized void copyTo(Map<Long, Invocation> target) {
+            Table t = table;
+            for (int k = 0; k < t.values.length(); k++) {
+                Invocation invocation = t.values.get(k);
+                if (invocation != null) {
+                    target.put(t.keys.get(k), invocation);
+                }
+            }
+        }
+
+        synchronized int rebuildCount() {
+            return rebuildCount;
+        }
+
+        int maxProbe() {
+            return table.maxProbe;
+        }
+
+        private Table rebuild(Table old) {
+            // after the rebuild the live invocations take at most a quarter of the table
+            Table rebuilt = new Table(Math.max(initialCapacity, QuickMath.nextPowerOfTwo(size * 4)), slotShift);
+            for (int k = 0; k < old.keys.length(); k++) {
+                Invocation invocation = old.values.get(k);
+                if (invocation != null) {
+                    long callId = old.keys.get(k);
+                    rebuilt.set(rebuilt.freeIndexOf(callId), callId, invocation);
+                }
+            }
+            rebuildCount++;
+            table = rebuilt;
+            return rebuilt;
+        }
+    }
+
+    private static final class Table {
+        private final AtomicLongArray keys;
+        private final AtomicReferenceArray<Invocation> values;
+        private final int mask;
+        private final int slotShift;
+        // the longest distance of a call ID from the start of its probing sequence; written under
+        // the lock of the stripe, it only grows
+        private volatile int maxProbe;
+
+        Table(int capacity, int slotShift) {
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+            this.slotShift = slotShift;
+        }
+
+        /**
+         * Returns the slot of the call ID, or {@code -1} if it isn't in the table.
+         */
+        int indexOf(long callId) {
+            int index = startOf(callId);
+            int maxProbe = this.maxProbe;
+            for (int k = 0; k <= maxProbe; k++) {
+                long key = keys.get(index);
+                if (key == callId) {
+                    return index;
+                }
+                if (key == Stripe.EMPTY) {
+                    return -1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the first slot without an invocation in the probing sequence of the call ID.
+         */
+        int freeIndexOf(long callId) {
+            int index = startOf(callId);
+            while (values.get(index) != null) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        /**
+         * Puts the invocation of the call ID in the given slot, which was returned by {@link #freeIndexOf(long)}.
+         */
+        void set(int index, long callId, Invocation invocation) {
+            int probe = (index - startOf(callId)) & mask;
+            if (probe > maxProbe) {
+                maxProbe = probe;
+            }
+            // the key is written before the value, so a reader of the previous call ID of the slot
+            // that reads the new value also reads the new key and discards the value
+            keys.set(index, callId);
+            values.set(index, invocation);
+        }
+
+        private int startOf(long callId) {
+            return (int) (callId >>> slotShift) & mask;
+        }
+    }
 }
@@ -16,6 +16,7 @@
 
 package com.hazelcast.spi.impl.operationservice.impl;
 
+import com.hazelcast.cluster.Address;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
 import com.hazelcast.internal.partition.InternalPartition;
@@ -49,10 +50,14 @@ final class OperationBackupHandler {
     private final NodeEngineImpl nodeEngine;
     private final BackpressureRegulator backpressureRegulator;
     private final OutboundOperationHandler outboundOperationHandler;
+    // null if backups are not batched
+    private final BackupBatcher backupBatcher;
     private final ILogger logger;
 
-    OperationBackupHandler(OperationServiceImpl operationService, OutboundOperationHandler outboundOperationHandler) {
+    OperationBackupHandler(OperationServiceImpl operationService, OutboundOperationHandler outboundOperationHandler,
+                           BackupBatcher backupBatcher) {
         this.outboundOperationHandler = outboundOperationHandler;
+        this.backupBatcher = backupBatcher;
         this.node = operationService.node;
         this.nodeEngine = operationService.nodeEngine;
         this.backpressureRegulator = operationService.backpressureRegulator;
@@ -197,6 +202,14 @@ final class OperationBackupHandler {
         return sendSyncBackups;
     }
 
+    private void send(Backup backup, Address target) {
+        if (backupBatcher == null) {
+            outboundOperationHandler.send(backup, target);
+        } else {
+            backupBatcher.send(backup, target);
+        }
+    }
+
     private int sendSingleBackup(BackupAwareOperation backupAwareOp, InternalPartition partition,
                                  long[] replicaVersions, int syncBackups) {
         // Since there is only one replica, replica index is `1`
@@ -225,7 +238,7 @@ final class OperationBackupHandler {
                 boolean isSyncBackup = replicaIndex <= syncBackups;
 
                 Backup backup = newBackup(backupAwareOp, backupOpData, replicaVersions, replicaIndex, isSyncBackup);
-                outboundOperationHandler.send(backup, target.address());
+                send(backup, target.address());
 
                 if (isSyncBackup) {
                     sendSyncBackups++;
@@ -265,7 +278,7 @@ final class OperationBackupHandler {
             boolean isSyncBackup = syncBackups == 1;
 
             Backup backup = newBackup(backupAwareOp, backupOp, replicaVersions, 1, isSyncBackup);
-            outboundOperationHandler.send(backup, target.address());
+            send(backup, target.address());
 
             if (isSyncBackup) {
                 return 1;
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.core.DistributedObjectEvent;
+import com.hazelcast.core.DistributedObjectListener;
+import com.hazelcast.internal.metrics.DynamicMetricsProvider;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.util.ConstructorFunction;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.LatencyHistogram;
+import com.hazelcast.internal.util.LatencyHistogram.Snapshot;
+import com.hazelcast.spi.impl.operationservice.NamedOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_DISCRIMINATOR_NAME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_DISCRIMINATOR_OPERATION;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_LATENCY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_LATENCY_MAX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_LATENCY_P50;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_LATENCY_P99;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_LATENCY_P999;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_LATENCY_OBJECT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_TAG_SERVICE;
+import static com.hazelcast.internal.metrics.MetricTarget.MANAGEMENT_CENTER;
+import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.internal.metrics.ProbeUnit.COUNT;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static com.hazelcast.internal.util.ConcurrencyUtil.getOrPutIfAbsent;
+
+/**
+ * Tracks the latency distribution of the operations executed by the {@link OperationRunnerImpl}s,
+ * per operation class and per distributed object the operation works on.
+ * <p>
+ * The latency is the time spent in the operation runner, so it doesn't include the time the
+ * operation was queued, nor the time an offloaded or parked operation is waiting for completion.
+ * <p>
+ * The count, p50/p99/p999 and max latencies of the last interval are published as metrics, so
+ * they show up in the diagnostics by the {@link com.hazelcast.internal.diagnostics.MetricsPlugin}
+ * as well. Since the metrics can be collected by several collectors at different rates, an interval
+ * isn't ended by every collection, but by the first collection after the minimum interval has passed;
+ * the other collections publish the last interval again. The histograms of a distributed object are
+ * removed when it is destroyed.
+ */
+final class OperationLatencyTracker implements DynamicMetricsProvider, DistributedObjectListener {
+
+    private static final double P50 = 50;
+    private static final double P99 = 99;
+    private static final double P999 = 99.9;
+    private static final long NEVER = -1;
+
+    private static final ConstructorFunction<Class, Latency> OPERATION_LATENCY_CONSTRUCTOR = key -> new Latency();
+    private static final ConstructorFunction<String, Latency> OBJECT_LATENCY_CONSTRUCTOR = key -> new Latency();
+    private static final ConstructorFunction<String, ConcurrentMap<String, Latency>> SERVICE_CONSTRUCTOR
+            = key -> new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Class, Latency> latencyPerOperation = new ConcurrentHashMap<>();
+    // service name -> object name -> latency
+    private final ConcurrentMap<String, ConcurrentMap<String, Latency>> latencyPerObject = new ConcurrentHashMap<>();
+    private final long minIntervalMillis;
+    private final AtomicLong intervalStartMillis = new AtomicLong(NEVER);
+
+    /**
+     * @param minIntervalMillis the minimum duration of an interval
+     */
+    OperationLatencyTracker(long minIntervalMillis) {
+        this.minIntervalMillis = minIntervalMillis;
+    }
+
+    void record(Operation op, long latencyNanos) {
+        getOrPutIfAbsent(latencyPerOperation, op.getClass(), OPERATION_LATENCY_CONSTRUCTOR).histogram.recordValue(latencyNanos);
+
+        if (op instanceof NamedOperation) {
+            String serviceName = op.getServiceName();
+            String name = ((NamedOperation) op).getName();
+            if (serviceName != null && name != null) {
+                ConcurrentMap<String, Latency> latencies = getOrPutIfAbsent(latencyPerObject, serviceName, SERVICE_CONSTRUCTOR);
+                getOrPutIfAbsent(latencies, name, OBJECT_LATENCY_CONSTRUCTOR).histogram.recordValue(latencyNanos);
+            }
+        }
+    }
+
+    // just for testing
+    LatencyHistogram getHistogram(Class<? extends Operation> operationClass) {
+        Latency latency = latencyPerOperation.get(operationClass);
+        return latency == null ? null : latency.histogram;
+    }
+
+    // just for testing
+    LatencyHistogram getHistogram(String serviceName, String name) {
+        Map<String, Latency> latencies = latencyPerObject.get(serviceName);
+        Latency latency = latencies == null ? null : latencies.get(name);
+        return latency == null ? null : latency.histogram;
+    }
+
+    @Override
+    public void distributedObjectCreated(DistributedObjectEvent event) {
+        // NOP
+    }
+
+    @Override
+    public void distributedObjectDestroyed(DistributedObjectEvent event) {
+        Map<String, Latency> latencies = latencyPerObject.get(event.getServiceName());
+        if (latencies != null) {
+            latencies.remove(event.getObjectName());
+        }
+    }
+
+    @Override
+    public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        boolean endInterval = tryEndInterval();
+
+        for (Map.Entry<Class, Latency> entry : latencyPerOperation.entrySet()) {
+            MetricDescriptor operationDescriptor = descriptor
+                    .copy()
+                    .withPrefix(OPERATION_PREFIX_LATENCY)
+                    .withDiscriminator(OPERATION_DISCRIMINATOR_OPERATION, entry.getKey().getName())
+                    .withExcludedTarget(MANAGEMENT_CENTER);
+            collect(operationDescriptor, context, entry.getValue().lastInterval(endInterval));
+        }
+
+        for (Map.Entry<String, ConcurrentMap<String, Latency>> serviceEntry : latencyPerObject.entrySet()) {
+            for (Map.Entry<String, Latency> entry : serviceEntry.getValue().entrySet()) {
+                MetricDescriptor objectDescriptor = descriptor
+                        .copy()
+                        .withPrefix(OPERATION_PREFIX_LATENCY_OBJECT)
+                        .withDiscriminator(OPERATION_DISCRIMINATOR_NAME, entry.getKey())
+                        .withTag(OPERATION_TAG_SERVICE, serviceEntry.getKey())
+                        .withExcludedTarget(MANAGEMENT_CENTER);
+                collect(objectDescriptor, context, entry.getValue().lastInterval(endInterval));
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if the calling collection ends the current interval.
+     */
+    private boolean tryEndInterval() {
+        long now = Clock.currentTimeMillis();
+        long start = intervalStartMillis.get();
+        return (start == NEVER || now - start >= minIntervalMillis) && intervalStartMillis.compareAndSet(start, now);
+    }
+
+    private static void collect(MetricDescriptor descriptor, MetricsCollectionContext context, Snapshot snapshot) {
+        if (snapshot == null) {
+            // created during the current interval
+            return;
+        }
+
+        context.collect(descriptor, OPERATION_METRIC_LATENCY_COUNT, MANDATORY, COUNT, snapshot.count());
+        context.collect(descriptor, OPERATION_METRIC_LATENCY_P50, MANDATORY, NS, snapshot.valueAtPercentile(P50));
+        context.collect(descriptor, OPERATION_METRIC_LATENCY_P99, MANDATORY, NS, snapshot.valueAtPercentile(P99));
+        context.collect(descriptor, OPERATION_METRIC_LATENCY_P999, MANDATORY, NS, snapshot.valueAtPercentile(P999));
+        context.collect(descriptor, OPERATION_METRIC_LATENCY_MAX, MANDATORY, NS, snapshot.max());
+    }
+
+    private static final class Latency {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private volatile Snapshot lastInterval;
+
+        Snapshot lastInterval(boolean endInterval) {
+            if (endInterval) {
+                lastInterval = histogram.getIntervalSnapshot();
+            }
+            return lastInterval;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.instance.impl.NodeState;
 import com.hazelcast.instance.impl.OutOfMemoryErrorDispatcher;
+import com.hazelcast.internal.jfr.JfrEvents;
 import com.hazelcast.internal.metrics.ExcludedMetricTargets;
 import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsRegistry;
@@ -59,6 +60,7 @@ import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationResponseHandler;
 import com.hazelcast.spi.impl.operationservice.ReadonlyOperation;
 import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
@@ -114,6 +116,7 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
 
     private final Counter failedBackupsCounter;
     private final OperationBackupHandler backupHandler;
+    private final OperationLatencyTracker latencyTracker;
 
     // has only meaning for metrics.
     private final int genericId;
@@ -141,6 +144,7 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
         this.staleReadOnMigrationEnabled = !node.getProperties().getBoolean(DISABLE_STALE_READ_ON_PARTITION_MIGRATION);
         this.failedBackupsCounter = failedBackupsCounter;
         this.backupHandler = operationService.backupHandler;
+        this.latencyTracker = operationService.latencyTracker;
         // only a ad-hoc operation runner will be called concurrently
         this.executedOperationsCounter = partitionId == AD_HOC_PARTITION_ID ? newMwCounter() : newSwCounter();
     }
@@ -194,8 +198,13 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
     @Override
     public void run(Operation op) {
         executedOperationsCounter.inc();
+        long startNanos = latencyTracker == null ? 0 : System.nanoTime();
+        Object jfrEvent = JfrEvents.isOperationEnabled() ? JfrEvents.beginOperation() : null;
 
         boolean publishCurrentTask = publishCurrentTask();
+        // an operation can be run from within another task, e.g. the backups of a BackupBatch,
+        // so the enclosing task is restored afterwards
+        Object enclosingTask = currentTask;
 
         if (publishCurrentTask) {
             currentTask = op;
@@ -219,7 +228,13 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
             handleOperationError(op, e);
         } finally {
             if (publishCurrentTask) {
-                currentTask = null;
+                currentTask = enclosingTask;
+            }
+            if (latencyTracker != null) {
+                latencyTracker.record(op, System.nanoTime() - startNanos);
+            }
+            if (jfrEvent != null) {
+                JfrEvents.commitOperation(jfrEvent, op);
             }
         }
     }
@@ -374,7 +389,7 @@ class OperationRunnerImpl extends OperationRunner implements StaticMetricsProvid
 
         operation.logError(e);
 
-        if (operation instanceof Backup) {
+        if (operation instanceof Backup || operation instanceof BackupBatch) {
             failedBackupsCounter.inc();
             return;
         }
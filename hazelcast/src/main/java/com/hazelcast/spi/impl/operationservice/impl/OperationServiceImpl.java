@@ -28,6 +28,7 @@ import com.hazelcast.internal.metrics.StaticMetricsProvider;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.logging.ILogger;
@@ -46,6 +47,7 @@ import com.hazelcast.spi.impl.operationservice.OperationService;
 import com.hazelcast.spi.impl.operationservice.PartitionTaskFactory;
 import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
 import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import java.util.ArrayList;
 import java.util.BitSet;
@@ -74,7 +76,13 @@ import static com.hazelcast.spi.impl.operationservice.InvocationBuilder.DEFAULT_
 import static com.hazelcast.spi.impl.operationservice.Operations.isJoinOperation;
 import static com.hazelcast.spi.impl.operationservice.Operations.isWanReplicationOperation;
 import static com.hazelcast.spi.properties.ClusterProperty.FAIL_ON_INDETERMINATE_OPERATION_STATE;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BACKUP_BATCH_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BACKUP_BATCH_WINDOW_MICROS;
 import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_CALL_TIMEOUT_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_LATENCY_HISTOGRAMS_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_RESPONSE_BATCH_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.spi.properties.ClusterProperty.SERIALIZATION_POOLED_BUFFERS_ENABLED;
 import static java.util.Collections.newSetFromMap;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -101,6 +109,9 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 public final class OperationServiceImpl implements StaticMetricsProvider, LiveOperationsTracker, OperationService {
 
     private static final long TERMINATION_TIMEOUT_MILLIS = SECONDS.toMillis(10);
+    private static final int POOLED_BUFFER_MIN_SIZE = 1024;
+    private static final int POOLED_BUFFER_MAX_SIZE = 1024 * 1024;
+    private static final int POOLED_BUFFERS_PER_SIZE_CLASS = 64;
 
     // contains the current executing asyncOperations. This information is needed for the operation-heartbeats.
     // operations are added/removed using the {@link Offload} functionality.
@@ -126,7 +137,11 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     final Node node;
     final ILogger logger;
     final OperationBackupHandler backupHandler;
+    // null if backups are not batched
+    final BackupBatcher backupBatcher;
+    final OperationLatencyTracker latencyTracker;
     final BackpressureRegulator backpressureRegulator;
+    final AdaptiveConcurrencyLimiter concurrencyLimiter;
     final OutboundResponseHandler outboundResponseHandler;
     final OutboundOperationHandler outboundOperationHandler;
     volatile Invocation.Context invocationContext;
@@ -139,6 +154,7 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     private final long invocationRetryPauseMillis;
     private final boolean failOnIndeterminateOperationState;
 
+    @SuppressWarnings("checkstyle:executablestatementcount")
     public OperationServiceImpl(NodeEngineImpl nodeEngine) {
         this.nodeEngine = nodeEngine;
         this.node = nodeEngine.getNode();
@@ -150,25 +166,40 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         this.invocationRetryPauseMillis = node.getProperties().getMillis(ClusterProperty.INVOCATION_RETRY_PAUSE);
         this.failOnIndeterminateOperationState = nodeEngine.getProperties().getBoolean(FAIL_ON_INDETERMINATE_OPERATION_STATE);
 
+        this.latencyTracker = node.getProperties().getBoolean(OPERATION_LATENCY_HISTOGRAMS_ENABLED)
+                // an interval ends at most at every collection of the metrics service
+                ? new OperationLatencyTracker(SECONDS.toMillis(node.getConfig().getMetricsConfig()
+                        .getCollectionFrequencySeconds()) / 2)
+                : null;
+
         this.backpressureRegulator = new BackpressureRegulator(
                 node.getProperties(), node.getLogger(BackpressureRegulator.class));
 
+        ByteArrayPool byteArrayPool = node.getProperties().getBoolean(SERIALIZATION_POOLED_BUFFERS_ENABLED)
+                ? new ByteArrayPool(POOLED_BUFFER_MIN_SIZE, POOLED_BUFFER_MAX_SIZE, POOLED_BUFFERS_PER_SIZE_CLASS)
+                : null;
+
         this.outboundResponseHandler = new OutboundResponseHandler(thisAddress, serializationService,
-                node.getLogger(OutboundResponseHandler.class));
+                node.getLogger(OutboundResponseHandler.class), byteArrayPool,
+                node.getProperties().getInteger(OPERATION_RESPONSE_BATCH_SIZE));
 
+        this.concurrencyLimiter = backpressureRegulator.newAdaptiveConcurrencyLimiter();
         this.invocationRegistry = new InvocationRegistry(
                 node.getLogger(OperationServiceImpl.class),
-                backpressureRegulator.newCallIdSequence(nodeEngine.getConcurrencyDetection()));
+                backpressureRegulator.newCallIdSequence(nodeEngine.getConcurrencyDetection()),
+                concurrencyLimiter);
 
         this.invocationMonitor = new InvocationMonitor(
                 nodeEngine, thisAddress, node.getProperties(), invocationRegistry,
                 node.getLogger(InvocationMonitor.class), serializationService, nodeEngine.getServiceManager());
 
-        this.outboundOperationHandler = new OutboundOperationHandler(node, thisAddress, serializationService);
-
-        this.backupHandler = new OperationBackupHandler(this, outboundOperationHandler);
+        this.outboundOperationHandler = new OutboundOperationHandler(node, thisAddress, serializationService,
+                byteArrayPool);
 
         String hzName = nodeEngine.getHazelcastInstance().getName();
+        this.backupBatcher = newBackupBatcher(hzName);
+        this.backupHandler = new OperationBackupHandler(this, outboundOperationHandler, backupBatcher);
+
         ClassLoader configClassLoader = node.getConfigClassLoader();
         this.inboundResponseHandlerSupplier = new InboundResponseHandlerSupplier(
                 configClassLoader, invocationRegistry, hzName, nodeEngine);
@@ -182,6 +213,16 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
                 node.getProperties(), hzName);
     }
 
+    private BackupBatcher newBackupBatcher(String hzName) {
+        HazelcastProperties properties = node.getProperties();
+        int batchSize = properties.getInteger(OPERATION_BACKUP_BATCH_SIZE);
+        if (batchSize <= 1) {
+            return null;
+        }
+        return new BackupBatcher(outboundOperationHandler, properties.getInteger(PARTITION_COUNT), batchSize,
+                properties.getNanos(OPERATION_BACKUP_BATCH_WINDOW_MICROS), hzName, node.getLogger(BackupBatcher.class));
+    }
+
     public OutboundResponseHandler getOutboundResponseHandler() {
         return outboundResponseHandler;
     }
@@ -446,6 +487,13 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
 
     public void onMemberLeft(MemberImpl member) {
         invocationMonitor.onMemberLeft(member);
+        outboundResponseHandler.onMemberLeft();
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.onMemberLeft(member.getAddress());
+        }
+        if (backupBatcher != null) {
+            backupBatcher.onMemberLeft(member.getAddress());
+        }
     }
 
     @Override
@@ -462,6 +510,12 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
     public void provideStaticMetrics(MetricsRegistry registry) {
         registry.registerStaticMetrics(this, OPERATION_PREFIX);
         registry.provideMetrics(invocationRegistry, invocationMonitor, inboundResponseHandlerSupplier, operationExecutor);
+        if (latencyTracker != null) {
+            registry.registerDynamicMetricsProvider(latencyTracker);
+        }
+        if (concurrencyLimiter != null) {
+            registry.registerDynamicMetricsProvider(concurrencyLimiter);
+        }
     }
 
     public void start() {
@@ -472,6 +526,12 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
         operationExecutor.start();
         inboundResponseHandlerSupplier.start();
         slowOperationDetector.start();
+        if (latencyTracker != null) {
+            nodeEngine.getProxyService().addProxyListener(latencyTracker);
+        }
+        if (backupBatcher != null) {
+            backupBatcher.start();
+        }
     }
 
     private void initInvocationContext() {
@@ -526,5 +586,8 @@ public final class OperationServiceImpl implements StaticMetricsProvider, LiveOp
 
         operationExecutor.shutdown();
         slowOperationDetector.shutdown();
+        if (backupBatcher != null) {
+            backupBatcher.shutdown();
+        }
     }
 }
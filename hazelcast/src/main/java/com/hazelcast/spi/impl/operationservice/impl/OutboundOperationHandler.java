@@ -18,6 +18,7 @@ package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.internal.nio.Packet;
@@ -34,11 +35,22 @@ public class OutboundOperationHandler {
     private final Address thisAddress;
     private final InternalSerializationService serializationService;
     private final Node node;
+    private final ByteArrayPool byteArrayPool;
 
     public OutboundOperationHandler(Node node, Address thisAddress, InternalSerializationService serializationService) {
+        this(node, thisAddress, serializationService, null);
+    }
+
+    /**
+     * @param byteArrayPool the pool to serialize operations into or {@code null} to serialize
+     *                      them into exactly sized byte-arrays.
+     */
+    public OutboundOperationHandler(Node node, Address thisAddress, InternalSerializationService serializationService,
+                                    ByteArrayPool byteArrayPool) {
         this.node = node;
         this.thisAddress = thisAddress;
         this.serializationService = serializationService;
+        this.byteArrayPool = byteArrayPool;
     }
 
     public boolean send(Operation op, Address target) {
@@ -53,14 +65,20 @@ public class OutboundOperationHandler {
     }
 
     public boolean send(Operation op, Connection connection) {
-        byte[] bytes = serializationService.toBytes(op);
         int partitionId = op.getPartitionId();
-        Packet packet = new Packet(bytes, partitionId).setPacketType(Packet.Type.OPERATION);
+        Packet packet = byteArrayPool == null
+                ? new Packet(serializationService.toBytes(op), partitionId)
+                : new Packet(serializationService.toPooledBytes(op, byteArrayPool), partitionId);
+        packet.setPacketType(Packet.Type.OPERATION);
 
         if (op.isUrgent()) {
             packet.raiseFlags(FLAG_URGENT);
         }
 
-        return node.getEndpointManager(MEMBER).transmit(packet, connection);
+        if (node.getEndpointManager(MEMBER).transmit(packet, connection)) {
+            return true;
+        }
+        packet.release();
+        return false;
     }
 }
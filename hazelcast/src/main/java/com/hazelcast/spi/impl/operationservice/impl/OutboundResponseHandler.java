@@ -17,6 +17,8 @@
 package com.hazelcast.spi.impl.operationservice.impl;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
+import com.hazelcast.internal.serialization.impl.bufferpool.PooledByteArray;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.internal.nio.EndpointManager;
@@ -25,14 +27,20 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationResponseHandler;
 import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.impl.operationexecutor.impl.PartitionOperationThread;
+import com.hazelcast.spi.impl.operationservice.impl.responses.BatchBackupAckResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.Response;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_DATA_SERIALIZABLE;
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.CONSTANT_TYPE_NULL;
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.writeInt;
 import static com.hazelcast.internal.nio.Bits.writeIntB;
 import static com.hazelcast.internal.nio.Bits.writeLong;
@@ -40,8 +48,14 @@ import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
 import static com.hazelcast.internal.nio.Packet.Type.OPERATION;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.BACKUP_ACK_RESPONSE;
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.BATCH_BACKUP_ACK_RESPONSE;
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.BATCH_RESPONSE;
 import static com.hazelcast.spi.impl.SpiDataSerializerHook.NORMAL_RESPONSE;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.BackupAckResponse.BACKUP_RESPONSE_SIZE_IN_BYTES;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchBackupAckResponse.OFFSET_CALL_IDS;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchBackupAckResponse.OFFSET_CALL_ID_COUNT;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchResponse.OFFSET_RESPONSES;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchResponse.OFFSET_RESPONSE_COUNT;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_BACKUP_ACKS;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_DATA_LENGTH;
 import static com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse.OFFSET_DATA_PAYLOAD;
@@ -67,14 +81,35 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     private final InternalSerializationService serializationService;
     private final boolean useBigEndian;
     private final ILogger logger;
+    private final ByteArrayPool byteArrayPool;
+    private final int responseBatchSize;
+    // incremented when a member leaves; the response buffers use it to drop their stale targets
+    private final AtomicInteger membersLeft = new AtomicInteger();
 
     OutboundResponseHandler(Address thisAddress,
                             InternalSerializationService serializationService,
                             ILogger logger) {
+        this(thisAddress, serializationService, logger, null, 1);
+    }
+
+    OutboundResponseHandler(Address thisAddress,
+                            InternalSerializationService serializationService,
+                            ILogger logger,
+                            ByteArrayPool byteArrayPool) {
+        this(thisAddress, serializationService, logger, byteArrayPool, 1);
+    }
+
+    OutboundResponseHandler(Address thisAddress,
+                            InternalSerializationService serializationService,
+                            ILogger logger,
+                            ByteArrayPool byteArrayPool,
+                            int responseBatchSize) {
         this.thisAddress = thisAddress;
         this.serializationService = serializationService;
         this.useBigEndian = serializationService.getByteOrder() == BIG_ENDIAN;
         this.logger = logger;
+        this.byteArrayPool = byteArrayPool;
+        this.responseBatchSize = responseBatchSize;
     }
 
     @Override
@@ -111,11 +146,11 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
             throw new IllegalArgumentException("Target is this node! -> " + target + ", response: " + response);
         }
 
-        byte[] bytes = serializationService.toBytes(response);
+        Packet packet = byteArrayPool == null
+                ? new Packet(serializationService.toBytes(response), -1)
+                : new Packet(serializationService.toPooledBytes(response, byteArrayPool), -1);
 
-        Packet packet = newResponsePacket(bytes, response.isUrgent());
-
-        return transmit(target, packet, endpointManager);
+        return transmitResponse(target, initResponsePacket(packet, response.isUrgent()), endpointManager);
     }
 
     private boolean sendNormalResponse(EndpointManager endpointManager, Address target, long callId,
@@ -124,11 +159,12 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         Packet packet = toNormalResponsePacket(callId, (byte) backupAcks, urgent, value);
 
-        return transmit(target, packet, endpointManager);
+        return transmitResponse(target, packet, endpointManager);
     }
 
     Packet toNormalResponsePacket(long callId, int backupAcks, boolean urgent, Object value) {
         byte[] bytes;
+        PooledByteArray pooledBytes = null;
         boolean isData = value instanceof Data;
         if (isData) {
             Data data = (Data) value;
@@ -148,9 +184,14 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         } else {
             // for regular object we currently can't guess how big the bytes will be; so we just hand it
             // over to the serializationService to deal with it. The negative part is that this does lead to
-            // an intermediate copy of the data.
-
-            bytes = serializationService.toBytes(value, OFFSET_NOT_DATA, false);
+            // an intermediate copy of the data, unless the bytes are taken from the pool.
+
+            if (byteArrayPool == null) {
+                bytes = serializationService.toBytes(value, OFFSET_NOT_DATA, false);
+            } else {
+                pooledBytes = serializationService.toPooledBytes(value, OFFSET_NOT_DATA, false, byteArrayPool);
+                bytes = pooledBytes.bytes();
+            }
         }
 
         writeResponsePrologueBytes(bytes, NORMAL_RESPONSE, callId, urgent);
@@ -161,7 +202,9 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         bytes[OFFSET_IS_DATA] = (byte) (isData ? 1 : 0);
         //the remaining part of the byte array is already filled, so we are done.
 
-        return newResponsePacket(bytes, urgent);
+        return pooledBytes == null
+                ? newResponsePacket(bytes, urgent)
+                : initResponsePacket(new Packet(pooledBytes, -1), urgent);
     }
 
     public void sendBackupAck(EndpointManager endpointManager, Address target, long callId, boolean urgent) {
@@ -169,7 +212,7 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
 
         Packet packet = toBackupAckPacket(callId, urgent);
 
-        transmit(target, packet, endpointManager);
+        transmitResponse(target, packet, endpointManager);
     }
 
     Packet toBackupAckPacket(long callId, boolean urgent) {
@@ -180,6 +223,52 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         return newResponsePacket(bytes, urgent);
     }
 
+    /**
+     * Sends a single packet that acknowledges the sync backups of all given call IDs.
+     */
+    public void sendBackupAcks(EndpointManager endpointManager, Address target, long[] callIds, boolean urgent) {
+        checkTarget(target);
+
+        Packet packet = toBatchBackupAckPacket(callIds, urgent);
+
+        transmitResponse(target, packet, endpointManager);
+    }
+
+    Packet toBatchBackupAckPacket(long[] callIds, boolean urgent) {
+        byte[] bytes = new byte[BatchBackupAckResponse.sizeInBytes(callIds.length)];
+
+        writeResponsePrologueBytes(bytes, BATCH_BACKUP_ACK_RESPONSE, 0, urgent);
+
+        writeInt(bytes, OFFSET_CALL_ID_COUNT, callIds.length, useBigEndian);
+        for (int i = 0; i < callIds.length; i++) {
+            writeLong(bytes, OFFSET_CALL_IDS + i * LONG_SIZE_IN_BYTES, callIds[i], useBigEndian);
+        }
+
+        return newResponsePacket(bytes, urgent);
+    }
+
+    Packet toBatchResponsePacket(List<Packet> responses) {
+        int length = OFFSET_RESPONSES;
+        for (Packet response : responses) {
+            length += INT_SIZE_IN_BYTES + response.totalSize();
+        }
+        byte[] bytes = new byte[length];
+
+        writeResponsePrologueBytes(bytes, BATCH_RESPONSE, 0, false);
+
+        writeInt(bytes, OFFSET_RESPONSE_COUNT, responses.size(), useBigEndian);
+        int offset = OFFSET_RESPONSES;
+        for (Packet response : responses) {
+            int responseLength = response.totalSize();
+            writeInt(bytes, offset, responseLength, useBigEndian);
+            offset += INT_SIZE_IN_BYTES;
+            response.copyTo(bytes, offset);
+            offset += responseLength;
+        }
+
+        return newResponsePacket(bytes, false);
+    }
+
     private void writeResponsePrologueBytes(byte[] bytes, int typeId, long callId, boolean urgent) {
         // partition hash (which is always 0 in case of response)
         writeIntB(bytes, 0, 0);
@@ -198,8 +287,23 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
     }
 
     private Packet newResponsePacket(byte[] bytes, boolean urgent) {
-        Packet packet = new Packet(bytes, -1)
-                .setPacketType(OPERATION)
+        return initResponsePacket(new Packet(bytes, -1), urgent);
+    }
+
+    /**
+     * Notifies the response buffers that a member has left, so that they don't keep
+     * the pending responses of that member around forever.
+     */
+    void onMemberLeft() {
+        membersLeft.incrementAndGet();
+    }
+
+    int membersLeft() {
+        return membersLeft.get();
+    }
+
+    private Packet initResponsePacket(Packet packet, boolean urgent) {
+        packet.setPacketType(OPERATION)
                 .raiseFlags(FLAG_OP_RESPONSE);
 
         if (urgent) {
@@ -208,8 +312,44 @@ public final class OutboundResponseHandler implements OperationResponseHandler {
         return packet;
     }
 
-    private boolean transmit(Address target, Packet packet, EndpointManager endpointManager) {
-        return endpointManager.transmit(packet, target);
+    private boolean transmitResponse(Address target, Packet packet, EndpointManager endpointManager) {
+        ResponseBuffer responseBuffer = responseBuffer();
+        return responseBuffer == null
+                ? transmit(target, packet, endpointManager)
+                : responseBuffer.transmit(target, packet, endpointManager);
+    }
+
+    /**
+     * Returns the response buffer of the current thread, or {@code null} if the responses
+     * should be sent immediately. Only the partition threads buffer responses since they
+     * know when they run out of work; a generic thread shares its queue with the other
+     * generic threads.
+     */
+    private ResponseBuffer responseBuffer() {
+        if (responseBatchSize <= 1) {
+            return null;
+        }
+
+        Thread currentThread = Thread.currentThread();
+        if (currentThread.getClass() != PartitionOperationThread.class) {
+            return null;
+        }
+
+        PartitionOperationThread partitionThread = (PartitionOperationThread) currentThread;
+        ResponseBuffer responseBuffer = partitionThread.getResponseBuffer();
+        if (responseBuffer == null) {
+            responseBuffer = new ResponseBuffer(this, responseBatchSize);
+            partitionThread.setResponseBuffer(responseBuffer);
+        }
+        return responseBuffer;
+    }
+
+    boolean transmit(Address target, Packet packet, EndpointManager endpointManager) {
+        if (endpointManager.transmit(packet, target)) {
+            return true;
+        }
+        packet.release();
+        return false;
     }
 
     private void checkTarget(Address target) {
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.nio.EndpointManager;
+import com.hazelcast.internal.nio.Packet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the response packets sent by a single partition thread, so that the responses
+ * to the same member can be sent as a single packet.
+ * <p>
+ * The buffer is owned by the partition thread; it should only be accessed by that thread.
+ * The partition thread flushes the buffer as soon as it runs out of work, so a response
+ * is only held back while the partition thread is busy processing other operations.
+ * <p>
+ * The responses to a member are sent in the order they were added, and a response that
+ * can't be buffered (an urgent one) causes the buffered responses to that member to be
+ * sent first. So the order in which responses are sent to a connection is unaffected.
+ *
+ * @see com.hazelcast.spi.impl.operationservice.impl.responses.BatchResponse
+ */
+public final class ResponseBuffer {
+
+    private final OutboundResponseHandler outboundResponseHandler;
+    private final int batchSize;
+    // there are typically just a few members, so a list is cheaper than a map
+    private final List<PendingResponses> pendingPerTarget = new ArrayList<>();
+    private int pendingCount;
+    private int membersLeft;
+
+    ResponseBuffer(OutboundResponseHandler outboundResponseHandler, int batchSize) {
+        this.outboundResponseHandler = outboundResponseHandler;
+        this.batchSize = batchSize;
+        this.membersLeft = outboundResponseHandler.membersLeft();
+    }
+
+    /**
+     * Checks if there are buffered responses.
+     *
+     * @return {@code true} if there are buffered responses, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return pendingCount == 0;
+    }
+
+    /**
+     * Sends all buffered responses.
+     */
+    public void flush() {
+        if (pendingCount == 0) {
+            return;
+        }
+
+        for (PendingResponses pending : pendingPerTarget) {
+            pending.flush();
+        }
+    }
+
+    boolean transmit(Address target, Packet packet, EndpointManager endpointManager) {
+        PendingResponses pending = pending(target, endpointManager);
+
+        if (packet.isUrgent()) {
+            pending.flush();
+            return outboundResponseHandler.transmit(target, packet, endpointManager);
+        }
+
+        pending.packets.add(packet);
+        pendingCount++;
+        if (pending.packets.size() >= batchSize) {
+            pending.flush();
+        }
+        return true;
+    }
+
+    private PendingResponses pending(Address target, EndpointManager endpointManager) {
+        pruneIfMemberLeft();
+
+        for (PendingResponses pending : pendingPerTarget) {
+            if (pending.target.equals(target) && pending.endpointManager == endpointManager) {
+                return pending;
+            }
+        }
+
+        PendingResponses pending = new PendingResponses(target, endpointManager);
+        pendingPerTarget.add(pending);
+        return pending;
+    }
+
+    /**
+     * Drops all the targets once a member has left, so the targets of departed members
+     * don't accumulate. The targets that are still alive are recreated on their next response.
+     */
+    private void pruneIfMemberLeft() {
+        int currentMembersLeft = outboundResponseHandler.membersLeft();
+        if (currentMembersLeft == membersLeft) {
+            return;
+        }
+
+        membersLeft = currentMembersLeft;
+        flush();
+        pendingPerTarget.clear();
+    }
+
+    // just for testing
+    int targetCount() {
+        return pendingPerTarget.size();
+    }
+
+    private final class PendingResponses {
+        private final Address target;
+        private final EndpointManager endpointManager;
+        private final List<Packet> packets = new ArrayList<>();
+
+        PendingResponses(Address target, EndpointManager endpointManager) {
+            this.target = target;
+            this.endpointManager = endpointManager;
+        }
+
+        void flush() {
+            int size = packets.size();
+            if (size == 0) {
+                return;
+            }
+
+            // if the responses can't be sent, the member is gone; its invocations are
+            // notified by the member-left handling, just like for a single response
+            if (size == 1) {
+                outboundResponseHandler.transmit(target, packets.get(0), endpointManager);
+            } else {
+                Packet packet = outboundResponseHandler.toBatchResponsePacket(packets);
+                for (Packet response : packets) {
+                    response.release();
+                }
+                outboundResponseHandler.transmit(target, packet, endpointManager);
+            }
+            pendingCount -= size;
+            packets.clear();
+        }
+    }
+}
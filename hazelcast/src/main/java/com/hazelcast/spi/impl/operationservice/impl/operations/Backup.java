@@ -62,6 +62,8 @@ public final class Backup extends Operation implements BackupOperation, AllowedD
 
     private transient Throwable validationFailure;
     private transient boolean backupOperationInitialized;
+    // if the backup is part of a batch, the sync backup ack is sent together with the acks of the other backups
+    private transient BackupBatch batch;
     private long clientCorrelationId;
 
     public Backup() {
@@ -106,6 +108,10 @@ public final class Backup extends Operation implements BackupOperation, AllowedD
         return backupOp;
     }
 
+    void setBatch(BackupBatch batch) {
+        this.batch = batch;
+    }
+
     @Override
     public void beforeRun() {
         NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
@@ -194,6 +200,8 @@ public final class Backup extends Operation implements BackupOperation, AllowedD
             clientEngine.dispatchBackupEvent(clientUUID, clientCorrelationId);
         } else if (nodeEngine.getThisAddress().equals(originalCaller)) {
             operationService.getBackupHandler().notifyBackupComplete(callId);
+        } else if (batch != null) {
+            batch.addBackupAck(originalCaller, callId, backupOp.isUrgent());
         } else {
             operationService.getOutboundResponseHandler()
                     .sendBackupAck(getConnection().getEndpointManager(),
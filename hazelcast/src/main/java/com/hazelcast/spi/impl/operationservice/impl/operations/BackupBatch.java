@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl.operations;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.impl.AllowedDuringPassiveState;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationservice.BackupOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallerAddress;
+import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setConnection;
+
+/**
+ * A batch of {@link Backup}s for the same partition, sent to the same replica as a
+ * single operation. The backups are executed in order on the partition thread, each
+ * one going through the same checks as a backup that is sent on its own.
+ * <p>
+ * The sync backup acks of the backups in the batch are collected and sent back as
+ * a single {@link com.hazelcast.spi.impl.operationservice.impl.responses.BatchBackupAckResponse}
+ * per caller once the whole batch is executed.
+ */
+public final class BackupBatch extends Operation implements BackupOperation, AllowedDuringPassiveState,
+        IdentifiedDataSerializable {
+
+    private List<Backup> backups;
+
+    private transient List<BackupAck> backupAcks;
+
+    public BackupBatch() {
+    }
+
+    public BackupBatch(List<Backup> backups) {
+        this.backups = backups;
+    }
+
+    public List<Backup> getBackups() {
+        return backups;
+    }
+
+    @Override
+    public void run() throws Exception {
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) getNodeEngine();
+        OperationServiceImpl operationService = nodeEngine.getOperationService();
+        OperationRunner runner = operationService.getOperationExecutor().getPartitionOperationRunners()[getPartitionId()];
+
+        for (Backup backup : backups) {
+            backup.setNodeEngine(nodeEngine);
+            backup.setBatch(this);
+            setCallerAddress(backup, getCallerAddress());
+            setConnection(backup, getConnection());
+            runner.run(backup);
+        }
+
+        sendBackupAcks(operationService);
+    }
+
+    void addBackupAck(Address originalCaller, long callId, boolean urgent) {
+        if (backupAcks == null) {
+            backupAcks = new ArrayList<>(backups.size());
+        }
+        backupAcks.add(new BackupAck(originalCaller, callId, urgent));
+    }
+
+    private void sendBackupAcks(OperationServiceImpl operationService) {
+        if (backupAcks == null) {
+            return;
+        }
+
+        // the backups of a batch usually have the same caller, so the acks are grouped by caller
+        // without bothering to create a map
+        while (!backupAcks.isEmpty()) {
+            Address caller = backupAcks.get(0).caller;
+            List<BackupAck> remaining = new ArrayList<>();
+            long[] callIds = new long[backupAcks.size()];
+            int callIdCount = 0;
+            boolean urgent = false;
+            for (BackupAck backupAck : backupAcks) {
+                if (backupAck.caller.equals(caller)) {
+                    callIds[callIdCount++] = backupAck.callId;
+                    urgent |= backupAck.urgent;
+                } else {
+                    remaining.add(backupAck);
+                }
+            }
+
+            if (callIdCount == 1) {
+                operationService.getOutboundResponseHandler()
+                        .sendBackupAck(getConnection().getEndpointManager(), caller, callIds[0], urgent);
+            } else {
+                long[] batchCallIds = new long[callIdCount];
+                System.arraycopy(callIds, 0, batchCallIds, 0, callIdCount);
+                operationService.getOutboundResponseHandler()
+                        .sendBackupAcks(getConnection().getEndpointManager(), caller, batchCallIds, urgent);
+            }
+            backupAcks = remaining;
+        }
+        backupAcks = null;
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        return false;
+    }
+
+    @Override
+    public boolean validatesTarget() {
+        return false;
+    }
+
+    @Override
+    public void onExecutionFailure(Throwable e) {
+        for (Backup backup : backups) {
+            backup.setNodeEngine(getNodeEngine());
+            backup.onExecutionFailure(e);
+        }
+    }
+
+    @Override
+    public void logError(Throwable e) {
+        if (!backups.isEmpty()) {
+            Backup backup = backups.get(0);
+            backup.setNodeEngine(getNodeEngine());
+            backup.logError(e);
+        }
+    }
+
+    @Override
+    public int getFactoryId() {
+        return SpiDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return SpiDataSerializerHook.BACKUP_BATCH;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeInt(backups.size());
+        // all items are backups, so there is no need to write a header per item
+        for (Backup backup : backups) {
+            backup.writeData(out);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        int size = in.readInt();
+        backups = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Backup backup = new Backup();
+            backup.readData(in);
+            backups.add(backup);
+        }
+    }
+
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+
+        sb.append(", backups=").append(backups.size());
+    }
+
+    private static final class BackupAck {
+        private final Address caller;
+        private final long callId;
+        private final boolean urgent;
+
+        BackupAck(Address caller, long callId, boolean urgent) {
+            this.caller = caller;
+            this.callId = callId;
+            this.urgent = urgent;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl.responses;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.BATCH_BACKUP_ACK_RESPONSE;
+
+/**
+ * The {@link Response} for a batch of sync backups; it acknowledges the backups
+ * of multiple operations at once. The call ID of the response itself is not used.
+ *
+ * @see BackupAckResponse
+ * @see com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch
+ */
+public final class BatchBackupAckResponse extends Response {
+
+    public static final int OFFSET_CALL_ID_COUNT = RESPONSE_SIZE_IN_BYTES;
+    public static final int OFFSET_CALL_IDS = OFFSET_CALL_ID_COUNT + INT_SIZE_IN_BYTES;
+
+    private long[] callIds;
+
+    public BatchBackupAckResponse() {
+    }
+
+    public BatchBackupAckResponse(long[] callIds, boolean urgent) {
+        super(0, urgent);
+        this.callIds = callIds;
+    }
+
+    /**
+     * Returns the length in bytes of a batch backup-ack response.
+     *
+     * @param callIdCount the number of acknowledged call IDs
+     * @return the length in bytes
+     */
+    public static int sizeInBytes(int callIdCount) {
+        return OFFSET_CALL_IDS + callIdCount * LONG_SIZE_IN_BYTES;
+    }
+
+    public long[] getCallIds() {
+        return callIds;
+    }
+
+    @Override
+    public int getClassId() {
+        return BATCH_BACKUP_ACK_RESPONSE;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        super.writeData(out);
+        out.writeInt(callIds.length);
+        for (long callId : callIds) {
+            out.writeLong(callId);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        super.readData(in);
+        int count = in.readInt();
+        callIds = new long[count];
+        for (int i = 0; i < count; i++) {
+            callIds[i] = in.readLong();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BatchBackupAckResponse{callIds=" + Arrays.toString(callIds) + ", urgent=" + urgent + '}';
+    }
+}
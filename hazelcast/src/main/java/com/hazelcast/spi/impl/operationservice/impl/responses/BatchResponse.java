@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl.responses;
+
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.RESPONSE_SIZE_IN_BYTES;
+
+/**
+ * The layout of a response that contains the serialized form of multiple responses sent to
+ * the same member, in the order they were sent.
+ * <p>
+ * A batch response starts with the same header as a {@link Response}, with type ID
+ * {@link com.hazelcast.spi.impl.SpiDataSerializerHook#BATCH_RESPONSE}; its call ID is not used.
+ * It is followed by the number of responses and every contained response is written as its
+ * length followed by the bytes of the packet the response would have been sent with on its own.
+ * <p>
+ * A batch response is never deserialized as a whole; it is written by the
+ * {@link com.hazelcast.spi.impl.operationservice.impl.OutboundResponseHandler} and the
+ * contained responses are dispatched straight from their offsets by the
+ * {@link com.hazelcast.spi.impl.operationservice.impl.InboundResponseHandler}.
+ */
+public final class BatchResponse {
+
+    public static final int OFFSET_RESPONSE_COUNT = RESPONSE_SIZE_IN_BYTES;
+    public static final int OFFSET_RESPONSES = OFFSET_RESPONSE_COUNT + INT_SIZE_IN_BYTES;
+
+    private BatchResponse() {
+    }
+}
@@ -45,6 +45,7 @@ import java.util.Map;
 import java.util.function.Function;
 
 import static java.lang.Math.max;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -150,6 +151,19 @@ public final class ClusterProperty {
     public static final HazelcastProperty CLIENT_CLEANUP_TIMEOUT
             = new HazelcastProperty("hazelcast.client.cleanup.timeout.millis", 120000, MILLISECONDS);
 
+    /**
+     * Enables running the tasks of the executors for blocking work on virtual threads: the
+     * {@link com.hazelcast.core.Offloadable} entry processors, the {@link com.hazelcast.map.MapLoader}
+     * loading and the {@link com.hazelcast.core.IExecutorService} tasks. The pool size and the queue capacity
+     * of these executors are still applied, so the pool size keeps limiting the number of tasks running
+     * concurrently. The other executors are not affected.
+     * <p>
+     * Virtual threads are only available on JDK 21 and newer; on older JDKs this property is ignored and
+     * the tasks run on the regular platform thread pools.
+     */
+    public static final HazelcastProperty EXECUTOR_VIRTUAL_THREADS_ENABLED
+            = new HazelcastProperty("hazelcast.executor.virtual.threads.enabled", false);
+
     /**
      * Number of threads for the {@link com.hazelcast.spi.impl.eventservice.impl.EventServiceImpl} executor.
      * The executor is responsible for executing the events. If you process a lot of events and have many cores, setting
@@ -190,6 +204,25 @@ public final class ClusterProperty {
     public static final HazelcastProperty EVENT_SYNC_TIMEOUT_MILLIS
             = new HazelcastProperty("hazelcast.event.sync.timeout.millis", 5000, MILLISECONDS);
 
+    /**
+     * The maximum number of asynchronous remote events for the same subscriber
+     * that are coalesced into a single event packet. The events are sent as soon as the batch
+     * is full or when {@link #EVENT_BATCH_LINGER_MILLIS} elapsed.
+     * <p>
+     * Batching reduces the number of event packets for high-rate listeners, e.g. an entry
+     * listener on a hot map, at the cost of a little latency. The value {@code 1} disables
+     * batching.
+     */
+    public static final HazelcastProperty EVENT_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.event.batch.size", 1);
+
+    /**
+     * The maximum time a remote event waits in a batch before it is sent, if the batch didn't
+     * fill up. Only used when {@link #EVENT_BATCH_SIZE} is larger than {@code 1}.
+     */
+    public static final HazelcastProperty EVENT_BATCH_LINGER_MILLIS
+            = new HazelcastProperty("hazelcast.event.batch.linger.millis", 1, MILLISECONDS);
+
 
     public static final HazelcastProperty HEALTH_MONITORING_LEVEL
             = new HazelcastProperty("hazelcast.health.monitoring.level", HealthMonitorLevel.SILENT.toString());
@@ -353,6 +386,49 @@ public final class ClusterProperty {
     public static final HazelcastProperty OPERATION_BACKUP_TIMEOUT_MILLIS
             = new HazelcastProperty("hazelcast.operation.backup.timeout.millis", 5000, MILLISECONDS);
 
+    /**
+     * The maximum number of backups for the same partition and target member that are coalesced
+     * into a single backup packet. A batch is sent as soon as it is full or when
+     * {@link #OPERATION_BACKUP_BATCH_WINDOW_MICROS} elapsed. The sync backup acks for the backups
+     * of a batch are sent back as a single packet as well.
+     * <p>
+     * Batching reduces the number of packets between the members for write heavy workloads, at
+     * the cost of up to the batch window of additional latency. The value {@code 1} disables batching.
+     */
+    public static final HazelcastProperty OPERATION_BACKUP_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.operation.backup.batch.size", 1);
+
+    /**
+     * The maximum time a backup waits in a batch before it is sent, if the batch didn't fill up.
+     * Only used when {@link #OPERATION_BACKUP_BATCH_SIZE} is larger than {@code 1}.
+     */
+    public static final HazelcastProperty OPERATION_BACKUP_BATCH_WINDOW_MICROS
+            = new HazelcastProperty("hazelcast.operation.backup.batch.window.micros", 100, MICROSECONDS);
+
+    /**
+     * The maximum number of responses to the same member that a partition thread coalesces into a
+     * single response packet. The responses are collected while the partition thread has more work
+     * queued and are sent as soon as the batch is full or the partition thread runs out of work, so
+     * batching doesn't add latency when the thread is idle.
+     * <p>
+     * Batching reduces the number of packets, and so the number of syscalls and wakeups, when a member
+     * fires many async operations at another member. The value {@code 1} disables batching.
+     */
+    public static final HazelcastProperty OPERATION_RESPONSE_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.operation.response.batch.size", 1);
+
+    /**
+     * Enables tracking the latency distribution of the operations executed by the operation threads,
+     * per operation class and per distributed object. The count, p50, p99, p999 and max latency in
+     * nanoseconds are published as metrics under the {@code operation.latency} and
+     * {@code operation.latency.object} prefixes.
+     * <p>
+     * Recording a latency is lock-free and doesn't allocate once the histogram exists, but it does
+     * read the clock twice per operation, which is why it is disabled by default.
+     */
+    public static final HazelcastProperty OPERATION_LATENCY_HISTOGRAMS_ENABLED
+            = new HazelcastProperty("hazelcast.operation.latency.histograms.enabled", false);
+
     /**
      * When this configuration is enabled, if an operation has sync backups and acks are not received from backup replicas
      * in time, or the member which owns primary replica of the target partition leaves the cluster, then the invocation fails
@@ -574,6 +650,39 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_EXPIRY_DELAY_SECONDS
             = new HazelcastProperty("hazelcast.map.expiry.delay.seconds", 10, SECONDS);
 
+    /**
+     * Enables the expiry index of the map partitions.
+     * <p>
+     * By default, the expired entries of a map partition are found by periodically checking a percentage of
+     * its entries, so the cost of expiration grows with the size of the map instead of with the number of
+     * entries that expire, and in a large map an expired entry can stay in memory long after it expired.
+     * With the expiry index, every map partition keeps its keys in a hierarchical timing wheel by expiration
+     * time, on primary and backup replicas, so an expired entry is removed within a few seconds after it
+     * expires, at a cost proportional to the number of entries that expire. The index costs a set entry
+     * per key that has a TTL or max-idle.
+     */
+    public static final HazelcastProperty MAP_EXPIRY_INDEX_ENABLED
+            = new HazelcastProperty("hazelcast.map.expiry.index.enabled", false);
+
+    /**
+     * Enables the compact storage of {@code BINARY} maps.
+     * <p>
+     * By default, every entry of a map is kept as a record object in a hash
+     * map, together with two {@code Data} objects and their byte arrays for the
+     * key and the value. For maps with many small entries, these objects and
+     * their headers can take more memory than the entries themselves. With the
+     * compact storage, the metadata of the entries is kept in primitive arrays
+     * and the serialized keys and values are copied into shared byte array
+     * pages, so the per-entry overhead drops to a few dozen bytes. {@code Long}
+     * and {@code Integer} keys are kept unboxed instead. In exchange,
+     * every read of a key or a value copies its bytes, deserialized values are
+     * not cached and queries on such maps scan the partitions on the partition
+     * threads. Maps with read-backup-data enabled keep the default storage,
+     * since their backups are read outside of the partition threads.
+     */
+    public static final HazelcastProperty MAP_COMPACT_STORAGE_ENABLED
+            = new HazelcastProperty("hazelcast.map.compact.storage.enabled", false);
+
     /**
      * Maximum number of IMap entries Hazelcast will evict during a
      * single eviction cycle. Eviction cycle is triggered by a map
@@ -730,6 +839,20 @@ public final class ClusterProperty {
     public static final HazelcastProperty CACHE_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS
             = new HazelcastProperty("hazelcast.cache.invalidation.batchfrequency.seconds", 10, SECONDS);
 
+    /**
+     * Defines whether the cache invalidation event batches are sized adaptively.
+     * <p>
+     * When enabled, the batch size and the time events are held back are sized
+     * from the observed invalidation rate of each cache: events of a rarely
+     * updated cache are sent right away, while events of a heavily updated one
+     * are sent in batches. In this mode, {@link #CACHE_INVALIDATION_MESSAGE_BATCH_SIZE}
+     * and {@link #CACHE_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS} are the upper
+     * bounds of the batch size and of the time events are held back, and repeated
+     * invalidations of the same key within a batch are sent once.
+     */
+    public static final HazelcastProperty CACHE_INVALIDATION_MESSAGE_BATCH_ADAPTIVE_ENABLED
+            = new HazelcastProperty("hazelcast.cache.invalidation.batch.adaptive.enabled", false);
+
     /**
      * Defines Near Cache invalidation event batch sending is enabled or not.
      */
@@ -751,6 +874,20 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS
             = new HazelcastProperty("hazelcast.map.invalidation.batchfrequency.seconds", 10, SECONDS);
 
+    /**
+     * Defines whether the Near Cache invalidation event batches are sized adaptively.
+     * <p>
+     * When enabled, the batch size and the time events are held back are sized
+     * from the observed invalidation rate of each map: events of a rarely
+     * updated map are sent right away, while events of a heavily updated one
+     * are sent in batches. In this mode, {@link #MAP_INVALIDATION_MESSAGE_BATCH_SIZE}
+     * and {@link #MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS} are the upper
+     * bounds of the batch size and of the time events are held back, and repeated
+     * invalidations of the same key within a batch are sent once.
+     */
+    public static final HazelcastProperty MAP_INVALIDATION_MESSAGE_BATCH_ADAPTIVE_ENABLED
+            = new HazelcastProperty("hazelcast.map.invalidation.batch.adaptive.enabled", false);
+
     /**
      * Using back pressure, you can prevent an overload of pending asynchronous backups. With a map with a
      * single asynchronous backup, producing asynchronous backups could happen at a higher rate than
@@ -814,6 +951,35 @@ public final class ClusterProperty {
     public static final HazelcastProperty BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION
             = new HazelcastProperty("hazelcast.backpressure.max.concurrent.invocations.per.partition", 100);
 
+    /**
+     * Enables the adaptive limit on the number of concurrent invocations.
+     * <p>
+     * With the adaptive limit, the number of concurrent invocations per partition and per target member isn't
+     * only capped by {@link #BACKPRESSURE_MAX_CONCURRENT_INVOCATIONS_PER_PARTITION}, but is adjusted based on the
+     * observed invocation latency: the limit is increased additively as long as invocations complete within
+     * {@link #BACKPRESSURE_ADAPTIVE_LATENCY_THRESHOLD_MILLIS} and decreased multiplicatively when they don't. So
+     * when a member falls behind, the pressure on it is reduced before its operation queues grow without bound.
+     * Invocations that don't fit into the limit are delayed and eventually fail with a
+     * {@link com.hazelcast.core.HazelcastOverloadException}, just like with the static limit.
+     * <p>
+     * This property only has meaning when backpressure is enabled.
+     */
+    public static final HazelcastProperty BACKPRESSURE_ADAPTIVE_ENABLED
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.enabled", false);
+
+    /**
+     * The invocation latency in millis above which the adaptive backpressure reduces the concurrency limit of the
+     * partition and member the invocation was sent to.
+     * <p>
+     * The latency is measured from the moment the invocation is registered till its response is received, so it
+     * includes the time the operation spends in the operation queue of the target member. Blocking operations,
+     * like a lock or a queue poll, are not taken into account.
+     * <p>
+     * This property only has meaning when adaptive backpressure is enabled.
+     */
+    public static final HazelcastProperty BACKPRESSURE_ADAPTIVE_LATENCY_THRESHOLD_MILLIS
+            = new HazelcastProperty("hazelcast.backpressure.adaptive.latency.threshold.millis", 100, MILLISECONDS);
+
     /**
      * Run Query Evaluations for multiple partitions in parallel.
      * <p>
@@ -972,6 +1138,17 @@ public final class ClusterProperty {
             = new HazelcastProperty("hazelcast.serialization.version",
             BuildInfoProvider.getBuildInfo().getSerializationVersion());
 
+    /**
+     * Enables serializing operations and responses sent to other members into pooled byte-arrays.
+     * <p>
+     * The byte-array an operation is serialized into is handed over to the packet as is, instead of
+     * being copied into a new byte-array of the exact length, and it is returned to the pool once the
+     * packet has been written to the socket. This lowers the allocation rate of put-heavy workloads
+     * at the cost of keeping some byte-arrays pooled.
+     */
+    public static final HazelcastProperty SERIALIZATION_POOLED_BUFFERS_ENABLED
+            = new HazelcastProperty("hazelcast.serialization.pooled.buffers.enabled", false);
+
     /**
      * Override cluster version to use while node is not yet member of a cluster. The cluster version assumed before joining
      * a cluster may affect the serialization format of cluster discovery &amp; join operations and its compatibility with members
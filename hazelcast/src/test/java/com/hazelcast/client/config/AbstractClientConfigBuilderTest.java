@@ -225,6 +225,9 @@ public abstract class AbstractClientConfigBuilderTest extends HazelcastTestSuppo
         assertEquals("/tmp/myNearCache", nearCacheConfig.getPreloaderConfig().getDirectory());
         assertEquals(2342, nearCacheConfig.getPreloaderConfig().getStoreInitialDelaySeconds());
         assertEquals(4223, nearCacheConfig.getPreloaderConfig().getStoreIntervalSeconds());
+        assertTrue(nearCacheConfig.getPreloaderConfig().isStoreValues());
+        assertEquals(8, nearCacheConfig.getPreloaderConfig().getLoadConcurrency());
+        assertEquals(5000, nearCacheConfig.getPreloaderConfig().getLoadRateLimit());
     }
 
     @Test
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.proxy;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapGetCodec;
+import com.hazelcast.client.impl.spi.impl.ClientInvocation;
+import com.hazelcast.client.impl.spi.impl.ClientInvocationFuture;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.sequence.CallIdSequence;
+import com.hazelcast.test.ExpectedRuntimeException;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class InFlightGetRegistryTest {
+
+    private final InFlightGetRegistry registry = new InFlightGetRegistry();
+    private final List<ClientInvocationFuture> invokedFutures = new ArrayList<>();
+    private final Data key = new HeapData(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 1});
+    private final Function<Data, ClientInvocation> factory = keyData -> newInvocation();
+
+    @Test
+    public void get_whenNothingInFlight_thenInvoked() {
+        ClientInvocationFuture future = registry.get(key, factory);
+
+        assertEquals(1, invokedFutures.size());
+        assertEquals(1, registry.size());
+
+        ClientMessage response = newResponse();
+        invokedFutures.get(0).complete(response);
+        assertSame(response, future.join());
+    }
+
+    @Test
+    public void get_whenInFlight_thenFollowUpShared() {
+        ClientInvocationFuture first = registry.get(key, factory);
+        ClientInvocationFuture second = registry.get(key, factory);
+        ClientInvocationFuture third = registry.get(key, factory);
+
+        // the gets issued while the first one is in flight, don't join it, but share the follow-up
+        assertEquals(1, invokedFutures.size());
+
+        ClientMessage firstResponse = newResponse();
+        invokedFutures.get(0).complete(firstResponse);
+        assertSame(firstResponse, first.join());
+        assertFalse(second.isDone());
+
+        // the follow-up is sent once the first one completes
+        assertEquals(2, invokedFutures.size());
+        assertEquals(1, registry.size());
+
+        ClientMessage followUpResponse = newResponse();
+        invokedFutures.get(1).complete(followUpResponse);
+        assertSame(followUpResponse, second.join());
+        assertSame(followUpResponse, third.join());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void get_whenCompleted_thenNewInvocation() {
+        registry.get(key, factory);
+        invokedFutures.get(0).complete(newResponse());
+        assertEquals(0, registry.size());
+
+        registry.get(key, factory);
+
+        assertEquals(2, invokedFutures.size());
+    }
+
+    @Test
+    public void get_whenDifferentKeys_thenNotShared() {
+        Data otherKey = new HeapData(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 2});
+
+        registry.get(key, factory);
+        registry.get(otherKey, factory);
+
+        assertEquals(2, invokedFutures.size());
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    public void get_whenInvokeFails_thenFutureCompletedExceptionally() {
+        ClientInvocation invocation = newInvocation();
+        when(invocation.invoke()).thenThrow(new ExpectedRuntimeException());
+
+        ClientInvocationFuture future = registry.get(key, keyData -> invocation);
+
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void get_whenCoalescedGetCancelled_thenOtherGetCompleted() {
+        registry.get(key, factory);
+        ClientInvocationFuture cancelled = registry.get(key, factory);
+        ClientInvocationFuture other = registry.get(key, factory);
+        invokedFutures.get(0).complete(newResponse());
+
+        assertTrue(cancelled.cancel(true));
+
+        ClientMessage response = newResponse();
+        ClientInvocationFuture shared = invokedFutures.get(1);
+        assertFalse(shared.isDone());
+        shared.complete(response);
+        assertSame(response, other.join());
+        assertTrue(cancelled.isCancelled());
+    }
+
+    private ClientInvocation newInvocation() {
+        ClientInvocation invocation = mock(ClientInvocation.class);
+        ClientMessage request = MapGetCodec.encodeRequest("map", key, 1L);
+        ClientInvocationFuture future = new ClientInvocationFuture(invocation, request, mock(ILogger.class),
+                mock(CallIdSequence.class));
+        when(invocation.getClientInvocationFuture()).thenReturn(future);
+        when(invocation.getClientMessage()).thenReturn(request);
+        when(invocation.invoke()).then(i -> {
+            invokedFutures.add(future);
+            return future;
+        });
+        return invocation;
+    }
+
+    private static ClientMessage newResponse() {
+        return MapGetCodec.encodeResponse(null);
+    }
+}
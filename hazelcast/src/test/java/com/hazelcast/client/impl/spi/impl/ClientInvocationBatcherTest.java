@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.spi.impl;
+
+import com.hazelcast.client.impl.connection.nio.ClientConnection;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.ClientMessageReader;
+import com.hazelcast.client.impl.protocol.ClientMessageWriter;
+import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
+import com.hazelcast.client.impl.protocol.codec.MapSizeCodec;
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.client.impl.protocol.ClientMessage.IS_FINAL_FLAG;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientInvocationBatcherTest {
+
+    private ClientConnection connection;
+    private ClientInvocationBatcher batcher;
+    private List<ClientMessage> written = new ArrayList<>();
+    private List<Runnable> scheduled = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        connection = mock(ClientConnection.class);
+        when(connection.isAlive()).thenReturn(true);
+        when(connection.write(any(OutboundFrame.class))).then(invocation -> {
+            written.add(invocation.getArgument(0));
+            return true;
+        });
+        batcher = new ClientInvocationBatcher(connection, 0, Runnable::run);
+    }
+
+    @Test
+    public void write_whenNoConcurrentWrites_thenMessageWrittenAsIs() {
+        ClientMessage message = newMessage(1);
+
+        assertTrue(batcher.write(message));
+
+        assertEquals(1, written.size());
+        assertSame(message, written.get(0));
+        assertEquals(0, batcher.queueSize());
+    }
+
+    @Test
+    public void write_whenConnectionNotAlive() {
+        when(connection.isAlive()).thenReturn(false);
+
+        assertFalse(batcher.write(newMessage(1)));
+
+        verify(connection, never()).write(any(OutboundFrame.class));
+        assertEquals(0, batcher.queueSize());
+    }
+
+    @Test
+    public void write_whenWrittenDuringFlush_thenCoalesced() {
+        ClientMessage first = newMessage(1);
+        ClientMessage second = newMessage(2);
+        ClientMessage third = newPutMessage(3);
+        when(connection.write(any(OutboundFrame.class))).then(invocation -> {
+            if (written.isEmpty()) {
+                // these writes are done while the first message is being flushed, so they get queued
+                assertTrue(batcher.write(second));
+                assertTrue(batcher.write(third));
+            }
+            written.add(invocation.getArgument(0));
+            return true;
+        });
+
+        assertTrue(batcher.write(first));
+
+        assertEquals(2, written.size());
+        assertSame(first, written.get(0));
+        ClientMessage batch = written.get(1);
+        assertNotSame(second, batch);
+        assertEquals(0, batcher.queueSize());
+
+        List<ClientMessage> decoded = decode(batch);
+        assertEquals(2, decoded.size());
+        assertMessageEquals(second, decoded.get(0));
+        assertMessageEquals(third, decoded.get(1));
+    }
+
+    @Test
+    public void write_whenManyWrittenDuringFlush_thenWriterFlushesSingleBatchAndRestIsScheduled() {
+        batcher = new ClientInvocationBatcher(connection, 0, scheduled::add);
+        int queuedCount = 2 * ClientInvocationBatcher.MAX_BATCH_SIZE + 1;
+        when(connection.write(any(OutboundFrame.class))).then(invocation -> {
+            if (written.isEmpty()) {
+                for (int i = 0; i < queuedCount; i++) {
+                    assertTrue(batcher.write(newMessage(i + 2)));
+                }
+            }
+            written.add(invocation.getArgument(0));
+            return true;
+        });
+
+        assertTrue(batcher.write(newMessage(1)));
+
+        // the writer only flushed its own message, the others are left to the executor
+        assertEquals(1, written.size());
+        assertEquals(queuedCount, batcher.queueSize());
+        assertEquals(1, scheduled.size());
+
+        scheduled.get(0).run();
+
+        assertEquals(4, written.size());
+        assertEquals(ClientInvocationBatcher.MAX_BATCH_SIZE, decode(written.get(1)).size());
+        assertEquals(ClientInvocationBatcher.MAX_BATCH_SIZE, decode(written.get(2)).size());
+        assertEquals(1, decode(written.get(3)).size());
+        assertEquals(0, batcher.queueSize());
+    }
+
+    @Test
+    public void write_whenCoalesced_thenOriginalMessagesNotModified() {
+        ClientMessage first = newMessage(1);
+        ClientMessage second = newPutMessage(2);
+        int secondFrameCount = frameCount(second);
+        int secondEndFrameFlags = endFrame(second).flags;
+        when(connection.write(any(OutboundFrame.class))).then(invocation -> {
+            if (written.isEmpty()) {
+                batcher.write(second);
+                batcher.write(newMessage(3));
+            }
+            written.add(invocation.getArgument(0));
+            return true;
+        });
+
+        batcher.write(first);
+
+        assertEquals(secondFrameCount, frameCount(second));
+        assertEquals(secondEndFrameFlags, endFrame(second).flags);
+        assertFalse(ClientMessage.isFlagSet(endFrame(second).flags, IS_FINAL_FLAG));
+    }
+
+    private static ClientMessage newMessage(long correlationId) {
+        return MapSizeCodec.encodeRequest("map").setCorrelationId(correlationId);
+    }
+
+    private static ClientMessage newPutMessage(long correlationId) {
+        HeapData data = new HeapData(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 1});
+        return MapPutCodec.encodeRequest("map", data, data, 1, -1).setCorrelationId(correlationId);
+    }
+
+    private static List<ClientMessage> decode(ClientMessage batch) {
+        ByteBuffer buffer = ByteBuffer.allocate(batch.getFrameLength());
+        assertTrue(new ClientMessageWriter().writeTo(buffer, batch));
+        buffer.flip();
+
+        List<ClientMessage> messages = new ArrayList<>();
+        ClientMessageReader reader = new ClientMessageReader(-1);
+        while (buffer.hasRemaining()) {
+            assertTrue(reader.readFrom(buffer, true));
+            messages.add(reader.getClientMessage());
+            reader.reset();
+        }
+        return messages;
+    }
+
+    private static void assertMessageEquals(ClientMessage expected, ClientMessage actual) {
+        assertEquals(expected.getCorrelationId(), actual.getCorrelationId());
+        assertEquals(expected.getMessageType(), actual.getMessageType());
+        assertEquals(frameCount(expected), frameCount(actual));
+        ClientMessage.ForwardFrameIterator expectedFrames = expected.frameIterator();
+        ClientMessage.ForwardFrameIterator actualFrames = actual.frameIterator();
+        while (expectedFrames.hasNext()) {
+            ClientMessage.Frame expectedFrame = expectedFrames.next();
+            ClientMessage.Frame actualFrame = actualFrames.next();
+            assertEquals(expectedFrame.content.length, actualFrame.content.length);
+            assertEquals(expectedFrame.flags, actualFrame.flags & ~IS_FINAL_FLAG);
+        }
+    }
+
+    private static int frameCount(ClientMessage message) {
+        int count = 0;
+        ClientMessage.ForwardFrameIterator iterator = message.frameIterator();
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+
+    private static ClientMessage.Frame endFrame(ClientMessage message) {
+        ClientMessage.Frame frame = null;
+        ClientMessage.ForwardFrameIterator iterator = message.frameIterator();
+        while (iterator.hasNext()) {
+            frame = iterator.next();
+        }
+        return frame;
+    }
+}
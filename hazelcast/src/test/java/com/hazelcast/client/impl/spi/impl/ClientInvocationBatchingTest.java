@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.spi.impl;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.properties.ClientProperty;
+import com.hazelcast.client.test.ClientTestSupport;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Batches are only decoded into individual messages by the real networking, so this
+ * test doesn't use the mocked network.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class ClientInvocationBatchingTest extends ClientTestSupport {
+
+    private static final int ENTRY_COUNT = 5000;
+
+    @After
+    public void cleanUp() {
+        HazelcastClient.shutdownAll();
+        Hazelcast.shutdownAll();
+    }
+
+    @Test
+    public void testAsyncCalls() throws Exception {
+        testAsyncCalls(0);
+    }
+
+    @Test
+    public void testAsyncCalls_withBatchingWindow() throws Exception {
+        testAsyncCalls(20);
+    }
+
+    private void testAsyncCalls(int windowMicros) throws Exception {
+        Hazelcast.newHazelcastInstance(smallInstanceConfig());
+        ClientConfig clientConfig = new ClientConfig()
+                .setProperty(ClientProperty.INVOCATION_BATCHING_ENABLED.getName(), "true")
+                .setProperty(ClientProperty.INVOCATION_BATCHING_WINDOW_MICROS.getName(), String.valueOf(windowMicros));
+        HazelcastInstance client = HazelcastClient.newHazelcastClient(clientConfig);
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            futures.add(map.putAsync(i, i).toCompletableFuture());
+        }
+        for (CompletableFuture<Integer> future : futures) {
+            future.get();
+        }
+
+        futures.clear();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            futures.add(map.getAsync(i).toCompletableFuture());
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) futures.get(i).get());
+        }
+        assertEquals(ENTRY_COUNT, map.size());
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.properties.ClientProperty;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(Parameterized.class)
+@Parameterized.UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientMapGetCoalescingTest extends HazelcastTestSupport {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int GETS_PER_THREAD = 500;
+
+    @Parameterized.Parameter
+    public boolean nearCacheEnabled;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private IMap<Integer, Integer> map;
+    private IMap<Integer, Integer> memberMap;
+
+    @Parameterized.Parameters(name = "nearCacheEnabled:{0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{
+                {false},
+                {true},
+        });
+    }
+
+    @Before
+    public void setup() {
+        String mapName = randomMapName();
+        HazelcastInstance member = hazelcastFactory.newHazelcastInstance(smallInstanceConfig());
+        ClientConfig clientConfig = new ClientConfig()
+                .setProperty(ClientProperty.MAP_GET_COALESCING_ENABLED.getName(), "true");
+        if (nearCacheEnabled) {
+            clientConfig.addNearCacheConfig(new NearCacheConfig(mapName));
+        }
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient(clientConfig);
+        map = client.getMap(mapName);
+        memberMap = member.getMap(mapName);
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testConcurrentGets_sameKey() throws Exception {
+        memberMap.put(1, 1);
+
+        AtomicInteger mismatches = new AtomicInteger();
+        List<Future> futures = new ArrayList<>(THREAD_COUNT);
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            futures.add(spawn(() -> {
+                for (int i = 0; i < GETS_PER_THREAD; i++) {
+                    if (!Integer.valueOf(1).equals(map.get(1))) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future future : futures) {
+            assertCompletesEventually(future);
+            future.get();
+        }
+
+        assertEquals(0, mismatches.get());
+    }
+
+    @Test
+    public void testConcurrentAsyncGets_sameKey() throws Exception {
+        memberMap.put(1, 1);
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(GETS_PER_THREAD);
+        for (int i = 0; i < GETS_PER_THREAD; i++) {
+            futures.add(map.getAsync(1).toCompletableFuture());
+        }
+
+        for (CompletableFuture<Integer> future : futures) {
+            assertEquals(1, (int) future.get());
+        }
+    }
+
+    @Test
+    public void testGet_observesPrecedingWrite() {
+        for (int i = 0; i < GETS_PER_THREAD; i++) {
+            map.put(1, i);
+            assertEquals(i, (int) map.get(1));
+        }
+
+        map.remove(1);
+        assertNull(map.get(1));
+    }
+
+    @Test
+    public void testGet_missingKey() {
+        assertNull(map.get(42));
+        assertNull(map.getAsync(42).toCompletableFuture().join());
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map.impl.nearcache;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hazelcast.client.properties.ClientProperty.MAP_QUERY_RESULT_CACHE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_INVALIDATION_MESSAGE_BATCH_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientMapQueryResultCacheTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT_VALUE = 16;
+    private static final int ENTRY_COUNT = 100;
+    private static final int LIMIT = 50;
+
+    private final Predicate<Integer, Integer> valuesBelowLimit = Predicates.lessThan("this", LIMIT);
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    private IMap<Integer, Integer> memberMap;
+    private IMap<Integer, Integer> clientMap;
+    private QueryResultCache queryResultCache;
+
+    @Before
+    public void setUp() {
+        String mapName = randomMapName();
+        Config config = smallInstanceConfig()
+                .setProperty(PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT_VALUE))
+                .setProperty(MAP_INVALIDATION_MESSAGE_BATCH_ENABLED.getName(), "false");
+        HazelcastInstance member = hazelcastFactory.newHazelcastInstance(config);
+        memberMap = member.getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            memberMap.put(i, i);
+        }
+
+        ClientConfig clientConfig = new ClientConfig()
+                .setProperty(MAP_QUERY_RESULT_CACHE_ENABLED.getName(), "true")
+                .addNearCacheConfig(new NearCacheConfig(mapName));
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient(clientConfig);
+        clientMap = client.getMap(mapName);
+        queryResultCache = ((NearCachedClientMapProxy<Integer, Integer>) clientMap).getQueryResultCache();
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testRepeatedQuery_servedFromCache() {
+        Set<Integer> expected = numbersBelowLimit();
+
+        assertEquals(expected, clientMap.keySet(valuesBelowLimit));
+        assertEquals(expected, new HashSet<>(clientMap.values(valuesBelowLimit)));
+        assertEquals(expected, clientMap.entrySet(valuesBelowLimit).stream().map(Map.Entry::getKey).collect(toSet()));
+
+        assertEquals(1, queryResultCache.getMisses());
+        assertEquals(2, queryResultCache.getHits());
+        assertEquals(1, queryResultCache.size());
+    }
+
+    @Test
+    public void testRepeatedQuery_afterLocalUpdate_onlyChangedPartitionQueried() {
+        clientMap.keySet(valuesBelowLimit);
+
+        clientMap.put(ENTRY_COUNT - 1, 0);
+
+        Set<Integer> expected = numbersBelowLimit();
+        expected.add(ENTRY_COUNT - 1);
+        assertEquals(expected, clientMap.keySet(valuesBelowLimit));
+        assertEquals(1, queryResultCache.getMisses());
+        assertEquals(1, queryResultCache.getPartitionQueries());
+    }
+
+    @Test
+    public void testRepeatedQuery_afterRemoteUpdate_eventuallyUpdated() {
+        clientMap.keySet(valuesBelowLimit);
+
+        memberMap.remove(0);
+
+        Set<Integer> expected = numbersBelowLimit();
+        expected.remove(0);
+        assertTrueEventually(() -> assertEquals(expected, clientMap.keySet(valuesBelowLimit)));
+    }
+
+    @Test
+    public void testRepeatedQuery_afterClear_queriedAgain() {
+        clientMap.keySet(valuesBelowLimit);
+
+        clientMap.clear();
+
+        assertEquals(0, clientMap.keySet(valuesBelowLimit).size());
+        assertEquals(2, queryResultCache.getMisses());
+        assertEquals(0, queryResultCache.getHits());
+    }
+
+    @Test
+    public void testPagingPredicate_notCached() {
+        clientMap.keySet(Predicates.pagingPredicate(valuesBelowLimit, 10));
+
+        assertEquals(0, queryResultCache.size());
+        assertEquals(0, queryResultCache.getMisses());
+    }
+
+    @Test
+    public void testQueryResultCache_disabledByDefault() {
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient(new ClientConfig()
+                .addNearCacheConfig(new NearCacheConfig(memberMap.getName())));
+        IMap<Integer, Integer> map = client.getMap(memberMap.getName());
+
+        assertNull(((NearCachedClientMapProxy<Integer, Integer>) map).getQueryResultCache());
+        assertEquals(numbersBelowLimit(), map.keySet(valuesBelowLimit));
+    }
+
+    private static Set<Integer> numbersBelowLimit() {
+        Set<Integer> numbers = new HashSet<>();
+        for (int i = 0; i < LIMIT; i++) {
+            numbers.add(i);
+        }
+        return numbers;
+    }
+}
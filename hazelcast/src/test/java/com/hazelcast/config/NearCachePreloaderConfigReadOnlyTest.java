@@ -51,4 +51,19 @@ public class NearCachePreloaderConfigReadOnlyTest {
     public void setStoreIntervalSecondsOnReadOnlyNearCachePreloaderConfigShouldFail() {
         getReadOnlyConfig().setStoreIntervalSeconds(5);
     }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void setStoreValuesOnReadOnlyNearCachePreloaderConfigShouldFail() {
+        getReadOnlyConfig().setStoreValues(true);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void setLoadConcurrencyOnReadOnlyNearCachePreloaderConfigShouldFail() {
+        getReadOnlyConfig().setLoadConcurrency(2);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void setLoadRateLimitOnReadOnlyNearCachePreloaderConfigShouldFail() {
+        getReadOnlyConfig().setLoadRateLimit(100);
+    }
 }
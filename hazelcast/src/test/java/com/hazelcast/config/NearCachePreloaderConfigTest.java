@@ -85,12 +85,40 @@ public class NearCachePreloaderConfigTest {
         config.setStoreIntervalSeconds(-1);
     }
 
+    @Test
+    public void setLoadConcurrency() {
+        config.setLoadConcurrency(8);
+
+        assertEquals(8, config.getLoadConcurrency());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setLoadConcurrency_withZero() {
+        config.setLoadConcurrency(0);
+    }
+
+    @Test
+    public void setLoadRateLimit() {
+        config.setLoadRateLimit(0);
+        config.setLoadRateLimit(1000);
+
+        assertEquals(1000, config.getLoadRateLimit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setLoadRateLimit_withNegative() {
+        config.setLoadRateLimit(-1);
+    }
+
     @Test
     public void testSerialization() {
         config.setEnabled(true);
         config.setDirectory("myParentDirectory");
         config.setStoreInitialDelaySeconds(23);
         config.setStoreIntervalSeconds(42);
+        config.setStoreValues(true);
+        config.setLoadConcurrency(8);
+        config.setLoadRateLimit(1000);
 
         SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
         Data serialized = serializationService.toData(config);
@@ -100,6 +128,9 @@ public class NearCachePreloaderConfigTest {
         assertEquals(config.getDirectory(), deserialized.getDirectory());
         assertEquals(config.getStoreInitialDelaySeconds(), deserialized.getStoreInitialDelaySeconds());
         assertEquals(config.getStoreIntervalSeconds(), deserialized.getStoreIntervalSeconds());
+        assertEquals(config.isStoreValues(), deserialized.isStoreValues());
+        assertEquals(config.getLoadConcurrency(), deserialized.getLoadConcurrency());
+        assertEquals(config.getLoadRateLimit(), deserialized.getLoadRateLimit());
         assertEquals(config.toString(), deserialized.toString());
     }
 }
@@ -18,6 +18,7 @@ package com.hazelcast.internal.config;
 
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
@@ -30,6 +31,8 @@ import org.junit.runner.RunWith;
 import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
+import static com.hazelcast.config.MaxSizePolicy.USED_NATIVE_MEMORY_PERCENTAGE;
+import static com.hazelcast.config.MaxSizePolicy.USED_NATIVE_MEMORY_SIZE;
 import static com.hazelcast.config.NearCacheConfig.LocalUpdatePolicy.CACHE_ON_UPDATE;
 import static com.hazelcast.config.NearCacheConfig.LocalUpdatePolicy.INVALIDATE;
 import static com.hazelcast.internal.config.ConfigValidator.checkNearCacheConfig;
@@ -51,13 +54,36 @@ public class ConfigValidatorNearCacheConfigTest extends HazelcastTestSupport {
     }
 
     /**
-     * Not supported in open source version, so test is expected to throw exception.
+     * Not supported in open source version without native memory config, so test is expected to throw exception.
      */
     @Test(expected = InvalidConfigurationException.class)
     public void checkNearCacheConfig_NATIVE() {
         checkNearCacheConfig(MAP_NAME, getNearCacheConfig(NATIVE), null, false);
     }
 
+    @Test(expected = InvalidConfigurationException.class)
+    public void checkNearCacheConfig_NATIVE_withDisabledNativeMemoryConfig() {
+        checkNearCacheConfig(MAP_NAME, getNearCacheConfig(NATIVE), new NativeMemoryConfig(), false);
+    }
+
+    @Test
+    public void checkNearCacheConfig_NATIVE_withEnabledNativeMemoryConfig() {
+        NearCacheConfig nearCacheConfig = getNearCacheConfig(NATIVE);
+        nearCacheConfig.getEvictionConfig()
+                .setMaxSizePolicy(USED_NATIVE_MEMORY_SIZE);
+
+        checkNearCacheConfig(MAP_NAME, nearCacheConfig, new NativeMemoryConfig().setEnabled(true), false);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void checkNearCacheConfig_NATIVE_withUnsupportedMaxSizePolicy() {
+        NearCacheConfig nearCacheConfig = getNearCacheConfig(NATIVE);
+        nearCacheConfig.getEvictionConfig()
+                .setMaxSizePolicy(USED_NATIVE_MEMORY_PERCENTAGE);
+
+        checkNearCacheConfig(MAP_NAME, nearCacheConfig, new NativeMemoryConfig().setEnabled(true), false);
+    }
+
     /**
      * Not supported client configuration, so test is expected to throw exception.
      */
@@ -24,6 +24,7 @@ import com.hazelcast.config.InvalidConfigurationException;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.MaxSizePolicy;
 import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.cp.CPSubsystemConfig;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.merge.SplitBrainMergePolicyProvider;
@@ -44,6 +45,7 @@ import static com.hazelcast.config.InMemoryFormat.OBJECT;
 import static com.hazelcast.internal.config.ConfigValidator.checkCPSubsystemConfig;
 import static com.hazelcast.internal.config.ConfigValidator.checkCacheConfig;
 import static com.hazelcast.internal.config.ConfigValidator.checkMapConfig;
+import static com.hazelcast.internal.config.ConfigValidator.checkNearCacheConfig;
 import static com.hazelcast.internal.config.ConfigValidator.checkNearCacheNativeMemoryConfig;
 import static org.mockito.Mockito.when;
 
@@ -107,6 +109,34 @@ public class ConfigValidatorTest extends HazelcastTestSupport {
         checkCacheConfig(cacheSimpleConfig, splitBrainMergePolicyProvider);
     }
 
+    @Test
+    public void checkNearCacheConfig_withUsedHeapSizeMaxSizePolicy_BINARY() {
+        checkNearCacheConfig("map", getNearCacheConfig(BINARY, MaxSizePolicy.USED_HEAP_SIZE), nativeMemoryConfig, false);
+    }
+
+    @Test
+    public void checkNearCacheConfig_withUsedHeapPercentageMaxSizePolicy_BINARY() {
+        checkNearCacheConfig("map", getNearCacheConfig(BINARY, MaxSizePolicy.USED_HEAP_PERCENTAGE), nativeMemoryConfig, false);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void checkNearCacheConfig_withUsedHeapSizeMaxSizePolicy_OBJECT() {
+        checkNearCacheConfig("map", getNearCacheConfig(OBJECT, MaxSizePolicy.USED_HEAP_SIZE), nativeMemoryConfig, false);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void checkNearCacheConfig_withFreeHeapSizeMaxSizePolicy_BINARY() {
+        checkNearCacheConfig("map", getNearCacheConfig(BINARY, MaxSizePolicy.FREE_HEAP_SIZE), nativeMemoryConfig, false);
+    }
+
+    private static NearCacheConfig getNearCacheConfig(InMemoryFormat inMemoryFormat, MaxSizePolicy maxSizePolicy) {
+        NearCacheConfig nearCacheConfig = new NearCacheConfig()
+                .setInMemoryFormat(inMemoryFormat);
+        nearCacheConfig.getEvictionConfig()
+                .setMaxSizePolicy(maxSizePolicy);
+        return nearCacheConfig;
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void checkCacheConfig_withEntryCountMaxSizePolicy_NATIVE() {
         EvictionConfig evictionConfig = new EvictionConfig()
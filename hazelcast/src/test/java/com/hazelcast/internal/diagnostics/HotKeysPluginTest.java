@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.diagnostics;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.impl.CapturingCollector;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Properties;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.HOTKEYS_METRIC_HOTTEST_KEY_HASH;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.HOTKEYS_METRIC_HOTTEST_PARTITION_ID;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.HOTKEYS_METRIC_OPERATION_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.HOTKEYS_PREFIX;
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.test.Accessors.getPartitionService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class HotKeysPluginTest extends AbstractDiagnosticsPluginTest {
+
+    private static final int PARTITION_COUNT = 10;
+
+    private final Data hotKey = new HeapData(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 1});
+    private final Data coldKey = new HeapData(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 2});
+
+    private MetricsRegistry metricsRegistry;
+    private HotKeysPlugin plugin;
+    private Diagnostics diagnostics;
+
+    @Before
+    public void setup() {
+        Properties properties = new Properties();
+        properties.put(HotKeysPlugin.PERIOD_SECONDS.getName(), "1");
+        properties.put(HotKeysPlugin.SAMPLE_INTERVAL.getName(), "1");
+        metricsRegistry = new MetricsRegistryImpl(Logger.getLogger(MetricsRegistryImpl.class), INFO);
+        plugin = new HotKeysPlugin(Logger.getLogger(HotKeysPlugin.class), new HazelcastProperties(properties),
+                PARTITION_COUNT, metricsRegistry);
+        plugin.onStart();
+    }
+
+    @After
+    public void teardown() {
+        cleanupDiagnosticFiles(diagnostics);
+    }
+
+    @Test
+    public void testGetPeriodMillis() {
+        assertEquals(1000, plugin.getPeriodMillis());
+    }
+
+    @Test
+    public void testRun() {
+        HotKeysPlugin.HotKeys hotKeys = plugin.getHotKeys("map");
+        for (int k = 0; k < 100; k++) {
+            hotKeys.record(3, hotKey);
+        }
+        hotKeys.record(7, coldKey);
+
+        plugin.run(logWriter);
+
+        assertContains("HotKeys[");
+        assertContains("map[");
+        assertContains("operationCount=101");
+        assertContains("partition-3=100");
+        assertContains("hash-" + Integer.toHexString(hotKey.hashCode()) + " partition-3=~100");
+        assertContains("partition-7=1");
+    }
+
+    @Test
+    public void testRun_countsArePerPeriod() {
+        HotKeysPlugin.HotKeys hotKeys = plugin.getHotKeys("map");
+        hotKeys.record(3, hotKey);
+        plugin.run(logWriter);
+
+        reset();
+        hotKeys.record(7, coldKey);
+        plugin.run(logWriter);
+
+        assertContains("operationCount=1");
+        assertContains("partition-7=1");
+        assertNotContains("partition-3");
+    }
+
+    @Test
+    public void testMetrics() {
+        HotKeysPlugin.HotKeys hotKeys = plugin.getHotKeys("map");
+        for (int k = 0; k < 100; k++) {
+            hotKeys.record(3, hotKey);
+        }
+        plugin.run(logWriter);
+
+        CapturingCollector collector = new CapturingCollector();
+        metricsRegistry.collect(collector);
+
+        assertEquals(100L, capturedValue(collector, HOTKEYS_METRIC_OPERATION_COUNT));
+        assertEquals(3L, capturedValue(collector, HOTKEYS_METRIC_HOTTEST_PARTITION_ID));
+        assertEquals((long) hotKey.hashCode(), capturedValue(collector, HOTKEYS_METRIC_HOTTEST_KEY_HASH));
+    }
+
+    @Test
+    public void testRemoveHotKeys() {
+        plugin.getHotKeys("map").record(3, hotKey);
+        plugin.removeHotKeys("map");
+
+        plugin.run(logWriter);
+
+        assertNotContains("map[");
+    }
+
+    @Test
+    public void testMapOperations() {
+        Config config = smallInstanceConfig()
+                .setProperty(Diagnostics.ENABLED.getName(), "true")
+                .setProperty(HotKeysPlugin.PERIOD_SECONDS.getName(), "3600")
+                .setProperty(HotKeysPlugin.SAMPLE_INTERVAL.getName(), "1");
+        HazelcastInstance hz = createHazelcastInstance(config);
+        diagnostics = getDiagnostics(hz);
+        HotKeysPlugin memberPlugin = diagnostics.getPlugin(HotKeysPlugin.class);
+        assertNotNull(memberPlugin);
+
+        IMap<String, Integer> map = hz.getMap(randomMapName());
+        String key = randomString();
+        int partitionId = getPartitionService(hz).getPartitionId(key);
+
+        // the scheduled run of the plugin can split the operations over two windows
+        assertTrueEventually(() -> {
+            reset();
+            for (int k = 0; k < 100; k++) {
+                map.put(key, k);
+                map.get(key);
+            }
+            memberPlugin.run(logWriter);
+
+            assertContains(map.getName() + "[");
+            assertContains("partition-" + partitionId + "=200");
+        });
+
+        map.destroy();
+        reset();
+        memberPlugin.run(logWriter);
+        assertNotContains(map.getName() + "[");
+    }
+
+    @Test
+    public void testMapOperations_whenPluginRegisteredAfterMapCreated() {
+        Config config = smallInstanceConfig()
+                .setProperty(Diagnostics.ENABLED.getName(), "true");
+        HazelcastInstance hz = createHazelcastInstance(config);
+        diagnostics = getDiagnostics(hz);
+        assertNull(diagnostics.getPlugin(HotKeysPlugin.class));
+
+        IMap<String, Integer> map = hz.getMap(randomMapName());
+        String key = randomString();
+        map.put(key, 0);
+
+        Properties properties = new Properties();
+        properties.put(HotKeysPlugin.PERIOD_SECONDS.getName(), "3600");
+        properties.put(HotKeysPlugin.SAMPLE_INTERVAL.getName(), "1");
+        HotKeysPlugin memberPlugin = new HotKeysPlugin(Logger.getLogger(HotKeysPlugin.class),
+                new HazelcastProperties(properties), getPartitionService(hz).getPartitionCount(), metricsRegistry);
+        diagnostics.register(memberPlugin);
+
+        int partitionId = getPartitionService(hz).getPartitionId(key);
+
+        assertTrueEventually(() -> {
+            reset();
+            for (int k = 0; k < 100; k++) {
+                map.get(key);
+            }
+            memberPlugin.run(logWriter);
+
+            assertContains(map.getName() + "[");
+            assertContains("partition-" + partitionId + "=100");
+        });
+    }
+
+    @Test
+    public void testMapOperations_whenDisabled() {
+        HazelcastInstance hz = createHazelcastInstance(smallInstanceConfig());
+
+        assertNull(getDiagnostics(hz).getPlugin(HotKeysPlugin.class));
+    }
+
+    private static long capturedValue(CapturingCollector collector, String metric) {
+        for (MetricDescriptor descriptor : collector.captures().keySet()) {
+            if (HOTKEYS_PREFIX.equals(descriptor.prefix()) && metric.equals(descriptor.metric())) {
+                return collector.captures().get(descriptor).singleCapturedValue().longValue();
+            }
+        }
+        throw new AssertionError("metric " + metric + " not captured");
+    }
+}
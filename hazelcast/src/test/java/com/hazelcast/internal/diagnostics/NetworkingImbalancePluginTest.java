@@ -77,6 +77,8 @@ public class NetworkingImbalancePluginTest extends AbstractDiagnosticsPluginTest
                 assertContains("Networking");
                 assertContains("InputThreads");
                 assertContains("OutputThreads");
+                assertContains("bytes");
+                assertContains("process-time-ms");
             }
         });
     }
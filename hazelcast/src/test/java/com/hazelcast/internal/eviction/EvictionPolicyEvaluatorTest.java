@@ -17,8 +17,11 @@
 package com.hazelcast.internal.eviction;
 
 import com.hazelcast.cache.impl.record.CacheObjectRecord;
+import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.internal.eviction.impl.evaluator.ClockEvictionPolicyEvaluator;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
+import com.hazelcast.internal.eviction.impl.evaluator.TinyLFUEvictionPolicyEvaluator;
 import com.hazelcast.spi.eviction.EvictionPolicyComparator;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
@@ -31,8 +34,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider.getEvictionPolicyEvaluator;
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category(QuickTest.class)
@@ -221,4 +227,118 @@ public class EvictionPolicyEvaluatorTest extends HazelcastTestSupport {
             assertEquals(expectedEvictedRecordValue, evictedRecord.getValue());
         }
     }
+
+    @Test
+    public void test_leastFrequentlyAccessedKey_isSelected_when_evictionPolicy_is_TINY_LFU() {
+        final int recordCount = 100;
+        final int expectedEvictedRecordValue = recordCount / 2;
+
+        TinyLFUEvictionPolicyEvaluator<Integer, CacheObjectRecord> evictionPolicyEvaluator = newTinyLFUEvaluator();
+        List<EvictionCandidate<Integer, CacheObjectRecord>> records = new ArrayList<>();
+
+        for (int i = 0; i < recordCount; i++) {
+            CacheObjectRecord record = new CacheObjectRecord(i, System.currentTimeMillis(), Long.MAX_VALUE);
+            // the key in the middle is never accessed, so it will be selected for eviction
+            // even though it has the most hits
+            record.setHits(recordCount);
+            if (i != expectedEvictedRecordValue) {
+                for (int j = 0; j < 3; j++) {
+                    evictionPolicyEvaluator.recordAccess(i, recordCount);
+                }
+            }
+            records.add(new SimpleEvictionCandidate<>(i, record));
+        }
+
+        EvictionCandidate<Integer, CacheObjectRecord> evictionCandidate = evictionPolicyEvaluator.evaluate(records);
+
+        assertNotNull(evictionCandidate);
+        assertEquals(expectedEvictedRecordValue, evictionCandidate.getEvictable().getValue());
+    }
+
+    @Test
+    public void test_leastRecentlyAccessedEntry_isSelected_when_evictionPolicy_is_TINY_LFU_and_frequenciesAreEqual() {
+        TinyLFUEvictionPolicyEvaluator<Integer, CacheObjectRecord> evictionPolicyEvaluator = newTinyLFUEvaluator();
+        long now = System.currentTimeMillis();
+        CacheObjectRecord recentRecord = new CacheObjectRecord(1, now, Long.MAX_VALUE);
+        recentRecord.setLastAccessTime(now);
+        CacheObjectRecord oldRecord = new CacheObjectRecord(2, now, Long.MAX_VALUE);
+        oldRecord.setLastAccessTime(now - 1000);
+
+        EvictionCandidate<Integer, CacheObjectRecord> evictionCandidate = evictionPolicyEvaluator.evaluate(asList(
+                new SimpleEvictionCandidate<>(1, recentRecord), new SimpleEvictionCandidate<>(2, oldRecord)));
+
+        assertEquals(2, evictionCandidate.getEvictable().getValue());
+    }
+
+    @Test
+    public void test_admission_when_evictionPolicy_is_TINY_LFU() {
+        TinyLFUEvictionPolicyEvaluator<Integer, CacheObjectRecord> evictionPolicyEvaluator = newTinyLFUEvaluator();
+        CacheObjectRecord victimRecord = new CacheObjectRecord(1, System.currentTimeMillis(), Long.MAX_VALUE);
+        SimpleEvictionCandidate<Integer, CacheObjectRecord> victim = new SimpleEvictionCandidate<>(1, victimRecord);
+        evictionPolicyEvaluator.recordAccess(1, 2);
+        evictionPolicyEvaluator.recordAccess(1, 2);
+
+        evictionPolicyEvaluator.recordAccess(2, 2);
+        assertFalse(evictionPolicyEvaluator.admit(2, victim));
+
+        evictionPolicyEvaluator.recordAccess(2, 2);
+        assertTrue(evictionPolicyEvaluator.admit(2, victim));
+
+        // an expired victim is always evicted
+        victimRecord.setExpirationTime(System.currentTimeMillis() - 1);
+        assertTrue(evictionPolicyEvaluator.admit(3, victim));
+    }
+
+    @Test
+    public void test_unreferencedEntry_isSelected_when_evictionPolicy_is_CLOCK() {
+        EvictionPolicyEvaluator<Integer, CacheObjectRecord> evictionPolicyEvaluator = newClockEvaluator();
+        long now = System.currentTimeMillis();
+        // the referenced record is accessed less recently, but it gets a second chance
+        CacheObjectRecord referencedRecord = new CacheObjectRecord(1, now, Long.MAX_VALUE);
+        referencedRecord.onAccessRelaxed(now - 10000);
+        CacheObjectRecord unreferencedRecord = new CacheObjectRecord(2, now, Long.MAX_VALUE);
+        unreferencedRecord.setLastAccessTime(now);
+        List<EvictionCandidate<Integer, CacheObjectRecord>> candidates = asList(
+                new SimpleEvictionCandidate<>(1, referencedRecord), new SimpleEvictionCandidate<>(2, unreferencedRecord));
+
+        EvictionCandidate<Integer, CacheObjectRecord> evictionCandidate = evictionPolicyEvaluator.evaluate(candidates);
+
+        assertEquals(2, evictionCandidate.getEvictable().getValue());
+        assertFalse(referencedRecord.clearReferenced());
+    }
+
+    @Test
+    public void test_leastRecentlyAccessedEntry_isSelected_when_evictionPolicy_is_CLOCK_and_allEntriesAreReferenced() {
+        EvictionPolicyEvaluator<Integer, CacheObjectRecord> evictionPolicyEvaluator = newClockEvaluator();
+        long now = System.currentTimeMillis();
+        CacheObjectRecord recentRecord = new CacheObjectRecord(1, now, Long.MAX_VALUE);
+        recentRecord.onAccessRelaxed(now);
+        CacheObjectRecord oldRecord = new CacheObjectRecord(2, now, Long.MAX_VALUE);
+        oldRecord.onAccessRelaxed(now - 10000);
+        List<EvictionCandidate<Integer, CacheObjectRecord>> candidates = asList(
+                new SimpleEvictionCandidate<>(1, recentRecord), new SimpleEvictionCandidate<>(2, oldRecord));
+
+        EvictionCandidate<Integer, CacheObjectRecord> evictionCandidate = evictionPolicyEvaluator.evaluate(candidates);
+
+        assertEquals(2, evictionCandidate.getEvictable().getValue());
+        // the reference bits of all candidates are cleared
+        assertFalse(recentRecord.clearReferenced());
+        assertFalse(oldRecord.clearReferenced());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EvictionPolicyEvaluator<Integer, CacheObjectRecord> newClockEvaluator() {
+        EvictionConfig evictionConfig = new EvictionConfig().setEvictionPolicy(EvictionPolicy.CLOCK);
+        EvictionPolicyEvaluator evictionPolicyEvaluator = getEvictionPolicyEvaluator(evictionConfig, null);
+        assertInstanceOf(ClockEvictionPolicyEvaluator.class, evictionPolicyEvaluator);
+        return evictionPolicyEvaluator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TinyLFUEvictionPolicyEvaluator<Integer, CacheObjectRecord> newTinyLFUEvaluator() {
+        EvictionConfig evictionConfig = new EvictionConfig().setEvictionPolicy(EvictionPolicy.TINY_LFU);
+        EvictionPolicyEvaluator evictionPolicyEvaluator = getEvictionPolicyEvaluator(evictionConfig, null);
+        assertInstanceOf(TinyLFUEvictionPolicyEvaluator.class, evictionPolicyEvaluator);
+        return (TinyLFUEvictionPolicyEvaluator<Integer, CacheObjectRecord>) evictionPolicyEvaluator;
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.eviction.RelaxedAccessStats.EXACT_HITS;
+import static com.hazelcast.internal.eviction.RelaxedAccessStats.incrementHits;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class RelaxedAccessStatsTest {
+
+    @Test
+    public void testIncrementHits_isExact_belowExactHits() {
+        int hits = 0;
+        for (int i = 0; i < EXACT_HITS; i++) {
+            hits = incrementHits(hits);
+        }
+
+        assertEquals(EXACT_HITS, hits);
+    }
+
+    @Test
+    public void testIncrementHits_isUnbiased() {
+        int accesses = 1000;
+        int runs = 1000;
+
+        long total = 0;
+        for (int run = 0; run < runs; run++) {
+            int hits = 0;
+            for (int i = 0; i < accesses; i++) {
+                hits = incrementHits(hits);
+            }
+            total += hits;
+        }
+
+        double average = (double) total / runs;
+        assertTrue("average: " + average, Math.abs(average - accesses) < accesses * 0.05);
+    }
+
+    @Test
+    public void testIncrementHits_writesRarely_forHotEntries() {
+        int hits = 1 << 20;
+        int changed = 0;
+        for (int i = 0; i < 1000; i++) {
+            int newHits = incrementHits(hits);
+            if (newHits != hits) {
+                changed++;
+                hits = newHits;
+            }
+        }
+
+        assertTrue("changed: " + changed, changed < 100);
+    }
+
+    @Test
+    public void testIncrementHits_doesNotOverflow() {
+        assertEquals(Integer.MAX_VALUE, incrementHits(Integer.MAX_VALUE));
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(incrementHits(Integer.MAX_VALUE - 1) > 0);
+        }
+    }
+}
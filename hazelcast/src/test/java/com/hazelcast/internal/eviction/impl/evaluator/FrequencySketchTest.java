@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction.impl.evaluator;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class FrequencySketchTest {
+
+    private static final int MAX_FREQUENCY = 15;
+
+    private final FrequencySketch sketch = new FrequencySketch();
+
+    @Test
+    public void frequency_whenNotIncremented_thenZero() {
+        assertEquals(0, sketch.frequency(42));
+    }
+
+    @Test
+    public void increment() {
+        sketch.increment(42);
+        sketch.increment(42);
+        sketch.increment(42);
+
+        assertEquals(3, sketch.frequency(42));
+    }
+
+    @Test
+    public void increment_saturates() {
+        for (int i = 0; i < 2 * MAX_FREQUENCY; i++) {
+            sketch.increment(42);
+        }
+
+        assertEquals(MAX_FREQUENCY, sketch.frequency(42));
+    }
+
+    @Test
+    public void increment_concurrently_thenNoIncrementLost() throws Exception {
+        int threadCount = 4;
+        int incrementsPerThread = 3;
+        int keyCount = 8;
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < incrementsPerThread; i++) {
+                    for (int key = 0; key < keyCount; key++) {
+                        sketch.increment(key);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int key = 0; key < keyCount; key++) {
+            assertTrue(sketch.frequency(key) >= threadCount * incrementsPerThread);
+        }
+    }
+
+    @Test
+    public void frequency_isNeverUnderestimated() {
+        sketch.ensureCapacity(512);
+        for (int key = 0; key < 512; key++) {
+            for (int i = 0; i < key % 4; i++) {
+                sketch.increment(key);
+            }
+        }
+
+        for (int key = 0; key < 512; key++) {
+            assertTrue(sketch.frequency(key) >= key % 4);
+        }
+    }
+
+    @Test
+    public void increment_whenSampleSizeReached_thenFrequenciesHalved() {
+        for (int i = 0; i < MAX_FREQUENCY; i++) {
+            sketch.increment(42);
+        }
+
+        // the sketch is reset after 10 increments per long, so 160 for the minimum capacity
+        int increments = 0;
+        while (sketch.frequency(42) == MAX_FREQUENCY) {
+            sketch.increment(1000 + increments++);
+            assertTrue(increments <= 160);
+        }
+
+        assertEquals(MAX_FREQUENCY / 2, sketch.frequency(42));
+    }
+
+    @Test
+    public void ensureCapacity_whenLarger_thenResized() {
+        sketch.increment(42);
+
+        sketch.ensureCapacity(1000);
+
+        assertEquals(1024, sketch.capacity());
+        assertEquals(0, sketch.frequency(42));
+    }
+
+    @Test
+    public void ensureCapacity_whenSmaller_thenNotResized() {
+        sketch.ensureCapacity(1000);
+        sketch.increment(42);
+
+        sketch.ensureCapacity(100);
+
+        assertEquals(1024, sketch.capacity());
+        assertEquals(1, sketch.frequency(42));
+    }
+
+    @Test
+    public void clear() {
+        sketch.increment(42);
+
+        sketch.clear();
+
+        assertEquals(0, sketch.frequency(42));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.jfr;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.operation.PutOperation;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.QuickTest;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.hazelcast.test.Accessors.getAddress;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class JfrEventsTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+
+    private Recording recording;
+    private File file;
+
+    @Before
+    public void setup() throws Exception {
+        assumeTrue(JfrEvents.ENABLED);
+
+        file = File.createTempFile("hazelcast", ".jfr");
+        recording = new Recording();
+        recording.enable("com.hazelcast.Invocation").withoutThreshold();
+        recording.enable("com.hazelcast.Operation").withoutThreshold();
+        recording.enable("com.hazelcast.Migration").withoutThreshold();
+        recording.enable("com.hazelcast.SelectionKeys").withoutThreshold();
+        recording.start();
+    }
+
+    @After
+    public void tearDown() {
+        if (recording != null) {
+            recording.close();
+        }
+        if (file != null) {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testInvocationAndOperationEvents() throws Exception {
+        HazelcastInstance hz = createHazelcastInstance(smallInstanceConfig());
+        IMap<Integer, Integer> map = hz.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        List<RecordedEvent> events = stopRecording();
+
+        int invocations = 0;
+        int operations = 0;
+        for (RecordedEvent event : events) {
+            if (!PutOperation.class.getName().equals(event.getString("operation"))) {
+                continue;
+            }
+            String name = event.getEventType().getName();
+            if (name.equals("com.hazelcast.Invocation")) {
+                assertEquals("response", event.getString("outcome"));
+                assertEquals(getAddress(hz).toString(), event.getString("target"));
+                assertTrue(event.getLong("elapsedNanos") > 0);
+                invocations++;
+            } else if (name.equals("com.hazelcast.Operation")) {
+                assertTrue(event.getInt("partitionId") >= 0);
+                operations++;
+            }
+        }
+        assertEquals(ENTRY_COUNT, invocations);
+        assertEquals(ENTRY_COUNT, operations);
+    }
+
+    @Test
+    public void testMigrationEvents() throws Exception {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance hz1 = factory.newHazelcastInstance(smallInstanceConfig());
+        warmUpPartitions(hz1);
+        HazelcastInstance hz2 = factory.newHazelcastInstance(smallInstanceConfig());
+        waitAllForSafeState(hz1, hz2);
+
+        List<RecordedEvent> events = stopRecording();
+
+        int migrations = 0;
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("com.hazelcast.Migration")) {
+                assertEquals("SUCCESS", event.getString("status"));
+                migrations++;
+            }
+        }
+        assertTrue(migrations > 0);
+    }
+
+    private List<RecordedEvent> stopRecording() throws Exception {
+        recording.stop();
+        Path path = file.toPath();
+        recording.dump(path);
+        return RecordingFile.readAllEvents(path);
+    }
+}
@@ -197,6 +197,39 @@ public abstract class AbstractNearCachePreloaderTest<NK, NV> extends HazelcastTe
         assertNearCacheContent(clientContext, keyCount, keyType);
     }
 
+    @Test(timeout = 10 * MINUTE)
+    public void testStoreAndLoad_withStoredValues() {
+        int keyCount = 1000;
+        nearCacheConfig.getPreloaderConfig()
+                .setStoreInitialDelaySeconds(3)
+                .setStoreIntervalSeconds(1)
+                .setStoreValues(true)
+                .setLoadConcurrency(2);
+
+        NearCacheTestContext<Object, String, NK, NV> context = createContext(true);
+
+        populateDataAdapter(context, keyCount, INTEGER);
+        populateNearCache(context, keyCount, INTEGER);
+        waitForNearCachePersistence(context, 1);
+        assertLastNearCachePersistence(context, getStoreFile(), keyCount);
+
+        // shutdown the first client and change a value, so its stored value is outdated
+        context.nearCacheInstance.shutdown();
+        context.dataAdapter.put(0, "changed-value");
+
+        // start a new client which will kick off the Near Cache pre-loader
+        NearCacheTestContext<Object, String, NK, NV> clientContext = createNearCacheContext();
+
+        // wait until the pre-loading is done, then check that the outdated value has not been restored
+        assertNearCachePreloadDoneEventually(clientContext);
+        assertNearCacheSizeEventually(clientContext, keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            Object nearCacheKey = getNearCacheKey(clientContext, i);
+            String value = clientContext.serializationService.toObject(getValueFromNearCache(clientContext, nearCacheKey));
+            assertEquals(i == 0 ? "changed-value" : "value-" + i, value);
+        }
+    }
+
     @Test(timeout = 10 * MINUTE)
     @Category(SlowTest.class)
     public void testCreateStoreFile_withInvalidDirectory() {
@@ -36,6 +36,7 @@ import org.junit.Before;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.hazelcast.config.NearCacheConfig.DEFAULT_MEMORY_FORMAT;
@@ -355,7 +356,7 @@ public abstract class NearCacheTestSupport extends CommonNearCacheTestSupport {
         }
 
         @Override
-        public void loadKeys(DataStructureAdapter adapter) {
+        public void loadKeys(DataStructureAdapter adapter, Executor executor) {
         }
 
         @Override
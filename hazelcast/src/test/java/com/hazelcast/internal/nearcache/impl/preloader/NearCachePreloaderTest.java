@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.preloader;
+
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.monitor.impl.NearCacheStatsImpl;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.record.NearCacheObjectRecord;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.internal.nio.IOUtil.deleteQuietly;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NearCachePreloaderTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 1000;
+
+    private final String nearCacheName = randomName();
+    private final File storeFile = new File("nearCache-" + nearCacheName + ".store").getAbsoluteFile();
+    private final File storeLockFile = new File(storeFile.getName() + ".lock").getAbsoluteFile();
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final NearCacheStatsImpl nearCacheStats = new NearCacheStatsImpl();
+    private final NearCachePreloaderConfig preloaderConfig = new NearCachePreloaderConfig(storeFile.getParent());
+    private final Set<Object> loadedKeys = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Set<String> loaderThreads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private NearCachePreloader<Integer> preloader;
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        if (preloader != null) {
+            preloader.destroy();
+        }
+        deleteQuietly(storeFile);
+        deleteQuietly(storeLockFile);
+    }
+
+    @Test
+    public void testLoadKeys_withConcurrency() {
+        preloaderConfig.setLoadConcurrency(4);
+        preloader = createPreloader();
+        preloader.storeKeys(keys().iterator());
+
+        preloader.loadKeys(createAdapter(), executor);
+
+        assertEquals(KEY_COUNT, loadedKeys.size());
+        assertTrue("Expected the keys to be loaded by more than one thread, but were loaded by " + loaderThreads,
+                loaderThreads.size() > 1);
+    }
+
+    @Test
+    public void testLoadKeys_withConcurrency_whenExecutorDoesNotRunLoaders_thenLoadedByCallingThread() {
+        preloaderConfig.setLoadConcurrency(4);
+        preloader = createPreloader();
+        preloader.storeKeys(keys().iterator());
+        List<Runnable> pendingLoaders = new ArrayList<>();
+
+        preloader.loadKeys(createAdapter(), pendingLoaders::add);
+
+        assertEquals(KEY_COUNT, loadedKeys.size());
+        assertEquals(singleton(Thread.currentThread().getName()), loaderThreads);
+        assertEquals(3, pendingLoaders.size());
+
+        // loaders that start after the loading is done don't load anything
+        pendingLoaders.forEach(Runnable::run);
+        assertEquals(singleton(Thread.currentThread().getName()), loaderThreads);
+    }
+
+    @Test
+    public void testLoadKeys_withRateLimit() {
+        preloaderConfig.setLoadRateLimit(KEY_COUNT);
+        preloader = createPreloader();
+        preloader.storeKeys(keys().iterator());
+
+        long startedNanos = System.nanoTime();
+        preloader.loadKeys(createAdapter(), executor);
+        long elapsedMillis = NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+
+        assertEquals(KEY_COUNT, loadedKeys.size());
+        // the first batch is loaded right away, the remaining batches take almost a second
+        assertTrue("Expected the loading to be throttled, but it took " + elapsedMillis + " ms", elapsedMillis >= 800);
+    }
+
+    @Test
+    public void testLoadKeys_withStoredValues() {
+        UUID partitionUuid = UUID.randomUUID();
+        preloaderConfig.setStoreValues(true);
+        preloader = createPreloader();
+        preloader.storeRecords(records(partitionUuid).iterator());
+
+        Map<Object, Object> restoredValues = new ConcurrentHashMap<>();
+        preloader.loadKeys(createAdapter(), (key, value, partitionId, uuid, sequence) -> {
+            // values of odd keys have changed since they were stored
+            Integer restoredKey = serializationService.toObject(key);
+            if (!partitionUuid.equals(uuid) || sequence != restoredKey || restoredKey % 2 == 1) {
+                return false;
+            }
+            restoredValues.put(restoredKey, serializationService.toObject(value));
+            return true;
+        }, executor);
+
+        assertEquals(KEY_COUNT / 2, restoredValues.size());
+        assertEquals(KEY_COUNT / 2, loadedKeys.size());
+        for (int i = 0; i < KEY_COUNT; i++) {
+            if (i % 2 == 0) {
+                assertEquals("value-" + i, restoredValues.get(i));
+            } else {
+                assertTrue("Expected key " + i + " to be loaded", loadedKeys.contains(i));
+            }
+        }
+    }
+
+    @Test
+    public void testLoadKeys_withStoredValues_withoutValueRestorer() {
+        preloaderConfig.setStoreValues(true);
+        preloader = createPreloader();
+        preloader.storeRecords(records(UUID.randomUUID()).iterator());
+
+        preloader.loadKeys(createAdapter(), executor);
+
+        assertEquals(KEY_COUNT, loadedKeys.size());
+    }
+
+    @Test
+    public void testStoreRecords_withoutInvalidationMetaData_thenNoValuesStored() {
+        preloaderConfig.setStoreValues(true);
+        preloader = createPreloader();
+        preloader.storeRecords(records(null).iterator());
+
+        preloader.loadKeys(createAdapter(), (key, value, partitionId, uuid, sequence) -> {
+            throw new AssertionError("There should be no stored values to restore");
+        }, executor);
+
+        assertEquals(KEY_COUNT, loadedKeys.size());
+    }
+
+    private NearCachePreloader<Integer> createPreloader() {
+        return new NearCachePreloader<>(nearCacheName, preloaderConfig, nearCacheStats, serializationService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private DataStructureAdapter<Object, ?> createAdapter() {
+        DataStructureAdapter<Object, ?> adapter = mock(DataStructureAdapter.class);
+        when(adapter.getAll(any())).then(invocation -> {
+            loaderThreads.add(Thread.currentThread().getName());
+            loadedKeys.addAll(invocation.getArgument(0));
+            return Collections.emptyMap();
+        });
+        return adapter;
+    }
+
+    private static List<Integer> keys() {
+        List<Integer> keys = new ArrayList<>(KEY_COUNT);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys.add(i);
+        }
+        return keys;
+    }
+
+    private static List<Map.Entry<Integer, NearCacheRecord>> records(UUID partitionUuid) {
+        List<Map.Entry<Integer, NearCacheRecord>> records = new ArrayList<>(KEY_COUNT);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            NearCacheObjectRecord<String> record = new NearCacheObjectRecord<>("value-" + i, 0, TIME_NOT_SET);
+            record.setUuid(partitionUuid);
+            record.setInvalidationSequence(i);
+            records.add(new SimpleImmutableEntry<>(i, record));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.nearcache.NearCache.CACHED_AS_NULL;
+import static com.hazelcast.internal.nearcache.NearCache.UpdateSemantic.READ_UPDATE;
+import static com.hazelcast.internal.nearcache.NearCache.UpdateSemantic.WRITE_UPDATE;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
+import static com.hazelcast.memory.MemoryUnit.KILOBYTES;
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NearCacheNativeRecordStoreTest extends HazelcastTestSupport {
+
+    private static final int VALUE_SIZE = (int) KILOBYTES.toBytes(10);
+
+    private SerializationService serializationService;
+    private NearCacheNativeRecordStore<Integer, String> store;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+    }
+
+    @After
+    public void tearDown() {
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    @Test
+    public void get_whenPut_thenValueReturned() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 1000));
+
+        for (int key = 0; key < 100; key++) {
+            put(key, "value-" + key);
+        }
+
+        for (int key = 0; key < 100; key++) {
+            assertEquals("value-" + key, store.get(key));
+        }
+        assertNull(store.get(100));
+        assertEquals(100, store.size());
+        assertEquals(100, store.getNearCacheStats().getOwnedEntryCount());
+        assertEquals(100, store.getNearCacheStats().getHits());
+        assertEquals(1, store.getNearCacheStats().getMisses());
+        assertTrue(store.getNearCacheStats().getOwnedEntryMemoryCost() > 0);
+    }
+
+    @Test
+    public void get_whenCachedAsNull_thenCachedAsNullReturned() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 1000));
+
+        put(1, null);
+
+        assertSame(CACHED_AS_NULL, store.get(1));
+    }
+
+    @Test
+    public void get_whenOnlyReserved_thenMiss() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 1000));
+
+        long reservationId = store.tryReserveForUpdate(1, null, READ_UPDATE);
+
+        assertNotEquals(NOT_RESERVED, reservationId);
+        assertNull(store.get(1));
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryCount());
+
+        store.tryPublishReserved(1, "value", reservationId, false);
+
+        assertEquals("value", store.get(1));
+        assertEquals(1, store.getNearCacheStats().getOwnedEntryCount());
+    }
+
+    @Test
+    public void tryReserveForUpdate_whenWriteUpdateOfReservedEntry_thenRemoved() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 1000));
+
+        long reservationId = store.tryReserveForUpdate(1, null, READ_UPDATE);
+
+        assertEquals(NOT_RESERVED, store.tryReserveForUpdate(1, null, WRITE_UPDATE));
+        assertNull(store.tryPublishReserved(1, "value", reservationId, true));
+        assertNull(store.get(1));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void tryReserveForUpdate_whenWriteUpdateOfPublishedEntry_thenUpdated() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 1000));
+        put(1, "value");
+
+        long reservationId = store.tryReserveForUpdate(1, null, WRITE_UPDATE);
+        assertEquals("newValue", store.tryPublishReserved(1, "newValue", reservationId, true));
+
+        assertEquals("newValue", store.get(1));
+        assertEquals(1, store.size());
+        assertEquals(1, store.getNearCacheStats().getOwnedEntryCount());
+    }
+
+    @Test
+    public void invalidate_thenRemovedAndMemoryFreed() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 1000));
+        long emptyMemoryCost = store.getNearCacheStats().getOwnedEntryMemoryCost();
+        put(1, "value");
+
+        store.invalidate(1);
+
+        assertNull(store.get(1));
+        assertNull(store.getRecord(1));
+        assertEquals(0, store.size());
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryCount());
+        assertEquals(emptyMemoryCost, store.getNearCacheStats().getOwnedEntryMemoryCost());
+        assertEquals(1, store.getNearCacheStats().getInvalidations());
+    }
+
+    @Test
+    public void getRecord_thenOnHeapCopyReturned() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 1000));
+        put(1, "value");
+        store.get(1);
+
+        NearCacheRecord record = store.getRecord(1);
+
+        assertNotNull(record);
+        assertEquals(serializationService.toData("value"), record.getValue());
+        assertEquals(1, record.getHits());
+        assertEquals(NearCacheRecord.READ_PERMITTED, record.getReservationId());
+    }
+
+    @Test
+    public void put_whenEntryCountExceeded_thenEvicted() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 100));
+
+        for (int key = 0; key < 1000; key++) {
+            put(key, "value-" + key);
+            assertTrue(store.size() <= 100);
+        }
+
+        assertEquals(100, store.size());
+        assertEquals(900, store.getNearCacheStats().getEvictions());
+        assertEquals(100, store.getNearCacheStats().getOwnedEntryCount());
+    }
+
+    @Test
+    public void put_whenUsedNativeMemorySizeExceeded_thenEvictedBackWithinLimit() {
+        createStore(newConfig(MaxSizePolicy.USED_NATIVE_MEMORY_SIZE, 1));
+        String value = new String(new char[VALUE_SIZE]);
+
+        int entryCount = (int) (5 * MEGABYTES.toBytes(1) / VALUE_SIZE);
+        for (int key = 0; key < entryCount; key++) {
+            put(key, value);
+            assertTrue(store.getNearCacheStats().getOwnedEntryMemoryCost() <= MEGABYTES.toBytes(1));
+        }
+
+        assertTrue(store.size() > 0);
+        assertTrue(store.size() < entryCount);
+        assertTrue(store.getNearCacheStats().getEvictions() > 0);
+    }
+
+    @Test
+    public void doExpiration_whenTimeToLiveExpired_thenRemoved() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 1000).setTimeToLiveSeconds(1));
+        long emptyMemoryCost = store.getNearCacheStats().getOwnedEntryMemoryCost();
+        for (int key = 0; key < 10; key++) {
+            put(key, "value-" + key);
+        }
+
+        assertTrueEventually(() -> {
+            store.doExpiration();
+            assertEquals(0, store.size());
+        });
+        assertEquals(10, store.getNearCacheStats().getExpirations());
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryCount());
+        assertEquals(emptyMemoryCost, store.getNearCacheStats().getOwnedEntryMemoryCost());
+    }
+
+    @Test
+    public void get_whenTimeToLiveExpired_thenMissAndRemoved() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 1000).setTimeToLiveSeconds(1));
+        long emptyMemoryCost = store.getNearCacheStats().getOwnedEntryMemoryCost();
+        put(1, "value");
+
+        sleepAtLeastMillis(1100);
+
+        assertNull(store.get(1));
+        assertEquals(0, store.size());
+        assertEquals(0, store.getNearCacheStats().getHits());
+        assertEquals(1, store.getNearCacheStats().getMisses());
+        assertEquals(1, store.getNearCacheStats().getExpirations());
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryCount());
+        assertEquals(emptyMemoryCost, store.getNearCacheStats().getOwnedEntryMemoryCost());
+    }
+
+    @Test
+    public void clear_thenAllEntriesRemoved() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 1000));
+        for (int key = 0; key < 100; key++) {
+            put(key, "value-" + key);
+        }
+
+        long memoryCost = store.getNearCacheStats().getOwnedEntryMemoryCost();
+
+        store.clear();
+
+        assertEquals(0, store.size());
+        assertNull(store.get(1));
+        assertTrue(store.getNearCacheStats().getOwnedEntryMemoryCost() < memoryCost);
+        assertEquals(100, store.getNearCacheStats().getInvalidations());
+
+        put(1, "value");
+        assertEquals("value", store.get(1));
+    }
+
+    @Test
+    public void destroy_thenAllMemoryFreed() {
+        createStore(newConfig(MaxSizePolicy.ENTRY_COUNT, 1000));
+        for (int key = 0; key < 100; key++) {
+            put(key, "value-" + key);
+        }
+
+        store.destroy();
+
+        assertEquals(0, store.size());
+        assertNull(store.get(1));
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryMemoryCost());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void construct_whenHeapMaxSizePolicy_thenFail() {
+        new NearCacheNativeRecordStore<>("name", newConfig(MaxSizePolicy.USED_HEAP_SIZE, 1), serializationService);
+    }
+
+    private static NearCacheConfig newConfig(MaxSizePolicy maxSizePolicy, int size) {
+        NearCacheConfig config = new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.NATIVE);
+        config.getEvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSizePolicy(maxSizePolicy)
+                .setSize(size);
+        return config;
+    }
+
+    private void createStore(NearCacheConfig config) {
+        store = new NearCacheNativeRecordStore<>("name", config, serializationService);
+        store.initialize();
+    }
+
+    private void put(int key, String value) {
+        store.doEviction(false);
+        store.put(key, serializationService.toData(key), value, null);
+    }
+}
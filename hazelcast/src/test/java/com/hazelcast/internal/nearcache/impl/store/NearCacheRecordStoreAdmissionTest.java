@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NearCacheRecordStoreAdmissionTest {
+
+    private static final int MAX_SIZE = 10;
+    private static final int NEW_KEY = 1000;
+
+    private SerializationService serializationService;
+    private NearCacheObjectRecordStore<Integer, Integer> store;
+
+    @Before
+    public void setUp() {
+        NearCacheConfig config = new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.OBJECT)
+                .setSerializeKeys(false);
+        config.getEvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.TINY_LFU)
+                .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                .setSize(MAX_SIZE);
+
+        serializationService = new DefaultSerializationServiceBuilder().build();
+
+        store = new NearCacheObjectRecordStore<>("name", config, serializationService, getClass().getClassLoader());
+        store.initialize();
+
+        for (int key = 0; key < MAX_SIZE; key++) {
+            // the misses are counted as accesses too
+            store.get(key);
+            put(key);
+            store.get(key);
+            store.get(key);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        store.destroy();
+    }
+
+    @Test
+    public void put_whenNewKeyAccessedLessOften_thenNotAdmitted() {
+        store.get(NEW_KEY);
+        put(NEW_KEY);
+
+        assertNull(store.getRecord(NEW_KEY));
+        assertEquals(MAX_SIZE, store.size());
+        for (int key = 0; key < MAX_SIZE; key++) {
+            assertNotNull(store.getRecord(key));
+        }
+    }
+
+    @Test
+    public void put_whenNewKeyAccessedAsOften_thenAdmitted() {
+        for (int i = 0; i < 3; i++) {
+            store.get(NEW_KEY);
+        }
+        put(NEW_KEY);
+
+        assertNotNull(store.getRecord(NEW_KEY));
+        assertEquals(MAX_SIZE, store.size());
+        assertEquals(1, store.getNearCacheStats().getEvictions());
+    }
+
+    private void put(int key) {
+        store.put(key, serializationService.toData(key), key, null);
+    }
+}
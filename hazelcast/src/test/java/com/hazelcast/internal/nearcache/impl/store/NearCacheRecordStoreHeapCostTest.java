@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.memory.MemoryUnit.KILOBYTES;
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NearCacheRecordStoreHeapCostTest {
+
+    private static final int MAX_SIZE_IN_MB = 1;
+    private static final int VALUE_SIZE = (int) KILOBYTES.toBytes(10);
+
+    private SerializationService serializationService;
+    private NearCacheDataRecordStore<Integer, byte[]> store;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+    }
+
+    @After
+    public void tearDown() {
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    @Test
+    public void put_whenUsedHeapSizeExceeded_thenEvictedBackWithinLimit() {
+        createStore(MaxSizePolicy.USED_HEAP_SIZE, MAX_SIZE_IN_MB);
+
+        int entryCount = 5 * MAX_SIZE_IN_MB * 1024 * 1024 / VALUE_SIZE;
+        for (int key = 0; key < entryCount; key++) {
+            put(key, VALUE_SIZE);
+            assertTrue(store.getNearCacheStats().getOwnedEntryMemoryCost() <= MEGABYTES.toBytes(MAX_SIZE_IN_MB));
+        }
+
+        assertTrue(store.size() > 0);
+        assertTrue(store.size() < entryCount);
+        assertTrue(store.getNearCacheStats().getEvictions() > 0);
+    }
+
+    @Test
+    public void put_whenUsedHeapPercentageExceeded_thenEvictedBackWithinLimit() {
+        createStore(MaxSizePolicy.USED_HEAP_PERCENTAGE, 1);
+        long maxHeapCost = Runtime.getRuntime().maxMemory() / 100;
+
+        int entryCount = (int) Math.min(10000, 2 * maxHeapCost / VALUE_SIZE);
+        for (int key = 0; key < entryCount; key++) {
+            put(key, VALUE_SIZE);
+        }
+
+        assertTrue(store.getNearCacheStats().getOwnedEntryMemoryCost() <= maxHeapCost);
+    }
+
+    @Test
+    public void put_whenSingleValueExceedsLimit_thenNotKept() {
+        createStore(MaxSizePolicy.USED_HEAP_SIZE, MAX_SIZE_IN_MB);
+
+        put(1, (int) MEGABYTES.toBytes(2 * MAX_SIZE_IN_MB));
+
+        assertNull(store.getRecord(1));
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryMemoryCost());
+    }
+
+    @Test
+    public void getOwnedEntryMemoryCost_whenDeserializedKeys_thenKeysIncluded() {
+        createStore(MaxSizePolicy.USED_HEAP_SIZE, MAX_SIZE_IN_MB);
+
+        put(1, VALUE_SIZE);
+
+        long cost = store.getNearCacheStats().getOwnedEntryMemoryCost();
+        long keyCost = store.getKeyStorageMemoryCost(1);
+        assertTrue(keyCost > serializationService.toData(1).getHeapCost());
+        assertTrue(cost > VALUE_SIZE + keyCost);
+
+        store.invalidate(1);
+
+        assertEquals(0, store.getNearCacheStats().getOwnedEntryMemoryCost());
+    }
+
+    private void createStore(MaxSizePolicy maxSizePolicy, int size) {
+        NearCacheConfig config = new NearCacheConfig()
+                .setInMemoryFormat(InMemoryFormat.BINARY)
+                .setSerializeKeys(false);
+        config.getEvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSizePolicy(maxSizePolicy)
+                .setSize(size);
+
+        store = new NearCacheDataRecordStore<>("name", config, serializationService, getClass().getClassLoader());
+        store.initialize();
+    }
+
+    private void put(int key, int valueSize) {
+        store.doEviction(false);
+        store.put(key, serializationService.toData(key), new byte[valueSize], null);
+    }
+}
@@ -89,6 +89,71 @@ public class LoadTrackerTest {
         assertEquals(owner2, loadImbalance.srcOwner);
     }
 
+    @Test
+    public void testUpdateImbalance_processTimeIsTakenIntoAccount() {
+        // owner1 processes more bytes, but owner2 spends a lot more time processing its tiny writes
+        MigratablePipeline owner1Pipeline1 = mock(MigratablePipeline.class);
+        when(owner1Pipeline1.load()).thenReturn(600L);
+        when(owner1Pipeline1.processTimeNanos()).thenReturn(100L);
+        when(owner1Pipeline1.owner()).thenReturn(owner1);
+        loadTracker.addPipeline(owner1Pipeline1);
+
+        MigratablePipeline owner1Pipeline2 = mock(MigratablePipeline.class);
+        when(owner1Pipeline2.load()).thenReturn(200L);
+        when(owner1Pipeline2.processTimeNanos()).thenReturn(100L);
+        when(owner1Pipeline2.owner()).thenReturn(owner1);
+        loadTracker.addPipeline(owner1Pipeline2);
+
+        MigratablePipeline owner2Pipeline1 = mock(MigratablePipeline.class);
+        when(owner2Pipeline1.load()).thenReturn(100L);
+        when(owner2Pipeline1.processTimeNanos()).thenReturn(400L);
+        when(owner2Pipeline1.owner()).thenReturn(owner2);
+        loadTracker.addPipeline(owner2Pipeline1);
+
+        MigratablePipeline owner2Pipeline2 = mock(MigratablePipeline.class);
+        when(owner2Pipeline2.load()).thenReturn(100L);
+        when(owner2Pipeline2.processTimeNanos()).thenReturn(400L);
+        when(owner2Pipeline2.owner()).thenReturn(owner2);
+        loadTracker.addPipeline(owner2Pipeline2);
+
+        // total load is 1000 and total process time is 1000ns, so a nanosecond is worth 1 load unit
+        LoadImbalance loadImbalance = loadTracker.updateImbalance();
+
+        assertEquals(1000, loadImbalance.minimumLoad);
+        assertEquals(1000, loadImbalance.maximumLoad);
+        assertEquals(700, loadImbalance.getLoad(owner1Pipeline1));
+        assertEquals(500, loadImbalance.getLoad(owner2Pipeline1));
+        assertEquals(400, loadTracker.getPipelineProcessTime().get(owner2Pipeline1));
+    }
+
+    @Test
+    public void testUpdateImbalance_processTimeIsScaledToLoad() {
+        MigratablePipeline owner1Pipeline = mock(MigratablePipeline.class);
+        when(owner1Pipeline.load()).thenReturn(100L);
+        when(owner1Pipeline.processTimeNanos()).thenReturn(1000000L);
+        when(owner1Pipeline.owner()).thenReturn(owner1);
+        loadTracker.addPipeline(owner1Pipeline);
+
+        MigratablePipeline owner2Pipeline1 = mock(MigratablePipeline.class);
+        when(owner2Pipeline1.load()).thenReturn(100L);
+        when(owner2Pipeline1.processTimeNanos()).thenReturn(0L);
+        when(owner2Pipeline1.owner()).thenReturn(owner2);
+        loadTracker.addPipeline(owner2Pipeline1);
+
+        MigratablePipeline owner2Pipeline2 = mock(MigratablePipeline.class);
+        when(owner2Pipeline2.load()).thenReturn(100L);
+        when(owner2Pipeline2.processTimeNanos()).thenReturn(0L);
+        when(owner2Pipeline2.owner()).thenReturn(owner2);
+        loadTracker.addPipeline(owner2Pipeline2);
+
+        LoadImbalance loadImbalance = loadTracker.updateImbalance();
+
+        // the process time doesn't dominate the load just because nanoseconds are small units
+        assertEquals(200, loadImbalance.minimumLoad);
+        assertEquals(400, loadImbalance.getLoad(owner1Pipeline));
+        assertEquals(owner2, loadImbalance.dstOwner);
+    }
+
     // there is no point in selecting a selector with a single handler as source.
     @Test
     public void testUpdateImbalance_notUsingSinglePipelineOwnerAsSource() throws Exception {
@@ -45,6 +45,10 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -223,6 +227,45 @@ public class AbstractSerializationServiceTest {
         abstractSerializationService.serializerFor(new CustomSerializationTest.Foo());
     }
 
+    @Test
+    public void getPartitionHash_whenPrimitiveKeys_thenSameAsSerialized() {
+        assertPartitionHashOfKeys(abstractSerializationService);
+    }
+
+    @Test
+    public void getPartitionHash_whenLittleEndian_thenSameAsSerialized() {
+        assertPartitionHashOfKeys(new DefaultSerializationServiceBuilder()
+                .setByteOrder(ByteOrder.LITTLE_ENDIAN)
+                .build());
+    }
+
+    @Test
+    public void getPartitionHash_whenPartitioningStrategy_thenSameAsSerialized() {
+        assertPartitionHashOfKeys(new DefaultSerializationServiceBuilder()
+                .setPartitioningStrategy(key -> key instanceof Long ? "partition-" + ((Long) key % 10) : null)
+                .build());
+    }
+
+    private static void assertPartitionHashOfKeys(InternalSerializationService serializationService) {
+        long[] values = {0, 1, -1, 42, Integer.MIN_VALUE, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE};
+        List<Object> keys = new ArrayList<>();
+        for (long value : values) {
+            keys.add(value);
+            keys.add((int) value);
+        }
+        Random random = new Random();
+        for (int k = 0; k < 100; k++) {
+            keys.add(random.nextLong());
+            keys.add(random.nextInt());
+        }
+        keys.add("key");
+
+        for (Object key : keys) {
+            assertEquals(key.toString(), serializationService.toData(key).getPartitionHash(),
+                    serializationService.getPartitionHash(key));
+        }
+    }
+
     @Test
     public void testDeserializationForSpecificType() {
         BaseClass baseObject = new BaseClass(5, "abc");
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl.bufferpool;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.AbstractSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.test.compatibility.SamplingSerializationService;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ByteArrayPoolTest {
+
+    private final ByteArrayPool pool = new ByteArrayPool(1024, 8192, 2);
+
+    @Test
+    public void take_whenEmpty_thenSizeClassLengthAllocated() {
+        assertEquals(1024, pool.take(10).length);
+        assertEquals(2048, pool.take(1025).length);
+        assertEquals(8192, pool.take(8192).length);
+    }
+
+    @Test
+    public void take_whenLargerThanMaxSize_thenExactLengthAllocated() {
+        assertEquals(10000, pool.take(10000).length);
+    }
+
+    @Test
+    public void take_whenOffered_thenReused() {
+        byte[] bytes = pool.take(2048);
+        assertTrue(pool.offer(bytes));
+
+        assertSame(bytes, pool.take(2000));
+        assertNotSame(bytes, pool.take(2000));
+    }
+
+    @Test
+    public void take_whenOnlyNextSizeClassPooled_thenReused() {
+        byte[] bytes = new byte[4096];
+        assertTrue(pool.offer(bytes));
+
+        assertSame(bytes, pool.take(2048));
+    }
+
+    @Test
+    public void offer_whenNotPowerOfTwo_thenPooledInLowerSizeClass() {
+        byte[] bytes = new byte[3000];
+        assertTrue(pool.offer(bytes));
+
+        assertSame(bytes, pool.take(2048));
+    }
+
+    @Test
+    public void offer_whenTooSmallOrTooLarge_thenDropped() {
+        assertFalse(pool.offer(new byte[100]));
+        assertFalse(pool.offer(new byte[16384]));
+    }
+
+    @Test
+    public void offer_whenSizeClassFull_thenDropped() {
+        assertTrue(pool.offer(new byte[1024]));
+        assertTrue(pool.offer(new byte[1024]));
+        assertFalse(pool.offer(new byte[1024]));
+    }
+
+    @Test
+    public void release_whenLastReference_thenReturnedToPool() {
+        byte[] bytes = pool.take(1024);
+        PooledByteArray pooled = new PooledByteArray(bytes, 10, pool);
+        pooled.retain();
+
+        assertFalse(pooled.release());
+        assertTrue(pooled.release());
+        assertSame(bytes, pool.take(1024));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void release_whenAlreadyReleased() {
+        PooledByteArray pooled = new PooledByteArray(new byte[1024], 10, pool);
+        pooled.release();
+        pooled.release();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void retain_whenAlreadyReleased() {
+        PooledByteArray pooled = new PooledByteArray(new byte[1024], 10, pool);
+        pooled.release();
+        pooled.retain();
+    }
+
+    @Test
+    public void toPooledBytes_matchesToBytes() {
+        AbstractSerializationService ss = (AbstractSerializationService) new DefaultSerializationServiceBuilder().build();
+        char[] value = new char[5000];
+        Arrays.fill(value, 'x');
+        String object = new String(value);
+
+        PooledByteArray pooled = ss.toPooledBytes(object, pool);
+
+        byte[] expected = ss.toBytes(object);
+        assertEquals(expected.length, pooled.length());
+        assertArrayEquals(expected, Arrays.copyOf(pooled.bytes(), pooled.length()));
+        assertEquals(object, ss.toObject(new HeapData(Arrays.copyOf(pooled.bytes(), pooled.length()))));
+    }
+
+    @Test
+    public void toPooledBytes_whenServiceDoesNotPool_thenExactlySizedCopyNotReturnedToPool() {
+        InternalSerializationService ss = new SamplingSerializationService(new DefaultSerializationServiceBuilder().build());
+        String object = "value";
+
+        PooledByteArray pooled = ss.toPooledBytes(object, pool);
+
+        assertArrayEquals(ss.toBytes(object), pooled.bytes());
+        assertEquals(pooled.bytes().length, pooled.length());
+        assertTrue(pooled.release());
+        assertNotSame(pooled.bytes(), pool.take(pooled.length()));
+    }
+}
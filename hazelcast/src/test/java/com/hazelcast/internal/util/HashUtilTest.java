@@ -17,6 +17,7 @@
 package com.hazelcast.internal.util;
 
 import com.hazelcast.internal.memory.impl.EndiannessUtil;
+import com.hazelcast.internal.nio.Bits;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.RequireAssertEnabled;
@@ -93,6 +94,20 @@ public class HashUtilTest extends HazelcastTestSupport {
         assertEquals(hash1, hash2);
     }
 
+    @Test
+    public void testMurmurHash3_x86_32_primitives() {
+        Random random = new Random();
+        byte[] bytes = new byte[Long.BYTES];
+        for (int k = 0; k < 1000; k++) {
+            long value = random.nextLong();
+            Bits.writeLongB(bytes, 0, value);
+            assertEquals(MurmurHash3_x86_32(bytes, 0, Long.BYTES), MurmurHash3_x86_32(value));
+
+            Bits.writeIntB(bytes, 0, (int) value);
+            assertEquals(MurmurHash3_x86_32(bytes, 0, Integer.BYTES), MurmurHash3_x86_32((int) value));
+        }
+    }
+
     @Test(expected = AssertionError.class)
     @RequireAssertEnabled
     public void testMurmurHash3_x86_32_withIntOverflow() {
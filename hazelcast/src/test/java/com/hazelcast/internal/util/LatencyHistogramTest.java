@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.internal.util.LatencyHistogram.Snapshot;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static com.hazelcast.internal.util.LatencyHistogram.BUCKET_COUNT;
+import static com.hazelcast.internal.util.LatencyHistogram.SUB_BUCKET_COUNT;
+import static com.hazelcast.internal.util.LatencyHistogram.bucketIndex;
+import static com.hazelcast.internal.util.LatencyHistogram.highestValueInBucket;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class LatencyHistogramTest extends HazelcastTestSupport {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void whenEmpty() {
+        Snapshot snapshot = histogram.getIntervalSnapshot();
+
+        assertEquals(0, snapshot.count());
+        assertEquals(0, snapshot.max());
+        assertEquals(0, snapshot.valueAtPercentile(99));
+    }
+
+    @Test
+    public void bucketIndex_whenSmallValue_thenExact() {
+        for (int value = 0; value < 2 * SUB_BUCKET_COUNT; value++) {
+            assertEquals(value, bucketIndex(value));
+            assertEquals(value, highestValueInBucket(value));
+        }
+    }
+
+    @Test
+    public void bucketIndex_isMonotonicAndWithinPrecision() {
+        int previousIndex = 0;
+        for (long value = 1; value < Long.MAX_VALUE / 3 && bucketIndex(value) < BUCKET_COUNT; value = value * 3 / 2 + 1) {
+            int index = bucketIndex(value);
+            assertTrue(index >= previousIndex);
+            long highest = highestValueInBucket(index);
+            assertTrue(highest >= value);
+            assertTrue(highest - value <= value / SUB_BUCKET_COUNT);
+            previousIndex = index;
+        }
+    }
+
+    @Test
+    public void valueAtPercentile() {
+        for (int value = 1; value <= 10000; value++) {
+            histogram.recordValue(value);
+        }
+        Snapshot snapshot = histogram.getIntervalSnapshot();
+
+        assertEquals(10000, snapshot.count());
+        assertEquals(10000, snapshot.max());
+        assertWithinPrecision(5000, snapshot.valueAtPercentile(50));
+        assertWithinPrecision(9900, snapshot.valueAtPercentile(99));
+        assertWithinPrecision(9990, snapshot.valueAtPercentile(99.9));
+        assertEquals(10000, snapshot.valueAtPercentile(100));
+        assertEquals(1, snapshot.valueAtPercentile(0));
+    }
+
+    @Test
+    public void getIntervalSnapshot_thenOnlyValuesSincePreviousSnapshot() {
+        histogram.recordValue(1000);
+        histogram.getIntervalSnapshot();
+        histogram.recordValue(10);
+        histogram.recordValue(20);
+
+        Snapshot snapshot = histogram.getIntervalSnapshot();
+
+        assertEquals(2, snapshot.count());
+        assertEquals(20, snapshot.max());
+        assertEquals(0, histogram.getIntervalSnapshot().count());
+    }
+
+    @Test
+    public void valueAtPercentile_neverHigherThanMax() {
+        histogram.recordValue(1000);
+        Snapshot snapshot = histogram.getIntervalSnapshot();
+
+        assertEquals(1000, snapshot.valueAtPercentile(50));
+        assertEquals(1000, snapshot.valueAtPercentile(100));
+    }
+
+    @Test
+    public void recordValue_whenNegative_thenZero() {
+        histogram.recordValue(-10);
+        Snapshot snapshot = histogram.getIntervalSnapshot();
+
+        assertEquals(1, snapshot.count());
+        assertEquals(0, snapshot.max());
+    }
+
+    @Test
+    public void recordValue_whenTooBig_thenLastBucket() {
+        histogram.recordValue(Long.MAX_VALUE);
+        Snapshot snapshot = histogram.getIntervalSnapshot();
+
+        assertEquals(1, snapshot.count());
+        assertEquals(highestValueInBucket(BUCKET_COUNT - 1), snapshot.max());
+        assertEquals(snapshot.max(), snapshot.valueAtPercentile(50));
+    }
+
+    @Test
+    public void recordValue_concurrently() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram(2);
+        int threadCount = 4;
+        int valuesPerThread = 100000;
+        List<Future> futures = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            futures.add(spawn(() -> {
+                for (int i = 0; i < valuesPerThread; i++) {
+                    histogram.recordValue(i);
+                }
+            }));
+        }
+        for (Future future : futures) {
+            future.get();
+        }
+
+        Snapshot snapshot = histogram.getIntervalSnapshot();
+        assertEquals(threadCount * valuesPerThread, snapshot.count());
+        assertEquals(valuesPerThread - 1, snapshot.max());
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("expected " + expected + " but was " + actual,
+                actual >= expected && actual - expected <= expected / SUB_BUCKET_COUNT);
+    }
+}
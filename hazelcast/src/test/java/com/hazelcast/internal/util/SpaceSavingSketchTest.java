@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SpaceSavingSketchTest {
+
+    private final SpaceSavingSketch sketch = new SpaceSavingSketch(8);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenZeroCapacity_thenFail() {
+        new SpaceSavingSketch(0);
+    }
+
+    @Test
+    public void whenEmpty() {
+        assertEquals(0, sketch.total());
+        assertTrue(sketch.top(10).isEmpty());
+    }
+
+    @Test
+    public void whenFewerItemsThanCapacity_thenExact() {
+        for (int item = 1; item <= 4; item++) {
+            for (int k = 0; k < item; k++) {
+                sketch.offer(item);
+            }
+        }
+
+        List<SpaceSavingSketch.Counter> top = sketch.top(10);
+        assertEquals(4, top.size());
+        for (int k = 0; k < top.size(); k++) {
+            assertEquals(4 - k, top.get(k).item());
+            assertEquals(4 - k, top.get(k).count());
+            assertEquals(0, top.get(k).error());
+        }
+        assertEquals(10, sketch.total());
+    }
+
+    @Test
+    public void whenMoreItemsThanCapacity_thenHeavyHitterFound() {
+        Random random = new Random(42);
+        int hotCount = 0;
+        for (int k = 0; k < 10000; k++) {
+            if (k % 5 == 0) {
+                sketch.offer(-1);
+                hotCount++;
+            } else {
+                sketch.offer(random.nextInt(1000));
+            }
+        }
+
+        SpaceSavingSketch.Counter hottest = sketch.top(1).get(0);
+        assertEquals(-1, hottest.item());
+        assertTrue(hottest.count() >= hotCount);
+        assertTrue(hottest.count() - hottest.error() <= hotCount);
+        assertEquals(10000, sketch.total());
+    }
+
+    @Test
+    public void top_limitedToK() {
+        for (int item = 0; item < 8; item++) {
+            sketch.offer(item);
+        }
+
+        assertEquals(3, sketch.top(3).size());
+    }
+}
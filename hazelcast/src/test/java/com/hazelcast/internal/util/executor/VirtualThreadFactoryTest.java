@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.executor;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.CountDownLatch;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertOpenEventually;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class VirtualThreadFactoryTest {
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void constructor_whenNotSupported_thenException() {
+        assumeFalse(VirtualThreadFactory.isSupported());
+
+        new VirtualThreadFactory("test", null);
+    }
+
+    @Test
+    public void newThread_whenSupported_thenVirtualThread() throws Exception {
+        assumeTrue(VirtualThreadFactory.isSupported());
+
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        VirtualThreadFactory factory = new VirtualThreadFactory("test-", classLoader);
+        CountDownLatch executed = new CountDownLatch(1);
+
+        Thread thread = factory.newThread(executed::countDown);
+        thread.start();
+
+        assertOpenEventually(executed);
+        assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+        assertTrue(thread.getName().startsWith("test-"));
+        assertSame(classLoader, thread.getContextClassLoader());
+    }
+}
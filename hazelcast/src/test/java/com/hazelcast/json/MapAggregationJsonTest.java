@@ -68,8 +68,10 @@ public class MapAggregationJsonTest extends HazelcastTestSupport {
         return asList(new Object[][]{
                 {InMemoryFormat.BINARY, MetadataPolicy.OFF},
                 {InMemoryFormat.BINARY, MetadataPolicy.CREATE_ON_UPDATE},
+                {InMemoryFormat.BINARY, MetadataPolicy.CREATE_BINARY_ON_UPDATE},
                 {InMemoryFormat.OBJECT, MetadataPolicy.OFF},
                 {InMemoryFormat.OBJECT, MetadataPolicy.CREATE_ON_UPDATE},
+                {InMemoryFormat.OBJECT, MetadataPolicy.CREATE_BINARY_ON_UPDATE},
         });
     }
 
@@ -66,8 +66,10 @@ public class MapPredicateJsonTest extends HazelcastTestSupport {
         return asList(new Object[][]{
                 {InMemoryFormat.BINARY, MetadataPolicy.OFF},
                 {InMemoryFormat.BINARY, MetadataPolicy.CREATE_ON_UPDATE},
+                {InMemoryFormat.BINARY, MetadataPolicy.CREATE_BINARY_ON_UPDATE},
                 {InMemoryFormat.OBJECT, MetadataPolicy.OFF},
                 {InMemoryFormat.OBJECT, MetadataPolicy.CREATE_ON_UPDATE},
+                {InMemoryFormat.OBJECT, MetadataPolicy.CREATE_BINARY_ON_UPDATE},
         });
     }
 
@@ -136,6 +138,23 @@ public class MapPredicateJsonTest extends HazelcastTestSupport {
         assertTrue(vals.contains(p2));
     }
 
+    @Test
+    public void testQueryOnNumberProperty_whenSomeEntriesHaveIntegerLargerThanLong_shouldNotFail() {
+        IMap<String, HazelcastJsonValue> map = instance.getMap(randomMapName());
+        HazelcastJsonValue p1 = new HazelcastJsonValue("{ \"id\": 123456789012345678901234567890, \"age\": 30 }");
+        HazelcastJsonValue p2 = new HazelcastJsonValue("{ \"id\": 1, \"age\": 20 }");
+        HazelcastJsonValue p3 = new HazelcastJsonValue("{ \"id\": 123456789012345678901234567890, \"age\": 10 }");
+        map.put("a", p1);
+        map.put("b", p2);
+        map.put("c", p3);
+
+        Collection<HazelcastJsonValue> vals = map.values(Predicates.greaterEqual("age", 20));
+
+        assertEquals(2, vals.size());
+        assertTrue(vals.contains(p1));
+        assertTrue(vals.contains(p2));
+    }
+
     @Test
     public void testQueryOnNumberPropertyOnKey() {
         IMap<JsonValue, String> map = instance.getMap(randomMapName());
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.json.internal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.hazelcast.internal.json.Json;
+import com.hazelcast.internal.json.JsonArray;
+import com.hazelcast.internal.json.JsonObject;
+import com.hazelcast.internal.json.JsonValue;
+import com.hazelcast.internal.json.NonTerminalJsonValue;
+import com.hazelcast.internal.json.PrettyPrint;
+import com.hazelcast.query.impl.getters.AbstractJsonGetter;
+import com.hazelcast.query.impl.getters.JsonPathCursor;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static com.hazelcast.json.internal.JsonBinaryDocument.ANY_PATH;
+import static com.hazelcast.json.internal.JsonBinaryDocument.NOT_FOUND;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class JsonBinaryDocumentTest {
+
+    private JsonFactory factory = new JsonFactory();
+
+    @Test
+    public void testAllValidPaths() throws IOException {
+        for (JsonValue value : TestJsonValues.LIST) {
+            JsonBinaryDocument document = createDocument(value.toString(PrettyPrint.PRETTY_PRINT));
+            validate(document, value, null);
+        }
+    }
+
+    @Test
+    public void testEmptyInputReturnsNullDocument() throws IOException {
+        assertNull(createDocument(""));
+    }
+
+    @Test
+    public void testScalarTypes() throws IOException {
+        JsonObject object = Json.object()
+                .add("long", 4)
+                .add("double", 4.5)
+                .add("string", "sömething")
+                .add("true", true)
+                .add("false", false)
+                .add("null", Json.NULL)
+                .add("object", Json.object())
+                .add("array", Json.array());
+        JsonBinaryDocument document = createDocument(object.toString());
+
+        assertEquals(4L, read(document, "long"));
+        assertEquals(4.5, read(document, "double"));
+        assertEquals("sömething", read(document, "string"));
+        assertEquals(true, read(document, "true"));
+        assertEquals(false, read(document, "false"));
+        assertNull(read(document, "null"));
+        assertEquals(NonTerminalJsonValue.INSTANCE, read(document, "object"));
+        assertEquals(NonTerminalJsonValue.INSTANCE, read(document, "array"));
+    }
+
+    @Test
+    public void testDuplicateAttributeResolvesToFirst() throws IOException {
+        JsonBinaryDocument document = createDocument("{\"a\": 1, \"a\": 2}");
+        assertEquals(1L, read(document, "a"));
+    }
+
+    @Test
+    public void testMissingPaths() throws IOException {
+        JsonObject object = Json.object()
+                .add("a", Json.array(new int[]{1, 2}))
+                .add("b", Json.object().add("c", 3));
+        JsonBinaryDocument document = createDocument(object.toString());
+
+        assertEquals(NOT_FOUND, document.findValue(AbstractJsonGetter.getPath("x")));
+        assertEquals(NOT_FOUND, document.findValue(AbstractJsonGetter.getPath("a[2]")));
+        assertEquals(NOT_FOUND, document.findValue(AbstractJsonGetter.getPath("a.c")));
+        assertEquals(NOT_FOUND, document.findValue(AbstractJsonGetter.getPath("b[0]")));
+        assertEquals(NOT_FOUND, document.findValue(AbstractJsonGetter.getPath("b.c.d")));
+    }
+
+    @Test
+    public void testAnyPathIsNotResolved() throws IOException {
+        JsonBinaryDocument document = createDocument(Json.object().add("a", Json.array(new int[]{1, 2})).toString());
+        assertEquals(ANY_PATH, document.findValue(AbstractJsonGetter.getPath("a[any]")));
+    }
+
+    private void validate(JsonBinaryDocument document, JsonValue value, String pathPrefix) {
+        if (value.isObject()) {
+            JsonObject object = value.asObject();
+            for (String name : object.names()) {
+                String path = pathPrefix == null ? name : pathPrefix + "." + name;
+                validate(document, object.get(name), path);
+            }
+        } else if (value.isArray()) {
+            JsonArray array = value.asArray();
+            for (int i = 0; i < array.size(); i++) {
+                String path = pathPrefix == null ? "[" + i + "]" : pathPrefix + "[" + i + "]";
+                validate(document, array.get(i), path);
+            }
+        }
+        if (pathPrefix != null) {
+            assertEquals("Path ( " + pathPrefix + " )", AbstractJsonGetter.convertFromJsonValue(toTerminal(value)),
+                    read(document, pathPrefix));
+        }
+    }
+
+    private static JsonValue toTerminal(JsonValue value) {
+        return value.isObject() || value.isArray() ? NonTerminalJsonValue.INSTANCE : value;
+    }
+
+    private static Object read(JsonBinaryDocument document, String path) {
+        JsonPathCursor cursor = AbstractJsonGetter.getPath(path);
+        return document.readValue(document.findValue(cursor));
+    }
+
+    private JsonBinaryDocument createDocument(String json) throws IOException {
+        return JsonBinaryDocument.create(factory.createParser(json));
+    }
+}
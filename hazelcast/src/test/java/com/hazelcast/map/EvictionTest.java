@@ -629,6 +629,82 @@ public class EvictionTest extends HazelcastTestSupport {
         }
     }
 
+    @Test
+    public void testEvictionTinyLFU_frequentlyAccessedEntriesSurviveScan() {
+        int size = 1000;
+        int hotKeyCount = 100;
+        int scanLength = 1500;
+        String mapName = randomMapName();
+
+        MapConfig mapConfig = newMapConfig(mapName);
+
+        EvictionConfig evictionConfig = mapConfig.getEvictionConfig();
+        evictionConfig
+                .setEvictionPolicy(EvictionPolicy.TINY_LFU)
+                .setMaxSizePolicy(MaxSizePolicy.PER_PARTITION)
+                .setSize(size);
+
+        Config config = getConfig()
+                .setProperty(ClusterProperty.PARTITION_COUNT.getName(), "1")
+                .addMapConfig(mapConfig);
+
+        HazelcastInstance node = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = node.getMap(mapName);
+        for (int i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+
+        // each scan is longer than the map can hold, so the hot keys only stay because they are accessed more often
+        int scanKey = size;
+        for (int i = 0; i < 10; i++) {
+            for (int key = 0; key < hotKeyCount; key++) {
+                assertNotNull(map.get(key));
+            }
+            for (int j = 0; j < scanLength; j++, scanKey++) {
+                map.put(scanKey, scanKey);
+            }
+        }
+
+        assertTrue(map.size() <= size);
+        for (int key = 0; key < hotKeyCount; key++) {
+            assertNotNull(map.get(key));
+        }
+    }
+
+    @Test
+    public void testEvictionClock() {
+        int size = 1000;
+        int accessCount = 1000;
+        String mapName = randomMapName();
+
+        MapConfig mapConfig = newMapConfig(mapName);
+
+        EvictionConfig evictionConfig = mapConfig.getEvictionConfig();
+        evictionConfig
+                .setEvictionPolicy(EvictionPolicy.CLOCK)
+                .setMaxSizePolicy(MaxSizePolicy.PER_PARTITION)
+                .setSize(size);
+
+        Config config = getConfig()
+                .setProperty(ClusterProperty.PARTITION_COUNT.getName(), "1")
+                .addMapConfig(mapConfig);
+
+        HazelcastInstance node = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = node.getMap(mapName);
+        for (int i = 0; i < 2 * size; i++) {
+            map.put(i, i);
+        }
+        assertTrue(map.size() <= size);
+
+        int key = 2 * size - 1;
+        for (int i = 0; i < accessCount; i++) {
+            assertNotNull(map.get(key));
+        }
+        // the hit count is only estimated
+        long hits = map.getEntryView(key).getHits();
+        assertTrue("hits: " + hits, hits > accessCount / 2 && hits < accessCount * 2);
+    }
+
     @Test
     public void testMapRecordEviction() {
         String mapName = randomMapName();
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.nearcache.invalidation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataContainer;
+import com.hazelcast.internal.nearcache.impl.invalidation.RepairingHandler;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.nearcache.impl.NearCacheTestUtils.getBaseConfig;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_INVALIDATION_MESSAGE_BATCH_ADAPTIVE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MemberMapAdaptiveInvalidationTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT_VALUE = 11;
+    private static final int KEY_COUNT = 10;
+    private static final int UPDATE_ROUNDS = 1000;
+
+    @Test
+    public void repeated_invalidations_do_not_leave_sequence_gaps() {
+        String mapName = "test";
+        Config config = getBaseConfig()
+                .setProperty(PARTITION_COUNT.getName(), Integer.toString(PARTITION_COUNT_VALUE))
+                .setProperty(MAP_INVALIDATION_MESSAGE_BATCH_ADAPTIVE_ENABLED.getName(), "true")
+                .setProperty(MAP_INVALIDATION_MESSAGE_BATCH_FREQUENCY_SECONDS.getName(), "1");
+        config.getMapConfig(mapName).setNearCacheConfig(new NearCacheConfig().setCacheLocalEntries(true));
+
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance member1 = factory.newHazelcastInstance(config);
+        HazelcastInstance member2 = factory.newHazelcastInstance(config);
+
+        IMap<Integer, Integer> map1 = member1.getMap(mapName);
+        final IMap<Integer, Integer> map2 = member2.getMap(mapName);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            map1.put(i, -1);
+            map2.get(i);
+        }
+
+        for (int round = 0; round < UPDATE_ROUNDS; round++) {
+            for (int i = 0; i < KEY_COUNT; i++) {
+                map1.set(i, round);
+            }
+        }
+
+        assertTrueEventually(() -> {
+            for (int i = 0; i < KEY_COUNT; i++) {
+                assertEquals(UPDATE_ROUNDS - 1, (int) map2.get(i));
+            }
+        });
+
+        RepairingHandler repairingHandler = getRepairingHandler(member2, mapName);
+        for (int partition = 0; partition < PARTITION_COUNT_VALUE; partition++) {
+            MetaDataContainer metaDataContainer = repairingHandler.getMetaDataContainer(partition);
+            assertEquals("partition " + partition, 0, metaDataContainer.getStaleSequence());
+            assertEquals("partition " + partition, 0, metaDataContainer.getMissedSequenceCount());
+        }
+    }
+
+    private static RepairingHandler getRepairingHandler(HazelcastInstance member, String mapName) {
+        MapService mapService = getNodeEngineImpl(member).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        return mapServiceContext.getMapNearCacheManager().getRepairingTask().getHandlers().get(mapName);
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteOrder;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CompactStorageTest {
+
+    private static final int ENTRY_COUNT = 10000;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final CompactStorage storage = new CompactStorage(true, ss);
+
+    @Test
+    public void put_thenGet() {
+        Record record = put(1, "value");
+        record.setTtl(5000);
+        record.setVersion(3);
+
+        Record stored = storage.get(key(1));
+        assertEquals("value", ss.toObject(stored.getValue()));
+        assertEquals(5000, stored.getTtl());
+        assertEquals(3, stored.getVersion());
+        assertEquals(1, storage.size());
+        assertTrue(storage.containsKey(key(1)));
+        assertNull(storage.get(key(2)));
+    }
+
+    @Test
+    public void put_whenKeyExists_thenValueReplaced() {
+        put(1, "first");
+        put(1, "second");
+
+        assertEquals(1, storage.size());
+        assertEquals("second", ss.toObject(storage.get(key(1)).getValue()));
+    }
+
+    @Test
+    public void removeRecord_thenRecordDetachedWithItsState() {
+        put(1, "value");
+        Record record = storage.get(key(1));
+        record.setHits(7);
+
+        storage.removeRecord(key(1), record);
+
+        assertEquals(0, storage.size());
+        assertFalse(storage.containsKey(key(1)));
+        assertEquals("value", ss.toObject(record.getValue()));
+        assertEquals(7, record.getHits());
+    }
+
+    @Test
+    public void manyEntries_putUpdatedAndRemoved() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, "value-" + i);
+        }
+        // the updates leave enough released values behind to compact the pages
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            storage.updateRecordValue(key(i), storage.get(key(i)), "updated-value-" + i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            storage.removeRecord(key(i), storage.get(key(i)));
+        }
+
+        assertEquals(ENTRY_COUNT / 2, storage.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Record record = storage.get(key(i));
+            if (i % 2 == 0) {
+                assertNull(record);
+            } else {
+                assertEquals("updated-value-" + i, ss.toObject(record.getValue()));
+            }
+        }
+    }
+
+    @Test
+    public void mutationTolerantIterator_returnsAllEntries() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, i);
+        }
+
+        Set<Integer> keys = new HashSet<>();
+        Iterator<Map.Entry<Data, Record>> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Data, Record> entry = iterator.next();
+            int key = ss.toObject(entry.getKey());
+            assertEquals(key, (int) ss.toObject(entry.getValue().getValue()));
+            keys.add(key);
+        }
+        assertEquals(ENTRY_COUNT, keys.size());
+    }
+
+    @Test
+    public void fetchKeysAndEntries_returnAllEntries() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i, i);
+        }
+
+        Set<Object> keys = new HashSet<>();
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        while (pointers[pointers.length - 1].getIndex() >= 0) {
+            MapKeysWithCursor cursor = storage.fetchKeys(pointers, 100);
+            cursor.getBatch().forEach(key -> keys.add(ss.toObject(key)));
+            pointers = cursor.getIterationPointers();
+        }
+        assertEquals(ENTRY_COUNT, keys.size());
+
+        Set<Object> values = new HashSet<>();
+        pointers = new IterationPointer[]{new IterationPointer(Integer.MAX_VALUE, -1)};
+        while (pointers[pointers.length - 1].getIndex() >= 0) {
+            MapEntriesWithCursor cursor = storage.fetchEntries(pointers, 100);
+            cursor.getBatch().forEach(entry -> values.add(ss.toObject(entry.getValue())));
+            pointers = cursor.getIterationPointers();
+        }
+        assertEquals(ENTRY_COUNT, values.size());
+    }
+
+    @Test
+    public void getRandomSamples_returnsLiveEntries() {
+        for (int i = 0; i < 100; i++) {
+            put(i, i);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            storage.removeRecord(key(i), storage.get(key(i)));
+        }
+
+        int sampleCount = 0;
+        for (EntryView sample : storage.getRandomSamples(15)) {
+            assertEquals(1, ((Integer) sample.getKey()) % 2);
+            assertEquals(sample.getKey(), sample.getValue());
+            sampleCount++;
+        }
+        assertEquals(15, sampleCount);
+    }
+
+    @Test
+    public void getRandomSamples_whenPrimitiveKeys_thenDataKeyRestored() {
+        for (long i = 0; i < 100; i++) {
+            storage.put(ss.toData(i), new CompactRecord(ss.toData(i), true));
+        }
+
+        for (EntryView sample : storage.getRandomSamples(15)) {
+            Data dataKey = storage.extractDataKeyFromLazy(sample);
+            assertEquals(ss.toData(sample.getValue()), dataKey);
+            assertEquals(sample.getValue(), sample.getKey());
+            assertEquals(storage.get(dataKey).getValue(), storage.extractRecordFromLazy(sample).getValue());
+        }
+    }
+
+    @Test
+    public void primitiveKeys_storedUnboxedAndRestored() {
+        Data longKey = ss.toData(42L);
+        Data intKey = ss.toData(42);
+        Data stringKey = ss.toData("42");
+        storage.put(longKey, new CompactRecord(ss.toData("long"), true));
+        storage.put(intKey, new CompactRecord(ss.toData("int"), true));
+        storage.put(stringKey, new CompactRecord(ss.toData("string"), true));
+
+        assertEquals(3, storage.size());
+        assertEquals("long", ss.toObject(storage.get(longKey).getValue()));
+        assertEquals("int", ss.toObject(storage.get(intKey).getValue()));
+        assertEquals("string", ss.toObject(storage.get(stringKey).getValue()));
+
+        Set<Data> keys = new HashSet<>();
+        Iterator<Map.Entry<Data, Record>> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Data key = iterator.next().getKey();
+            keys.add(key);
+            assertArrayEquals(ss.toData(ss.toObject(key)).toByteArray(), key.toByteArray());
+        }
+        assertEquals(new HashSet<>(asList(longKey, intKey, stringKey)), keys);
+    }
+
+    @Test
+    public void primitiveKeys_whenLittleEndian_thenRestored() {
+        InternalSerializationService littleEndianSs = new DefaultSerializationServiceBuilder()
+                .setByteOrder(ByteOrder.LITTLE_ENDIAN).build();
+        CompactStorage littleEndianStorage = new CompactStorage(false, littleEndianSs);
+        for (long i = 0; i < ENTRY_COUNT; i++) {
+            littleEndianStorage.put(littleEndianSs.toData(i), new CompactRecord(littleEndianSs.toData(i), false));
+        }
+
+        Iterator<Map.Entry<Data, Record>> iterator = littleEndianStorage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Data, Record> entry = iterator.next();
+            assertEquals((Long) littleEndianSs.toObject(entry.getValue().getValue()), littleEndianSs.toObject(entry.getKey()));
+        }
+        assertEquals(ENTRY_COUNT, littleEndianStorage.size());
+    }
+
+    @Test
+    public void primitiveKeys_whenRemoved_thenEntryReused() {
+        for (long i = 0; i < ENTRY_COUNT; i++) {
+            storage.put(ss.toData(i), new CompactRecord(ss.toData(i), true));
+        }
+        for (long i = 0; i < ENTRY_COUNT; i++) {
+            Data key = ss.toData(i);
+            storage.removeRecord(key, storage.get(key));
+            storage.put(ss.toData(-i - 1), new CompactRecord(ss.toData(i), true));
+        }
+
+        assertEquals(ENTRY_COUNT, storage.size());
+        for (long i = 0; i < ENTRY_COUNT; i++) {
+            assertNull(storage.get(ss.toData(i)));
+            assertEquals(i, (long) ss.toObject(storage.get(ss.toData(-i - 1)).getValue()));
+        }
+    }
+
+    @Test
+    public void clear_thenEmpty() {
+        for (int i = 0; i < 100; i++) {
+            put(i, i);
+        }
+
+        storage.clear(false);
+
+        assertTrue(storage.isEmpty());
+        assertNull(storage.get(key(1)));
+        assertFalse(storage.mutationTolerantIterator().hasNext());
+    }
+
+    private Record put(int key, Object value) {
+        Record record = new CompactRecord(ss.toData(value), true);
+        storage.put(key(key), record);
+        return record;
+    }
+
+    private Data key(int key) {
+        return ss.toData(key);
+    }
+}
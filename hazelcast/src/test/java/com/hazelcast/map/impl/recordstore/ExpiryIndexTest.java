@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.map.impl.recordstore.ExpiryIndex.NOT_SCHEDULED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ExpiryIndexTest {
+
+    private static final long TICK = 1000;
+
+    // the expiration time of the keys; removed keys are absent
+    private final Map<Data, Long> expirationTimes = new HashMap<>();
+    private final List<Data> expired = new ArrayList<>();
+    private final ExpiryIndex.ExpiryChecker checker = (key, now) -> {
+        Long expirationTime = expirationTimes.get(key);
+        if (expirationTime == null) {
+            return NOT_SCHEDULED;
+        }
+        if (expirationTime <= now) {
+            expirationTimes.remove(key);
+            expired.add(key);
+            return NOT_SCHEDULED;
+        }
+        return expirationTime;
+    };
+
+    private final ExpiryIndex index = new ExpiryIndex(TICK, 0);
+
+    @Test
+    public void advance_whenNotDue_thenNotExpired() {
+        Data key = add(1, 5 * TICK);
+
+        advance(4 * TICK);
+
+        assertTrue(expired.isEmpty());
+        assertEquals(1, index.size());
+        assertTrue(expirationTimes.containsKey(key));
+    }
+
+    @Test
+    public void advance_whenDue_thenExpired() {
+        Data key = add(1, 5 * TICK);
+
+        advance(5 * TICK);
+
+        assertEquals(1, expired.size());
+        assertEquals(key, expired.get(0));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void advance_whenExpiresWithinTick_thenNotExpiredBeforeExpirationTime() {
+        add(1, 5 * TICK + 1);
+
+        advance(5 * TICK);
+        assertTrue(expired.isEmpty());
+
+        advance(6 * TICK);
+        assertEquals(1, expired.size());
+    }
+
+    @Test
+    public void advance_whenExpirationTimesOnAllLevels_thenExpiredInOrder() {
+        long[] times = {
+                3 * TICK,
+                100 * TICK,
+                5000 * TICK,
+                300000 * TICK,
+                20000000 * TICK,
+        };
+        for (int k = 0; k < times.length; k++) {
+            add(k, times[k]);
+        }
+
+        for (int k = 0; k < times.length; k++) {
+            advance(times[k] - TICK);
+            assertEquals(k, expired.size());
+
+            advance(times[k]);
+            assertEquals(k + 1, expired.size());
+        }
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void advance_whenExpirationTimeExtended_thenRescheduled() {
+        Data key = add(1, 5 * TICK);
+        expirationTimes.put(key, 70 * TICK);
+
+        advance(5 * TICK);
+        assertTrue(expired.isEmpty());
+        assertEquals(1, index.size());
+
+        advance(69 * TICK);
+        assertTrue(expired.isEmpty());
+
+        advance(70 * TICK);
+        assertEquals(1, expired.size());
+    }
+
+    @Test
+    public void advance_whenKeyRemoved_thenDropped() {
+        Data key = add(1, 5 * TICK);
+        expirationTimes.remove(key);
+
+        advance(5 * TICK);
+
+        assertTrue(expired.isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void remove_thenNotChecked() {
+        Data key = add(1, 5 * TICK);
+
+        index.remove(key);
+        advance(5 * TICK);
+
+        assertEquals(0, index.size());
+        assertTrue(expired.isEmpty());
+        assertTrue(expirationTimes.containsKey(key));
+    }
+
+    @Test
+    public void remove_whenDueAndAddedAgain_thenCheckedAtNewTime() {
+        Data key = add(1, 5 * TICK);
+        index.advance(5 * TICK, 0, checker);
+
+        index.remove(key);
+        expirationTimes.put(key, 10 * TICK);
+        index.add(key, 10 * TICK);
+        advance(9 * TICK);
+        assertTrue(expired.isEmpty());
+        assertEquals(1, index.size());
+
+        advance(10 * TICK);
+        assertEquals(1, expired.size());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void advance_whenMoreDueKeysThanMaxChecks_thenRestCheckedByNextAdvance() {
+        for (int k = 0; k < 10; k++) {
+            add(k, 5 * TICK);
+        }
+
+        index.advance(5 * TICK, 4, checker);
+        assertEquals(4, expired.size());
+        assertEquals(6, index.size());
+
+        index.advance(5 * TICK, 4, checker);
+        assertEquals(8, expired.size());
+
+        index.advance(5 * TICK, 4, checker);
+        assertEquals(10, expired.size());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void add_whenAddedTwiceToSameSlot_thenCountedOnce() {
+        Data key = add(1, 5 * TICK);
+        index.add(key, 5 * TICK);
+
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void add_whenExpirationTimeShortened_thenExpiredAtShortenedTime() {
+        Data key = add(1, 500 * TICK);
+        expirationTimes.put(key, 5 * TICK);
+        index.add(key, 5 * TICK);
+
+        advance(5 * TICK);
+        assertEquals(1, expired.size());
+
+        // the stale entry is dropped once it is due
+        advance(500 * TICK);
+        assertEquals(1, expired.size());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void add_whenAlreadyExpired_thenExpiredAtNextTick() {
+        advance(10 * TICK);
+        add(1, 5 * TICK);
+
+        advance(11 * TICK);
+
+        assertEquals(1, expired.size());
+    }
+
+    @Test
+    public void add_whenNoExpiration_thenIgnored() {
+        index.add(key(1), Long.MAX_VALUE);
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void add_whenBeyondLastWheel_thenCheckedAgainAtMaxSpan() {
+        long farAway = 1L << 40;
+        Data key = add(1, farAway);
+
+        advance((1L << 25) * TICK);
+
+        assertTrue(expired.isEmpty());
+        assertEquals(1, index.size());
+        assertTrue(expirationTimes.containsKey(key));
+    }
+
+    @Test
+    public void clear() {
+        add(1, 5 * TICK);
+        add(2, 500 * TICK);
+
+        index.clear();
+        advance(500 * TICK);
+
+        assertEquals(0, index.size());
+        assertTrue(expired.isEmpty());
+    }
+
+    private void advance(long now) {
+        index.advance(now, Integer.MAX_VALUE, checker);
+    }
+
+    private Data add(int id, long expirationTime) {
+        Data key = key(id);
+        expirationTimes.put(key, expirationTime);
+        index.add(key, expirationTime);
+        return key;
+    }
+
+    private static Data key(int id) {
+        return new HeapData(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, (byte) (id >> 8), (byte) id});
+    }
+}
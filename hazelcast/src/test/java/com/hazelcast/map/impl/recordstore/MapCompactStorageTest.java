@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask.PROP_TASK_PERIOD_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_COMPACT_STORAGE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapCompactStorageTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT_VALUE = 11;
+    private static final int ENTRY_COUNT = 1000;
+    private static final String READ_BACKUP_DATA_PREFIX = "readBackupData";
+
+    private HazelcastInstance[] instances;
+    private IMap<Integer, Integer> map;
+
+    @Before
+    public void setup() {
+        Config config = smallInstanceConfig()
+                .setProperty(MAP_COMPACT_STORAGE_ENABLED.getName(), "true")
+                .setProperty(PROP_TASK_PERIOD_SECONDS, "1")
+                .setProperty(PARTITION_COUNT.getName(), Integer.toString(PARTITION_COUNT_VALUE));
+        config.getMapConfig(READ_BACKUP_DATA_PREFIX + "*").setReadBackupData(true);
+        instances = createHazelcastInstanceFactory(2).newInstances(config);
+        map = instances[0].getMap(randomMapName());
+    }
+
+    @Test
+    public void putGetRemove() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i + 1);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            assertEquals(i + 1, (int) map.remove(i));
+        }
+
+        assertEquals(ENTRY_COUNT / 2, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            if (i % 2 == 0) {
+                assertNull(map.get(i));
+            } else {
+                assertEquals(i + 1, (int) map.get(i));
+            }
+        }
+        assertTrue(getStorage(instances[0], map.getName()) instanceof CompactStorage);
+    }
+
+    @Test
+    public void readBackupData_thenDefaultStorage() {
+        IMap<Integer, Integer> readBackupDataMap = instances[0].getMap(randomMapName(READ_BACKUP_DATA_PREFIX));
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            readBackupDataMap.put(i, i);
+        }
+
+        // backups are read by the user threads, so they can't be kept in a compact storage
+        for (HazelcastInstance instance : instances) {
+            assertTrue(getStorage(instance, readBackupDataMap.getName()) instanceof StorageImpl);
+            IMap<Integer, Integer> instanceMap = instance.getMap(readBackupDataMap.getName());
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                assertEquals(i, (int) instanceMap.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void queryAndIteration() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        assertEquals(ENTRY_COUNT, map.entrySet().size());
+        assertEquals(ENTRY_COUNT / 2, map.values(Predicates.lessThan("this", ENTRY_COUNT / 2)).size());
+        assertEquals(ENTRY_COUNT, map.keySet().size());
+    }
+
+    @Test
+    public void backupsPromoted_whenOwnerLeaves() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        instances[1].shutdown();
+
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void expiredEntries_removed() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i, 1, SECONDS);
+        }
+
+        assertTrueEventually(() -> assertEquals(0, map.size()));
+    }
+
+    @Test
+    public void longKeys() {
+        IMap<Long, String> longKeyedMap = instances[0].getMap(randomMapName());
+        for (long i = 0; i < ENTRY_COUNT; i++) {
+            longKeyedMap.put(i, "value-" + i);
+        }
+        for (long i = 0; i < ENTRY_COUNT; i += 2) {
+            longKeyedMap.remove(i);
+        }
+
+        assertEquals(ENTRY_COUNT / 2, longKeyedMap.size());
+        assertEquals(ENTRY_COUNT / 2, longKeyedMap.keySet().size());
+        for (long i = 1; i < ENTRY_COUNT; i += 2) {
+            assertEquals("value-" + i, longKeyedMap.get(i));
+        }
+    }
+
+    private Storage getStorage(HazelcastInstance instance, String mapName) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        for (int partitionId = 0; partitionId < PARTITION_COUNT_VALUE; partitionId++) {
+            PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+            RecordStore recordStore = container.getExistingRecordStore(mapName);
+            if (recordStore != null) {
+                return recordStore.getStorage();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask.PROP_TASK_PERIOD_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_EXPIRY_DELAY_SECONDS;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_EXPIRY_INDEX_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapExpiryIndexTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT_VALUE = 11;
+    private static final int ENTRY_COUNT = 1000;
+
+    private HazelcastInstance[] instances;
+    private String mapName;
+
+    @Before
+    public void setup() {
+        Config config = smallInstanceConfig()
+                .setProperty(MAP_EXPIRY_INDEX_ENABLED.getName(), "true")
+                .setProperty(MAP_EXPIRY_DELAY_SECONDS.getName(), "0")
+                .setProperty(PROP_TASK_PERIOD_SECONDS, "1")
+                .setProperty(PARTITION_COUNT.getName(), Integer.toString(PARTITION_COUNT_VALUE));
+        instances = createHazelcastInstanceFactory(2).newInstances(config);
+        mapName = randomMapName();
+    }
+
+    @Test
+    public void expiredEntries_removedFromPrimariesAndBackups() {
+        IMap<Integer, Integer> map = instances[0].getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i, 2, SECONDS);
+        }
+
+        assertTrueEventually(() -> {
+            for (HazelcastInstance instance : instances) {
+                assertEquals(0, getTotalEntryCount(instance));
+            }
+        });
+        assertTrueEventually(() -> {
+            for (HazelcastInstance instance : instances) {
+                assertEquals(0, getExpiryIndexSize(instance));
+            }
+        });
+    }
+
+    @Test
+    public void entriesWithoutExpiration_notIndexed() {
+        IMap<Integer, Integer> map = instances[0].getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+            map.put(ENTRY_COUNT + i, i, 1, HOURS);
+        }
+
+        for (HazelcastInstance instance : instances) {
+            assertEquals(2 * ENTRY_COUNT, getTotalEntryCount(instance));
+            assertEquals(ENTRY_COUNT, getExpiryIndexSize(instance));
+        }
+    }
+
+    @Test
+    public void removedEntries_removedFromIndex() {
+        IMap<Integer, Integer> map = instances[0].getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i, 1, HOURS);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.remove(i);
+        }
+
+        assertTrueEventually(() -> {
+            for (HazelcastInstance instance : instances) {
+                assertEquals(0, getExpiryIndexSize(instance));
+            }
+        });
+    }
+
+    @Test
+    public void shortenedTtl_expiresAtShortenedTime() {
+        IMap<Integer, Integer> map = instances[0].getMap(mapName);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i, 1, HOURS);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i, 2, SECONDS);
+        }
+
+        assertTrueEventually(() -> {
+            for (HazelcastInstance instance : instances) {
+                assertEquals(0, getTotalEntryCount(instance));
+            }
+        });
+    }
+
+    @Test
+    public void accessedEntries_notExpiredByMaxIdle() {
+        IMap<Integer, Integer> map = instances[0].getMap(mapName);
+        map.put(1, 1, 0, SECONDS, 3, SECONDS);
+        map.put(2, 2, 0, SECONDS, 3, SECONDS);
+
+        for (int i = 0; i < 6; i++) {
+            sleepAtLeastSeconds(1);
+            assertNotNull(map.get(1));
+        }
+
+        assertEquals(1, map.getLocalMapStats().getOwnedEntryCount()
+                + instances[1].getMap(mapName).getLocalMapStats().getOwnedEntryCount());
+    }
+
+    private long getTotalEntryCount(HazelcastInstance instance) {
+        LocalMapStats stats = instance.getMap(mapName).getLocalMapStats();
+        return stats.getOwnedEntryCount() + stats.getBackupEntryCount();
+    }
+
+    private int getExpiryIndexSize(HazelcastInstance instance) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        int size = 0;
+        for (int partitionId = 0; partitionId < PARTITION_COUNT_VALUE; partitionId++) {
+            PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+            RecordStore recordStore = container.getExistingRecordStore(mapName);
+            if (recordStore != null) {
+                size += ((AbstractEvictableRecordStore) recordStore).expiryIndex.size();
+            }
+        }
+        return size;
+    }
+}
@@ -21,6 +21,8 @@ import com.hazelcast.internal.nio.PacketIOHelper;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
+import com.hazelcast.internal.serialization.impl.bufferpool.PooledByteArray;
 import com.hazelcast.nio.serialization.Portable;
 import com.hazelcast.nio.serialization.PortableFactory;
 import com.hazelcast.nio.serialization.SerializationConcurrencyTest;
@@ -117,6 +119,43 @@ public class PacketIOHelperTest extends HazelcastTestSupport {
         assertEquals(originalObject, clonedObject);
     }
 
+    @Test
+    public void testPacketWriteRead_whenPooledPayload_thenReleasedAfterWrite() {
+        InternalSerializationService ss = createSerializationServiceBuilder().build();
+        ByteArrayPool pool = new ByteArrayPool(1024, 1024, 1);
+        PooledByteArray pooledPayload = ss.toPooledBytes(person, pool);
+
+        ByteBuffer buffer = ByteBuffer.allocate(pooledPayload.bytes().length * 2);
+        Packet originalPacket = new Packet(pooledPayload, 1);
+        assertTrue(packetWriter.writeTo(originalPacket, buffer));
+        buffer.flip();
+
+        assertEquals(0, pooledPayload.refCount());
+        Packet clonedPacket = packetReader.readFrom(buffer);
+        assertNotNull(clonedPacket);
+        assertEquals(pooledPayload.length(), clonedPacket.totalSize());
+        assertEquals(1, clonedPacket.getPartitionId());
+        assertEquals(person, createSerializationServiceBuilder().build().toObject(clonedPacket));
+    }
+
+    @Test
+    public void testPooledPayload_toByteArrayAndEquals_respectPayloadLength() {
+        InternalSerializationService ss = createSerializationServiceBuilder().build();
+        ByteArrayPool pool = new ByteArrayPool(1024, 1024, 1);
+        PooledByteArray pooledPayload = ss.toPooledBytes(person, pool);
+        byte[] payload = ss.toBytes(person);
+
+        Packet pooledPacket = new Packet(pooledPayload, -1);
+        Packet packet = new Packet(payload, -1);
+
+        assertTrue(pooledPayload.bytes().length > payload.length);
+        assertArrayEquals(payload, pooledPacket.toByteArray());
+        assertEquals(packet, pooledPacket);
+        assertEquals(pooledPacket, packet);
+        assertEquals(packet.hashCode(), pooledPacket.hashCode());
+        pooledPacket.release();
+    }
+
 
     /**
      * Checks if the packet can deal with a buffer that is very small, but the data is very large, which
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_LINGER_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_SIZE;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class EventServiceBatchingTest extends HazelcastTestSupport {
+
+    private static final int EVENT_COUNT = 1000;
+
+    @Test
+    public void whenBatchingDisabled_thenNoBatcher() {
+        HazelcastInstance hz = createHazelcastInstance();
+
+        assertNull(getEventService(hz).getRemoteEventBatcher());
+    }
+
+    @Test
+    public void testEventEnvelopeBatch_serialization() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        List<EventEnvelope> envelopes = new ArrayList<>();
+        int[] orderKeys = new int[4];
+        for (int i = 0; i < 3; i++) {
+            envelopes.add(new EventEnvelope(UUID.randomUUID(), "service", serializationService.toData(i)));
+            orderKeys[i] = i * 10;
+        }
+
+        EventEnvelopeBatch batch = serializationService.toObject(
+                serializationService.toData(new EventEnvelopeBatch(envelopes, orderKeys)));
+
+        assertEquals(envelopes.size(), batch.getEnvelopes().size());
+        for (int i = 0; i < envelopes.size(); i++) {
+            EventEnvelope expected = envelopes.get(i);
+            EventEnvelope actual = batch.getEnvelopes().get(i);
+            assertEquals(orderKeys[i], batch.getOrderKey(i));
+            assertEquals(expected.getEventId(), actual.getEventId());
+            assertEquals(expected.getServiceName(), actual.getServiceName());
+            assertEquals(expected.getEvent(), actual.getEvent());
+        }
+    }
+
+    @Test
+    public void testRemoteEvents_whenFullBatches() {
+        // the event count is a multiple of the batch size, so all events are sent without lingering
+        testRemoteEvents_orderIsPreserved(8, 60000);
+    }
+
+    @Test
+    public void testRemoteEvents_whenLingering() {
+        testRemoteEvents_orderIsPreserved(EVENT_COUNT * 2, 1);
+    }
+
+    private void testRemoteEvents_orderIsPreserved(int batchSize, int lingerMillis) {
+        Config config = smallInstanceConfig()
+                .setProperty(EVENT_BATCH_SIZE.getName(), String.valueOf(batchSize))
+                .setProperty(EVENT_BATCH_LINGER_MILLIS.getName(), String.valueOf(lingerMillis));
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance subscriber = factory.newHazelcastInstance(config);
+        HazelcastInstance publisher = factory.newHazelcastInstance(config);
+
+        String mapName = randomMapName();
+        String key = generateKeyOwnedBy(publisher);
+        List<Integer> values = new CopyOnWriteArrayList<>();
+        subscriber.getMap(mapName).addEntryListener(new ValueCollectingListener(values), true);
+
+        IMap<String, Integer> map = publisher.getMap(mapName);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            map.set(key, i);
+        }
+
+        assertTrueEventually(() -> assertEquals(EVENT_COUNT, values.size()));
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            assertEquals(i, (int) values.get(i));
+        }
+    }
+
+    @Test
+    public void testRemoteEvents_whenLingering_thenNothingPending() {
+        Config config = smallInstanceConfig()
+                .setProperty(EVENT_BATCH_SIZE.getName(), "1000")
+                .setProperty(EVENT_BATCH_LINGER_MILLIS.getName(), "1");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance subscriber = factory.newHazelcastInstance(config);
+        HazelcastInstance publisher = factory.newHazelcastInstance(config);
+
+        String mapName = randomMapName();
+        subscriber.getMap(mapName).addEntryListener(new ValueCollectingListener(new CopyOnWriteArrayList<>()), true);
+        publisher.getMap(mapName).set(generateKeyOwnedBy(publisher), 1);
+
+        RemoteEventBatcher batcher = getEventService(publisher).getRemoteEventBatcher();
+        assertTrueEventually(() -> assertEquals(0, batcher.pendingCount()));
+    }
+
+    @Test
+    public void testRemoteEvents_whenIdle_thenBatchRemoved() {
+        Config config = smallInstanceConfig()
+                .setProperty(EVENT_BATCH_SIZE.getName(), "1000")
+                .setProperty(EVENT_BATCH_LINGER_MILLIS.getName(), "1");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance subscriber = factory.newHazelcastInstance(config);
+        HazelcastInstance publisher = factory.newHazelcastInstance(config);
+
+        String mapName = randomMapName();
+        List<Integer> values = new CopyOnWriteArrayList<>();
+        subscriber.getMap(mapName).addEntryListener(new ValueCollectingListener(values), true);
+        IMap<String, Integer> map = publisher.getMap(mapName);
+        // many different keys, so many different order keys
+        for (int i = 0; i < 20; i++) {
+            map.set(generateKeyOwnedBy(publisher), i);
+        }
+
+        RemoteEventBatcher batcher = getEventService(publisher).getRemoteEventBatcher();
+        assertTrueEventually(() -> {
+            assertEquals(20, values.size());
+            assertEquals(0, batcher.batchCount());
+        });
+
+        // a retired batch is replaced on the next event
+        map.set(generateKeyOwnedBy(publisher), 20);
+        assertTrueEventually(() -> assertEquals(21, values.size()));
+    }
+
+    private static EventServiceImpl getEventService(HazelcastInstance hz) {
+        return (EventServiceImpl) getNodeEngineImpl(hz).getEventService();
+    }
+
+    static class ValueCollectingListener
+            implements EntryAddedListener<String, Integer>, EntryUpdatedListener<String, Integer> {
+
+        private final List<Integer> values;
+
+        ValueCollectingListener(List<Integer> values) {
+            this.values = values;
+        }
+
+        @Override
+        public void entryAdded(EntryEvent<String, Integer> event) {
+            values.add(event.getValue());
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<String, Integer> event) {
+            values.add(event.getValue());
+        }
+    }
+}
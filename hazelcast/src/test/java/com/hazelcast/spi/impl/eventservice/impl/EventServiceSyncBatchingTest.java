@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.eventservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.impl.eventservice.impl.EventServiceBatchingTest.ValueCollectingListener;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.OverridePropertyRule;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_LINGER_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.EVENT_BATCH_SIZE;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that synchronous events don't overtake the batched events sent before them. The event
+ * sync frequency is a system property, so this test doesn't run in parallel with other tests.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class EventServiceSyncBatchingTest extends HazelcastTestSupport {
+
+    private static final int EVENT_COUNT = 1000;
+
+    // every 7th event is sent synchronously, in between batches of up to 8 events
+    @Rule
+    public final OverridePropertyRule eventSyncFrequency = OverridePropertyRule.set(
+            EventServiceImpl.EVENT_SYNC_FREQUENCY_PROP, "7");
+
+    @Test
+    public void testRemoteEvents_whenMixedWithSyncEvents_thenOrderIsPreserved() {
+        Config config = smallInstanceConfig()
+                .setProperty(EVENT_BATCH_SIZE.getName(), "8")
+                .setProperty(EVENT_BATCH_LINGER_MILLIS.getName(), "1");
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance subscriber = factory.newHazelcastInstance(config);
+        HazelcastInstance publisher = factory.newHazelcastInstance(config);
+
+        String mapName = randomMapName();
+        String key = generateKeyOwnedBy(publisher);
+        List<Integer> values = new CopyOnWriteArrayList<>();
+        subscriber.getMap(mapName).addEntryListener(new ValueCollectingListener(values), true);
+
+        IMap<String, Integer> map = publisher.getMap(mapName);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            map.set(key, i);
+        }
+
+        assertTrueEventually(() -> assertEquals(EVENT_COUNT, values.size()));
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            assertEquals(i, (int) values.get(i));
+        }
+    }
+}
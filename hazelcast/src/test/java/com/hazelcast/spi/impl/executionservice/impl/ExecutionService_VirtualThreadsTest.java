@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.executionservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.ExecutorConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IExecutorService;
+import com.hazelcast.internal.util.executor.CachedExecutorServiceDelegate;
+import com.hazelcast.internal.util.executor.ManagedExecutorService;
+import com.hazelcast.internal.util.executor.VirtualThreadFactory;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.OFFLOADABLE_EXECUTOR;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.SYSTEM_EXECUTOR;
+import static com.hazelcast.spi.properties.ClusterProperty.EXECUTOR_VIRTUAL_THREADS_ENABLED;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ExecutionService_VirtualThreadsTest extends HazelcastTestSupport {
+
+    private static final String LIMITED_EXECUTOR = "limited-executor";
+    private static final int LIMITED_POOL_SIZE = 2;
+
+    private HazelcastInstance instance;
+    private ExecutionService executionService;
+
+    @Before
+    public void setup() {
+        Config config = smallInstanceConfig()
+                .setProperty(EXECUTOR_VIRTUAL_THREADS_ENABLED.getName(), "true")
+                .addExecutorConfig(new ExecutorConfig(LIMITED_EXECUTOR, LIMITED_POOL_SIZE));
+        instance = createHazelcastInstance(config);
+        executionService = getNodeEngineImpl(instance).getExecutionService();
+    }
+
+    @Test
+    public void testBlockingExecutors() throws Exception {
+        ManagedExecutorService offloadable = executionService.getExecutor(OFFLOADABLE_EXECUTOR);
+        ManagedExecutorService limited = executionService.getBlockingExecutor(LIMITED_EXECUTOR);
+
+        // the pool size is still applied
+        assertTrue(offloadable.getMaximumPoolSize() < Integer.MAX_VALUE);
+        assertEquals(LIMITED_POOL_SIZE, limited.getMaximumPoolSize());
+        assertEquals(VirtualThreadFactory.isSupported(), offloadable.submit(new IsVirtualThreadTask()).get());
+        assertEquals(VirtualThreadFactory.isSupported(), limited.submit(new IsVirtualThreadTask()).get());
+    }
+
+    @Test
+    public void testExecutorsWithoutInternalPrefix_notAffected() throws Exception {
+        ManagedExecutorService user = executionService.getExecutor("user-executor");
+        ManagedExecutorService phoneHome = executionService.getExecutor("PhoneHome");
+
+        assertFalse(user.submit(new IsVirtualThreadTask()).get());
+        assertFalse(phoneHome.submit(new IsVirtualThreadTask()).get());
+    }
+
+    @Test
+    public void testBlockingExecutor_poolSizeLimitsConcurrency() throws Exception {
+        ManagedExecutorService limited = executionService.getBlockingExecutor(LIMITED_EXECUTOR);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(limited.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                assertOpenEventually(release);
+                running.decrementAndGet();
+            }));
+        }
+
+        assertTrueEventually(() -> assertEquals(LIMITED_POOL_SIZE, running.get()));
+        assertTrueAllTheTime(() -> assertEquals(LIMITED_POOL_SIZE, running.get()), 1);
+        release.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        assertEquals(LIMITED_POOL_SIZE, maxRunning.get());
+    }
+
+    @Test
+    public void testInternalExecutors_notAffected() {
+        ManagedExecutorService system = executionService.getExecutor(SYSTEM_EXECUTOR);
+
+        assertTrue(system instanceof CachedExecutorServiceDelegate);
+        assertTrue(system.getMaximumPoolSize() < Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testExecutorService() throws Exception {
+        IExecutorService executor = instance.getExecutorService(randomName());
+
+        boolean virtual = executor.submit(new IsVirtualThreadTask()).get();
+
+        assertEquals(VirtualThreadFactory.isSupported(), virtual);
+    }
+
+    private static class IsVirtualThreadTask implements Callable<Boolean>, Serializable {
+        @Override
+        public Boolean call() throws Exception {
+            if (!VirtualThreadFactory.isSupported()) {
+                return false;
+            }
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.internal.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ConcurrentArrayOperationQueueTest extends HazelcastTestSupport {
+
+    private ConcurrentArrayOperationQueue queue = new ConcurrentArrayOperationQueue(4, 2, null);
+
+    @Test(expected = NullPointerException.class)
+    public void add_whenNull() {
+        queue.add(null, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void construct_whenZeroBatchSize() {
+        new ConcurrentArrayOperationQueue(4, 0, null);
+    }
+
+    @Test
+    public void add_whenNormal() {
+        queue.add("task", false);
+
+        assertEquals(1, queue.normalSize());
+        assertEquals(0, queue.prioritySize());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void add_whenPriority() {
+        queue.add("task", true);
+
+        assertEquals(0, queue.normalSize());
+        assertEquals(1, queue.prioritySize());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void take_whenNormal_thenFifo() throws InterruptedException {
+        queue.add("task1", false);
+        queue.add("task2", false);
+        queue.add("task3", false);
+
+        assertSame("task1", queue.take(false));
+        // the second task is taken from the drained batch
+        assertEquals(2, queue.size());
+        assertSame("task2", queue.take(false));
+        assertSame("task3", queue.take(false));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void take_whenPriorityAddedWhileBatchPending_thenPriorityFirst() throws InterruptedException {
+        queue.add("task1", false);
+        queue.add("task2", false);
+
+        assertSame("task1", queue.take(false));
+        queue.add("priority", true);
+
+        assertSame("priority", queue.take(false));
+        assertSame("task2", queue.take(false));
+    }
+
+    @Test
+    public void take_whenPriorityOnly() throws InterruptedException {
+        queue.add("task", false);
+        queue.add("priority", true);
+
+        assertSame("priority", queue.take(true));
+        assertEquals(1, queue.normalSize());
+    }
+
+    @Test
+    public void take_whenFull_thenOverflowPreservesOrder() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            queue.add(i, false);
+        }
+        assertEquals(10, queue.normalSize());
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, queue.take(false));
+        }
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void isEmpty_whenBatchPending_thenFalse() throws InterruptedException {
+        assertTrue(queue.isEmpty());
+
+        queue.add("task1", false);
+        queue.add("task2", false);
+        assertFalse(queue.isEmpty());
+
+        // both tasks are drained into the batch, so only the batch holds task2
+        assertSame("task1", queue.take(false));
+        assertFalse(queue.isEmpty());
+
+        assertSame("task2", queue.take(false));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void take_whenBlocked_thenWokenUpByAdd() throws Exception {
+        testTakeWokenUp(null);
+    }
+
+    @Test
+    public void take_whenIdling_thenTakesAddedTask() throws Exception {
+        testTakeWokenUp(new BackoffIdleStrategy(10, 10, 1, 1000));
+    }
+
+    private void testTakeWokenUp(BackoffIdleStrategy idleStrategy) throws Exception {
+        queue = new ConcurrentArrayOperationQueue(4, 2, idleStrategy);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Object> future = spawn(() -> {
+            queue.setConsumerThread(Thread.currentThread());
+            started.countDown();
+            return queue.take(false);
+        });
+        started.await();
+        sleepMillis(100);
+
+        queue.add("task", false);
+
+        assertSame("task", future.get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, SECONDS));
+    }
+
+    @Test
+    public void take_whenManyProducers_thenFifoPerProducer() throws Exception {
+        int producerCount = 4;
+        int itemCount = 10000;
+        queue = new ConcurrentArrayOperationQueue(16, 4, null);
+        queue.setConsumerThread(Thread.currentThread());
+
+        for (int p = 0; p < producerCount; p++) {
+            int producer = p;
+            spawn(() -> {
+                for (int i = 0; i < itemCount; i++) {
+                    queue.add(new long[]{producer, i}, false);
+                }
+            });
+        }
+
+        long[] expected = new long[producerCount];
+        for (int i = 0; i < producerCount * itemCount; i++) {
+            long[] item = (long[]) queue.take(false);
+            assertEquals(expected[(int) item[0]]++, item[1]);
+        }
+        assertEquals(0, queue.size());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationexecutor.impl;
+
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.ARRAY_QUEUE_BATCH_SIZE;
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.ARRAY_QUEUE_CAPACITY;
+import static com.hazelcast.spi.impl.operationexecutor.impl.OperationExecutorImpl.ARRAY_QUEUE_ENABLED;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_OPERATION_THREAD_COUNT;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class OperationExecutorImpl_ArrayQueueTest extends OperationExecutorImpl_AbstractTest {
+
+    @Test
+    public void whenArrayQueueEnabled_thenUsedByPartitionThreads() {
+        config.setProperty(ARRAY_QUEUE_ENABLED.getName(), "true");
+        initExecutor();
+
+        AtomicReference<OperationQueue> partitionQueue = new AtomicReference<>();
+        AtomicReference<OperationQueue> genericQueue = new AtomicReference<>();
+        executor.execute(new QueueCapturingOperation(partitionQueue).setPartitionId(0));
+        executor.execute(new QueueCapturingOperation(genericQueue).setPartitionId(-1));
+
+        assertTrueEventually(() -> {
+            assertInstanceOf(ConcurrentArrayOperationQueue.class, partitionQueue.get());
+            assertInstanceOf(OperationQueueImpl.class, genericQueue.get());
+        });
+    }
+
+    @Test
+    public void whenBlocking() {
+        testExecute("block");
+    }
+
+    @Test
+    public void whenBackoff() {
+        testExecute("backoff");
+    }
+
+    @Test
+    public void whenBusySpin() {
+        testExecute("busyspin");
+    }
+
+    private void testExecute(String idleStrategy) {
+        config.setProperty(ARRAY_QUEUE_ENABLED.getName(), "true");
+        // a small capacity, so the overflow is used as well
+        config.setProperty(ARRAY_QUEUE_CAPACITY.getName(), "16");
+        config.setProperty(ARRAY_QUEUE_BATCH_SIZE.getName(), "4");
+        config.setProperty(PARTITION_OPERATION_THREAD_COUNT.getName(), "2");
+        config.setProperty("hazelcast.operation.partitionthread.idlestrategy", idleStrategy);
+        initExecutor();
+
+        int operationCount = 1000;
+        AtomicInteger completed = new AtomicInteger();
+        for (int i = 0; i < operationCount; i++) {
+            Operation op = new Operation() {
+                @Override
+                public void run() {
+                    completed.incrementAndGet();
+                }
+            };
+            executor.execute(op.setPartitionId(i % 10));
+        }
+
+        assertTrueEventually(() -> assertEquals(operationCount, completed.get()));
+    }
+
+    private static class QueueCapturingOperation extends Operation {
+        private final AtomicReference<OperationQueue> queue;
+
+        QueueCapturingOperation(AtomicReference<OperationQueue> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            queue.set(((OperationThread) Thread.currentThread()).queue);
+        }
+    }
+}
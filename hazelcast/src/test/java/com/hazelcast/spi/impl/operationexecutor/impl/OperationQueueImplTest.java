@@ -16,6 +16,7 @@
 
 package com.hazelcast.spi.impl.operationexecutor.impl;
 
+import com.hazelcast.internal.util.concurrent.MPSCQueue;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.annotation.QuickTest;
@@ -31,19 +32,22 @@ import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category(QuickTest.class)
 public class OperationQueueImplTest extends HazelcastTestSupport {
 
     private OperationQueueImpl operationQueue;
-    private ArrayBlockingQueue<Object> normalQueue;
+    private MPSCQueue<Object> normalQueue;
     private ArrayBlockingQueue<Object> priorityQueue;
 
     @Before
     public void setup() {
-        normalQueue = new ArrayBlockingQueue<Object>(100);
+        // the partition threads use an MPSCQueue, which doesn't support removing a given task
+        normalQueue = new MPSCQueue<Object>(Thread.currentThread(), null);
         priorityQueue = new ArrayBlockingQueue<Object>(100);
         operationQueue = new OperationQueueImpl(normalQueue, priorityQueue);
     }
@@ -67,7 +71,7 @@ public class OperationQueueImplTest extends HazelcastTestSupport {
         assertEquals(1, normalQueue.size());
 
         assertSame(task, priorityQueue.iterator().next());
-        assertSame(OperationQueueImpl.TRIGGER_TASK, normalQueue.iterator().next());
+        assertSame(OperationQueueImpl.TRIGGER_TASK, normalQueue.peek());
     }
 
     @Test
@@ -75,11 +79,11 @@ public class OperationQueueImplTest extends HazelcastTestSupport {
         Object task = new Object();
         operationQueue.add(task, false);
 
-        assertContent(normalQueue, task);
         assertEmpty(priorityQueue);
         assertEquals(0, operationQueue.prioritySize());
         assertEquals(1, operationQueue.normalSize());
         assertEquals(1, operationQueue.size());
+        assertContent(normalQueue, task);
     }
 
     // ================== take =====================
@@ -217,12 +221,54 @@ public class OperationQueueImplTest extends HazelcastTestSupport {
         //assertContent(normalQueue, OperationQueueImpl.TRIGGER_TASK);
     }
 
+    // ================== isEmpty =====================
+
+    @Test
+    public void isEmpty_whenNormalOrPriorityTask_thenFalse() throws InterruptedException {
+        assertTrue(operationQueue.isEmpty());
+
+        operationQueue.add("normal", false);
+        assertFalse(operationQueue.isEmpty());
+
+        assertSame("normal", operationQueue.take(false));
+        priorityQueue.add("priority");
+        assertFalse(operationQueue.isEmpty());
+    }
+
+    @Test
+    public void isEmpty_whenOnlyTriggerTasksLeft_thenTrueAndTriggerTasksDropped() throws InterruptedException {
+        operationQueue.add("task1", true);
+        operationQueue.add("task2", true);
+
+        assertSame("task1", operationQueue.take(false));
+        assertSame("task2", operationQueue.take(false));
+
+        assertTrue(operationQueue.isEmpty());
+        assertEmpty(normalQueue);
+    }
+
+    @Test
+    public void isEmpty_whenTriggerTaskPrecedesNormalTask_thenFalse() throws InterruptedException {
+        operationQueue.add("priority", true);
+        operationQueue.add("normal", false);
+
+        assertSame("priority", operationQueue.take(false));
+
+        assertFalse(operationQueue.isEmpty());
+        assertSame("normal", normalQueue.peek());
+        assertSame("normal", operationQueue.take(false));
+    }
+
     public void assertEmpty(Queue<Object> q) {
-        assertEquals("expecting an empty operationQueue, but the operationQueue is:" + q, 0, q.size());
+        assertEquals("expecting an empty queue", 0, q.size());
     }
 
     public void assertContent(Queue<Object> q, Object... expected) {
-        List<Object> actual = new LinkedList<Object>(q);
+        // an MPSCQueue can't be iterated, so the content is taken from it
+        List<Object> actual = new LinkedList<Object>();
+        for (Object item = q.poll(); item != null; item = q.poll()) {
+            actual.add(item);
+        }
         assertEquals(Arrays.asList(expected), actual);
     }
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.core.HazelcastOverloadException;
+import com.hazelcast.internal.metrics.impl.CapturingCollector;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.Invocation.Context;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.test.HazelcastTestSupport.assertOpenEventually;
+import static com.hazelcast.test.starter.ReflectionUtils.setFieldValueReflectively;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final int PARTITION_COUNT = 2;
+    private static final int MAX_PER_PARTITION = 10;
+    private static final long LATENCY_THRESHOLD_MILLIS = 100;
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private Context context;
+
+    @Before
+    public void setup() {
+        limiter = new AdaptiveConcurrencyLimiter(PARTITION_COUNT, MAX_PER_PARTITION, 1000, LATENCY_THRESHOLD_MILLIS, 10);
+        context = new Context(null, null, null, null, null, 1000, null, null, mock(ILogger.class),
+                null, null, null, null, null, null, null, null, null, null);
+    }
+
+    @Test
+    public void acquireAndRelease() {
+        Invocation invocation = newInvocation(0);
+
+        limiter.acquire(invocation, false);
+        assertEquals(1, limiter.getPartitionLimit(0).inFlight());
+        assertEquals(0, limiter.getPartitionLimit(1).inFlight());
+
+        limiter.release(invocation);
+        assertEquals(0, limiter.getPartitionLimit(0).inFlight());
+
+        // releasing twice has no effect
+        limiter.release(invocation);
+        assertEquals(0, limiter.getPartitionLimit(0).inFlight());
+    }
+
+    @Test
+    public void release_whenLatencyAboveThreshold_thenLimitDecreased() {
+        Invocation invocation = newInvocation(0);
+
+        limiter.acquire(invocation, false);
+        invocation.limiterStartNanos -= MILLISECONDS.toNanos(2 * LATENCY_THRESHOLD_MILLIS);
+        limiter.release(invocation);
+
+        assertEquals((int) (MAX_PER_PARTITION * AdaptiveConcurrencyLimiter.DECREASE_FACTOR),
+                limiter.getPartitionLimit(0).limit());
+    }
+
+    @Test
+    public void release_whenManySlowInvocations_thenDecreasedOncePerThreshold() {
+        Invocation[] invocations = new Invocation[MAX_PER_PARTITION];
+        for (int k = 0; k < invocations.length; k++) {
+            invocations[k] = newInvocation(0);
+            limiter.acquire(invocations[k], false);
+        }
+
+        for (Invocation invocation : invocations) {
+            invocation.limiterStartNanos -= MILLISECONDS.toNanos(2 * LATENCY_THRESHOLD_MILLIS);
+            limiter.release(invocation);
+        }
+
+        assertEquals((int) (MAX_PER_PARTITION * AdaptiveConcurrencyLimiter.DECREASE_FACTOR),
+                limiter.getPartitionLimit(0).limit());
+    }
+
+    @Test
+    public void release_whenFastInvocations_thenLimitRecovers() {
+        Invocation slow = newInvocation(0);
+        limiter.acquire(slow, false);
+        slow.limiterStartNanos -= MILLISECONDS.toNanos(2 * LATENCY_THRESHOLD_MILLIS);
+        limiter.release(slow);
+        int decreasedLimit = limiter.getPartitionLimit(0).limit();
+
+        for (int round = 0; round < 100; round++) {
+            Invocation[] invocations = new Invocation[decreasedLimit];
+            for (int k = 0; k < invocations.length; k++) {
+                invocations[k] = newInvocation(0);
+                limiter.acquire(invocations[k], false);
+            }
+            for (Invocation invocation : invocations) {
+                limiter.release(invocation);
+            }
+        }
+
+        assertEquals(MAX_PER_PARTITION, limiter.getPartitionLimit(0).limit());
+    }
+
+    @Test(expected = HazelcastOverloadException.class)
+    public void acquire_whenLimitReached_thenOverload() {
+        for (int k = 0; k < MAX_PER_PARTITION; k++) {
+            limiter.acquire(newInvocation(0), false);
+        }
+
+        limiter.acquire(newInvocation(0), false);
+    }
+
+    @Test
+    public void acquire_whenLimitReachedOnOtherPartition_thenAcquired() {
+        for (int k = 0; k < MAX_PER_PARTITION; k++) {
+            limiter.acquire(newInvocation(0), false);
+        }
+
+        limiter.acquire(newInvocation(1), false);
+        assertEquals(1, limiter.getPartitionLimit(1).inFlight());
+    }
+
+    @Test
+    public void acquire_whenForced_thenLimitIgnored() {
+        for (int k = 0; k < MAX_PER_PARTITION; k++) {
+            limiter.acquire(newInvocation(0), false);
+        }
+
+        limiter.acquire(newInvocation(0), true);
+        assertEquals(MAX_PER_PARTITION + 1, limiter.getPartitionLimit(0).inFlight());
+    }
+
+    @Test
+    public void release_whenConcurrentSlowInvocations_thenLimitDecreasedWithinBounds() {
+        int threadCount = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        try {
+            for (int t = 0; t < threadCount; t++) {
+                executor.execute(() -> {
+                    for (int k = 0; k < 1000; k++) {
+                        Invocation invocation = newInvocation(0);
+                        limiter.acquire(invocation, true);
+                        invocation.limiterStartNanos -= MILLISECONDS.toNanos(2 * LATENCY_THRESHOLD_MILLIS);
+                        limiter.release(invocation);
+                    }
+                    done.countDown();
+                });
+            }
+            assertOpenEventually(done);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        AdaptiveConcurrencyLimiter.Limit limit = limiter.getPartitionLimit(0);
+        assertEquals(0, limit.inFlight());
+        assertTrue(limit.limit() >= AdaptiveConcurrencyLimiter.MIN_LIMIT);
+        assertTrue(limit.limit() <= (int) (MAX_PER_PARTITION * AdaptiveConcurrencyLimiter.DECREASE_FACTOR));
+    }
+
+    @Test
+    public void onMemberLeft_thenMemberLimitRemoved() throws Exception {
+        Address address = new Address("127.0.0.1", 5701);
+        Invocation invocation = newInvocation(0);
+        setFieldValueReflectively(invocation, "targetAddress", address);
+
+        limiter.acquire(invocation, false);
+        assertNotNull(limiter.getMemberLimit(address));
+
+        limiter.onMemberLeft(address);
+        assertNull(limiter.getMemberLimit(address));
+
+        // the invocation still releases the dropped limit
+        limiter.release(invocation);
+        assertEquals(0, limiter.getPartitionLimit(0).inFlight());
+    }
+
+    @Test
+    public void provideDynamicMetrics() {
+        MetricsRegistryImpl registry = new MetricsRegistryImpl(mock(ILogger.class), INFO);
+        registry.registerDynamicMetricsProvider(limiter);
+        limiter.acquire(newInvocation(0), false);
+
+        CapturingCollector collector = new CapturingCollector();
+        registry.collect(collector);
+
+        assertTrue(collector.captures().keySet().toString(), collector.captures().keySet().stream()
+                .anyMatch(descriptor -> "partitionLimitMin".equals(descriptor.metric())));
+        assertTrue(collector.captures().values().stream()
+                .anyMatch(capture -> capture.singleCapturedValue().equals((long) MAX_PER_PARTITION)));
+    }
+
+    private Invocation newInvocation(int partitionId) {
+        Operation op = new DummyOperation();
+        op.setPartitionId(partitionId);
+        return new PartitionInvocation(context, op, 0, 0, 0, false, false);
+    }
+}
@@ -36,10 +36,13 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ADAPTIVE_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.BACKPRESSURE_SYNCWINDOW;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -125,6 +128,37 @@ public class BackpressureRegulatorTest extends HazelcastTestSupport {
 
     // ========================== isSyncForced =================
 
+    @Test
+    public void newAdaptiveConcurrencyLimiter_whenAdaptiveDisabled() {
+        BackpressureRegulator regulator = newEnabledBackPressureService();
+
+        assertNull(regulator.newAdaptiveConcurrencyLimiter());
+    }
+
+    @Test
+    public void newAdaptiveConcurrencyLimiter_whenBackPressureDisabled() {
+        Config config = new Config();
+        config.setProperty(BACKPRESSURE_ADAPTIVE_ENABLED.getName(), "true");
+        HazelcastProperties hazelcastProperties = new HazelcastProperties(config);
+        BackpressureRegulator regulator = new BackpressureRegulator(hazelcastProperties, logger);
+
+        assertNull(regulator.newAdaptiveConcurrencyLimiter());
+    }
+
+    @Test
+    public void newAdaptiveConcurrencyLimiter_whenAdaptiveEnabled() {
+        Config config = new Config();
+        config.setProperty(BACKPRESSURE_ENABLED.getName(), "true");
+        config.setProperty(BACKPRESSURE_ADAPTIVE_ENABLED.getName(), "true");
+        HazelcastProperties hazelcastProperties = new HazelcastProperties(config);
+        BackpressureRegulator regulator = new BackpressureRegulator(hazelcastProperties, logger);
+
+        AdaptiveConcurrencyLimiter limiter = regulator.newAdaptiveConcurrencyLimiter();
+
+        assertNotNull(limiter);
+        assertEquals(100, limiter.getPartitionLimit(0).limit());
+    }
+
     @Test
     public void isSyncForced_whenUrgentOperation_thenFalse() {
         BackpressureRegulator regulator = newEnabledBackPressureService();
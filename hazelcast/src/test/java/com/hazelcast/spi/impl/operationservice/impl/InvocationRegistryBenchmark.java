@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.spi.impl.operationservice.impl.Invocation.Context;
+import com.hazelcast.spi.impl.sequence.CallIdSequence;
+import com.hazelcast.spi.impl.sequence.CallIdSequenceWithoutBackpressure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the register/lookup/deregister path of the {@link InvocationRegistry}, compared
+ * to the same path on a {@link ConcurrentHashMap} keyed by boxed call IDs.
+ * <p>
+ * Run it with the GC profiler to see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@SuppressWarnings("unused")
+public class InvocationRegistryBenchmark {
+
+    private static final int THREAD_COUNT = 4;
+    private static final int WARMUP_ITERATIONS_COUNT = 5;
+    private static final int MEASUREMENT_ITERATIONS_COUNT = 10;
+
+    private final ILogger logger = Logger.getLogger(InvocationRegistryBenchmark.class);
+    private final CallIdSequence callIdSequence = new CallIdSequenceWithoutBackpressure();
+    private final InvocationRegistry invocationRegistry = new InvocationRegistry(logger, callIdSequence);
+    private final ConcurrentMap<Long, Invocation> concurrentHashMap = new ConcurrentHashMap<>();
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private Invocation invocation;
+
+        @Setup
+        public void setup(InvocationRegistryBenchmark benchmark) {
+            Context context = new Context(null, null, null, null, null,
+                    1000, benchmark.invocationRegistry, null, benchmark.logger,
+                    null, null, null, null, null, null, null, null, null, null);
+            invocation = new PartitionInvocation(context, new DummyOperation(), 0, 0, 0, false, false);
+        }
+    }
+
+    @Benchmark
+    public Invocation invocationRegistry(ThreadState state) {
+        Invocation invocation = state.invocation;
+        invocationRegistry.register(invocation);
+        Invocation found = invocationRegistry.get(invocation.op.getCallId());
+        invocationRegistry.deregister(invocation);
+        return found;
+    }
+
+    @Benchmark
+    public Invocation concurrentHashMap(ThreadState state) {
+        long callId = callIdSequence.next();
+        concurrentHashMap.put(callId, state.invocation);
+        Invocation found = concurrentHashMap.get(callId);
+        concurrentHashMap.remove(callId);
+        return found;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(InvocationRegistryBenchmark.class.getSimpleName())
+                .threads(THREAD_COUNT)
+                .warmupIterations(WARMUP_ITERATIONS_COUNT)
+                .measurementIterations(MEASUREMENT_ITERATIONS_COUNT)
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -32,6 +32,10 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -189,4 +193,120 @@ public class InvocationRegistryTest extends HazelcastTestSupport {
 
         assertNull(invocationRegistry.get(callId));
     }
+
+    // ===================== stripes ============================
+
+    @Test
+    public void register_whenManyInvocations_thenSpreadOverStripes() {
+        invocationRegistry = new InvocationRegistry(logger,
+                new CallIdSequenceWithBackpressure(100, 1000, ConcurrencyDetection.createDisabled()), null, 4);
+        List<Invocation> invocations = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Invocation invocation = newInvocation();
+            invocationRegistry.register(invocation);
+            invocations.add(invocation);
+        }
+
+        assertEquals(100, invocationRegistry.size());
+        assertEquals(100, invocationRegistry.entrySet().size());
+        for (Invocation invocation : invocations) {
+            assertSame(invocation, invocationRegistry.get(invocation.op.getCallId()));
+        }
+
+        for (Invocation invocation : invocations) {
+            invocationRegistry.deregister(invocation);
+            assertNull(invocationRegistry.get(invocation.op.getCallId()));
+        }
+        assertEquals(0, invocationRegistry.size());
+    }
+
+    @Test
+    public void register_whenManyDeregistered_thenTablesRebuilt() {
+        invocationRegistry = new InvocationRegistry(logger,
+                new CallIdSequenceWithBackpressure(100, 1000, ConcurrencyDetection.createDisabled()), null, 4);
+        // an invocation that stays registered while the deregistered ones are dropped from the tables
+        Invocation longRunning = newInvocation();
+        invocationRegistry.register(longRunning);
+
+        for (int i = 0; i < 10000; i++) {
+            Invocation invocation = newInvocation();
+            invocationRegistry.register(invocation);
+            assertSame(invocation, invocationRegistry.get(invocation.op.getCallId()));
+            invocationRegistry.deregister(invocation);
+            assertNull(invocationRegistry.get(invocation.op.getCallId()));
+        }
+
+        assertEquals(1, invocationRegistry.size());
+        assertSame(longRunning, invocationRegistry.get(longRunning.op.getCallId()));
+    }
+
+    @Test
+    public void register_whenDeregisteredInBetween_thenSlotsReusedWithoutRebuild() {
+        invocationRegistry = new InvocationRegistry(logger,
+                new CallIdSequenceWithBackpressure(100, 1000, ConcurrencyDetection.createDisabled()), null, 4);
+        // a few invocations stay registered for a while, so a call ID doesn't always find its own slot free
+        Deque<Invocation> pending = new ArrayDeque<>();
+        for (int i = 0; i < 10000; i++) {
+            Invocation invocation = newInvocation();
+            invocationRegistry.register(invocation);
+            pending.add(invocation);
+            if (pending.size() > 20) {
+                Invocation oldest = pending.poll();
+                assertSame(oldest, invocationRegistry.get(oldest.op.getCallId()));
+                invocationRegistry.deregister(oldest);
+                assertNull(invocationRegistry.get(oldest.op.getCallId()));
+            }
+        }
+
+        assertEquals(0, invocationRegistry.rebuildCount());
+        assertEquals(pending.size(), invocationRegistry.size());
+        for (Invocation invocation : pending) {
+            assertSame(invocation, invocationRegistry.get(invocation.op.getCallId()));
+        }
+    }
+
+    @Test
+    public void get_whenAbsentAfterTableWrappedAround_thenProbingBoundedByLongestDisplacement() {
+        invocationRegistry = new InvocationRegistry(logger,
+                new CallIdSequenceWithBackpressure(100, 1000, ConcurrencyDetection.createDisabled()), null, 4);
+        Invocation longRunning = newInvocation();
+        invocationRegistry.register(longRunning);
+        long firstCallId = -1;
+        long lastCallId = -1;
+        // far more call IDs than slots, so the tables wrap around and have no empty slot left
+        for (int i = 0; i < 10000; i++) {
+            Invocation invocation = newInvocation();
+            invocationRegistry.register(invocation);
+            if (firstCallId == -1) {
+                firstCallId = invocation.op.getCallId();
+            }
+            lastCallId = invocation.op.getCallId();
+            invocationRegistry.deregister(invocation);
+        }
+
+        // only the call IDs that start probing at the slot of the long running invocation are displaced
+        assertEquals(1, invocationRegistry.maxProbe());
+        assertEquals(0, invocationRegistry.rebuildCount());
+        assertNull(invocationRegistry.get(firstCallId));
+        assertNull(invocationRegistry.get(lastCallId + 1));
+        assertSame(longRunning, invocationRegistry.get(longRunning.op.getCallId()));
+    }
+
+    @Test
+    public void iterator_whenDeregisteredWhileIterating_thenNoException() {
+        invocationRegistry = new InvocationRegistry(logger,
+                new CallIdSequenceWithBackpressure(100, 1000, ConcurrencyDetection.createDisabled()), null, 4);
+        for (int i = 0; i < 10; i++) {
+            invocationRegistry.register(newInvocation());
+        }
+
+        int count = 0;
+        for (Invocation invocation : invocationRegistry) {
+            invocationRegistry.deregister(invocation);
+            count++;
+        }
+
+        assertEquals(10, count);
+        assertEquals(0, invocationRegistry.size());
+    }
 }
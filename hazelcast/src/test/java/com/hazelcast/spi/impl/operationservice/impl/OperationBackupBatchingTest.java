@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.map.IMap;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.impl.operationservice.impl.operations.BackupBatch;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.test.backup.BackupAccessor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BACKUP_BATCH_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_BACKUP_BATCH_WINDOW_MICROS;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static com.hazelcast.test.backup.TestBackupUtils.assertBackupEntryEqualsEventually;
+import static com.hazelcast.test.backup.TestBackupUtils.assertBackupSizeEventually;
+import static com.hazelcast.test.backup.TestBackupUtils.newMapAccessor;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationBackupBatchingTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private HazelcastInstance[] cluster;
+    private IMap<Integer, Integer> map;
+    private BackupAccessor<Integer, Integer> backupAccessor;
+
+    @Before
+    public void setup() {
+        Config config = smallInstanceConfig()
+                .setProperty(OPERATION_BACKUP_BATCH_SIZE.getName(), "8")
+                .setProperty(OPERATION_BACKUP_BATCH_WINDOW_MICROS.getName(), "1000");
+        String mapName = randomMapName();
+        config.getMapConfig(mapName).setBackupCount(1);
+
+        cluster = createHazelcastInstanceFactory(2).newInstances(config);
+        warmUpPartitions(cluster);
+        map = cluster[0].getMap(mapName);
+        backupAccessor = newMapAccessor(cluster, mapName);
+    }
+
+    @Test
+    public void testBatcherCreated() {
+        for (HazelcastInstance instance : cluster) {
+            assertNotNull(getOperationService(instance).backupBatcher);
+        }
+    }
+
+    @Test
+    public void testSyncPuts() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertNull(map.put(i, i));
+        }
+
+        assertEquals(ENTRY_COUNT, map.size());
+        assertBackupSizeEventually(ENTRY_COUNT, backupAccessor);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertBackupEntryEqualsEventually(i, i, backupAccessor);
+        }
+    }
+
+    @Test
+    public void testAsyncPuts() throws Exception {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            futures.add(map.putAsync(i, i).toCompletableFuture());
+        }
+        for (CompletableFuture<Integer> future : futures) {
+            assertNull(future.get());
+        }
+
+        assertBackupSizeEventually(ENTRY_COUNT, backupAccessor);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertBackupEntryEqualsEventually(i, i, backupAccessor);
+        }
+    }
+
+    @Test
+    public void testAsyncPuts_sameKey_backupsAppliedInOrder() throws Exception {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            futures.add(map.putAsync(0, i).toCompletableFuture());
+        }
+        for (CompletableFuture<Integer> future : futures) {
+            future.get();
+        }
+
+        assertEquals(ENTRY_COUNT - 1, (int) map.get(0));
+        assertBackupEntryEqualsEventually(0, ENTRY_COUNT - 1, backupAccessor);
+    }
+
+    @Test
+    public void testPendingBackupsFlushed() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.setAsync(i, i);
+        }
+
+        for (HazelcastInstance instance : cluster) {
+            BackupBatcher backupBatcher = getOperationService(instance).backupBatcher;
+            assertTrueEventually(() -> assertEquals(0, backupBatcher.pendingCount()));
+        }
+        assertBackupSizeEventually(ENTRY_COUNT, backupAccessor);
+    }
+
+    @Test
+    public void testFlushThreadParkedWhenIdle() {
+        map.set(1, 1);
+
+        for (HazelcastInstance instance : cluster) {
+            BackupBatcher backupBatcher = getOperationService(instance).backupBatcher;
+            assertTrueEventually(() -> assertEquals(Thread.State.WAITING, backupBatcher.flushThreadState()));
+        }
+    }
+
+    @Test
+    public void testShutdown_sendsPendingBackups() throws Exception {
+        OutboundOperationHandler outboundOperationHandler = mock(OutboundOperationHandler.class);
+        when(outboundOperationHandler.send(any(Operation.class), any(Address.class))).thenReturn(true);
+        BackupBatcher backupBatcher = new BackupBatcher(outboundOperationHandler, 271, 8, SECONDS.toNanos(60),
+                "test", Logger.getLogger(BackupBatcher.class));
+        Address target = new Address("127.0.0.1", 5701);
+        for (int i = 0; i < 3; i++) {
+            Backup backup = new Backup();
+            backup.setPartitionId(1);
+            backupBatcher.send(backup, target);
+        }
+        assertEquals(3, backupBatcher.pendingCount());
+
+        backupBatcher.shutdown();
+
+        assertEquals(0, backupBatcher.pendingCount());
+        verify(outboundOperationHandler).send(any(BackupBatch.class), eq(target));
+    }
+}
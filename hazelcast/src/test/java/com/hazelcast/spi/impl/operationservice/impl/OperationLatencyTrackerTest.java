@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.metrics.MetricDescriptor;
+import com.hazelcast.internal.metrics.impl.CapturingCollector;
+import com.hazelcast.internal.util.LatencyHistogram.Snapshot;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.operation.PutOperation;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_LATENCY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_METRIC_LATENCY_P99;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_LATENCY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.OPERATION_PREFIX_LATENCY_OBJECT;
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_LATENCY_HISTOGRAMS_ENABLED;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static com.hazelcast.test.Accessors.getOperationService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationLatencyTrackerTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 100;
+
+    @Test
+    public void whenDisabled_thenNoTracker() {
+        HazelcastInstance hz = createHazelcastInstance(smallInstanceConfig());
+
+        assertNull(getOperationService(hz).latencyTracker);
+    }
+
+    @Test
+    public void whenEnabled_thenLatencyRecorded() {
+        HazelcastInstance hz = createHazelcastInstance(newConfig());
+        IMap<Integer, Integer> map = hz.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        OperationLatencyTracker tracker = getOperationService(hz).latencyTracker;
+        Snapshot perOperation = tracker.getHistogram(PutOperation.class).getIntervalSnapshot();
+        Snapshot perMap = tracker.getHistogram(MapService.SERVICE_NAME, map.getName()).getIntervalSnapshot();
+        assertEquals(ENTRY_COUNT, perOperation.count());
+        assertTrue(perMap.count() >= ENTRY_COUNT);
+        assertTrue(perOperation.valueAtPercentile(99) > 0);
+    }
+
+    @Test
+    public void whenObjectDestroyed_thenLatencyRemoved() {
+        HazelcastInstance hz = createHazelcastInstance(newConfig());
+        IMap<Integer, Integer> map = hz.getMap(randomMapName());
+        map.put(1, 1);
+        OperationLatencyTracker tracker = getOperationService(hz).latencyTracker;
+        assertNotNull(tracker.getHistogram(MapService.SERVICE_NAME, map.getName()));
+
+        map.destroy();
+
+        assertTrueEventually(() -> assertNull(tracker.getHistogram(MapService.SERVICE_NAME, map.getName())));
+    }
+
+    @Test
+    public void whenEnabled_thenPublishedAsMetrics() {
+        HazelcastInstance hz = createHazelcastInstance(newConfig());
+        IMap<Integer, Integer> map = hz.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        CapturingCollector collector = new CapturingCollector();
+        NodeEngineImpl nodeEngine = getNodeEngineImpl(hz);
+        nodeEngine.getMetricsRegistry().collect(collector);
+
+        boolean operationCaptured = false;
+        boolean mapCaptured = false;
+        for (MetricDescriptor descriptor : collector.captures().keySet()) {
+            if (OPERATION_PREFIX_LATENCY.equals(descriptor.prefix())
+                    && PutOperation.class.getName().equals(descriptor.discriminatorValue())
+                    && OPERATION_METRIC_LATENCY_COUNT.equals(descriptor.metric())) {
+                assertEquals(ENTRY_COUNT, collector.captures().get(descriptor).singleCapturedValue().longValue());
+                operationCaptured = true;
+            } else if (OPERATION_PREFIX_LATENCY_OBJECT.equals(descriptor.prefix())
+                    && map.getName().equals(descriptor.discriminatorValue())
+                    && OPERATION_METRIC_LATENCY_P99.equals(descriptor.metric())) {
+                assertTrue(collector.captures().get(descriptor).singleCapturedValue().longValue() > 0);
+                mapCaptured = true;
+            }
+        }
+        assertTrue(operationCaptured);
+        assertTrue(mapCaptured);
+    }
+
+    private Config newConfig() {
+        return smallInstanceConfig()
+                .setProperty(OPERATION_LATENCY_HISTOGRAMS_ENABLED.getName(), "true");
+    }
+}
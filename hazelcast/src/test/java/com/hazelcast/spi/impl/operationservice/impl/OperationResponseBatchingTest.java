@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_RESPONSE_BATCH_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OperationResponseBatchingTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 5000;
+
+    private HazelcastInstance local;
+    private HazelcastInstance remote;
+    private IMap<Integer, Integer> map;
+
+    @Before
+    public void setup() {
+        Config config = smallInstanceConfig()
+                .setProperty(OPERATION_RESPONSE_BATCH_SIZE.getName(), "16");
+        HazelcastInstance[] cluster = createHazelcastInstanceFactory(2).newInstances(config);
+        warmUpPartitions(cluster);
+        local = cluster[0];
+        remote = cluster[1];
+        map = local.getMap(randomMapName());
+    }
+
+    @Test
+    public void testAsyncCalls() throws Exception {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            futures.add(map.putAsync(i, i).toCompletableFuture());
+        }
+        for (CompletableFuture<Integer> future : futures) {
+            assertNull(future.get());
+        }
+
+        futures.clear();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            futures.add(map.getAsync(i).toCompletableFuture());
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) futures.get(i).get());
+        }
+    }
+
+    @Test
+    public void testAsyncCalls_sameKey() throws Exception {
+        // a key owned by the remote member, so all the responses are sent by the same partition thread
+        String key = generateKeyOwnedBy(remote);
+        IMap<String, Integer> localMap = local.getMap(map.getName());
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            futures.add(localMap.putAsync(key, i).toCompletableFuture());
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Integer previous = futures.get(i).get();
+            assertEquals(i == 0 ? null : i - 1, previous);
+        }
+        assertEquals(ENTRY_COUNT - 1, (int) localMap.get(key));
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.spi.impl.operationservice.impl;
 
+import com.hazelcast.client.impl.protocol.task.MessageTask;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.nio.Packet;
@@ -36,6 +37,7 @@ import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hazelcast.internal.util.counters.SwCounter.newSwCounter;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
@@ -43,8 +45,11 @@ import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallT
 import static com.hazelcast.test.Accessors.getClusterService;
 import static com.hazelcast.test.Accessors.getOperationService;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -101,6 +106,29 @@ public class OperationRunnerImplTest extends HazelcastTestSupport {
         verify(responseHandler).sendResponse(op, response);
     }
 
+    @Test
+    public void runOperation_whenRunFromTask_thenEnclosingTaskRestored() {
+        AtomicReference<Object> taskAfterOperation = new AtomicReference<>();
+        Operation op = new Operation() {
+            @Override
+            public void run() {
+            }
+        };
+        op.setPartitionId(operationRunner.getPartitionId());
+        op.setOperationResponseHandler(responseHandler);
+        MessageTask task = mock(MessageTask.class);
+        doAnswer(invocation -> {
+            operationRunner.run(op);
+            taskAfterOperation.set(operationRunner.currentTask());
+            return null;
+        }).when(task).run();
+
+        operationRunner.run(task);
+
+        assertSame(task, taskAfterOperation.get());
+        assertNull(operationRunner.currentTask());
+    }
+
     @Test
     public void runOperation_whenGeneric() {
         final AtomicLong counter = new AtomicLong();
@@ -19,9 +19,11 @@ package com.hazelcast.spi.impl.operationservice.impl;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.internal.serialization.impl.bufferpool.ByteArrayPool;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
 import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.nio.Bits;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.internal.nio.EndpointManager;
 import com.hazelcast.internal.nio.Packet;
@@ -30,6 +32,7 @@ import com.hazelcast.nio.serialization.PortableReader;
 import com.hazelcast.nio.serialization.PortableWriter;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.impl.responses.BackupAckResponse;
+import com.hazelcast.spi.impl.operationservice.impl.responses.BatchBackupAckResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
 import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
@@ -48,12 +51,19 @@ import org.mockito.ArgumentCaptor;
 
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.BATCH_RESPONSE;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallId;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setCallerAddress;
 import static com.hazelcast.spi.impl.operationservice.OperationAccessor.setConnection;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchResponse.OFFSET_RESPONSES;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchResponse.OFFSET_RESPONSE_COUNT;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_TYPE_ID;
 import static java.nio.ByteOrder.BIG_ENDIAN;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
@@ -216,6 +226,40 @@ public class OutboundResponseHandlerTest {
         assertEquals(expected, new HeapData(packet.toByteArray()));
     }
 
+    @Test
+    public void toBatchBackupAckPacket() {
+        testToBatchBackupAckPacket(new long[]{1}, false);
+        testToBatchBackupAckPacket(new long[]{1, 2, 3}, true);
+    }
+
+    private void testToBatchBackupAckPacket(long[] callIds, boolean urgent) {
+        Packet packet = handler.toBatchBackupAckPacket(callIds, urgent);
+        HeapData expected = serializationService.toData(new BatchBackupAckResponse(callIds, urgent));
+        assertEquals(expected, new HeapData(packet.toByteArray()));
+    }
+
+    @Test
+    public void toBatchResponsePacket() {
+        Packet first = handler.toNormalResponsePacket(1, 0, false, "foo");
+        Packet second = handler.toBackupAckPacket(2, false);
+        Packet third = handler.toNormalResponsePacket(3, 1, false, null);
+
+        Packet packet = handler.toBatchResponsePacket(asList(first, second, third));
+
+        boolean useBigEndian = byteOrder == BIG_ENDIAN;
+        byte[] bytes = packet.toByteArray();
+        assertEquals(BATCH_RESPONSE, Bits.readInt(bytes, OFFSET_TYPE_ID, useBigEndian));
+        assertEquals(3, Bits.readInt(bytes, OFFSET_RESPONSE_COUNT, useBigEndian));
+        int offset = OFFSET_RESPONSES;
+        for (Packet response : asList(first, second, third)) {
+            int length = Bits.readInt(bytes, offset, useBigEndian);
+            offset += Bits.INT_SIZE_IN_BYTES;
+            assertArrayEquals(response.toByteArray(), Arrays.copyOfRange(bytes, offset, offset + length));
+            offset += length;
+        }
+        assertEquals(bytes.length, offset);
+    }
+
     @Test
     public void toNormalResponsePacket_whenNormalValues() {
         testToNormalResponsePacket("foo", 1, 0, false);
@@ -233,6 +277,19 @@ public class OutboundResponseHandlerTest {
         testToNormalResponsePacket(serializationService.toBytes("foobar"), 1, 2, false);
     }
 
+    @Test
+    public void toNormalResponsePacket_whenPooledBytes() throws Exception {
+        ByteArrayPool pool = new ByteArrayPool(1024, 8192, 1);
+        handler = new OutboundResponseHandler(new Address("127.0.0.1", 5701), serializationService, logger, pool);
+
+        Packet packet = handler.toNormalResponsePacket(1, 2, false, "foo");
+
+        HeapData expected = serializationService.toData(new NormalResponse("foo", 1, 2, false));
+        assertEquals(packet.totalSize(), packet.toByteArray().length);
+        assertEquals(expected, new HeapData(packet.toByteArray()));
+        packet.release();
+    }
+
     private void testToNormalResponsePacket(Object value, int callId, int backupAcks, boolean urgent) {
         Packet packet = handler.toNormalResponsePacket(callId, backupAcks, urgent, value);
         HeapData expected = serializationService.toData(new NormalResponse(value, callId, backupAcks, urgent));
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2008-2020, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.nio.Bits;
+import com.hazelcast.internal.nio.EndpointManager;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hazelcast.spi.impl.SpiDataSerializerHook.BATCH_RESPONSE;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchResponse.OFFSET_RESPONSES;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.BatchResponse.OFFSET_RESPONSE_COUNT;
+import static com.hazelcast.spi.impl.operationservice.impl.responses.Response.OFFSET_TYPE_ID;
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ResponseBufferTest {
+
+    private static final int BATCH_SIZE = 4;
+
+    private final List<Packet> transmitted = new ArrayList<>();
+    private InternalSerializationService serializationService;
+    private OutboundResponseHandler handler;
+    private EndpointManager endpointManager;
+    private Address target;
+    private ResponseBuffer buffer;
+
+    @Before
+    public void setup() throws Exception {
+        Address thisAddress = new Address("127.0.0.1", 5701);
+        target = new Address("127.0.0.1", 5702);
+        serializationService = new DefaultSerializationServiceBuilder().setByteOrder(BIG_ENDIAN).build();
+        handler = new OutboundResponseHandler(thisAddress, serializationService,
+                Logger.getLogger(ResponseBufferTest.class));
+        endpointManager = mock(EndpointManager.class);
+        when(endpointManager.transmit(any(Packet.class), eq(target))).then(invocation -> {
+            transmitted.add(invocation.getArgument(0));
+            return true;
+        });
+        buffer = new ResponseBuffer(handler, BATCH_SIZE);
+    }
+
+    @Test
+    public void transmit_whenNotFull_thenBuffered() {
+        assertTrue(buffer.transmit(target, response(1), endpointManager));
+
+        assertFalse(buffer.isEmpty());
+        assertEquals(0, transmitted.size());
+    }
+
+    @Test
+    public void flush_whenSingleResponse_thenSentAsIs() {
+        Packet response = response(1);
+        buffer.transmit(target, response, endpointManager);
+
+        buffer.flush();
+
+        assertTrue(buffer.isEmpty());
+        assertEquals(1, transmitted.size());
+        assertSame(response, transmitted.get(0));
+    }
+
+    @Test
+    public void flush_whenMultipleResponses_thenSentAsBatchInOrder() {
+        List<Packet> responses = new ArrayList<>();
+        for (int i = 1; i < BATCH_SIZE; i++) {
+            Packet response = response(i);
+            responses.add(response);
+            buffer.transmit(target, response, endpointManager);
+        }
+
+        buffer.flush();
+
+        assertEquals(1, transmitted.size());
+        assertBatch(responses, transmitted.get(0));
+    }
+
+    @Test
+    public void transmit_whenFull_thenSent() {
+        List<Packet> responses = new ArrayList<>();
+        for (int i = 1; i <= BATCH_SIZE; i++) {
+            Packet response = response(i);
+            responses.add(response);
+            buffer.transmit(target, response, endpointManager);
+        }
+
+        assertTrue(buffer.isEmpty());
+        assertEquals(1, transmitted.size());
+        assertBatch(responses, transmitted.get(0));
+    }
+
+    @Test
+    public void transmit_whenUrgent_thenBufferedResponsesSentFirst() {
+        Packet response = response(1);
+        buffer.transmit(target, response, endpointManager);
+        Packet urgent = handler.toBackupAckPacket(2, true);
+
+        buffer.transmit(target, urgent, endpointManager);
+
+        assertTrue(buffer.isEmpty());
+        assertEquals(2, transmitted.size());
+        assertSame(response, transmitted.get(0));
+        assertSame(urgent, transmitted.get(1));
+    }
+
+    @Test
+    public void transmit_whenMemberLeft_thenTargetsPruned() throws Exception {
+        Address other = new Address("127.0.0.1", 5703);
+        buffer.transmit(target, response(1), endpointManager);
+        buffer.transmit(other, response(2), endpointManager);
+        buffer.flush();
+        assertEquals(2, buffer.targetCount());
+
+        handler.onMemberLeft();
+        buffer.transmit(target, response(3), endpointManager);
+
+        assertEquals(1, buffer.targetCount());
+        assertFalse(buffer.isEmpty());
+    }
+
+    @Test
+    public void transmit_whenMemberLeft_thenBufferedResponsesSentFirst() {
+        Packet response = response(1);
+        buffer.transmit(target, response, endpointManager);
+
+        handler.onMemberLeft();
+        buffer.transmit(target, response(2), endpointManager);
+
+        assertEquals(1, transmitted.size());
+        assertSame(response, transmitted.get(0));
+    }
+
+    private Packet response(long callId) {
+        return handler.toNormalResponsePacket(callId, 0, false, "value" + callId);
+    }
+
+    private void assertBatch(List<Packet> expected, Packet batch) {
+        byte[] bytes = batch.toByteArray();
+        assertEquals(BATCH_RESPONSE, Bits.readIntB(bytes, OFFSET_TYPE_ID));
+        assertEquals(expected.size(), Bits.readIntB(bytes, OFFSET_RESPONSE_COUNT));
+        int offset = OFFSET_RESPONSES;
+        for (Packet response : expected) {
+            int length = Bits.readIntB(bytes, offset);
+            offset += Bits.INT_SIZE_IN_BYTES;
+            assertArrayEquals(response.toByteArray(), Arrays.copyOfRange(bytes, offset, offset + length));
+            offset += length;
+        }
+        assertEquals(bytes.length, offset);
+    }
+}
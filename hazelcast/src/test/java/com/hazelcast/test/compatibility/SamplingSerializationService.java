@@ -189,6 +189,11 @@ public class SamplingSerializationService implements InternalSerializationServic
         return delegate.getByteOrder();
     }
 
+    @Override
+    public int getPartitionHash(Object obj) {
+        return delegate.getPartitionHash(obj);
+    }
+
     @Override
     public byte getVersion() {
         return delegate.getVersion();